@@ -0,0 +1,97 @@
+/*
+ * Copyright 2020-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.onosproject.mlb;
+
+import java.util.Objects;
+
+import static com.google.common.base.MoreObjects.toStringHelper;
+
+/**
+ * Load signals of a device, as reported by its master.
+ */
+public final class DeviceLoad {
+
+    private final int flowCount;
+    private final double packetInRate;
+
+    /**
+     * Creates a new device load.
+     *
+     * @param flowCount    number of flow rules of the device
+     * @param packetInRate rate of packet-in messages of the device, per second
+     */
+    public DeviceLoad(int flowCount, double packetInRate) {
+        this.flowCount = flowCount;
+        this.packetInRate = packetInRate;
+    }
+
+    /**
+     * Returns the number of flow rules of the device.
+     *
+     * @return flow count
+     */
+    public int flowCount() {
+        return flowCount;
+    }
+
+    /**
+     * Returns the rate of packet-in messages of the device.
+     *
+     * @return packet-ins per second
+     */
+    public double packetInRate() {
+        return packetInRate;
+    }
+
+    /**
+     * Returns the load of the device as a single figure. An idle device
+     * weighs 1, each signal adds its weighted value.
+     *
+     * @param flowWeight     weight of a flow rule
+     * @param packetInWeight weight of a packet-in per second
+     * @return device load
+     */
+    public double load(double flowWeight, double packetInWeight) {
+        return 1 + flowWeight * flowCount + packetInWeight * packetInRate;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(flowCount, packetInRate);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (obj instanceof DeviceLoad) {
+            DeviceLoad that = (DeviceLoad) obj;
+            return flowCount == that.flowCount &&
+                    Double.compare(packetInRate, that.packetInRate) == 0;
+        }
+        return false;
+    }
+
+    @Override
+    public String toString() {
+        return toStringHelper(this)
+                .add("flowCount", flowCount)
+                .add("packetInRate", packetInRate)
+                .toString();
+    }
+}
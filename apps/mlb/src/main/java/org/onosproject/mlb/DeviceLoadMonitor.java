@@ -0,0 +1,229 @@
+/*
+ * Copyright 2020-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.onosproject.mlb;
+
+import com.google.common.collect.Maps;
+import org.onlab.util.KryoNamespace;
+import org.onlab.util.Tools;
+import org.onosproject.cfg.ComponentConfigService;
+import org.onosproject.mastership.MastershipService;
+import org.onosproject.net.Device;
+import org.onosproject.net.DeviceId;
+import org.onosproject.net.device.DeviceService;
+import org.onosproject.net.flow.FlowRuleService;
+import org.onosproject.net.packet.PacketContext;
+import org.onosproject.net.packet.PacketProcessor;
+import org.onosproject.net.packet.PacketService;
+import org.onosproject.store.serializers.KryoNamespaces;
+import org.onosproject.store.service.EventuallyConsistentMap;
+import org.onosproject.store.service.StorageService;
+import org.onosproject.store.service.WallClockTimestamp;
+import org.osgi.service.component.ComponentContext;
+import org.osgi.service.component.annotations.Activate;
+import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Deactivate;
+import org.osgi.service.component.annotations.Modified;
+import org.osgi.service.component.annotations.Reference;
+import org.osgi.service.component.annotations.ReferenceCardinality;
+import org.slf4j.Logger;
+
+import java.util.Map;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static java.util.concurrent.Executors.newSingleThreadScheduledExecutor;
+import static org.onlab.util.Tools.groupedThreads;
+import static org.onosproject.mlb.OsgiPropertyConstants.LOAD_REPORT_PERIOD;
+import static org.onosproject.mlb.OsgiPropertyConstants.LOAD_REPORT_PERIOD_DEFAULT;
+import static org.slf4j.LoggerFactory.getLogger;
+
+/**
+ * Measures the load of the devices mastered by the local node and shares it
+ * with the cluster. The load of a device is made of its number of flow rules
+ * and of its rate of packet-in messages, both observed by its master.
+ * <p>
+ * The monitor is idle until started by the mastership load balancer, which
+ * does so only when the load-aware balancing is enabled.
+ */
+@Component(
+    immediate = true,
+    service = DeviceLoadMonitor.class,
+    property = {
+        LOAD_REPORT_PERIOD + ":Integer=" + LOAD_REPORT_PERIOD_DEFAULT
+    }
+)
+public class DeviceLoadMonitor {
+
+    private final Logger log = getLogger(getClass());
+
+    private static final String DEVICE_LOADS = "onos-mlb-device-loads";
+
+    /** Period in seconds to report the load of the locally mastered devices. */
+    private int loadReportPeriod = LOAD_REPORT_PERIOD_DEFAULT;
+
+    @Reference(cardinality = ReferenceCardinality.MANDATORY)
+    protected StorageService storageService;
+
+    @Reference(cardinality = ReferenceCardinality.MANDATORY)
+    protected DeviceService deviceService;
+
+    @Reference(cardinality = ReferenceCardinality.MANDATORY)
+    protected MastershipService mastershipService;
+
+    @Reference(cardinality = ReferenceCardinality.MANDATORY)
+    protected FlowRuleService flowRuleService;
+
+    @Reference(cardinality = ReferenceCardinality.MANDATORY)
+    protected PacketService packetService;
+
+    @Reference(cardinality = ReferenceCardinality.MANDATORY)
+    protected ComponentConfigService cfgService;
+
+    private volatile EventuallyConsistentMap<DeviceId, DeviceLoad> deviceLoads;
+
+    private final Map<DeviceId, AtomicLong> packetIns = Maps.newConcurrentMap();
+    private final PacketProcessor packetInCounter = new PacketInCounter();
+
+    private ScheduledExecutorService executor;
+    private ScheduledFuture<?> reportTask;
+    private long lastReport;
+    private boolean started;
+
+    @Activate
+    public void activate(ComponentContext context) {
+        cfgService.registerProperties(getClass());
+        executor = newSingleThreadScheduledExecutor(groupedThreads("onos/mlb", "load-monitor", log));
+        modified(context);
+        log.info("Activated");
+    }
+
+    @Deactivate
+    public void deactivate() {
+        cfgService.unregisterProperties(getClass(), false);
+        stop();
+        executor.shutdownNow();
+        log.info("Deactivated");
+    }
+
+    @Modified
+    public synchronized void modified(ComponentContext context) {
+        Integer newPeriod = context == null ? null :
+                Tools.getIntegerProperty(context.getProperties(), LOAD_REPORT_PERIOD);
+        loadReportPeriod = newPeriod == null || newPeriod <= 0 ? LOAD_REPORT_PERIOD_DEFAULT : newPeriod;
+        if (started) {
+            scheduleReports();
+        }
+        log.info("Configured. Load report period is {} seconds", loadReportPeriod);
+    }
+
+    /**
+     * Starts measuring and reporting the load of the locally mastered devices.
+     * Does nothing if the monitor is already started.
+     */
+    public synchronized void start() {
+        if (started) {
+            return;
+        }
+        KryoNamespace.Builder serializer = KryoNamespace.newBuilder()
+                .register(KryoNamespaces.API)
+                .register(DeviceLoad.class);
+        deviceLoads = storageService.<DeviceId, DeviceLoad>eventuallyConsistentMapBuilder()
+                .withName(DEVICE_LOADS)
+                .withSerializer(serializer)
+                .withTimestampProvider((k, v) -> new WallClockTimestamp())
+                .build();
+        packetService.addProcessor(packetInCounter, PacketProcessor.observer(0));
+        lastReport = System.currentTimeMillis();
+        started = true;
+        scheduleReports();
+        log.info("Started");
+    }
+
+    /**
+     * Stops measuring and reporting the device loads. Does nothing if the
+     * monitor is not started.
+     */
+    public synchronized void stop() {
+        if (!started) {
+            return;
+        }
+        started = false;
+        reportTask.cancel(false);
+        reportTask = null;
+        packetService.removeProcessor(packetInCounter);
+        packetIns.clear();
+        deviceLoads.destroy();
+        deviceLoads = null;
+        log.info("Stopped");
+    }
+
+    /**
+     * Returns the last reported load of the given device.
+     *
+     * @param deviceId device identifier
+     * @return device load; null if the master did not report it yet or if
+     *         the monitor is not started
+     */
+    public DeviceLoad getLoad(DeviceId deviceId) {
+        EventuallyConsistentMap<DeviceId, DeviceLoad> loads = deviceLoads;
+        return loads != null ? loads.get(deviceId) : null;
+    }
+
+    private void scheduleReports() {
+        if (reportTask != null) {
+            reportTask.cancel(false);
+        }
+        reportTask = executor.scheduleAtFixedRate(this::reportLoads, loadReportPeriod,
+                                                  loadReportPeriod, TimeUnit.SECONDS);
+    }
+
+    private synchronized void reportLoads() {
+        if (!started) {
+            return;
+        }
+        try {
+            long now = System.currentTimeMillis();
+            double seconds = Math.max(now - lastReport, 1) / 1000.0;
+            lastReport = now;
+            for (Device device : deviceService.getAvailableDevices()) {
+                DeviceId deviceId = device.id();
+                AtomicLong counter = packetIns.remove(deviceId);
+                if (mastershipService.isLocalMaster(deviceId)) {
+                    long count = counter != null ? counter.get() : 0;
+                    deviceLoads.put(deviceId, new DeviceLoad(flowRuleService.getFlowRuleCount(deviceId),
+                                                             count / seconds));
+                }
+            }
+            // Forget the devices which disappeared
+            deviceLoads.keySet().stream()
+                    .filter(deviceId -> deviceService.getDevice(deviceId) == null)
+                    .forEach(deviceLoads::remove);
+        } catch (Exception e) {
+            log.warn("Unable to report device loads", e);
+        }
+    }
+
+    private class PacketInCounter implements PacketProcessor {
+        @Override
+        public void process(PacketContext context) {
+            DeviceId deviceId = context.inPacket().receivedFrom().deviceId();
+            packetIns.computeIfAbsent(deviceId, k -> new AtomicLong()).incrementAndGet();
+        }
+    }
+}
@@ -0,0 +1,140 @@
+/*
+ * Copyright 2020-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.onosproject.mlb;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+import org.onosproject.cluster.NodeId;
+import org.onosproject.net.DeviceId;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiPredicate;
+import java.util.function.ToDoubleFunction;
+import java.util.stream.Collectors;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * Plans incremental mastership moves evening out the load of the nodes.
+ * <p>
+ * Nothing is moved while the hottest node stays within the imbalance
+ * threshold above the mean load. Otherwise, up to the maximum number of moves
+ * are planned, each one from the hottest node to the coolest node able to
+ * master a device, picking the device bringing both nodes the closest to each
+ * other. A device is only moved if it is lighter than the load gap of the two
+ * nodes, so that every move strictly reduces the imbalance.
+ */
+final class MastershipBalancePlanner {
+
+    private final double threshold;
+    private final int maxMoves;
+
+    /**
+     * Creates a new planner.
+     *
+     * @param threshold tolerated load above the mean, as a fraction of the mean
+     * @param maxMoves  maximum number of moves per plan
+     */
+    MastershipBalancePlanner(double threshold, int maxMoves) {
+        checkArgument(threshold >= 0, "Threshold must not be negative");
+        checkArgument(maxMoves >= 0, "Number of moves must not be negative");
+        this.threshold = threshold;
+        this.maxMoves = maxMoves;
+    }
+
+    /**
+     * Returns the load of each node.
+     *
+     * @param nodeDevices devices mastered by each node
+     * @param deviceLoad  load of a device
+     * @return node loads
+     */
+    static Map<NodeId, Double> nodeLoads(Map<NodeId, Set<DeviceId>> nodeDevices,
+                                         ToDoubleFunction<DeviceId> deviceLoad) {
+        Map<NodeId, Double> loads = Maps.newHashMap();
+        nodeDevices.forEach((node, devices) -> loads.put(
+                node, devices.stream().mapToDouble(deviceLoad).sum()));
+        return loads;
+    }
+
+    /**
+     * Plans the moves balancing the given nodes.
+     *
+     * @param nodeDevices devices mastered by each active node
+     * @param deviceLoad  load of a device
+     * @param canMaster   whether a node can become the master of a device
+     * @return planned moves, in the order they should be performed
+     */
+    List<MastershipMove> plan(Map<NodeId, Set<DeviceId>> nodeDevices,
+                              ToDoubleFunction<DeviceId> deviceLoad,
+                              BiPredicate<DeviceId, NodeId> canMaster) {
+        if (nodeDevices.size() < 2) {
+            return ImmutableList.of();
+        }
+
+        Map<NodeId, Set<DeviceId>> devices = Maps.newHashMap();
+        nodeDevices.forEach((node, set) -> devices.put(node, Sets.newHashSet(set)));
+        Map<NodeId, Double> loads = nodeLoads(devices, deviceLoad);
+        double mean = loads.values().stream().mapToDouble(Double::doubleValue).sum() / loads.size();
+
+        Set<DeviceId> moved = Sets.newHashSet();
+        ImmutableList.Builder<MastershipMove> moves = ImmutableList.builder();
+        for (int i = 0; i < maxMoves; i++) {
+            List<NodeId> byLoad = loads.keySet().stream()
+                    .sorted(Comparator.comparingDouble(loads::get))
+                    .collect(Collectors.toList());
+            NodeId hot = byLoad.get(byLoad.size() - 1);
+            if (loads.get(hot) <= mean * (1 + threshold)) {
+                break;
+            }
+
+            MastershipMove move = null;
+            for (NodeId cool : byLoad.subList(0, byLoad.size() - 1)) {
+                double gap = loads.get(hot) - loads.get(cool);
+                DeviceId best = null;
+                double bestLoad = 0;
+                for (DeviceId deviceId : devices.get(hot)) {
+                    double load = deviceLoad.applyAsDouble(deviceId);
+                    if (load < gap && !moved.contains(deviceId) && canMaster.test(deviceId, cool) &&
+                            (best == null || Math.abs(gap / 2 - load) < Math.abs(gap / 2 - bestLoad))) {
+                        best = deviceId;
+                        bestLoad = load;
+                    }
+                }
+                if (best != null) {
+                    move = new MastershipMove(best, hot, cool, bestLoad);
+                    break;
+                }
+            }
+            if (move == null) {
+                break;
+            }
+
+            moves.add(move);
+            moved.add(move.deviceId());
+            devices.get(hot).remove(move.deviceId());
+            devices.get(move.target()).add(move.deviceId());
+            loads.put(hot, loads.get(hot) - move.load());
+            loads.put(move.target(), loads.get(move.target()) + move.load());
+        }
+        return moves.build();
+    }
+}
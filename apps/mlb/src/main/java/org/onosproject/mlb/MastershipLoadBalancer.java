@@ -16,6 +16,7 @@
 
 package org.onosproject.mlb;
 
+import com.google.common.collect.Maps;
 import org.onlab.util.Tools;
 import org.onosproject.cfg.ComponentConfigService;
 import org.onosproject.cluster.ClusterService;
@@ -27,6 +28,8 @@ import org.onosproject.mastership.MastershipAdminService;
 import org.onosproject.mastership.MastershipEvent;
 import org.onosproject.mastership.MastershipListener;
 import org.onosproject.mastership.MastershipService;
+import org.onosproject.net.DeviceId;
+import org.onosproject.net.region.Region;
 import org.onosproject.net.region.RegionEvent;
 import org.onosproject.net.region.RegionListener;
 import org.onosproject.net.region.RegionService;
@@ -40,6 +43,10 @@ import org.osgi.service.component.annotations.ReferenceCardinality;
 import org.slf4j.Logger;
 
 import java.util.Dictionary;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
 import java.util.concurrent.ScheduledExecutorService;
@@ -47,9 +54,23 @@ import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicReference;
 
+import static com.google.common.base.Strings.isNullOrEmpty;
 import static org.onlab.util.Tools.groupedThreads;
+import static org.onosproject.mlb.OsgiPropertyConstants.FLOW_WEIGHT;
+import static org.onosproject.mlb.OsgiPropertyConstants.FLOW_WEIGHT_DEFAULT;
+import static org.onosproject.mlb.OsgiPropertyConstants.IMBALANCE_THRESHOLD;
+import static org.onosproject.mlb.OsgiPropertyConstants.IMBALANCE_THRESHOLD_DEFAULT;
+import static org.onosproject.mlb.OsgiPropertyConstants.LOAD_AWARE;
+import static org.onosproject.mlb.OsgiPropertyConstants.LOAD_AWARE_DEFAULT;
+import static org.onosproject.mlb.OsgiPropertyConstants.MAX_MOVES_PER_ROUND;
+import static org.onosproject.mlb.OsgiPropertyConstants.MAX_MOVES_PER_ROUND_DEFAULT;
+import static org.onosproject.mlb.OsgiPropertyConstants.MOVE_COOLDOWN;
+import static org.onosproject.mlb.OsgiPropertyConstants.MOVE_COOLDOWN_DEFAULT;
+import static org.onosproject.mlb.OsgiPropertyConstants.PACKET_IN_WEIGHT;
+import static org.onosproject.mlb.OsgiPropertyConstants.PACKET_IN_WEIGHT_DEFAULT;
 import static org.onosproject.mlb.OsgiPropertyConstants.SCHEDULE_PERIOD;
 import static org.onosproject.mlb.OsgiPropertyConstants.SCHEDULE_PERIOD_DEFAULT;
+import static org.onosproject.net.MastershipRole.MASTER;
 import static org.slf4j.LoggerFactory.getLogger;
 
 /**
@@ -57,20 +78,52 @@ import static org.slf4j.LoggerFactory.getLogger;
  * change in mastership and are limited to a frequency of one every 30 seconds, all load balancing is run on an outside
  * thread executor that must only have one thread due to issues that can occur is multiple balancing events occur in
  * parallel.
+ * <p>
+ * In load-aware mode, balancing runs continuously, every schedule period, and
+ * evens out the load of the nodes instead of their number of devices. The load
+ * of a node is the sum of the load of the devices it masters, as reported by
+ * the {@link DeviceLoadMonitor}. Each round moves at most a few devices, only
+ * when a node is loaded above the imbalance threshold, and a moved device is
+ * not moved again before the cooldown expires.
  */
 @Component(
     immediate = true,
+    service = MastershipLoadBalancerService.class,
     property = {
-        SCHEDULE_PERIOD + ":Integer=" + SCHEDULE_PERIOD_DEFAULT
+        SCHEDULE_PERIOD + ":Integer=" + SCHEDULE_PERIOD_DEFAULT,
+        LOAD_AWARE + ":Boolean=" + LOAD_AWARE_DEFAULT,
+        MAX_MOVES_PER_ROUND + ":Integer=" + MAX_MOVES_PER_ROUND_DEFAULT,
+        IMBALANCE_THRESHOLD + ":Integer=" + IMBALANCE_THRESHOLD_DEFAULT,
+        MOVE_COOLDOWN + ":Integer=" + MOVE_COOLDOWN_DEFAULT,
+        FLOW_WEIGHT + ":Double=" + FLOW_WEIGHT_DEFAULT,
+        PACKET_IN_WEIGHT + ":Double=" + PACKET_IN_WEIGHT_DEFAULT
     }
 )
-public class MastershipLoadBalancer {
+public class MastershipLoadBalancer implements MastershipLoadBalancerService {
 
     private final Logger log = getLogger(getClass());
 
     /** Period to schedule balancing the mastership to be shared as evenly as by all online instances. */
     private int schedulePeriod = SCHEDULE_PERIOD_DEFAULT;
 
+    /** Balance the load of the nodes, continuously, instead of their number of devices. */
+    private boolean loadAware = LOAD_AWARE_DEFAULT;
+
+    /** Maximum number of devices moved per load-aware balancing round. */
+    private int maxMovesPerRound = MAX_MOVES_PER_ROUND_DEFAULT;
+
+    /** Tolerated load of a node above the mean, in percent, before moving devices. */
+    private int imbalanceThreshold = IMBALANCE_THRESHOLD_DEFAULT;
+
+    /** Minimum delay in seconds before a moved device can be moved again. */
+    private int moveCooldown = MOVE_COOLDOWN_DEFAULT;
+
+    /** Load of a flow rule, relative to the load of an idle device. */
+    private double flowWeight = FLOW_WEIGHT_DEFAULT;
+
+    /** Load of a packet-in per second, relative to the load of an idle device. */
+    private double packetInWeight = PACKET_IN_WEIGHT_DEFAULT;
+
     private static final String REBALANCE_MASTERSHIP = "rebalance/mastership";
 
     private NodeId localId;
@@ -97,6 +150,12 @@ public class MastershipLoadBalancer {
     @Reference(cardinality = ReferenceCardinality.MANDATORY)
     protected ComponentConfigService cfgService;
 
+    @Reference(cardinality = ReferenceCardinality.MANDATORY)
+    protected DeviceLoadMonitor loadMonitor;
+
+    // Time of the last load-aware move of each device
+    private final Map<DeviceId, Long> lastMoves = new ConcurrentHashMap<>();
+
     private InnerLeadershipListener leadershipListener = new InnerLeadershipListener();
 
     /* This listener is used to trigger balancing for any mastership event
@@ -145,6 +204,12 @@ public class MastershipLoadBalancer {
     @Modified
     public void modified(ComponentContext context) {
         readComponentConfiguration(context);
+        // Device loads are measured only for the load-aware balancing
+        if (loadAware) {
+            loadMonitor.start();
+        } else {
+            loadMonitor.stop();
+        }
         cancelBalance();
         scheduleBalance();
         log.info("modified");
@@ -184,9 +249,78 @@ public class MastershipLoadBalancer {
             // to queue up another upcoming task.
             nextTask.set(null);
 
-            mastershipAdminService.balanceRoles();
-            log.info("Completed balance roles");
+            if (loadAware) {
+                try {
+                    balanceLoad();
+                } catch (Exception e) {
+                    log.warn("Unable to balance the device loads", e);
+                } finally {
+                    // Keep on balancing as the load changes
+                    scheduleBalance();
+                }
+            } else {
+                mastershipAdminService.balanceRoles();
+                log.info("Completed balance roles");
+            }
+        }
+    }
+
+    private void balanceLoad() {
+        long now = System.currentTimeMillis();
+        lastMoves.values().removeIf(time -> now - time >= TimeUnit.SECONDS.toMillis(moveCooldown));
+
+        for (MastershipMove move : plan()) {
+            log.info("Moving mastership of {} (load {}) from {} to {}",
+                     move.deviceId(), move.load(), move.source(), move.target());
+            lastMoves.put(move.deviceId(), now);
+            mastershipAdminService.setRole(move.target(), move.deviceId(), MASTER)
+                    .whenComplete((result, error) -> {
+                        if (error != null) {
+                            log.warn("Unable to move mastership of {} to {}",
+                                     move.deviceId(), move.target(), error);
+                        }
+                    });
+        }
+    }
+
+    @Override
+    public Map<NodeId, Double> nodeLoads() {
+        return MastershipBalancePlanner.nodeLoads(activeNodeDevices(), this::deviceLoad);
+    }
+
+    @Override
+    public List<MastershipMove> plan() {
+        return new MastershipBalancePlanner(imbalanceThreshold / 100.0, maxMovesPerRound)
+                .plan(activeNodeDevices(), this::deviceLoad, this::canMaster);
+    }
+
+    private Map<NodeId, Set<DeviceId>> activeNodeDevices() {
+        Map<NodeId, Set<DeviceId>> nodeDevices = Maps.newHashMap();
+        clusterService.getNodes().stream()
+                .filter(node -> clusterService.getState(node.id()).isActive())
+                .forEach(node -> nodeDevices.put(node.id(), mastershipService.getDevicesOf(node.id())));
+        return nodeDevices;
+    }
+
+    private double deviceLoad(DeviceId deviceId) {
+        DeviceLoad load = loadMonitor.getLoad(deviceId);
+        return load != null ? load.load(flowWeight, packetInWeight) : 1;
+    }
+
+    // Whether the node is a standby of the device, allowed by its region and
+    // the device was not moved recently
+    private boolean canMaster(DeviceId deviceId, NodeId nodeId) {
+        Long lastMove = lastMoves.get(deviceId);
+        if (lastMove != null &&
+                System.currentTimeMillis() - lastMove < TimeUnit.SECONDS.toMillis(moveCooldown)) {
+            return false;
+        }
+        if (!mastershipService.getNodesFor(deviceId).backups().contains(nodeId)) {
+            return false;
         }
+        Region region = regionService.getRegionForDevice(deviceId);
+        return region == null || region.masters().isEmpty() ||
+                region.masters().stream().anyMatch(masters -> masters.contains(nodeId));
     }
 
     private void cancelBalance() {
@@ -214,6 +348,36 @@ public class MastershipLoadBalancer {
             schedulePeriod = newSchedulePeriod;
             log.info("Configured. Schedule period is configured to {}", schedulePeriod);
         }
+
+        Boolean newLoadAware = Tools.isPropertyEnabled(properties, LOAD_AWARE);
+        loadAware = newLoadAware != null ? newLoadAware : LOAD_AWARE_DEFAULT;
+
+        Integer newMaxMoves = Tools.getIntegerProperty(properties, MAX_MOVES_PER_ROUND);
+        maxMovesPerRound = newMaxMoves != null && newMaxMoves >= 0 ? newMaxMoves : MAX_MOVES_PER_ROUND_DEFAULT;
+
+        Integer newThreshold = Tools.getIntegerProperty(properties, IMBALANCE_THRESHOLD);
+        imbalanceThreshold = newThreshold != null && newThreshold >= 0 ? newThreshold : IMBALANCE_THRESHOLD_DEFAULT;
+
+        Integer newCooldown = Tools.getIntegerProperty(properties, MOVE_COOLDOWN);
+        moveCooldown = newCooldown != null && newCooldown >= 0 ? newCooldown : MOVE_COOLDOWN_DEFAULT;
+
+        flowWeight = getDoubleProperty(properties, FLOW_WEIGHT, FLOW_WEIGHT_DEFAULT);
+        packetInWeight = getDoubleProperty(properties, PACKET_IN_WEIGHT, PACKET_IN_WEIGHT_DEFAULT);
+
+        log.info("Configured. Load-aware balancing is {}, max moves per round: {}, " +
+                         "imbalance threshold: {}%, move cooldown: {}s, flow weight: {}, packet-in weight: {}",
+                 loadAware ? "enabled" : "disabled", maxMovesPerRound, imbalanceThreshold,
+                 moveCooldown, flowWeight, packetInWeight);
+    }
+
+    private double getDoubleProperty(Dictionary<?, ?> properties, String name, double defaultValue) {
+        String s = Tools.get(properties, name);
+        try {
+            return isNullOrEmpty(s) ? defaultValue : Double.parseDouble(s.trim());
+        } catch (NumberFormatException e) {
+            log.warn("Configured {} value '{}' is not a number, using {}", name, s, defaultValue);
+            return defaultValue;
+        }
     }
 
     private class InnerMastershipListener implements MastershipListener {
@@ -0,0 +1,44 @@
+/*
+ * Copyright 2020-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.onosproject.mlb;
+
+import org.onosproject.cluster.NodeId;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Service to inspect the load-aware balancing of the device mastership.
+ */
+public interface MastershipLoadBalancerService {
+
+    /**
+     * Returns the load of the active nodes, that is the sum of the load of
+     * the devices they master.
+     *
+     * @return node loads
+     */
+    Map<NodeId, Double> nodeLoads();
+
+    /**
+     * Returns the mastership moves the next balancing round would perform,
+     * without performing them.
+     *
+     * @return planned moves; empty if the cluster is balanced
+     */
+    List<MastershipMove> plan();
+}
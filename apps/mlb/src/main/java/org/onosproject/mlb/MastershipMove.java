@@ -0,0 +1,116 @@
+/*
+ * Copyright 2020-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.onosproject.mlb;
+
+import org.onosproject.cluster.NodeId;
+import org.onosproject.net.DeviceId;
+
+import java.util.Objects;
+
+import static com.google.common.base.MoreObjects.toStringHelper;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Planned move of the mastership of a device from one node to another.
+ */
+public final class MastershipMove {
+
+    private final DeviceId deviceId;
+    private final NodeId source;
+    private final NodeId target;
+    private final double load;
+
+    /**
+     * Creates a new mastership move.
+     *
+     * @param deviceId device identifier
+     * @param source   current master
+     * @param target   new master
+     * @param load     load of the device
+     */
+    public MastershipMove(DeviceId deviceId, NodeId source, NodeId target, double load) {
+        this.deviceId = checkNotNull(deviceId);
+        this.source = checkNotNull(source);
+        this.target = checkNotNull(target);
+        this.load = load;
+    }
+
+    /**
+     * Returns the device whose mastership moves.
+     *
+     * @return device identifier
+     */
+    public DeviceId deviceId() {
+        return deviceId;
+    }
+
+    /**
+     * Returns the current master of the device.
+     *
+     * @return node identifier
+     */
+    public NodeId source() {
+        return source;
+    }
+
+    /**
+     * Returns the new master of the device.
+     *
+     * @return node identifier
+     */
+    public NodeId target() {
+        return target;
+    }
+
+    /**
+     * Returns the load of the device.
+     *
+     * @return device load
+     */
+    public double load() {
+        return load;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(deviceId, source, target);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (obj instanceof MastershipMove) {
+            MastershipMove that = (MastershipMove) obj;
+            return Objects.equals(deviceId, that.deviceId) &&
+                    Objects.equals(source, that.source) &&
+                    Objects.equals(target, that.target);
+        }
+        return false;
+    }
+
+    @Override
+    public String toString() {
+        return toStringHelper(this)
+                .add("deviceId", deviceId)
+                .add("source", source)
+                .add("target", target)
+                .add("load", load)
+                .toString();
+    }
+}
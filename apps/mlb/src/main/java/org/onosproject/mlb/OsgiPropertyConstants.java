@@ -22,4 +22,25 @@ public final class OsgiPropertyConstants {
 
     static final String SCHEDULE_PERIOD = "schedulePeriod";
     static final int SCHEDULE_PERIOD_DEFAULT = 30;
+
+    static final String LOAD_AWARE = "loadAware";
+    static final boolean LOAD_AWARE_DEFAULT = false;
+
+    static final String MAX_MOVES_PER_ROUND = "maxMovesPerRound";
+    static final int MAX_MOVES_PER_ROUND_DEFAULT = 2;
+
+    static final String IMBALANCE_THRESHOLD = "imbalanceThreshold";
+    static final int IMBALANCE_THRESHOLD_DEFAULT = 20;
+
+    static final String MOVE_COOLDOWN = "moveCooldown";
+    static final int MOVE_COOLDOWN_DEFAULT = 300;
+
+    static final String FLOW_WEIGHT = "flowWeight";
+    static final double FLOW_WEIGHT_DEFAULT = 0.01;
+
+    static final String PACKET_IN_WEIGHT = "packetInWeight";
+    static final double PACKET_IN_WEIGHT_DEFAULT = 0.1;
+
+    static final String LOAD_REPORT_PERIOD = "loadReportPeriod";
+    static final int LOAD_REPORT_PERIOD_DEFAULT = 10;
 }
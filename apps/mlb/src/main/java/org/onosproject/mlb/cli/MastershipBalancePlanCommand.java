@@ -0,0 +1,50 @@
+/*
+ * Copyright 2020-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.mlb.cli;
+
+import org.apache.karaf.shell.api.action.Command;
+import org.apache.karaf.shell.api.action.lifecycle.Service;
+import org.onosproject.cli.AbstractShellCommand;
+import org.onosproject.mlb.MastershipLoadBalancerService;
+import org.onosproject.mlb.MastershipMove;
+
+import java.util.List;
+
+/**
+ * Command to show the node loads and the mastership moves the next
+ * load-aware balancing round would perform.
+ */
+@Service
+@Command(scope = "onos", name = "mlb-plan",
+         description = "Shows the node loads and the planned mastership moves")
+public class MastershipBalancePlanCommand extends AbstractShellCommand {
+
+    private static final String LOAD_FORMAT = "node=%s, load=%.2f";
+    private static final String MOVE_FORMAT = "device=%s, load=%.2f, from=%s, to=%s";
+
+    @Override
+    protected void doExecute() {
+        MastershipLoadBalancerService service = get(MastershipLoadBalancerService.class);
+
+        service.nodeLoads().forEach((nodeId, load) -> print(LOAD_FORMAT, nodeId, load));
+
+        List<MastershipMove> moves = service.plan();
+        if (moves.isEmpty()) {
+            print("No mastership move planned");
+        }
+        moves.forEach(move -> print(MOVE_FORMAT, move.deviceId(), move.load(), move.source(), move.target()));
+    }
+}
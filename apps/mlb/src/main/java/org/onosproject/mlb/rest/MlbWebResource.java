@@ -0,0 +1,73 @@
+/*
+ * Copyright 2020-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.mlb.rest;
+
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.onosproject.mlb.MastershipLoadBalancerService;
+import org.onosproject.rest.AbstractWebResource;
+
+import javax.ws.rs.GET;
+import javax.ws.rs.Path;
+import javax.ws.rs.Produces;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
+
+/**
+ * Inspect the load-aware balancing of the device mastership.
+ */
+@Path("")
+public class MlbWebResource extends AbstractWebResource {
+
+    /**
+     * Gets the load of the active nodes.
+     *
+     * @return 200 OK with the load of each node
+     */
+    @GET
+    @Path("loads")
+    @Produces(MediaType.APPLICATION_JSON)
+    public Response getLoads() {
+        ObjectNode root = mapper().createObjectNode();
+        ArrayNode loads = root.putArray("loads");
+        get(MastershipLoadBalancerService.class).nodeLoads().forEach((nodeId, load) ->
+                loads.addObject()
+                        .put("node", nodeId.toString())
+                        .put("load", load));
+        return ok(root).build();
+    }
+
+    /**
+     * Gets the mastership moves the next balancing round would perform,
+     * without performing them.
+     *
+     * @return 200 OK with the planned moves
+     */
+    @GET
+    @Path("plan")
+    @Produces(MediaType.APPLICATION_JSON)
+    public Response getPlan() {
+        ObjectNode root = mapper().createObjectNode();
+        ArrayNode moves = root.putArray("moves");
+        get(MastershipLoadBalancerService.class).plan().forEach(move ->
+                moves.addObject()
+                        .put("device", move.deviceId().toString())
+                        .put("load", move.load())
+                        .put("source", move.source().toString())
+                        .put("target", move.target().toString()));
+        return ok(root).build();
+    }
+}
@@ -0,0 +1,108 @@
+/*
+ * Copyright 2020-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.mlb;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import org.junit.Test;
+import org.onosproject.cluster.NodeId;
+import org.onosproject.net.DeviceId;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.ToDoubleFunction;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+/**
+ * Tests of the load-aware mastership balance planner.
+ */
+public class MastershipBalancePlannerTest {
+
+    private static final NodeId N1 = NodeId.nodeId("n1");
+    private static final NodeId N2 = NodeId.nodeId("n2");
+    private static final NodeId N3 = NodeId.nodeId("n3");
+
+    private static final DeviceId D1 = DeviceId.deviceId("of:1");
+    private static final DeviceId D2 = DeviceId.deviceId("of:2");
+    private static final DeviceId D3 = DeviceId.deviceId("of:3");
+    private static final DeviceId D4 = DeviceId.deviceId("of:4");
+    private static final DeviceId D5 = DeviceId.deviceId("of:5");
+    private static final DeviceId D6 = DeviceId.deviceId("of:6");
+
+    private static final Map<DeviceId, Double> LOADS = ImmutableMap.<DeviceId, Double>builder()
+            .put(D1, 10.0).put(D2, 10.0).put(D3, 10.0).put(D4, 10.0).put(D5, 1.0).put(D6, 1.0)
+            .build();
+    private static final ToDoubleFunction<DeviceId> LOAD = LOADS::get;
+
+    /**
+     * Tests that no move is planned when the loads are within the threshold,
+     * even though the number of devices is not balanced.
+     */
+    @Test
+    public void testBalanced() {
+        Map<NodeId, Set<DeviceId>> nodeDevices = ImmutableMap.of(
+                N1, ImmutableSet.of(D1, D5, D6),
+                N2, ImmutableSet.of(D2),
+                N3, ImmutableSet.of(D3));
+        List<MastershipMove> moves = new MastershipBalancePlanner(0.2, 5)
+                .plan(nodeDevices, LOAD, (d, n) -> true);
+        assertThat(moves.isEmpty(), is(true));
+    }
+
+    /**
+     * Tests that moves go from the hottest node to the coolest one and are
+     * bounded by the maximum number of moves.
+     */
+    @Test
+    public void testImbalanced() {
+        Map<NodeId, Set<DeviceId>> nodeDevices = ImmutableMap.of(
+                N1, ImmutableSet.of(D1, D2, D3, D4),
+                N2, ImmutableSet.of(D5),
+                N3, ImmutableSet.of(D6));
+
+        List<MastershipMove> moves = new MastershipBalancePlanner(0.2, 1)
+                .plan(nodeDevices, LOAD, (d, n) -> true);
+        assertThat(moves.size(), is(1));
+        assertThat(moves.get(0).source(), is(N1));
+
+        moves = new MastershipBalancePlanner(0.2, 5).plan(nodeDevices, LOAD, (d, n) -> true);
+        assertThat(moves.size(), is(2));
+        assertThat(moves.stream().allMatch(move -> move.source().equals(N1)), is(true));
+        assertThat(moves.stream().map(MastershipMove::target).distinct().count(), is(2L));
+    }
+
+    /**
+     * Tests that devices are only moved to the nodes able to master them.
+     */
+    @Test
+    public void testConstrained() {
+        Map<NodeId, Set<DeviceId>> nodeDevices = ImmutableMap.of(
+                N1, ImmutableSet.of(D1, D2, D3, D4),
+                N2, ImmutableSet.of(D5),
+                N3, ImmutableSet.of(D6));
+
+        List<MastershipMove> moves = new MastershipBalancePlanner(0.2, 5)
+                .plan(nodeDevices, LOAD, (d, n) -> n.equals(N3));
+        assertThat(moves.size(), is(2));
+        assertThat(moves.stream().allMatch(move -> move.target().equals(N3)), is(true));
+
+        moves = new MastershipBalancePlanner(0.2, 5).plan(nodeDevices, LOAD, (d, n) -> false);
+        assertThat(moves.isEmpty(), is(true));
+    }
+}
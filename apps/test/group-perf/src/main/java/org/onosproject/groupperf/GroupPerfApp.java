@@ -0,0 +1,252 @@
+/*
+ * Copyright 2020-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.groupperf;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
+import com.google.common.primitives.Ints;
+import org.onlab.util.Tools;
+import org.onosproject.cfg.ComponentConfigService;
+import org.onosproject.core.ApplicationId;
+import org.onosproject.core.CoreService;
+import org.onosproject.mastership.MastershipService;
+import org.onosproject.net.DeviceId;
+import org.onosproject.net.PortNumber;
+import org.onosproject.net.device.DeviceService;
+import org.onosproject.net.flow.DefaultTrafficTreatment;
+import org.onosproject.net.group.DefaultGroupBucket;
+import org.onosproject.net.group.DefaultGroupDescription;
+import org.onosproject.net.group.DefaultGroupKey;
+import org.onosproject.net.group.GroupBucket;
+import org.onosproject.net.group.GroupBuckets;
+import org.onosproject.net.group.GroupDescription;
+import org.onosproject.net.group.GroupKey;
+import org.onosproject.net.group.GroupService;
+import org.osgi.service.component.ComponentContext;
+import org.osgi.service.component.annotations.Activate;
+import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Deactivate;
+import org.osgi.service.component.annotations.Modified;
+import org.osgi.service.component.annotations.Reference;
+import org.slf4j.Logger;
+
+import java.util.Dictionary;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import static com.google.common.base.Strings.isNullOrEmpty;
+import static org.onlab.util.Tools.get;
+import static org.onosproject.groupperf.OsgiPropertyConstants.BUCKET_UPDATES;
+import static org.onosproject.groupperf.OsgiPropertyConstants.BUCKET_UPDATES_DEFAULT;
+import static org.onosproject.groupperf.OsgiPropertyConstants.TOTAL_GROUPS;
+import static org.onosproject.groupperf.OsgiPropertyConstants.TOTAL_GROUPS_DEFAULT;
+import static org.onosproject.groupperf.OsgiPropertyConstants.TOTAL_THREADS;
+import static org.onosproject.groupperf.OsgiPropertyConstants.TOTAL_THREADS_DEFAULT;
+import static org.osgi.service.component.annotations.ReferenceCardinality.MANDATORY;
+import static org.slf4j.LoggerFactory.getLogger;
+
+/**
+ * Application for measuring the throughput of the group store.
+ * <p>
+ * This application adds a bunch of select groups to the devices mastered by
+ * the local instance, applies a number of bucket updates to each of them and
+ * finally removes all the groups, reporting the operation rate of each phase.
+ * Comparing runs with the write batching of the group store enabled and
+ * disabled gives the gain of the write-behind mode.
+ */
+@Component(
+    immediate = true,
+    service = GroupPerfApp.class,
+    property = {
+        TOTAL_GROUPS + ":Integer=" + TOTAL_GROUPS_DEFAULT,
+        BUCKET_UPDATES + ":Integer=" + BUCKET_UPDATES_DEFAULT,
+        TOTAL_THREADS + ":Integer=" + TOTAL_THREADS_DEFAULT
+    }
+)
+public class GroupPerfApp {
+    private final Logger log = getLogger(getClass());
+
+    private static final int GROUP_ID_BASE = 0x70000000;
+
+    @Reference(cardinality = MANDATORY)
+    protected DeviceService deviceService;
+
+    @Reference(cardinality = MANDATORY)
+    protected MastershipService mastershipService;
+
+    @Reference(cardinality = MANDATORY)
+    protected GroupService groupService;
+
+    @Reference(cardinality = MANDATORY)
+    protected CoreService coreService;
+
+    @Reference(cardinality = MANDATORY)
+    protected ComponentConfigService configService;
+
+    protected ApplicationId appId;
+
+    /** Total number of groups. */
+    private int totalGroups = TOTAL_GROUPS_DEFAULT;
+
+    /** Number of bucket updates per group. */
+    private int bucketUpdates = BUCKET_UPDATES_DEFAULT;
+
+    /** Number of worker threads. */
+    private int totalThreads = TOTAL_THREADS_DEFAULT;
+
+    private volatile ExecutorService workers;
+    private ExecutorService testRunner =
+            Executors.newSingleThreadExecutor(Tools.groupedThreads("app/group-perf-test-runner", ""));
+
+    @Activate
+    public void activate(ComponentContext context) {
+        appId = coreService.registerApplication("org.onosproject.groupperf");
+        configService.registerProperties(getClass());
+        modified(context);
+        testRunner.submit(this::runTest);
+        log.info("Started");
+    }
+
+    @Deactivate
+    public void deactivate(ComponentContext context) {
+        ExecutorService currentWorkers = workers;
+        if (currentWorkers != null) {
+            currentWorkers.shutdown();
+        }
+        testRunner.shutdown();
+        configService.unregisterProperties(getClass(), false);
+        log.info("Stopped.");
+    }
+
+    private void runTest() {
+        // The settings are read once, a change applies to the next run
+        int groups = totalGroups;
+        int updates = bucketUpdates;
+        int threads = totalThreads;
+        List<DeviceId> deviceIds = Lists.newArrayList();
+        deviceService.getAvailableDevices().forEach(device -> {
+            if (mastershipService.isLocalMaster(device.id())) {
+                deviceIds.add(device.id());
+            }
+        });
+        if (deviceIds.isEmpty()) {
+            log.warn("No available device mastered by the local instance; skipping the test");
+            return;
+        }
+        log.info("Starting group test. Total groups: {}, Bucket updates: {}, Total threads: {}, Devices: {}",
+                 groups, updates, threads, deviceIds.size());
+
+        ExecutorService pool = Executors.newFixedThreadPool(
+                threads, Tools.groupedThreads("app/group-perf-worker", "%d"));
+        workers = pool;
+        try {
+            runPhase(pool, threads, "add", groups, index -> groupService.addGroup(new DefaultGroupDescription(
+                    deviceOf(deviceIds, index), GroupDescription.Type.SELECT,
+                    new GroupBuckets(ImmutableList.of(bucket(1))), key(index), GROUP_ID_BASE + index, appId)));
+
+            runPhase(pool, threads, "bucket update", groups * updates, op -> {
+                int index = op % groups;
+                GroupKey key = key(index);
+                groupService.addBucketsToGroup(deviceOf(deviceIds, index), key,
+                                               new GroupBuckets(ImmutableList.of(bucket(op / groups + 2))),
+                                               key, appId);
+            });
+
+            runPhase(pool, threads, "remove", groups, index -> groupService.removeGroup(
+                    deviceOf(deviceIds, index), key(index), appId));
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private void runPhase(ExecutorService pool, int threads, String name, int totalOps, Consumer<Integer> op) {
+        AtomicInteger nextOp = new AtomicInteger(0);
+        List<Future<?>> futures = Lists.newArrayList();
+        long startTime = System.currentTimeMillis();
+        for (int i = 0; i < threads; ++i) {
+            futures.add(pool.submit(() -> {
+                int index;
+                while ((index = nextOp.getAndIncrement()) < totalOps) {
+                    op.accept(index);
+                }
+            }));
+        }
+        futures.forEach(future -> {
+            try {
+                future.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (Exception e) {
+                log.warn("Group {} phase failed", name, e);
+            }
+        });
+        long elapsed = Math.max(System.currentTimeMillis() - startTime, 1);
+        log.info("Time to {} {} groups: {} ms ({} ops/s)", name, totalOps, elapsed, totalOps * 1000L / elapsed);
+    }
+
+    private static DeviceId deviceOf(List<DeviceId> deviceIds, int index) {
+        return deviceIds.get(index % deviceIds.size());
+    }
+
+    private static GroupKey key(int index) {
+        return new DefaultGroupKey(Ints.toByteArray(index));
+    }
+
+    private static GroupBucket bucket(long port) {
+        return DefaultGroupBucket.createSelectGroupBucket(DefaultTrafficTreatment.builder()
+                .setOutput(PortNumber.portNumber(port)).build());
+    }
+
+    @Modified
+    public void modified(ComponentContext context) {
+        if (context == null) {
+            totalGroups = TOTAL_GROUPS_DEFAULT;
+            bucketUpdates = BUCKET_UPDATES_DEFAULT;
+            totalThreads = TOTAL_THREADS_DEFAULT;
+            return;
+        }
+
+        Dictionary properties = context.getProperties();
+
+        int newTotalGroups = totalGroups;
+        int newBucketUpdates = bucketUpdates;
+        int newTotalThreads = totalThreads;
+        try {
+            String s = get(properties, TOTAL_GROUPS);
+            newTotalGroups = isNullOrEmpty(s)
+                    ? totalGroups : Integer.parseInt(s.trim());
+
+            s = get(properties, BUCKET_UPDATES);
+            newBucketUpdates = isNullOrEmpty(s)
+                    ? bucketUpdates : Integer.parseInt(s.trim());
+
+            s = get(properties, TOTAL_THREADS);
+            newTotalThreads = isNullOrEmpty(s)
+                    ? totalThreads : Integer.parseInt(s.trim());
+
+        } catch (NumberFormatException | ClassCastException e) {
+            return;
+        }
+
+        totalGroups = newTotalGroups;
+        bucketUpdates = newBucketUpdates;
+        totalThreads = newTotalThreads;
+    }
+}
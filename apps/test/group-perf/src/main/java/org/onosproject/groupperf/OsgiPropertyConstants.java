@@ -0,0 +1,34 @@
+/*
+ * Copyright 2020-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.onosproject.groupperf;
+
+/**
+ * Name/Value constants for properties.
+ */
+public final class OsgiPropertyConstants {
+    private OsgiPropertyConstants() {
+    }
+
+    public static final String TOTAL_GROUPS = "totalGroups";
+    public static final int TOTAL_GROUPS_DEFAULT = 10000;
+
+    public static final String BUCKET_UPDATES = "bucketUpdates";
+    public static final int BUCKET_UPDATES_DEFAULT = 4;
+
+    public static final String TOTAL_THREADS = "totalThreads";
+    public static final int TOTAL_THREADS_DEFAULT = 4;
+}
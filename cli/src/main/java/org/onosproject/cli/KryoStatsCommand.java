@@ -0,0 +1,95 @@
+/*
+ * Copyright 2020-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.cli;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import org.apache.karaf.shell.api.action.Command;
+import org.apache.karaf.shell.api.action.Option;
+import org.apache.karaf.shell.api.action.lifecycle.Service;
+import org.onlab.util.KryoProfiler;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Lists the serialization statistics collected by the Kryo profiler.
+ */
+@Service
+@Command(scope = "onos", name = "kryo-stats",
+         description = "Lists the serialization statistics per class")
+public class KryoStatsCommand extends AbstractShellCommand {
+
+    private static final String FMT = "%-80s ser=%d serBytes=%d serTime=%dus deser=%d deserBytes=%d deserTime=%dus";
+
+    @Option(name = "-e", aliases = "--enable", description = "Enable the profiling",
+            required = false, multiValued = false)
+    private boolean enable = false;
+
+    @Option(name = "-d", aliases = "--disable", description = "Disable the profiling",
+            required = false, multiValued = false)
+    private boolean disable = false;
+
+    @Option(name = "-r", aliases = "--reset", description = "Discard the collected statistics",
+            required = false, multiValued = false)
+    private boolean reset = false;
+
+    @Option(name = "-n", aliases = "--top", description = "Number of classes to list",
+            required = false, multiValued = false)
+    private int top = 20;
+
+    @Override
+    protected void doExecute() {
+        if (enable || disable) {
+            KryoProfiler.setEnabled(enable);
+        }
+        if (reset) {
+            KryoProfiler.reset();
+        }
+
+        // Heaviest classes first, by bytes moved in both directions
+        List<Map.Entry<Class<?>, KryoProfiler.Stats>> stats = KryoProfiler.stats().entrySet().stream()
+                .sorted(Comparator.comparingLong(
+                        (Map.Entry<Class<?>, KryoProfiler.Stats> e) ->
+                                e.getValue().serializedBytes() + e.getValue().deserializedBytes()).reversed())
+                .limit(top)
+                .collect(Collectors.toList());
+
+        if (outputJson()) {
+            ObjectMapper mapper = new ObjectMapper();
+            ArrayNode result = mapper.createArrayNode();
+            stats.forEach(e -> result.add(mapper.createObjectNode()
+                    .put("class", e.getKey().getName())
+                    .put("serializations", e.getValue().serializations())
+                    .put("serializedBytes", e.getValue().serializedBytes())
+                    .put("serializeNanos", e.getValue().serializeNanos())
+                    .put("deserializations", e.getValue().deserializations())
+                    .put("deserializedBytes", e.getValue().deserializedBytes())
+                    .put("deserializeNanos", e.getValue().deserializeNanos())));
+            print("%s", result);
+        } else {
+            print("profiling=%s", KryoProfiler.isEnabled());
+            stats.forEach(e -> print(FMT, e.getKey().getName(),
+                                     e.getValue().serializations(), e.getValue().serializedBytes(),
+                                     TimeUnit.NANOSECONDS.toMicros(e.getValue().serializeNanos()),
+                                     e.getValue().deserializations(), e.getValue().deserializedBytes(),
+                                     TimeUnit.NANOSECONDS.toMicros(e.getValue().deserializeNanos())));
+        }
+    }
+}
@@ -21,6 +21,8 @@ import org.onosproject.net.HostId;
 import org.onosproject.net.HostLocation;
 import org.onosproject.net.provider.ProviderService;
 
+import java.util.Collection;
+
 /**
  * Means of conveying host information to the core.
  */
@@ -36,6 +38,20 @@ public interface HostProviderService extends ProviderService<HostProvider> {
      */
     void hostDetected(HostId hostId, HostDescription hostDescription, boolean replaceIps);
 
+    /**
+     * Notifies the core when a batch of hosts has been detected on a network.
+     * Descriptions of the same host are coalesced in iteration order and the
+     * resulting updates are applied to the store as a batch.
+     *
+     * @param hostDescriptions descriptions of the detected hosts, in detection order
+     * @param replaceIps       replace IP set if true, merge IP set otherwise
+     */
+    default void hostsDetected(Collection<HostDescription> hostDescriptions, boolean replaceIps) {
+        hostDescriptions.forEach(hostDescription -> hostDetected(
+                HostId.hostId(hostDescription.hwAddress(), hostDescription.vlan()),
+                hostDescription, replaceIps));
+    }
+
     /**
      * Notifies the core when a host is no longer detected on a network.
      *
@@ -26,6 +26,7 @@ import org.onosproject.net.HostLocation;
 import org.onosproject.net.provider.ProviderId;
 import org.onosproject.store.Store;
 
+import java.util.Map;
 import java.util.Set;
 
 /**
@@ -47,6 +48,21 @@ public interface HostStore extends Store<HostEvent, HostStoreDelegate> {
                                  HostDescription hostDescription,
                                  boolean replaceIps);
 
+    /**
+     * Creates new hosts or updates the existing ones based on the specified
+     * descriptions. Implementations may apply the updates as a single batch.
+     *
+     * @param providerId       provider identification
+     * @param hostDescriptions host description data, keyed by host identification
+     * @param replaceIps       replace IP set if true, merge IP set otherwise
+     */
+    default void createOrUpdateHosts(ProviderId providerId,
+                                     Map<HostId, HostDescription> hostDescriptions,
+                                     boolean replaceIps) {
+        hostDescriptions.forEach((hostId, hostDescription) ->
+                createOrUpdateHost(providerId, hostId, hostDescription, replaceIps));
+    }
+
     /**
      * Removes the specified host from the inventory.
      *
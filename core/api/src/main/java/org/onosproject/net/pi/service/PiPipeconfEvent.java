@@ -0,0 +1,46 @@
+/*
+ * Copyright 2020-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.net.pi.service;
+
+import com.google.common.annotations.Beta;
+import org.onosproject.event.AbstractEvent;
+import org.onosproject.net.pi.model.PiPipeconfId;
+
+/**
+ * Event representing changes in the set of registered pipeconfs.
+ */
+@Beta
+public class PiPipeconfEvent
+        extends AbstractEvent<PiPipeconfEvent.Type, PiPipeconfId> {
+
+    /**
+     * Type of event.
+     */
+    public enum Type {
+        REGISTERED,
+        UNREGISTERED
+    }
+
+    /**
+     * Creates a new event for the given pipeconf.
+     *
+     * @param type type
+     * @param subject pipeconf ID
+     */
+    public PiPipeconfEvent(PiPipeconfEvent.Type type, PiPipeconfId subject) {
+        super(type, subject);
+    }
+}
@@ -17,6 +17,7 @@
 package org.onosproject.net.pi.service;
 
 import com.google.common.annotations.Beta;
+import org.onosproject.event.ListenerService;
 import org.onosproject.net.DeviceId;
 import org.onosproject.net.pi.model.PiPipeconf;
 import org.onosproject.net.pi.model.PiPipeconfId;
@@ -25,11 +26,11 @@ import java.util.Optional;
 
 /**
  * A service to manage the configurations of protocol-independent pipelines.
+ * It emits events when pipeconfs are registered and unregistered.
  */
 @Beta
-public interface PiPipeconfService {
-
-    // TODO: we might want to extend ListenerService to support the broadcasting of PipeconfEvent.
+public interface PiPipeconfService
+        extends ListenerService<PiPipeconfEvent, PiPipeconfListener> {
 
     /**
      * Registers the given pipeconf.
@@ -0,0 +1,57 @@
+/*
+ * Copyright 2020-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.store.cluster.messaging;
+
+/**
+ * Priority class of a message subject.
+ * <p>
+ * When the cluster communication channel is saturated, messages waiting to be
+ * sent are drained from the classes in weighted round-robin, so that control
+ * messages are not stuck behind bulk transfers.
+ */
+public enum MessagePriority {
+
+    /**
+     * Latency-sensitive control messages, e.g. mastership changes or flow
+     * rule operations forwarded to the master. They are never held back.
+     */
+    HIGH(8),
+
+    /**
+     * Regular messages.
+     */
+    NORMAL(4),
+
+    /**
+     * Bulk transfers, e.g. backups, bootstraps or anti-entropy exchanges.
+     */
+    BULK(1);
+
+    private final int weight;
+
+    MessagePriority(int weight) {
+        this.weight = weight;
+    }
+
+    /**
+     * Returns the number of messages of this class drained per round.
+     *
+     * @return drain weight
+     */
+    public int weight() {
+        return weight;
+    }
+}
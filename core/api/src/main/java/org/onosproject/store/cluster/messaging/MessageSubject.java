@@ -23,19 +23,56 @@ import java.util.Objects;
  * Representation of a message subject.
  * Cluster messages have associated subjects that dictate how they get handled
  * on the receiving side.
+ * <p>
+ * A subject also carries the priority class of its messages on the sending
+ * side. The priority is not part of the identity of the subject.
+ * <p>
+ * Subjects carrying large and repetitive payloads, such as bulk state
+ * transfers, can be marked as compressible; their payloads may then be sent
+ * compressed once above a size threshold. Receivers always accept both forms.
  */
 public final class MessageSubject {
 
     private final String value;
+    private final MessagePriority priority;
+    private final boolean compressible;
 
     public MessageSubject(String value) {
+        this(value, MessagePriority.NORMAL);
+    }
+
+    public MessageSubject(String value, MessagePriority priority) {
+        this(value, priority, false);
+    }
+
+    public MessageSubject(String value, MessagePriority priority, boolean compressible) {
         this.value = checkNotNull(value);
+        this.priority = checkNotNull(priority);
+        this.compressible = compressible;
     }
 
     public String value() {
         return value;
     }
 
+    /**
+     * Returns the priority class of the messages of this subject.
+     *
+     * @return message priority
+     */
+    public MessagePriority priority() {
+        return priority;
+    }
+
+    /**
+     * Returns whether the payloads of this subject may be sent compressed.
+     *
+     * @return true if the payloads are compressible
+     */
+    public boolean isCompressible() {
+        return compressible;
+    }
+
     @Override
     public String toString() {
         return value;
@@ -64,5 +101,7 @@ public final class MessageSubject {
     // for serializer
     protected MessageSubject() {
         this.value = "";
+        this.priority = MessagePriority.NORMAL;
+        this.compressible = false;
     }
 }
@@ -18,6 +18,7 @@ package org.onosproject.store.service;
 import java.util.Collection;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import org.onosproject.store.primitives.TransactionId;
 
@@ -55,4 +56,12 @@ public interface StorageAdminService {
      * @return collection of pending transaction identifiers.
      */
     Collection<TransactionId> getPendingTransactions();
+
+    /**
+     * Returns the names of the eventually consistent maps still being
+     * bootstrapped from their peers on the local node.
+     *
+     * @return names of the bootstrapping maps; empty once all maps are in sync
+     */
+    Set<String> getPendingBootstraps();
 }
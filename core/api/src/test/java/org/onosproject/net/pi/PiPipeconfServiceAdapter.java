@@ -19,6 +19,7 @@ package org.onosproject.net.pi;
 import org.onosproject.net.DeviceId;
 import org.onosproject.net.pi.model.PiPipeconf;
 import org.onosproject.net.pi.model.PiPipeconfId;
+import org.onosproject.net.pi.service.PiPipeconfListener;
 import org.onosproject.net.pi.service.PiPipeconfService;
 
 import java.util.Collections;
@@ -67,4 +68,14 @@ public class PiPipeconfServiceAdapter implements PiPipeconfService {
     public Optional<PiPipeconfId> ofDevice(DeviceId deviceId) {
         return Optional.empty();
     }
+
+    @Override
+    public void addListener(PiPipeconfListener listener) {
+
+    }
+
+    @Override
+    public void removeListener(PiPipeconfListener listener) {
+
+    }
 }
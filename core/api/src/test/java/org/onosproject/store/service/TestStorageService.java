@@ -15,10 +15,15 @@
  */
 package org.onosproject.store.service;
 
+import com.google.common.collect.Maps;
 import org.onosproject.store.primitives.AsyncAtomicCounterAdapter;
 
+import java.util.Map;
+
 public class TestStorageService extends StorageServiceAdapter {
 
+    // Consistent maps by name, for the transactions operating on them
+    private final Map<String, ConsistentMap<?, ?>> consistentMaps = Maps.newConcurrentMap();
 
     @Override
     public <K, V> EventuallyConsistentMapBuilder<K, V> eventuallyConsistentMapBuilder() {
@@ -27,7 +32,16 @@ public class TestStorageService extends StorageServiceAdapter {
 
     @Override
     public <K, V> ConsistentMapBuilder<K, V> consistentMapBuilder() {
-        return TestConsistentMap.builder();
+        return new TestConsistentMap.Builder<K, V>() {
+            @Override
+            public ConsistentMap<K, V> build() {
+                ConsistentMap<K, V> map = super.build();
+                if (name() != null) {
+                    consistentMaps.put(name(), map);
+                }
+                return map;
+            }
+        };
     }
 
     @Override
@@ -52,7 +66,8 @@ public class TestStorageService extends StorageServiceAdapter {
 
     @Override
     public TransactionContextBuilder transactionContextBuilder() {
-        throw new UnsupportedOperationException("transactionContextBuilder");
+        return TestTransactionContext.builder(name -> consistentMaps.computeIfAbsent(
+                name, k -> new TestConsistentMap.Builder<>().withName(k).build()));
     }
 
     @Override
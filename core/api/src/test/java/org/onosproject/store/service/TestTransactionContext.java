@@ -0,0 +1,121 @@
+/*
+ * Copyright 2020-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.store.service;
+
+import org.onosproject.store.primitives.TransactionId;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
+import static com.google.common.base.Preconditions.checkState;
+
+/**
+ * Test implementation of the transaction context.
+ */
+public final class TestTransactionContext implements TransactionContext {
+
+    private static final Object COMMIT_LOCK = new Object();
+
+    private final TransactionId transactionId = TransactionId.from(UUID.randomUUID().toString());
+    private final Function<String, ConsistentMap<?, ?>> maps;
+    private final List<TestTransactionalMap<?, ?>> txMaps = new ArrayList<>();
+    private boolean open;
+
+    private TestTransactionContext(Function<String, ConsistentMap<?, ?>> maps) {
+        this.maps = maps;
+    }
+
+    @Override
+    public String name() {
+        return transactionId.id();
+    }
+
+    @Override
+    public Type primitiveType() {
+        return Type.TRANSACTION_CONTEXT;
+    }
+
+    @Override
+    public TransactionId transactionId() {
+        return transactionId;
+    }
+
+    @Override
+    public boolean isOpen() {
+        return open;
+    }
+
+    @Override
+    public void begin() {
+        checkState(!open, "Transaction context is already open");
+        open = true;
+    }
+
+    @Override
+    public CompletableFuture<CommitStatus> commit() {
+        checkState(open, "Transaction context is not open");
+        open = false;
+        synchronized (COMMIT_LOCK) {
+            if (!txMaps.stream().allMatch(TestTransactionalMap::prepare)) {
+                return CompletableFuture.completedFuture(CommitStatus.FAILURE);
+            }
+            txMaps.forEach(TestTransactionalMap::commit);
+        }
+        return CompletableFuture.completedFuture(CommitStatus.SUCCESS);
+    }
+
+    @Override
+    public void abort() {
+        open = false;
+        txMaps.clear();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <K, V> TransactionalMap<K, V> getTransactionalMap(String mapName, Serializer serializer) {
+        checkState(open, "Transaction context is not open");
+        TestTransactionalMap<K, V> txMap = new TestTransactionalMap<>((ConsistentMap<K, V>) maps.apply(mapName));
+        txMaps.add(txMap);
+        return txMap;
+    }
+
+    /**
+     * Returns a builder of transaction contexts operating on the given maps.
+     *
+     * @param maps function returning the consistent map with the given name
+     * @return transaction context builder
+     */
+    public static Builder builder(Function<String, ConsistentMap<?, ?>> maps) {
+        return new Builder(maps);
+    }
+
+    public static class Builder extends TransactionContextBuilder {
+
+        private final Function<String, ConsistentMap<?, ?>> maps;
+
+        private Builder(Function<String, ConsistentMap<?, ?>> maps) {
+            this.maps = maps;
+        }
+
+        @Override
+        public TransactionContext build() {
+            return new TestTransactionContext(maps);
+        }
+    }
+}
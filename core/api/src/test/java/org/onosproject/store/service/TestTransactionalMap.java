@@ -0,0 +1,126 @@
+/*
+ * Copyright 2020-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.store.service;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * Test implementation of the transactional map.
+ * <p>
+ * Updates are buffered until the transaction is committed; the versions of
+ * the entries read by the transaction are checked at commit time, as the
+ * optimistic transactions of the distributed primitives do.
+ */
+public final class TestTransactionalMap<K, V> implements TransactionalMap<K, V> {
+
+    private final ConsistentMap<K, V> backingMap;
+    private final Map<K, Versioned<V>> reads = new HashMap<>();
+    private final Map<K, Optional<V>> updates = new LinkedHashMap<>();
+
+    TestTransactionalMap(ConsistentMap<K, V> backingMap) {
+        this.backingMap = backingMap;
+    }
+
+    private Versioned<V> read(K key) {
+        return reads.computeIfAbsent(key, backingMap::get);
+    }
+
+    @Override
+    public V get(K key) {
+        Optional<V> update = updates.get(key);
+        if (update != null) {
+            return update.orElse(null);
+        }
+        return Versioned.valueOrNull(read(key));
+    }
+
+    @Override
+    public boolean containsKey(K key) {
+        return get(key) != null;
+    }
+
+    @Override
+    public V put(K key, V value) {
+        V previousValue = get(key);
+        updates.put(key, Optional.of(value));
+        return previousValue;
+    }
+
+    @Override
+    public V remove(K key) {
+        V previousValue = get(key);
+        updates.put(key, Optional.empty());
+        return previousValue;
+    }
+
+    @Override
+    public V putIfAbsent(K key, V value) {
+        V existingValue = get(key);
+        if (existingValue == null) {
+            updates.put(key, Optional.of(value));
+        }
+        return existingValue;
+    }
+
+    @Override
+    public boolean remove(K key, V value) {
+        if (!Objects.equals(get(key), value)) {
+            return false;
+        }
+        updates.put(key, Optional.empty());
+        return true;
+    }
+
+    @Override
+    public boolean replace(K key, V oldValue, V newValue) {
+        if (!Objects.equals(get(key), oldValue)) {
+            return false;
+        }
+        updates.put(key, Optional.of(newValue));
+        return true;
+    }
+
+    /**
+     * Returns whether the entries read by the transaction are unchanged.
+     *
+     * @return true if the transaction can be committed
+     */
+    boolean prepare() {
+        return reads.entrySet().stream().allMatch(read -> {
+            Versioned<V> current = backingMap.get(read.getKey());
+            Versioned<V> observed = read.getValue();
+            return current == null ? observed == null
+                    : observed != null && current.version() == observed.version();
+        });
+    }
+
+    /**
+     * Applies the updates of the transaction to the backing map.
+     */
+    void commit() {
+        updates.forEach((key, value) -> {
+            if (value.isPresent()) {
+                backingMap.put(key, value.get());
+            } else {
+                backingMap.remove(key);
+            }
+        });
+    }
+}
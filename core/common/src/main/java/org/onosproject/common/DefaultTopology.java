@@ -135,6 +135,16 @@ public class DefaultTopology extends AbstractModel implements Topology {
         defaultGraphPathSearch = graphPathSearch;
     }
 
+    /**
+     * Returns the default path search algorithm set by
+     * {@link #setDefaultGraphPathSearch}.
+     *
+     * @return default algorithm; null if the builtin default Dijkstra is used
+     */
+    public static synchronized GraphPathSearch<TopologyVertex, TopologyEdge> getDefaultGraphPathSearch() {
+        return defaultGraphPathSearch;
+    }
+
 
     /**
      * Creates a topology descriptor attributed to the specified provider.
@@ -25,6 +25,7 @@ import org.osgi.service.component.annotations.ReferenceCardinality;
 import org.apache.karaf.features.Feature;
 import org.apache.karaf.features.FeaturesService;
 import org.onosproject.cluster.ClusterAdminService;
+import org.onosproject.store.service.StorageAdminService;
 import org.osgi.framework.Bundle;
 import org.osgi.framework.BundleContext;
 import org.osgi.service.component.ComponentContext;
@@ -33,6 +34,8 @@ import org.osgi.service.component.runtime.dto.ComponentDescriptionDTO;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.lang.management.ManagementFactory;
+import java.util.Set;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
@@ -42,8 +45,8 @@ import static org.onlab.util.Tools.groupedThreads;
 
 /**
  * Monitors the system to make sure that all bundles and their components
- * are properly activated and keeps the cluster node service appropriately
- * updated.
+ * are properly activated and all eventually consistent maps are bootstrapped,
+ * and keeps the cluster node service appropriately updated.
  */
 @Component(immediate = true)
 public class ComponentsMonitor {
@@ -62,12 +65,16 @@ public class ComponentsMonitor {
     @Reference(cardinality = ReferenceCardinality.MANDATORY)
     protected ClusterAdminService clusterAdminService;
 
+    @Reference(cardinality = ReferenceCardinality.MANDATORY)
+    protected StorageAdminService storageAdminService;
+
     private BundleContext bundleContext;
 
     private ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(
             groupedThreads("components-monitor", "%d", log));
     private ScheduledFuture<?> poller;
     private boolean pollerBackedOff;
+    private boolean readyOnce;
 
     @Activate
     protected void activate(ComponentContext context) {
@@ -112,8 +119,13 @@ public class ComponentsMonitor {
      * Checks whether all components are active and marks the node READY if so.
      */
     private void checkStartedState() {
-        boolean isFullyStarted = isFullyStarted();
+        // Bootstraps only hold back the first transition to READY; maps created later must not flap the node
+        boolean isFullyStarted = isFullyStarted() && (readyOnce || isBootstrapped());
         clusterAdminService.markFullyStarted(isFullyStarted);
+        if (isFullyStarted && !readyOnce) {
+            readyOnce = true;
+            log.info("Node ready {} ms after start", ManagementFactory.getRuntimeMXBean().getUptime());
+        }
 
         // If the node is fully started, decrease the rate at which we poll component states.
         // Otherwise, increase the rate at which we poll component states until the node becomes ready.
@@ -143,6 +155,21 @@ public class ComponentsMonitor {
         }
     }
 
+    /**
+     * Checks that the eventually consistent maps are in sync with their peers.
+     * Only consulted until the node becomes READY for the first time.
+     *
+     * @return true if no map is being bootstrapped
+     */
+    private boolean isBootstrapped() {
+        Set<String> pending = storageAdminService.getPendingBootstraps();
+        if (!pending.isEmpty()) {
+            log.debug("Waiting for the bootstrap of {}", pending);
+            return false;
+        }
+        return true;
+    }
+
     private boolean needToCheck(Feature feature) {
         // We only need to check core ONOS features, not external ones.
         return feature.getId().startsWith("onos-") &&
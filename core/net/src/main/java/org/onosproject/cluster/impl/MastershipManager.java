@@ -18,11 +18,14 @@ package org.onosproject.cluster.impl;
 import com.codahale.metrics.Timer;
 import com.codahale.metrics.Timer.Context;
 import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
 import com.google.common.collect.Sets;
 import com.google.common.util.concurrent.Futures;
 import org.onlab.metrics.MetricsService;
 import org.onosproject.cfg.ComponentConfigService;
 import org.onosproject.cfg.ConfigProperty;
+import org.onosproject.cluster.ClusterEvent;
+import org.onosproject.cluster.ClusterEventListener;
 import org.onosproject.cluster.ClusterService;
 import org.onosproject.cluster.ControllerNode;
 import org.onosproject.cluster.NodeId;
@@ -64,12 +67,16 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 
 import static com.google.common.base.Preconditions.checkNotNull;
 import static com.google.common.collect.Lists.newArrayList;
 import static java.util.concurrent.CompletableFuture.allOf;
 import static org.onlab.metrics.MetricsUtil.startTimer;
 import static org.onlab.metrics.MetricsUtil.stopTimer;
+import static org.onlab.util.Tools.groupedThreads;
 import static org.onosproject.net.MastershipRole.MASTER;
 import static org.onosproject.security.AppGuard.checkPermission;
 import static org.onosproject.security.AppPermission.Type.CLUSTER_READ;
@@ -91,7 +98,8 @@ import static org.onosproject.net.OsgiPropertyConstants.*;
         },
         property = {
                 USE_REGION_FOR_BALANCE_ROLES + ":Boolean=" + USE_REGION_FOR_BALANCE_ROLES_DEFAULT,
-                REBALANCE_ROLES_ON_UPGRADE + ":Boolean=" + REBALANCE_ROLES_ON_UPGRADE_DEFAULT
+                REBALANCE_ROLES_ON_UPGRADE + ":Boolean=" + REBALANCE_ROLES_ON_UPGRADE_DEFAULT,
+                FAST_FAILOVER + ":Boolean=" + FAST_FAILOVER_DEFAULT
         }
 )
 public class MastershipManager
@@ -107,6 +115,7 @@ public class MastershipManager
 
     private final MastershipStoreDelegate delegate = new InternalDelegate();
     private final UpgradeEventListener upgradeEventListener = new InternalUpgradeEventListener();
+    private final ClusterEventListener clusterEventListener = new InternalClusterEventListener();
 
     @Reference(cardinality = ReferenceCardinality.MANDATORY)
     protected MastershipStore store;
@@ -128,6 +137,11 @@ public class MastershipManager
 
     private NodeId localNodeId;
     private Timer requestRoleTimer;
+    private Timer failoverTimer;
+    private ExecutorService failoverExecutor;
+
+    // Ongoing failovers: devices of each failed node still waiting for a new master
+    private final Map<NodeId, Failover> failovers = Maps.newConcurrentMap();
 
     /** Use Regions for balancing roles. */
     protected boolean useRegionForBalanceRoles = USE_REGION_FOR_BALANCE_ROLES_DEFAULT;
@@ -135,14 +149,21 @@ public class MastershipManager
     /** Automatically rebalance roles following an upgrade. */
     protected boolean rebalanceRolesOnUpgrade = REBALANCE_ROLES_ON_UPGRADE_DEFAULT;
 
+    /** Hand off all the devices of a failed node to their standbys at once. */
+    protected boolean fastFailover = FAST_FAILOVER_DEFAULT;
+
     @Activate
     public void activate() {
         cfgService.registerProperties(getClass());
         modified();
 
         requestRoleTimer = createTimer("Mastership", "requestRole", "responseTime");
+        failoverTimer = createTimer("Mastership", "failover", "completionTime");
+        failoverExecutor = Executors.newSingleThreadExecutor(
+                groupedThreads("onos/mastership", "failover", log));
         localNodeId = clusterService.getLocalNode().id();
         upgradeService.addListener(upgradeEventListener);
+        clusterService.addListener(clusterEventListener);
         eventDispatcher.addSink(MastershipEvent.class, listenerRegistry);
         store.setDelegate(delegate);
         log.info("Started");
@@ -157,6 +178,8 @@ public class MastershipManager
                     useRegionForBalanceRoles = property.asBoolean();
                 } else if (REBALANCE_ROLES_ON_UPGRADE.equals(property.name())) {
                     rebalanceRolesOnUpgrade = property.asBoolean();
+                } else if (FAST_FAILOVER.equals(property.name())) {
+                    fastFailover = property.asBoolean();
                 }
             }
         }
@@ -166,6 +189,8 @@ public class MastershipManager
     public void deactivate() {
         eventDispatcher.removeSink(MastershipEvent.class);
         upgradeService.removeListener(upgradeEventListener);
+        clusterService.removeListener(clusterEventListener);
+        failoverExecutor.shutdown();
         store.unsetDelegate(delegate);
         log.info("Stopped");
         cfgService.unregisterProperties(getClass(), false);
@@ -566,13 +591,81 @@ public class MastershipManager
         return regionalControllerDevices;
     }
 
+    // Starts tracking the failover of the given node and, if this node
+    // coordinates the failover, hands off its devices
+    private void handleNodeFailure(NodeId nodeId) {
+        Set<DeviceId> devices = store.getDevices(nodeId);
+        if (devices.isEmpty()) {
+            return;
+        }
+        Failover failover = new Failover(devices);
+        failovers.put(nodeId, failover);
+        log.info("{} failed while mastering {} devices", nodeId, devices.size());
+
+        // The active node with the lowest identifier coordinates the failover
+        NodeId coordinator = clusterService.getNodes().stream()
+                .map(ControllerNode::id)
+                .filter(id -> !id.equals(nodeId) && clusterService.getState(id).isActive())
+                .min(Comparator.comparing(NodeId::id))
+                .orElse(null);
+        if (fastFailover && localNodeId.equals(coordinator)) {
+            store.relinquishAllRole(nodeId);
+        }
+        // Devices may have been handed off before the failover was tracked
+        failover.pending.removeIf(deviceId -> !nodeId.equals(store.getMaster(deviceId)));
+        failover.checkCompleted(nodeId);
+    }
+
+    // Devices of a failed node still waiting for a new master
+    private final class Failover {
+        private final long start = System.nanoTime();
+        private final Set<DeviceId> pending = Sets.newConcurrentHashSet();
+
+        private Failover(Set<DeviceId> devices) {
+            pending.addAll(devices);
+        }
+
+        private void mastered(NodeId nodeId, DeviceId deviceId, NodeId master) {
+            if (master != null && !master.equals(nodeId) && pending.remove(deviceId)) {
+                checkCompleted(nodeId);
+            }
+        }
+
+        private void checkCompleted(NodeId nodeId) {
+            if (pending.isEmpty() && failovers.remove(nodeId, this)) {
+                long elapsed = System.nanoTime() - start;
+                if (failoverTimer != null) {
+                    failoverTimer.update(elapsed, TimeUnit.NANOSECONDS);
+                }
+                log.info("Failover of {} completed in {} ms", nodeId, TimeUnit.NANOSECONDS.toMillis(elapsed));
+            }
+        }
+    }
+
     public class InternalDelegate implements MastershipStoreDelegate {
         @Override
         public void notify(MastershipEvent event) {
+            if (event.type() == MastershipEvent.Type.MASTER_CHANGED && !failovers.isEmpty()) {
+                NodeId master = event.roleInfo().master();
+                failovers.forEach((nodeId, failover) -> failover.mastered(nodeId, event.subject(), master));
+            }
             post(event);
         }
     }
 
+    private class InternalClusterEventListener implements ClusterEventListener {
+        @Override
+        public void event(ClusterEvent event) {
+            NodeId nodeId = event.subject().id();
+            if (event.type() == ClusterEvent.Type.INSTANCE_DEACTIVATED && !nodeId.equals(localNodeId)) {
+                failoverExecutor.execute(() -> handleNodeFailure(nodeId));
+            } else if (event.type() == ClusterEvent.Type.INSTANCE_ACTIVATED) {
+                // The node came back before the failover completed
+                failovers.remove(nodeId);
+            }
+        }
+    }
+
     private class InternalUpgradeEventListener implements UpgradeEventListener {
         @Override
         public void event(UpgradeEvent event) {
@@ -26,6 +26,9 @@ public final class OsgiPropertyConstants {
     public static final String REBALANCE_ROLES_ON_UPGRADE = "rebalanceRolesOnUpgrade";
     public static final boolean REBALANCE_ROLES_ON_UPGRADE_DEFAULT = true;
 
+    public static final String FAST_FAILOVER = "fastFailover";
+    public static final boolean FAST_FAILOVER_DEFAULT = false;
+
     public static final String SHARED_THREAD_POOL_SIZE = "sharedThreadPoolSize";
     public static final int SHARED_THREAD_POOL_SIZE_DEFAULT = 30;
 
@@ -44,6 +47,9 @@ public final class OsgiPropertyConstants {
     public static final String POLL_FREQUENCY = "fallbackFlowPollFrequency";
     public static final int POLL_FREQUENCY_DEFAULT = 30;
 
+    public static final String AUDIT_FINGERPRINTS = "auditFingerprints";
+    public static final boolean AUDIT_FINGERPRINTS_DEFAULT = false;
+
     public static final String FOM_NUM_THREADS = "numThreads";
     public static final int FOM_NUM_THREADS_DEFAULT = 4;
 
@@ -80,6 +86,9 @@ public final class OsgiPropertyConstants {
     public static final String ICR_COPY_TTL = "useCopyTtl";
     public static final boolean ICR_COPY_TTL_DEFAULT = false;
 
+    public static final String ICR_LABEL_BLOCK_SIZE = "labelBlockSize";
+    public static final int ICR_LABEL_BLOCK_SIZE_DEFAULT = 0;
+
     public static final String ICU_ENABLED = "enabled";
     public static final boolean ICU_ENABLED_DEFAULT = true;
 
@@ -116,6 +125,9 @@ public final class OsgiPropertyConstants {
     public static final String PWM_PROBE_INTERVAL = "probeInterval";
     public static final int PWM_PROBE_INTERVAL_DEFAULT = 15;
 
+    public static final String PTS_FLOW_RULE_CACHE_SIZE = "flowRuleCacheSize";
+    public static final int PTS_FLOW_RULE_CACHE_SIZE_DEFAULT = 100000;
+
     public static final String DTP_MAX_EVENTS = "maxEvents";
     public static final int DTP_MAX_EVENTS_DEFAULT = 1000;
 
@@ -20,9 +20,13 @@ import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 import com.google.common.collect.Multimap;
 import org.onlab.util.KryoNamespace;
+import org.onlab.util.PredictableExecutor;
 import org.onlab.util.Tools;
+import org.onosproject.cfg.ComponentConfigService;
+import org.onosproject.cfg.ConfigProperty;
 import org.onosproject.cluster.ClusterService;
 import org.onosproject.cluster.NodeId;
+import org.onosproject.cluster.impl.MastershipManager;
 import org.onosproject.mastership.MastershipEvent;
 import org.onosproject.mastership.MastershipListener;
 import org.onosproject.mastership.MastershipService;
@@ -97,8 +101,11 @@ import static com.google.common.collect.Multimaps.newListMultimap;
 import static com.google.common.collect.Multimaps.synchronizedListMultimap;
 import static java.util.concurrent.Executors.newSingleThreadExecutor;
 import static java.util.concurrent.Executors.newSingleThreadScheduledExecutor;
+import static org.onlab.util.PredictableExecutor.newPredictableExecutor;
 import static org.onlab.util.Tools.groupedThreads;
 import static org.onosproject.net.MastershipRole.MASTER;
+import static org.onosproject.net.OsgiPropertyConstants.FAST_FAILOVER;
+import static org.onosproject.net.OsgiPropertyConstants.FAST_FAILOVER_DEFAULT;
 import static org.onosproject.net.MastershipRole.NONE;
 import static org.onosproject.net.MastershipRole.STANDBY;
 import static org.onosproject.security.AppGuard.checkPermission;
@@ -122,6 +129,12 @@ public class DeviceManager
     private static final String PORT_DESC_LIST_NULL = "Port description list cannot be null";
     private static final String EVENT_NON_MASTER = "Non-master node cannot handle this event";
 
+    // Bounds the number of role requests sent concurrently, e.g. on failover
+    private static final int MASTERSHIP_EVENT_WORKERS = 8;
+
+    // Fast failover is configured on the mastership manager
+    private static final String MASTERSHIP_MANAGER = MastershipManager.class.getName();
+
     private final Logger log = getLogger(getClass());
 
     private final DeviceStoreDelegate delegate = new InternalStoreDelegate();
@@ -131,6 +144,11 @@ public class DeviceManager
 
     private ScheduledExecutorService backgroundService;
 
+    // Handles the mastership events, and thus the role requests to the devices,
+    // in parallel across devices but in order for each device; used only with
+    // fast failover, otherwise they go through the background service
+    private PredictableExecutor mastershipEventExecutor;
+
     private final NetworkConfigListener networkConfigListener = new InternalNetworkConfigListener();
 
     @Reference(cardinality = ReferenceCardinality.MANDATORY)
@@ -197,6 +215,9 @@ public class DeviceManager
     private final Map<DeviceId, LocalStatus> deviceLocalStatus =
             Maps.newConcurrentMap();
 
+    @Reference(cardinality = ReferenceCardinality.MANDATORY)
+    protected ComponentConfigService cfgService;
+
     @Activate
     public void activate() {
         portAnnotationOp = new PortAnnotationOperator(networkConfigService);
@@ -205,6 +226,8 @@ public class DeviceManager
 
         backgroundService = newSingleThreadScheduledExecutor(
                 groupedThreads("onos/device", "manager-background", log));
+        mastershipEventExecutor = newPredictableExecutor(
+                MASTERSHIP_EVENT_WORKERS, groupedThreads("onos/device", "mastership-event-%d", log));
         localNodeId = clusterService.getLocalNode().id();
 
         store.setDelegate(delegate);
@@ -234,6 +257,7 @@ public class DeviceManager
     @Deactivate
     public void deactivate() {
         backgroundService.shutdown();
+        mastershipEventExecutor.shutdown();
         networkConfigService.removeListener(networkConfigListener);
         store.unsetDelegate(delegate);
         mastershipService.removeListener(mastershipListener);
@@ -243,6 +267,21 @@ public class DeviceManager
         log.info("Stopped");
     }
 
+    // Runs a role task of the device; with fast failover the tasks of different
+    // devices run in parallel, while those of a device always stay in order
+    private void executeRoleTask(DeviceId deviceId, Runnable task) {
+        if (isFastFailover()) {
+            mastershipEventExecutor.execute(task, deviceId.hashCode());
+        } else {
+            backgroundService.execute(task);
+        }
+    }
+
+    private boolean isFastFailover() {
+        ConfigProperty property = cfgService.getProperty(MASTERSHIP_MANAGER, FAST_FAILOVER);
+        return property != null ? property.asBoolean() : FAST_FAILOVER_DEFAULT;
+    }
+
     @Override
     public int getDeviceCount() {
         checkPermission(DEVICE_READ);
@@ -807,7 +846,7 @@ public class DeviceManager
                              deviceId, response, expected);
                     // roleManager got the device to comply, but doesn't agree with
                     // the store; use the store's view, then try to reassert.
-                    backgroundService.execute(() -> reassertRole(deviceId, expected));
+                    executeRoleTask(deviceId, () -> reassertRole(deviceId, expected));
                     return;
                 }
             } else {
@@ -997,7 +1036,7 @@ public class DeviceManager
 
         @Override
         public void event(MastershipEvent event) {
-            backgroundService.execute(() -> {
+            executeRoleTask(event.subject(), () -> {
                 try {
                     handleMastershipEvent(event);
                 } catch (Exception e) {
@@ -21,6 +21,7 @@ import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 import com.google.common.collect.Multimap;
 import com.google.common.collect.Sets;
+import org.onlab.util.PartitionedFingerprint;
 import org.onlab.util.Tools;
 import org.onosproject.cfg.ComponentConfigService;
 import org.onosproject.core.ApplicationId;
@@ -65,11 +66,13 @@ import org.osgi.service.component.annotations.Reference;
 import org.osgi.service.component.annotations.ReferenceCardinality;
 import org.slf4j.Logger;
 
+import java.util.BitSet;
 import java.util.Collections;
 import java.util.Dictionary;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
@@ -78,10 +81,13 @@ import java.util.concurrent.Executors;
 
 import static com.google.common.base.Preconditions.checkNotNull;
 import static com.google.common.base.Strings.isNullOrEmpty;
+import static org.onlab.util.PartitionedFingerprint.partitionOf;
 import static org.onlab.util.Tools.get;
 import static org.onlab.util.Tools.groupedThreads;
 import static org.onosproject.net.OsgiPropertyConstants.ALLOW_EXTRANEOUS_RULES;
 import static org.onosproject.net.OsgiPropertyConstants.ALLOW_EXTRANEOUS_RULES_DEFAULT;
+import static org.onosproject.net.OsgiPropertyConstants.AUDIT_FINGERPRINTS;
+import static org.onosproject.net.OsgiPropertyConstants.AUDIT_FINGERPRINTS_DEFAULT;
 import static org.onosproject.net.OsgiPropertyConstants.POLL_FREQUENCY;
 import static org.onosproject.net.OsgiPropertyConstants.POLL_FREQUENCY_DEFAULT;
 import static org.onosproject.net.OsgiPropertyConstants.PURGE_ON_DISCONNECTION;
@@ -105,7 +111,8 @@ import static org.slf4j.LoggerFactory.getLogger;
     property = {
         ALLOW_EXTRANEOUS_RULES + ":Boolean=" + ALLOW_EXTRANEOUS_RULES_DEFAULT,
         PURGE_ON_DISCONNECTION + ":Boolean=" + PURGE_ON_DISCONNECTION_DEFAULT,
-        POLL_FREQUENCY + ":Integer=" + POLL_FREQUENCY_DEFAULT
+        POLL_FREQUENCY + ":Integer=" + POLL_FREQUENCY_DEFAULT,
+        AUDIT_FINGERPRINTS + ":Boolean=" + AUDIT_FINGERPRINTS_DEFAULT
     }
 )
 public class FlowRuleManager
@@ -118,6 +125,8 @@ public class FlowRuleManager
     private static final String DEVICE_ID_NULL = "Device ID cannot be null";
     private static final String FLOW_RULE_NULL = "FlowRule cannot be null";
 
+    private static final int AUDIT_PARTITIONS = 64;
+
     /** Allow flow rules in switch not installed by ONOS. */
     private boolean allowExtraneousRules = ALLOW_EXTRANEOUS_RULES_DEFAULT;
 
@@ -127,6 +136,9 @@ public class FlowRuleManager
     /** Frequency (in seconds) for polling flow statistics via fallback provider. */
     private int fallbackFlowPollFrequency = POLL_FREQUENCY_DEFAULT;
 
+    /** Skip the audit of the flow rules whose fingerprints match the device ones. */
+    private boolean auditFingerprints = AUDIT_FINGERPRINTS_DEFAULT;
+
     private final FlowRuleStoreDelegate delegate = new InternalStoreDelegate();
     private final DeviceListener deviceListener = new InternalDeviceListener();
 
@@ -226,6 +238,16 @@ public class FlowRuleManager
                     purgeOnDisconnection ? "enabled" : "disabled");
         }
 
+        flag = Tools.isPropertyEnabled(properties, AUDIT_FINGERPRINTS);
+        if (flag == null) {
+            log.info("AuditFingerprints is not configured, " +
+                    "using current value of {}", auditFingerprints);
+        } else {
+            auditFingerprints = flag;
+            log.info("Configured. AuditFingerprints is {}",
+                    auditFingerprints ? "enabled" : "disabled");
+        }
+
         String s = get(properties, POLL_FREQUENCY);
         if (isNullOrEmpty(s)) {
             log.info("fallbackFlowPollFrequency is not configured, " +
@@ -547,11 +569,23 @@ public class FlowRuleManager
 
         private void pushFlowMetricsInternal(DeviceId deviceId, Iterable<FlowEntry> flowEntries,
                                              boolean useMissingFlow) {
+            Iterable<FlowEntry> storedEntries = store.getFlowEntries(deviceId);
+            BitSet mismatches = auditFingerprints ? auditMismatches(flowEntries, storedEntries) : null;
+
             Map<FlowEntry, FlowEntry> storedRules = Maps.newHashMap();
-            store.getFlowEntries(deviceId).forEach(f -> storedRules.put(f, f));
+            for (FlowEntry f : storedEntries) {
+                if (mismatches == null || mismatches.get(partitionOf(f, AUDIT_PARTITIONS))) {
+                    storedRules.put(f, f);
+                }
+            }
 
             for (FlowEntry rule : flowEntries) {
                 try {
+                    if (mismatches != null && !mismatches.get(partitionOf(rule, AUDIT_PARTITIONS))) {
+                        // the partition is in sync, only the statistics need a refresh
+                        flowAdded(rule);
+                        continue;
+                    }
                     FlowEntry storedRule = storedRules.remove(rule);
                     if (storedRule != null) {
                         if (storedRule.exactMatch(rule)) {
@@ -589,6 +623,26 @@ public class FlowRuleManager
             }
         }
 
+        /**
+         * Returns the partitions in which the rules reported by the device
+         * differ from the stored ones. Stored rules not yet confirmed by the
+         * device never match, so that their partition goes through the full
+         * audit.
+         */
+        private BitSet auditMismatches(Iterable<FlowEntry> flowEntries, Iterable<FlowEntry> storedEntries) {
+            PartitionedFingerprint southboundFingerprint = new PartitionedFingerprint(AUDIT_PARTITIONS);
+            flowEntries.forEach(rule -> southboundFingerprint.add(rule, contentHash(rule)));
+            PartitionedFingerprint storedFingerprint = new PartitionedFingerprint(AUDIT_PARTITIONS);
+            storedEntries.forEach(rule -> storedFingerprint.add(rule, rule.state() == FlowEntry.FlowEntryState.ADDED ?
+                    contentHash(rule) : ~contentHash(rule)));
+            return southboundFingerprint.mismatches(storedFingerprint);
+        }
+
+        // Covers the fields compared by FlowRule.exactMatch() the hash code does not
+        private int contentHash(FlowEntry rule) {
+            return Objects.hash(rule.id(), rule.priority(), rule.treatment());
+        }
+
         @Override
         public void batchOperationCompleted(long batchId, CompletedBatchOperation operation) {
             store.batchOperationComplete(FlowRuleBatchEvent.completed(
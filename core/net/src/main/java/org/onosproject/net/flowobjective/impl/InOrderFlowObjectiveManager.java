@@ -16,13 +16,15 @@
 
 package org.onosproject.net.flowobjective.impl;
 
-import com.google.common.cache.Cache;
-import com.google.common.cache.CacheBuilder;
-import com.google.common.cache.RemovalListener;
-import com.google.common.cache.RemovalListeners;
+import com.codahale.metrics.Histogram;
+import com.codahale.metrics.Timer;
 import com.google.common.collect.ArrayListMultimap;
+import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ListMultimap;
-import com.google.common.collect.Multimaps;
+import com.google.common.collect.Maps;
+import org.onlab.metrics.MetricsComponent;
+import org.onlab.metrics.MetricsFeature;
+import org.onlab.metrics.MetricsService;
 import org.onlab.util.Tools;
 import org.onlab.util.Tools.LogLevel;
 import org.onosproject.net.DeviceId;
@@ -42,46 +44,62 @@ import org.onosproject.net.flowobjective.ObjectiveQueueKey;
 import org.osgi.service.component.annotations.Activate;
 import org.osgi.service.component.annotations.Component;
 import org.osgi.service.component.annotations.Deactivate;
+import org.osgi.service.component.annotations.Reference;
+import org.osgi.service.component.annotations.ReferenceCardinality;
 import org.osgi.service.component.ComponentContext;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.List;
 import java.util.Map;
-import java.util.Objects;
 import java.util.Optional;
+import java.util.Queue;
 import java.util.Set;
-import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 
-import static java.util.concurrent.Executors.newSingleThreadExecutor;
 import static java.util.concurrent.Executors.newSingleThreadScheduledExecutor;
 import static org.onlab.util.Tools.groupedThreads;
 
+/**
+ * Flow objective manager executing the objectives in order.
+ * <p>
+ * Objectives sharing the same queue key are executed one at a time, in the
+ * order they have been submitted. Each key has its own lock-free mailbox;
+ * objectives of different keys are dispatched concurrently to the installer
+ * pool. An objective not completed within the timeout fails with
+ * {@link ObjectiveError#INSTALLATIONTIMEOUT}, and the next one is executed.
+ */
 @Component(immediate = true, service = FlowObjectiveService.class)
 public class InOrderFlowObjectiveManager extends FlowObjectiveManager {
     private final Logger log = LoggerFactory.getLogger(getClass());
 
+    private static final String METRICS_COMPONENT = "FlowObjective";
+    private static final String METRICS_FEATURE = "InOrderQueue";
+    // Number of timeout checks per timeout period
+    private static final int TIMEOUT_TICKS = 8;
+
     // TODO Make queue timeout configurable
     static final int DEFAULT_OBJ_TIMEOUT = 15000;
     int objTimeoutMs = DEFAULT_OBJ_TIMEOUT;
 
-    private Cache<FilteringObjQueueKey, Objective> filtObjQueueHead;
-    private Cache<ForwardingObjQueueKey, Objective> fwdObjQueueHead;
-    private Cache<NextObjQueueKey, Objective> nextObjQueueHead;
-    private ScheduledExecutorService cacheCleaner;
-    private ExecutorService filtCacheEventExecutor;
-    private ExecutorService fwdCacheEventExecutor;
-    private ExecutorService nextCacheEventExecutor;
-
-    private ListMultimap<FilteringObjQueueKey, Objective> filtObjQueue =
-            Multimaps.synchronizedListMultimap(ArrayListMultimap.create());
-    private ListMultimap<ForwardingObjQueueKey, Objective> fwdObjQueue =
-            Multimaps.synchronizedListMultimap(ArrayListMultimap.create());
-    private ListMultimap<NextObjQueueKey, Objective> nextObjQueue =
-            Multimaps.synchronizedListMultimap(ArrayListMultimap.create());
+    @Reference(cardinality = ReferenceCardinality.MANDATORY)
+    protected MetricsService metricsService;
+
+    private final Map<ObjectiveQueueKey, ObjectiveMailbox> mailboxes = Maps.newConcurrentMap();
+
+    // All objectives share the same timeout, hence the deadlines of the
+    // objectives in flight are ordered as they have been started: a FIFO
+    // queue checked periodically is enough to expire them.
+    private final Queue<PendingTimeout> timeouts = new ConcurrentLinkedQueue<>();
+    private ScheduledExecutorService timeoutExecutor;
+
+    // Queue depth seen by each objective, including itself, and time spent
+    // waiting for the previous objectives of the same key
+    private Histogram queueDepthHistogram;
+    private Timer waitTimer;
 
     final FlowObjectiveStoreDelegate delegate = new InternalStoreDelegate();
 
@@ -89,43 +107,16 @@ public class InOrderFlowObjectiveManager extends FlowObjectiveManager {
     protected void activate(ComponentContext context) {
         super.activate(context);
 
-        filtCacheEventExecutor = newSingleThreadExecutor(groupedThreads("onos/flowobj", "cache-event-filt", log));
-        fwdCacheEventExecutor = newSingleThreadExecutor(groupedThreads("onos/flowobj", "cache-event-fwd", log));
-        nextCacheEventExecutor = newSingleThreadExecutor(groupedThreads("onos/flowobj", "cache-event-next", log));
+        if (metricsService != null) {
+            MetricsComponent component = metricsService.registerComponent(METRICS_COMPONENT);
+            MetricsFeature feature = component.registerFeature(METRICS_FEATURE);
+            queueDepthHistogram = metricsService.createHistogram(component, feature, "queueDepth");
+            waitTimer = metricsService.createTimer(component, feature, "waitTime");
+        }
 
-        RemovalListener<ObjectiveQueueKey, Objective> removalListener = notification -> {
-            Objective obj = notification.getValue();
-            switch (notification.getCause()) {
-                case EXPIRED:
-                case COLLECTED:
-                case SIZE:
-                    obj.context().ifPresent(c -> c.onError(obj, ObjectiveError.INSTALLATIONTIMEOUT));
-                    break;
-                case EXPLICIT: // No action when the objective completes correctly
-                case REPLACED: // No action when a pending forward or next objective gets executed
-                default:
-                    break;
-            }
-        };
-        filtObjQueueHead = CacheBuilder.newBuilder()
-                .expireAfterWrite(objTimeoutMs, TimeUnit.MILLISECONDS)
-                .removalListener(RemovalListeners.asynchronous(removalListener, filtCacheEventExecutor))
-                .build();
-        fwdObjQueueHead = CacheBuilder.newBuilder()
-                .expireAfterWrite(objTimeoutMs, TimeUnit.MILLISECONDS)
-                .removalListener(RemovalListeners.asynchronous(removalListener, fwdCacheEventExecutor))
-                .build();
-        nextObjQueueHead = CacheBuilder.newBuilder()
-                .expireAfterWrite(objTimeoutMs, TimeUnit.MILLISECONDS)
-                .removalListener(RemovalListeners.asynchronous(removalListener, nextCacheEventExecutor))
-                .build();
-
-        cacheCleaner = newSingleThreadScheduledExecutor(groupedThreads("onos/flowobj", "cache-cleaner", log));
-        cacheCleaner.scheduleAtFixedRate(() -> {
-            filtObjQueueHead.cleanUp();
-            fwdObjQueueHead.cleanUp();
-            nextObjQueueHead.cleanUp();
-        }, 0, objTimeoutMs, TimeUnit.MILLISECONDS);
+        long tickMs = Math.max(1, objTimeoutMs / TIMEOUT_TICKS);
+        timeoutExecutor = newSingleThreadScheduledExecutor(groupedThreads("onos/flowobj", "timeout", log));
+        timeoutExecutor.scheduleAtFixedRate(this::expireTimeouts, tickMs, tickMs, TimeUnit.MILLISECONDS);
 
         // Replace store delegate to make sure pendingForward and pendingNext are resubmitted to
         // execute()
@@ -135,13 +126,9 @@ public class InOrderFlowObjectiveManager extends FlowObjectiveManager {
 
     @Deactivate
     protected void deactivate() {
-        cacheCleaner.shutdown();
+        timeoutExecutor.shutdown();
         clearQueue();
 
-        filtCacheEventExecutor.shutdown();
-        fwdCacheEventExecutor.shutdown();
-        nextCacheEventExecutor.shutdown();
-
         super.deactivate();
     }
 
@@ -204,84 +191,116 @@ public class InOrderFlowObjectiveManager extends FlowObjectiveManager {
 
     @Override
     public ListMultimap<FilteringObjQueueKey, Objective> getFilteringObjQueue() {
-        return filtObjQueue;
+        return queueSnapshot(FilteringObjQueueKey.class);
     }
 
     @Override
     public ListMultimap<ForwardingObjQueueKey, Objective> getForwardingObjQueue() {
-        return fwdObjQueue;
+        return queueSnapshot(ForwardingObjQueueKey.class);
     }
 
     @Override
     public ListMultimap<NextObjQueueKey, Objective> getNextObjQueue() {
-        return nextObjQueue;
+        return queueSnapshot(NextObjQueueKey.class);
     }
 
     @Override
     public Map<FilteringObjQueueKey, Objective> getFilteringObjQueueHead() {
-        return filtObjQueueHead.asMap();
+        return headSnapshot(FilteringObjQueueKey.class);
     }
 
     @Override
     public Map<ForwardingObjQueueKey, Objective> getForwardingObjQueueHead() {
-        return fwdObjQueueHead.asMap();
+        return headSnapshot(ForwardingObjQueueKey.class);
     }
 
     @Override
     public Map<NextObjQueueKey, Objective> getNextObjQueueHead() {
-        return nextObjQueueHead.asMap();
+        return headSnapshot(NextObjQueueKey.class);
     }
 
     @Override
     public void clearQueue() {
-        filtObjQueueHead.invalidateAll();
-        fwdObjQueueHead.invalidateAll();
-        nextObjQueueHead.invalidateAll();
+        // Objectives in flight are not notified; their completion is ignored
+        mailboxes.clear();
+        timeouts.clear();
+    }
 
-        filtObjQueueHead.cleanUp();
-        fwdObjQueueHead.cleanUp();
-        nextObjQueueHead.cleanUp();
+    private <K extends ObjectiveQueueKey> ListMultimap<K, Objective> queueSnapshot(Class<K> keyClass) {
+        ListMultimap<K, Objective> snapshot = ArrayListMultimap.create();
+        mailboxes.forEach((key, mailbox) -> {
+            if (keyClass.isInstance(key)) {
+                snapshot.putAll(keyClass.cast(key), mailbox.objectives());
+            }
+        });
+        return snapshot;
+    }
 
-        filtObjQueue.clear();
-        fwdObjQueue.clear();
-        nextObjQueue.clear();
+    private <K extends ObjectiveQueueKey> Map<K, Objective> headSnapshot(Class<K> keyClass) {
+        ImmutableMap.Builder<K, Objective> snapshot = ImmutableMap.builder();
+        mailboxes.forEach((key, mailbox) -> {
+            ObjectiveMailbox.Entry head = mailbox.inFlight();
+            if (keyClass.isInstance(key) && head != null) {
+                snapshot.put(keyClass.cast(key), head.objective());
+            }
+        });
+        return snapshot.build();
     }
 
     /**
-     * Enqueue flow objective. Execute the flow objective if there is no pending objective ahead.
+     * Returns the in-order queue key of the given objective.
      *
      * @param deviceId Device ID
      * @param obj Flow objective
+     * @return queue key, or null if the objective type is unknown
      */
-    private synchronized void enqueue(DeviceId deviceId, Objective obj) {
-        int queueSize;
+    private ObjectiveQueueKey queueKey(DeviceId deviceId, Objective obj) {
         int priority = obj.priority();
+        if (obj instanceof FilteringObjective) {
+            return new FilteringObjQueueKey(deviceId, priority, ((FilteringObjective) obj).key());
+        } else if (obj instanceof ForwardingObjective) {
+            return new ForwardingObjQueueKey(deviceId, priority, ((ForwardingObjective) obj).selector());
+        } else if (obj instanceof NextObjective) {
+            return new NextObjQueueKey(deviceId, obj.id());
+        }
+        log.error("Unknown flow objective instance: {}", obj.getClass().getName());
+        return null;
+    }
 
+    /**
+     * Enqueue flow objective. Execute the flow objective if there is no pending objective ahead.
+     *
+     * @param deviceId Device ID
+     * @param obj Flow objective
+     */
+    private void enqueue(DeviceId deviceId, Objective obj) {
         LogLevel logLevel = (obj.op() == Objective.Operation.VERIFY) ? LogLevel.TRACE : LogLevel.DEBUG;
         Tools.log(log, logLevel, "Enqueue {}", obj);
 
-        if (obj instanceof FilteringObjective) {
-            FilteringObjQueueKey k = new FilteringObjQueueKey(deviceId, priority, ((FilteringObjective) obj).key());
-            filtObjQueue.put(k, obj);
-            queueSize = filtObjQueue.get(k).size();
-        } else if (obj instanceof ForwardingObjective) {
-            ForwardingObjQueueKey k =
-                    new ForwardingObjQueueKey(deviceId, priority, ((ForwardingObjective) obj).selector());
-            fwdObjQueue.put(k, obj);
-            queueSize = fwdObjQueue.get(k).size();
-        } else if (obj instanceof NextObjective) {
-            NextObjQueueKey k = new NextObjQueueKey(deviceId, obj.id());
-            nextObjQueue.put(k, obj);
-            queueSize = nextObjQueue.get(k).size();
-        } else {
-            log.error("Unknown flow objective instance: {}", obj.getClass().getName());
+        ObjectiveQueueKey key = queueKey(deviceId, obj);
+        if (key == null) {
             return;
         }
-        log.trace("{} queue size {}", obj.getClass().getSimpleName(), queueSize);
+        ObjectiveMailbox.Entry entry = new ObjectiveMailbox.Entry(deviceId, obj, System.nanoTime());
+        ObjectiveMailbox mailbox;
+        int ahead;
+        while (true) {
+            mailbox = mailboxes.computeIfAbsent(key, k -> new ObjectiveMailbox());
+            ahead = mailbox.add(entry);
+            if (ahead != ObjectiveMailbox.CLOSED) {
+                break;
+            }
+            // Closed while idle by a concurrent dequeue; use a new mailbox
+            mailboxes.remove(key, mailbox);
+        }
+        log.trace("{} queue size {}", obj.getClass().getSimpleName(), ahead + 1);
+        if (queueDepthHistogram != null) {
+            queueDepthHistogram.update(ahead + 1);
+        }
 
         // Execute immediately if there is no pending obj ahead
-        if (queueSize == 1) {
-            execute(deviceId, obj);
+        if (ahead == 0) {
+            start(mailbox, mailbox.next());
         }
     }
 
@@ -292,60 +311,81 @@ public class InOrderFlowObjectiveManager extends FlowObjectiveManager {
      * @param obj Flow objective
      * @param error ObjectiveError that triggers this dequeue. Null if this is not triggered by an error.
      */
-    private synchronized void dequeue(DeviceId deviceId, Objective obj, ObjectiveError error) {
-        List<Objective> remaining;
-        int priority = obj.priority();
-
+    private void dequeue(DeviceId deviceId, Objective obj, ObjectiveError error) {
         LogLevel logLevel = (obj.op() == Objective.Operation.VERIFY) ? LogLevel.TRACE : LogLevel.DEBUG;
         Tools.log(log, logLevel, "Dequeue {}", obj);
 
-        if (obj instanceof FilteringObjective) {
-            FilteringObjQueueKey k = new FilteringObjQueueKey(deviceId, priority, ((FilteringObjective) obj).key());
-            if (!Objects.equals(ObjectiveError.INSTALLATIONTIMEOUT, error)) {
-                filtObjQueueHead.invalidate(k);
-            }
-            filtObjQueue.remove(k, obj);
-            remaining = filtObjQueue.get(k);
-        } else if (obj instanceof ForwardingObjective) {
-            ForwardingObjQueueKey k =
-                    new ForwardingObjQueueKey(deviceId, priority, ((ForwardingObjective) obj).selector());
-            if (!Objects.equals(ObjectiveError.INSTALLATIONTIMEOUT, error)) {
-                fwdObjQueueHead.invalidate(k);
-            }
-            fwdObjQueue.remove(k, obj);
-            remaining = fwdObjQueue.get(k);
-        } else if (obj instanceof NextObjective) {
-            if (error != null) {
-                // Remove pendingForwards and pendingNexts if next objective failed
-                Set<PendingFlowObjective> removedForwards = pendingForwards.remove(obj.id());
-                List<PendingFlowObjective> removedNexts = pendingNexts.remove(obj.id());
-
-                if (removedForwards != null) {
-                    removedForwards.stream().map(PendingFlowObjective::flowObjective)
-                            .forEach(pendingObj -> pendingObj.context().ifPresent(c ->
-                                    c.onError(pendingObj, error)));
-                }
-                if (removedNexts != null) {
-                    removedNexts.stream().map(PendingFlowObjective::flowObjective)
-                            .forEach(pendingObj -> pendingObj.context().ifPresent(c ->
-                                    c.onError(pendingObj, error)));
-                }
+        if (obj instanceof NextObjective && error != null) {
+            // Remove pendingForwards and pendingNexts if next objective failed
+            Set<PendingFlowObjective> removedForwards = pendingForwards.remove(obj.id());
+            List<PendingFlowObjective> removedNexts = pendingNexts.remove(obj.id());
+
+            if (removedForwards != null) {
+                removedForwards.stream().map(PendingFlowObjective::flowObjective)
+                        .forEach(pendingObj -> pendingObj.context().ifPresent(c ->
+                                c.onError(pendingObj, error)));
             }
-            NextObjQueueKey k = new NextObjQueueKey(deviceId, obj.id());
-            if (!Objects.equals(ObjectiveError.INSTALLATIONTIMEOUT, error)) {
-                nextObjQueueHead.invalidate(k);
+            if (removedNexts != null) {
+                removedNexts.stream().map(PendingFlowObjective::flowObjective)
+                        .forEach(pendingObj -> pendingObj.context().ifPresent(c ->
+                                c.onError(pendingObj, error)));
             }
-            nextObjQueue.remove(k, obj);
-            remaining = nextObjQueue.get(k);
-        } else {
-            log.error("Unknown flow objective instance: {}", obj.getClass().getName());
-            return;
         }
-        log.trace("{} queue size {}", obj.getClass().getSimpleName(), remaining.size());
 
+        ObjectiveQueueKey key = queueKey(deviceId, obj);
+        ObjectiveMailbox mailbox = key == null ? null : mailboxes.get(key);
+        if (mailbox == null) {
+            log.trace("No queue for {}, cleared?", obj);
+            return;
+        }
         // Submit the next one in the queue, if any
-        if (remaining.size() > 0) {
-            execute(deviceId, remaining.get(0));
+        ObjectiveMailbox.Entry next = mailbox.complete(obj);
+        if (next != null) {
+            start(mailbox, next);
+        } else if (mailbox.close()) {
+            mailboxes.remove(key, mailbox);
+        }
+    }
+
+    /**
+     * Starts the execution of the objective taken from the given mailbox.
+     *
+     * @param mailbox mailbox of the objective
+     * @param entry objective entry
+     */
+    private void start(ObjectiveMailbox mailbox, ObjectiveMailbox.Entry entry) {
+        long now = System.nanoTime();
+        if (waitTimer != null) {
+            waitTimer.update(now - entry.enqueueNanos(), TimeUnit.NANOSECONDS);
+        }
+        armTimeout(mailbox, entry, now);
+        execute(entry.deviceId(), entry.objective());
+    }
+
+    private void armTimeout(ObjectiveMailbox mailbox, ObjectiveMailbox.Entry entry, long now) {
+        long deadline = now + TimeUnit.MILLISECONDS.toNanos(objTimeoutMs);
+        entry.deadlineNanos(deadline);
+        timeouts.add(new PendingTimeout(mailbox, entry, deadline));
+    }
+
+    /**
+     * Fails the objectives in flight whose deadline has passed.
+     */
+    private void expireTimeouts() {
+        try {
+            long now = System.nanoTime();
+            PendingTimeout timeout;
+            while ((timeout = timeouts.peek()) != null && timeout.deadlineNanos - now <= 0) {
+                timeouts.poll();
+                ObjectiveMailbox.Entry entry = timeout.entry;
+                // Skip objectives completed, or whose timeout has been re-armed
+                if (timeout.mailbox.inFlight() == entry && entry.deadlineNanos() == timeout.deadlineNanos) {
+                    Objective obj = entry.objective();
+                    obj.context().ifPresent(c -> c.onError(obj, ObjectiveError.INSTALLATIONTIMEOUT));
+                }
+            }
+        } catch (Exception e) {
+            log.error("Exception while expiring flow objectives", e);
         }
     }
 
@@ -360,25 +400,46 @@ public class InOrderFlowObjectiveManager extends FlowObjectiveManager {
         LogLevel logLevel = (obj.op() == Objective.Operation.VERIFY) ? LogLevel.TRACE : LogLevel.DEBUG;
         Tools.log(log, logLevel, "Submit objective installer, deviceId {}, obj {}", deviceId, obj);
 
-        int priority = obj.priority();
         if (obj instanceof FilteringObjective) {
-            FilteringObjQueueKey k = new FilteringObjQueueKey(deviceId, priority, ((FilteringObjective) obj).key());
-            filtObjQueueHead.put(k, obj);
             super.filter(deviceId, (FilteringObjective) obj);
         } else if (obj instanceof ForwardingObjective) {
-            ForwardingObjQueueKey k =
-                    new ForwardingObjQueueKey(deviceId, priority, ((ForwardingObjective) obj).selector());
-            fwdObjQueueHead.put(k, obj);
             super.forward(deviceId, (ForwardingObjective) obj);
         } else if (obj instanceof NextObjective) {
-            NextObjQueueKey k = new NextObjQueueKey(deviceId, obj.id());
-            nextObjQueueHead.put(k, obj);
             super.next(deviceId, (NextObjective) obj);
         } else {
             log.error("Unknown flow objective instance: {}", obj.getClass().getName());
         }
     }
 
+    /**
+     * Resubmits a pending flow objective, restarting its timeout.
+     *
+     * @param deviceId Device ID
+     * @param obj Flow objective
+     */
+    private void resubmit(DeviceId deviceId, Objective obj) {
+        ObjectiveQueueKey key = queueKey(deviceId, obj);
+        ObjectiveMailbox mailbox = key == null ? null : mailboxes.get(key);
+        ObjectiveMailbox.Entry entry = mailbox == null ? null : mailbox.inFlight();
+        if (entry != null && entry.objective().equals(obj)) {
+            armTimeout(mailbox, entry, System.nanoTime());
+        }
+        execute(deviceId, obj);
+    }
+
+    // Timeout of an objective in flight
+    private static final class PendingTimeout {
+        private final ObjectiveMailbox mailbox;
+        private final ObjectiveMailbox.Entry entry;
+        private final long deadlineNanos;
+
+        private PendingTimeout(ObjectiveMailbox mailbox, ObjectiveMailbox.Entry entry, long deadlineNanos) {
+            this.mailbox = mailbox;
+            this.entry = entry;
+            this.deadlineNanos = deadlineNanos;
+        }
+    }
+
     private class InternalStoreDelegate implements FlowObjectiveStoreDelegate {
         @Override
         public void notify(ObjectiveEvent event) {
@@ -397,7 +458,7 @@ public class InOrderFlowObjectiveManager extends FlowObjectiveManager {
                     log.debug("Processing {} pending forwarding objectives for nextId {}",
                             pending.size(), event.subject());
                     // execute pending forwards one by one
-                    pending.forEach(p -> execute(p.deviceId(), p.flowObjective()));
+                    pending.forEach(p -> resubmit(p.deviceId(), p.flowObjective()));
                 }
 
                 // now check for pending next-objectives
@@ -415,7 +476,7 @@ public class InOrderFlowObjectiveManager extends FlowObjectiveManager {
                     log.debug("Processing {} pending next objectives for nextId {}",
                             pendNexts.size(), event.subject());
                     // execute pending nexts one by one
-                    pendNexts.forEach(p -> execute(p.deviceId(), p.flowObjective()));
+                    pendNexts.forEach(p -> resubmit(p.deviceId(), p.flowObjective()));
                 }
             }
         }
@@ -0,0 +1,172 @@
+/*
+ * Copyright 2020-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.net.flowobjective.impl;
+
+import com.google.common.collect.ImmutableList;
+import org.onosproject.net.DeviceId;
+import org.onosproject.net.flowobjective.Objective;
+
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Mailbox of the objectives sharing the same in-order queue key.
+ * <p>
+ * Objectives are executed one at a time, in the order they have been added.
+ * Producers add objectives without locking; the producer adding to an idle
+ * mailbox, or the completion of the objective in flight, takes the next
+ * objective to execute. A mailbox that becomes idle can be closed, after
+ * which producers must use a new mailbox.
+ */
+final class ObjectiveMailbox {
+
+    /**
+     * Size returned by {@link #add(Entry)} when the mailbox is closed.
+     */
+    static final int CLOSED = -1;
+
+    private final Queue<Entry> queue = new ConcurrentLinkedQueue<>();
+    // Number of objectives in the mailbox, including the one in flight, or
+    // CLOSED
+    private final AtomicInteger size = new AtomicInteger();
+    private final AtomicReference<Entry> inFlight = new AtomicReference<>();
+
+    /**
+     * Adds an objective to the mailbox. If the mailbox was idle, the caller
+     * must execute the objective returned by {@link #next()}.
+     *
+     * @param entry objective entry
+     * @return number of objectives in the mailbox before this one, or
+     * {@link #CLOSED} if the objective has not been added
+     */
+    int add(Entry entry) {
+        int previous;
+        do {
+            previous = size.get();
+            if (previous == CLOSED) {
+                return CLOSED;
+            }
+        } while (!size.compareAndSet(previous, previous + 1));
+        queue.offer(entry);
+        return previous;
+    }
+
+    /**
+     * Takes the next objective to execute. Must be called only by the owner
+     * of the mailbox, i.e. after adding to an idle mailbox or completing the
+     * objective in flight.
+     *
+     * @return next objective
+     */
+    Entry next() {
+        Entry entry;
+        // The objective may be counted but not queued yet by a concurrent add
+        while ((entry = queue.poll()) == null) {
+            Thread.yield();
+        }
+        inFlight.set(entry);
+        return entry;
+    }
+
+    /**
+     * Completes the objective in flight.
+     *
+     * @param objective objective completed
+     * @return next objective to execute, or null if none or if the given
+     * objective is not the one in flight
+     */
+    Entry complete(Objective objective) {
+        Entry entry = inFlight.get();
+        if (entry == null || !entry.objective().equals(objective)
+                || !inFlight.compareAndSet(entry, null)) {
+            return null;
+        }
+        return size.decrementAndGet() > 0 ? next() : null;
+    }
+
+    /**
+     * Closes the mailbox if idle.
+     *
+     * @return true if closed
+     */
+    boolean close() {
+        return size.compareAndSet(0, CLOSED);
+    }
+
+    /**
+     * Returns the objective in flight.
+     *
+     * @return entry of the objective in flight, or null
+     */
+    Entry inFlight() {
+        return inFlight.get();
+    }
+
+    /**
+     * Returns a snapshot of the objectives of the mailbox, starting with the
+     * one in flight.
+     *
+     * @return list of objectives
+     */
+    List<Objective> objectives() {
+        ImmutableList.Builder<Objective> builder = ImmutableList.builder();
+        Entry head = inFlight.get();
+        if (head != null) {
+            builder.add(head.objective());
+        }
+        queue.forEach(entry -> builder.add(entry.objective()));
+        return builder.build();
+    }
+
+    /**
+     * Objective waiting in, or executed from, a mailbox.
+     */
+    static final class Entry {
+        private final DeviceId deviceId;
+        private final Objective objective;
+        private final long enqueueNanos;
+        private volatile long deadlineNanos;
+
+        Entry(DeviceId deviceId, Objective objective, long enqueueNanos) {
+            this.deviceId = deviceId;
+            this.objective = objective;
+            this.enqueueNanos = enqueueNanos;
+        }
+
+        DeviceId deviceId() {
+            return deviceId;
+        }
+
+        Objective objective() {
+            return objective;
+        }
+
+        long enqueueNanos() {
+            return enqueueNanos;
+        }
+
+        long deadlineNanos() {
+            return deadlineNanos;
+        }
+
+        void deadlineNanos(long deadlineNanos) {
+            this.deadlineNanos = deadlineNanos;
+        }
+    }
+}
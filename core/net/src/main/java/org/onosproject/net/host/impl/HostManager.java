@@ -15,6 +15,8 @@
  */
 package org.onosproject.net.host.impl;
 
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
 import org.onlab.packet.Ip6Address;
 import org.onlab.packet.IpAddress;
 import org.onlab.packet.MacAddress;
@@ -22,6 +24,7 @@ import org.onlab.packet.VlanId;
 import org.onlab.util.Tools;
 import org.onosproject.cfg.ComponentConfigService;
 import org.onosproject.net.ConnectPoint;
+import org.onosproject.net.DefaultAnnotations;
 import org.onosproject.net.DeviceId;
 import org.onosproject.net.Host;
 import org.onosproject.net.HostId;
@@ -34,6 +37,7 @@ import org.onosproject.net.config.basics.BasicHostConfig;
 import org.onosproject.net.config.basics.HostAnnotationConfig;
 import org.onosproject.net.device.DeviceService;
 import org.onosproject.net.edge.EdgePortService;
+import org.onosproject.net.host.DefaultHostDescription;
 import org.onosproject.net.host.HostAdminService;
 import org.onosproject.net.host.HostDescription;
 import org.onosproject.net.host.HostEvent;
@@ -58,7 +62,9 @@ import org.osgi.service.component.annotations.Reference;
 import org.osgi.service.component.annotations.ReferenceCardinality;
 import org.slf4j.Logger;
 
+import java.util.Collection;
 import java.util.Dictionary;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 
@@ -102,6 +108,7 @@ public class HostManager
     private final Logger log = getLogger(getClass());
 
     public static final String HOST_ID_NULL = "Host ID cannot be null";
+    public static final String HOST_DESCRIPTIONS_NULL = "Host descriptions cannot be null";
 
     private final NetworkConfigListener networkConfigListener = new InternalNetworkConfigListener();
 
@@ -350,10 +357,68 @@ public class HostManager
 
         @Override
         public void hostDetected(HostId hostId, HostDescription initialHostDescription, boolean replaceIps) {
-            HostDescription hostDescription = initialHostDescription;
             checkNotNull(hostId, HOST_ID_NULL);
             checkValidity();
-            hostDescription = validateHost(hostDescription, hostId);
+            HostDescription hostDescription = prepareHost(hostId, initialHostDescription);
+            if (hostDescription == null) {
+                return;
+            }
+
+            store.createOrUpdateHost(provider().id(), hostId,
+                                     hostDescription, replaceIps);
+
+            hostLearnt(hostId, hostDescription);
+        }
+
+        @Override
+        public void hostsDetected(Collection<HostDescription> hostDescriptions, boolean replaceIps) {
+            checkNotNull(hostDescriptions, HOST_DESCRIPTIONS_NULL);
+            checkValidity();
+
+            Map<HostId, HostDescription> prepared = Maps.newLinkedHashMap();
+            coalesce(hostDescriptions, replaceIps).forEach((hostId, initialHostDescription) -> {
+                try {
+                    HostDescription hostDescription = prepareHost(hostId, initialHostDescription);
+                    if (hostDescription != null) {
+                        prepared.put(hostId, hostDescription);
+                    }
+                } catch (IllegalStateException e) {
+                    // Do not let a single invalid host fail the whole batch
+                    log.warn("Skipping host {}: {}", hostId, e.getMessage());
+                }
+            });
+            if (prepared.isEmpty()) {
+                return;
+            }
+
+            store.createOrUpdateHosts(provider().id(), prepared, replaceIps);
+
+            prepared.forEach(this::hostLearnt);
+        }
+
+        // Merges the descriptions of the same host in detection order, the way
+        // successive calls to hostDetected would have been applied by the store
+        private Map<HostId, HostDescription> coalesce(Collection<HostDescription> hostDescriptions,
+                                                      boolean replaceIps) {
+            Map<HostId, HostDescription> coalesced = Maps.newLinkedHashMap();
+            hostDescriptions.forEach(desc -> coalesced.merge(
+                    HostId.hostId(desc.hwAddress(), desc.vlan()), desc, (prev, next) -> {
+                        if (replaceIps) {
+                            return next;
+                        }
+                        return new DefaultHostDescription(next.hwAddress(), next.vlan(), next.locations(),
+                                                          Sets.union(prev.ipAddress(), next.ipAddress()),
+                                                          next.innerVlan(), next.tpid(), next.configured(),
+                                                          DefaultAnnotations.union(prev.annotations(),
+                                                                                   next.annotations()));
+                    }));
+            return coalesced;
+        }
+
+        // Validates the host against the configuration, returns the description
+        // to store or null if the host is not allowed
+        private HostDescription prepareHost(HostId hostId, HostDescription initialHostDescription) {
+            HostDescription hostDescription = validateHost(initialHostDescription, hostId);
 
             if (!allowDuplicateIps) {
                 removeDuplicates(hostId, hostDescription);
@@ -362,7 +427,7 @@ public class HostManager
             BasicHostConfig cfg = networkConfigService.getConfig(hostId, BasicHostConfig.class);
             if (!isAllowed(cfg)) {
                 log.warn("Host {} is not allowed to be added into the contol domain", hostId);
-                return;
+                return null;
             }
 
             hostDescription = BasicHostOperator.combine(cfg, initialHostDescription);
@@ -370,10 +435,11 @@ public class HostManager
             if (annoConfig != null) {
                 hostDescription = hostAnnotationOperator.combine(hostId, hostDescription, Optional.of(annoConfig));
             }
+            return hostDescription;
+        }
 
-            store.createOrUpdateHost(provider().id(), hostId,
-                                     hostDescription, replaceIps);
-
+        // Starts monitoring and probing a host that has just been stored
+        private void hostLearnt(HostId hostId, HostDescription hostDescription) {
             if (monitorHosts) {
                 hostDescription.ipAddress().forEach(ip -> {
                     monitor.addMonitoringFor(ip);
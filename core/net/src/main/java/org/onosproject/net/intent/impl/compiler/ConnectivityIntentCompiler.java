@@ -24,6 +24,7 @@ import org.onlab.graph.DefaultEdgeWeigher;
 import org.onlab.graph.ScalarWeight;
 import org.onlab.graph.Weight;
 import org.onlab.util.Bandwidth;
+import org.onosproject.common.DefaultTopology;
 import org.onosproject.net.ConnectPoint;
 import org.onosproject.net.DeviceId;
 import org.onosproject.net.DisjointPath;
@@ -49,6 +50,7 @@ import org.onosproject.net.resource.Resources;
 import org.onosproject.net.topology.LinkWeigher;
 import org.onosproject.net.topology.PathService;
 import org.onosproject.net.topology.TopologyEdge;
+import org.onosproject.net.topology.TopologyService;
 import org.onosproject.net.topology.TopologyVertex;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -72,6 +74,13 @@ public abstract class ConnectivityIntentCompiler<T extends ConnectivityIntent>
 
     private static final Logger log = LoggerFactory.getLogger(ConnectivityIntentCompiler.class);
 
+    // Maximum number of shortest-path trees kept per topology version
+    private static final long MAX_PATH_SOURCES = 1024;
+
+    // Shared by all compilers, so that the paths computed from a source
+    // serve every intent compiled against the same topology version
+    private static final PathOracle PATH_ORACLE = new PathOracle(MAX_PATH_SOURCES);
+
     @Reference(cardinality = ReferenceCardinality.MANDATORY)
     protected DeviceService deviceService;
 
@@ -84,6 +93,9 @@ public abstract class ConnectivityIntentCompiler<T extends ConnectivityIntent>
     @Reference(cardinality = ReferenceCardinality.MANDATORY)
     protected ResourceService resourceService;
 
+    @Reference(cardinality = ReferenceCardinality.MANDATORY)
+    protected TopologyService topologyService;
+
     /**
      * Returns an edge-weight capable of evaluating links on the basis of the
      * specified constraints.
@@ -144,7 +156,7 @@ public abstract class ConnectivityIntentCompiler<T extends ConnectivityIntent>
      */
     protected Path getPath(ConnectivityIntent intent,
                            ElementId one, ElementId two) {
-        Set<Path> paths = pathService.getPaths(one, two, weigher(intent.constraints()));
+        Set<Path> paths = shortestPaths(intent, one, two);
         final List<Constraint> constraints = intent.constraints();
         ImmutableList<Path> filtered = FluentIterable.from(paths)
                 .filter(path -> checkPath(path, constraints))
@@ -170,7 +182,7 @@ public abstract class ConnectivityIntentCompiler<T extends ConnectivityIntent>
      */
     protected List<Path> getPaths(ConnectivityIntent intent,
                            ElementId one, ElementId two) {
-        Set<Path> paths = pathService.getPaths(one, two, weigher(intent.constraints()));
+        Set<Path> paths = shortestPaths(intent, one, two);
         final List<Constraint> constraints = intent.constraints();
         ImmutableList<Path> filtered = FluentIterable.from(paths)
                 .filter(path -> checkPath(path, constraints))
@@ -182,6 +194,28 @@ public abstract class ConnectivityIntentCompiler<T extends ConnectivityIntent>
         return filtered;
     }
 
+    /**
+     * Computes the shortest paths between two elements. Paths between
+     * distinct devices, weighed independently of the intent, are answered by
+     * the shortest-path trees of the current topology version, unless another
+     * path search algorithm than Dijkstra is configured.
+     *
+     * @param intent intent on which behalf paths are being computed
+     * @param one    start of the paths
+     * @param two    end of the paths
+     * @return shortest paths between the two, before constraint validation
+     */
+    private Set<Path> shortestPaths(ConnectivityIntent intent, ElementId one, ElementId two) {
+        LinkWeigher weigher = weigher(intent.constraints());
+        if (topologyService != null && one instanceof DeviceId && two instanceof DeviceId &&
+                !one.equals(two) && weigher instanceof ConnectivityIntentCompiler<?>.ConstraintBasedLinkWeigher &&
+                ((ConnectivityIntentCompiler<?>.ConstraintBasedLinkWeigher) weigher).isHopCount() &&
+                DefaultTopology.getDefaultGraphPathSearch() == null) {
+            return PATH_ORACLE.getPaths(topologyService, (DeviceId) one, (DeviceId) two);
+        }
+        return pathService.getPaths(one, two, weigher);
+    }
+
     /**
      * Computes a disjoint path between two ConnectPoints.
      *
@@ -359,6 +393,11 @@ public abstract class ConnectivityIntentCompiler<T extends ConnectivityIntent>
                         .collect(Collectors.toList());
     }
 
+    // Constraints ignored when weighing the links
+    private static boolean isWeightNeutral(Constraint constraint) {
+        return constraint instanceof MarkerConstraint || constraint instanceof PathViabilityConstraint;
+    }
+
     /**
      * Edge-weight capable of evaluating link cost using a set of constraints.
      */
@@ -381,14 +420,23 @@ public abstract class ConnectivityIntentCompiler<T extends ConnectivityIntent>
             }
         }
 
+        /**
+         * Indicates whether links are weighed by hop count only, i.e. no
+         * constraint contributes to the weight of the links.
+         *
+         * @return true if the weight of every link is the hop weight
+         */
+        boolean isHopCount() {
+            return constraints.stream().allMatch(ConnectivityIntentCompiler::isWeightNeutral);
+        }
+
         @Override
         public Weight weight(TopologyEdge edge) {
 
             // iterate over all constraints in order and return the weight of
             // the first one with fast fail over the first failure
             Iterator<Constraint> it = constraints.stream()
-                    .filter(c -> !(c instanceof MarkerConstraint))
-                    .filter(c -> !(c instanceof PathViabilityConstraint))
+                    .filter(c -> !isWeightNeutral(c))
                     .iterator();
 
             if (!it.hasNext()) {
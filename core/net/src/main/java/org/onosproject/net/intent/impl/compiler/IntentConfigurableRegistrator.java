@@ -17,8 +17,12 @@
 package org.onosproject.net.intent.impl.compiler;
 
 import com.google.common.collect.Maps;
+import org.onlab.util.Identifier;
 import org.onlab.util.Tools;
 import org.onosproject.cfg.ComponentConfigService;
+import org.onosproject.cluster.ClusterService;
+import org.onosproject.cluster.ControllerNode;
+import org.onosproject.cluster.NodeId;
 import org.onosproject.net.intent.Intent;
 import org.onosproject.net.intent.IntentCompiler;
 import org.onosproject.net.intent.IntentExtensionService;
@@ -32,12 +36,17 @@ import org.osgi.service.component.annotations.Reference;
 import org.osgi.service.component.annotations.ReferenceCardinality;
 import org.slf4j.Logger;
 
+import java.util.List;
 import java.util.Map;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
 
 import static com.google.common.base.Strings.isNullOrEmpty;
 import static org.onosproject.net.OsgiPropertyConstants.ICR_COPY_TTL;
 import static org.onosproject.net.OsgiPropertyConstants.ICR_COPY_TTL_DEFAULT;
 import static org.onosproject.net.OsgiPropertyConstants.ICR_FLOW_OPTIMIZATION;
+import static org.onosproject.net.OsgiPropertyConstants.ICR_LABEL_BLOCK_SIZE;
+import static org.onosproject.net.OsgiPropertyConstants.ICR_LABEL_BLOCK_SIZE_DEFAULT;
 import static org.onosproject.net.OsgiPropertyConstants.ICR_LABEL_SELECTION;
 import static org.onosproject.net.OsgiPropertyConstants.ICR_OPT_LABEL_SELECTION;
 import static org.onosproject.net.OsgiPropertyConstants.ICR_USE_FLOW_OBJECTIVES;
@@ -58,7 +67,8 @@ import static org.slf4j.LoggerFactory.getLogger;
         ICR_LABEL_SELECTION + "=" + ICR_LABEL_SELECTION_DEFAULT,
         ICR_OPT_LABEL_SELECTION + "=" + ICR_LABEL_SELECTION_DEFAULT,
         ICR_FLOW_OPTIMIZATION + ":Boolean=" + ICR_FLOW_OPTIMIZATION_DEFAULT,
-        ICR_COPY_TTL + ":Boolean=" + ICR_COPY_TTL_DEFAULT
+        ICR_COPY_TTL + ":Boolean=" + ICR_COPY_TTL_DEFAULT,
+        ICR_LABEL_BLOCK_SIZE + ":Integer=" + ICR_LABEL_BLOCK_SIZE_DEFAULT
     }
 )
 public class IntentConfigurableRegistrator {
@@ -71,6 +81,9 @@ public class IntentConfigurableRegistrator {
     @Reference(cardinality = ReferenceCardinality.MANDATORY)
     protected ComponentConfigService cfgService;
 
+    @Reference(cardinality = ReferenceCardinality.MANDATORY)
+    protected ClusterService clusterService;
+
     /** Indicates whether or not to use flow objective-based compilers. */
     private boolean useFlowObjectives = ICR_USE_FLOW_OBJECTIVES_DEFAULT;
 
@@ -86,6 +99,9 @@ public class IntentConfigurableRegistrator {
     /** Indicates whether or not to use copy ttl in the link collection compiler. */
     private boolean useCopyTtl = ICR_COPY_TTL_DEFAULT;
 
+    /** Number of labels claimed per port and cached locally by the label allocator; 0 disables the cache. */
+    private int labelBlockSize = ICR_LABEL_BLOCK_SIZE_DEFAULT;
+
     private final Map<Class<Intent>, IntentCompiler<Intent>> flowRuleBased = Maps.newConcurrentMap();
 
     // FIXME: temporary code for switching old compiler to new compiler
@@ -111,6 +127,7 @@ public class IntentConfigurableRegistrator {
             log.info("Settings: useFlowOptimization={}", optimizeInstructions);
             log.info("Settings: useCopyTtl={}", useCopyTtl);
             log.info("Settings: optLabelSelection={}", optLabelSelection);
+            log.info("Settings: labelBlockSize={}", labelBlockSize);
 
             return;
         }
@@ -186,6 +203,20 @@ public class IntentConfigurableRegistrator {
             changeCopyTtl();
             log.info("Settings: useCopyTtl={}", useCopyTtl);
         }
+
+        int newLabelBlockSize;
+        try {
+            String s = Tools.get(context.getProperties(), ICR_LABEL_BLOCK_SIZE);
+            newLabelBlockSize = isNullOrEmpty(s) ? labelBlockSize : Integer.parseInt(s.trim());
+        } catch (NumberFormatException | ClassCastException e) {
+            newLabelBlockSize = labelBlockSize;
+        }
+
+        if (labelBlockSize != newLabelBlockSize && newLabelBlockSize >= 0) {
+            labelBlockSize = newLabelBlockSize;
+            changeLabelBlockSize();
+            log.info("Settings: labelBlockSize={}", labelBlockSize);
+        }
     }
 
     /**
@@ -256,4 +287,46 @@ public class IntentConfigurableRegistrator {
         LinkCollectionCompiler.copyTtl = useCopyTtl;
     }
 
+    private void changeLabelBlockSize() {
+        if (LinkCollectionCompiler.labelAllocator != null) {
+            LinkCollectionCompiler.labelAllocator.setLabelBlockSize(labelBlockSize);
+        }
+        if (PathCompiler.labelAllocator != null) {
+            PathCompiler.labelAllocator.setLabelBlockSize(labelBlockSize);
+        }
+    }
+
+    /**
+     * Applies the label block settings to the given label allocator.
+     *
+     * @param allocator label allocator of a compiler
+     */
+    void configureLabelAllocator(LabelAllocator allocator) {
+        allocator.setLabelBlockOwner(this::localLabels);
+        allocator.setLabelBlockSize(labelBlockSize);
+    }
+
+    /**
+     * Returns the predicate selecting the labels the local node may claim in
+     * its label blocks. Labels are partitioned among the cluster nodes, sorted
+     * by identifier, so that the blocks claimed by different nodes are disjoint.
+     *
+     * @return predicate selecting the labels owned by the local node
+     */
+    Predicate<Identifier<?>> localLabels() {
+        if (clusterService == null) {
+            return label -> true;
+        }
+        List<NodeId> nodes = clusterService.getNodes().stream()
+                .map(ControllerNode::id)
+                .sorted((a, b) -> a.id().compareTo(b.id()))
+                .collect(Collectors.toList());
+        int index = nodes.indexOf(clusterService.getLocalNode().id());
+        int count = nodes.size();
+        if (index < 0 || count < 2) {
+            return label -> true;
+        }
+        return label -> Math.floorMod(label.id().hashCode(), count) == index;
+    }
+
 }
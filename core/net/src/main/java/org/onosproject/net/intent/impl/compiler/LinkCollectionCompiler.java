@@ -16,7 +16,10 @@
 
 package org.onosproject.net.intent.impl.compiler;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 import com.google.common.collect.SetMultimap;
@@ -76,6 +79,7 @@ import org.slf4j.LoggerFactory;
 
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
 import java.util.stream.Collectors;
@@ -198,6 +202,21 @@ public abstract class LinkCollectionCompiler<T> {
 
     private static Logger log = LoggerFactory.getLogger(LinkCollectionCompiler.class);
 
+    /**
+     * Maximum number of forwarding instructions kept by the compiler.
+     */
+    private static final long MAX_CACHED_INSTRUCTIONS = 100_000;
+
+    /*
+     * Forwarding instructions computed without encapsulation, indexed by
+     * everything they are derived from. Recompiling an intent reuses the
+     * instructions of the devices whose ports have not changed, and intents
+     * with the same shape share the instructions of the devices they have in
+     * common.
+     */
+    private final Cache<InstructionsKey, ForwardingInstructions> instructionsCache =
+            CacheBuilder.newBuilder().maximumSize(MAX_CACHED_INSTRUCTIONS).build();
+
     /**
      * Influence compiler behavior.
      *
@@ -247,12 +266,18 @@ public abstract class LinkCollectionCompiler<T> {
          * If not encapsulation or single hop.
          */
         if (!encapConstraint.isPresent() || intent.links().isEmpty()) {
-            instructions = this.createForwardingInstructions(
-                    intent,
-                    inPort,
-                    deviceId,
-                    outPorts
-            );
+            InstructionsKey key = new InstructionsKey(intent, inPort, deviceId, outPorts, optimizeTreatments());
+            instructions = instructionsCache.getIfPresent(key);
+            if (instructions == null) {
+                instructions = this.createForwardingInstructions(
+                        intent,
+                        inPort,
+                        deviceId,
+                        outPorts
+                );
+                // Failed compilations throw and are not cached
+                instructionsCache.put(key, instructions);
+            }
         /*
          * If encapsulation is present. We retrieve the labels
          * for this iteration;
@@ -927,6 +952,83 @@ public abstract class LinkCollectionCompiler<T> {
 
     }
 
+    /**
+     * Key of the forwarding instructions computed without encapsulation.
+     * <p>
+     * Besides the device and its ports, the instructions depend on the
+     * selector and treatment of the intent, on where the treatment is applied,
+     * on the unique ingress (or egress) point from which the packet state is
+     * derived, on the filtered connect points of the device, on whether the
+     * treatments are optimized, and on whether TTLs are copied when pushing or
+     * popping MPLS labels.
+     */
+    private static final class InstructionsKey {
+
+        private final DeviceId deviceId;
+        private final PortNumber inPort;
+        private final Set<PortNumber> outPorts;
+        private final TrafficSelector selector;
+        private final TrafficTreatment treatment;
+        private final boolean applyTreatmentOnEgress;
+        private final Set<FilteredConnectPoint> anchorPoints;
+        private final Set<FilteredConnectPoint> localIngressPoints;
+        private final Set<FilteredConnectPoint> localEgressPoints;
+        private final boolean optimizeTreatments;
+        private final boolean copyTtl;
+
+        private InstructionsKey(LinkCollectionIntent intent, PortNumber inPort,
+                                DeviceId deviceId, Set<PortNumber> outPorts,
+                                boolean optimizeTreatments) {
+            this.deviceId = deviceId;
+            this.inPort = inPort;
+            this.outPorts = ImmutableSet.copyOf(outPorts);
+            this.selector = intent.selector();
+            this.treatment = intent.treatment();
+            this.applyTreatmentOnEgress = intent.applyTreatmentOnEgress();
+            this.anchorPoints = applyTreatmentOnEgress ?
+                    intent.filteredIngressPoints() : intent.filteredEgressPoints();
+            this.localIngressPoints = localPoints(intent.filteredIngressPoints(), deviceId);
+            this.localEgressPoints = localPoints(intent.filteredEgressPoints(), deviceId);
+            this.optimizeTreatments = optimizeTreatments;
+            this.copyTtl = LinkCollectionCompiler.copyTtl;
+        }
+
+        private static Set<FilteredConnectPoint> localPoints(Set<FilteredConnectPoint> points,
+                                                             DeviceId deviceId) {
+            return points.stream()
+                    .filter(point -> point.connectPoint().deviceId().equals(deviceId))
+                    .collect(ImmutableSet.toImmutableSet());
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(deviceId, inPort, outPorts, selector, treatment,
+                                applyTreatmentOnEgress, anchorPoints, optimizeTreatments, copyTtl);
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof InstructionsKey)) {
+                return false;
+            }
+            InstructionsKey that = (InstructionsKey) obj;
+            return applyTreatmentOnEgress == that.applyTreatmentOnEgress &&
+                    optimizeTreatments == that.optimizeTreatments &&
+                    copyTtl == that.copyTtl &&
+                    deviceId.equals(that.deviceId) &&
+                    inPort.equals(that.inPort) &&
+                    outPorts.equals(that.outPorts) &&
+                    selector.equals(that.selector) &&
+                    treatment.equals(that.treatment) &&
+                    anchorPoints.equals(that.anchorPoints) &&
+                    localIngressPoints.equals(that.localIngressPoints) &&
+                    localEgressPoints.equals(that.localEgressPoints);
+        }
+    }
+
     /**
      * Helper method to compute input and output ports
      * for each device crossed in the path.
@@ -91,6 +91,7 @@ public class LinkCollectionIntentCompiler
         if (labelAllocator == null) {
             labelAllocator = new LabelAllocator(resourceService);
         }
+        registrator.configureLabelAllocator(labelAllocator);
     }
 
     @Deactivate
@@ -102,6 +102,7 @@ public class LinkCollectionIntentFlowObjectiveCompiler
         if (labelAllocator == null) {
             labelAllocator = new LabelAllocator(resourceService);
         }
+        registrator.configureLabelAllocator(labelAllocator);
     }
 
     @Deactivate
@@ -75,6 +75,7 @@ public class PathIntentFlowObjectiveCompiler
         appId = coreService.registerApplication("org.onosproject.net.intent");
         registrator.registerCompiler(PathIntent.class, this, true);
         labelAllocator = new LabelAllocator(resourceService);
+        registrator.configureLabelAllocator(labelAllocator);
     }
 
     @Deactivate
@@ -0,0 +1,154 @@
+/*
+ * Copyright 2020-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.net.intent.impl.compiler;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.ImmutableListMultimap;
+import com.google.common.collect.ListMultimap;
+import com.google.common.collect.Sets;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import org.onlab.graph.DefaultEdgeWeigher;
+import org.onlab.graph.DijkstraGraphSearch;
+import org.onlab.graph.GraphPathSearch;
+import org.onlab.graph.Weight;
+import org.onosproject.core.CoreService;
+import org.onosproject.net.DefaultPath;
+import org.onosproject.net.DeviceId;
+import org.onosproject.net.Link;
+import org.onosproject.net.Path;
+import org.onosproject.net.topology.DefaultTopologyVertex;
+import org.onosproject.net.topology.Topology;
+import org.onosproject.net.topology.TopologyEdge;
+import org.onosproject.net.topology.TopologyGraph;
+import org.onosproject.net.topology.TopologyService;
+import org.onosproject.net.topology.TopologyVertex;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static org.onlab.graph.GraphPathSearch.ALL_PATHS;
+
+/**
+ * Shortest paths between infrastructure devices, answered from single-source
+ * trees shared by the path queries of a topology version.
+ * <p>
+ * The first query from a source runs one search to all the destinations of
+ * the topology; the following queries from that source, e.g. the ones of the
+ * other intents compiled after the same topology change, are answered from
+ * the resulting tree. Trees are dropped as soon as the topology changes.
+ * <p>
+ * Links are weighed by hop count, hence the oracle answers only the queries
+ * whose link weigher does not depend on the querying intent. The trees are
+ * searched with Dijkstra, hence the oracle stands in for the path service only
+ * while no other default path search algorithm is set; the paths are then the
+ * ones the path service computes with such a weigher.
+ */
+final class PathOracle {
+
+    private static final DijkstraGraphSearch<TopologyVertex, TopologyEdge> DIJKSTRA =
+            new DijkstraGraphSearch<>();
+    private static final DefaultEdgeWeigher<TopologyVertex, TopologyEdge> HOP_COUNT =
+            new DefaultEdgeWeigher<>();
+
+    private final long maxSources;
+    private final AtomicReference<Generation> generation = new AtomicReference<>();
+
+    /**
+     * Creates a new path oracle.
+     *
+     * @param maxSources maximum number of trees kept per topology version
+     */
+    PathOracle(long maxSources) {
+        checkArgument(maxSources > 0, "Number of sources must be positive");
+        this.maxSources = maxSources;
+    }
+
+    /**
+     * Returns the shortest paths by hop count between two devices of the
+     * current topology.
+     *
+     * @param topologyService topology service
+     * @param src             source device
+     * @param dst             destination device
+     * @return set of shortest paths; empty if the devices are not connected
+     */
+    Set<Path> getPaths(TopologyService topologyService, DeviceId src, DeviceId dst) {
+        checkArgument(!src.equals(dst), "Source and destination must differ");
+        Generation current = generation(topologyService);
+        ListMultimap<DeviceId, Path> tree;
+        try {
+            tree = current.trees.get(src, () -> current.search(src));
+        } catch (ExecutionException | UncheckedExecutionException e) {
+            throw new IllegalStateException("Unable to compute paths from " + src, e.getCause());
+        }
+        List<Path> paths = tree.get(dst);
+        Set<Path> result = Sets.newHashSetWithExpectedSize(paths.size());
+        result.addAll(paths);
+        return result;
+    }
+
+    private Generation generation(TopologyService topologyService) {
+        Topology topology = topologyService.currentTopology();
+        Generation current = generation.get();
+        if (current != null && current.topology == topology) {
+            return current;
+        }
+        Generation fresh = new Generation(topology, topologyService.getGraph(topology), maxSources);
+        // Concurrent callers may race; the loser keeps working on its own copy
+        generation.compareAndSet(current, fresh);
+        return fresh;
+    }
+
+    // Trees of a topology version, indexed by source
+    private static final class Generation {
+        private final Topology topology;
+        private final TopologyGraph graph;
+        private final Cache<DeviceId, ListMultimap<DeviceId, Path>> trees;
+
+        private Generation(Topology topology, TopologyGraph graph, long maxSources) {
+            this.topology = topology;
+            this.graph = graph;
+            this.trees = CacheBuilder.newBuilder().maximumSize(maxSources).build();
+        }
+
+        private ListMultimap<DeviceId, Path> search(DeviceId src) {
+            TopologyVertex srcV = new DefaultTopologyVertex(src);
+            if (!graph.getVertexes().contains(srcV)) {
+                return ImmutableListMultimap.of();
+            }
+            GraphPathSearch.Result<TopologyVertex, TopologyEdge> result =
+                    DIJKSTRA.search(graph, srcV, null, HOP_COUNT, ALL_PATHS);
+            ImmutableListMultimap.Builder<DeviceId, Path> tree = ImmutableListMultimap.builder();
+            for (org.onlab.graph.Path<TopologyVertex, TopologyEdge> path : result.paths()) {
+                tree.put(path.dst().deviceId(), networkPath(path));
+            }
+            return tree.build();
+        }
+
+        // Converts graph path to a network path with the cost the path service gives
+        private static Path networkPath(org.onlab.graph.Path<TopologyVertex, TopologyEdge> path) {
+            List<Link> links = path.edges().stream().map(TopologyEdge::link)
+                    .collect(Collectors.toList());
+            Weight cost = HOP_COUNT.getInitialWeight().merge(path.cost());
+            return new DefaultPath(CoreService.CORE_PROVIDER_ID, links, cost);
+        }
+    }
+}
@@ -0,0 +1,217 @@
+/*
+ * Copyright 2020-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.net.pi.impl;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.Maps;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import org.onosproject.net.DeviceId;
+import org.onosproject.net.flow.FlowRule;
+import org.onosproject.net.flow.TableId;
+import org.onosproject.net.flow.TrafficSelector;
+import org.onosproject.net.flow.TrafficTreatment;
+import org.onosproject.net.pi.model.PiPipeconf;
+import org.onosproject.net.pi.model.PiPipeconfId;
+import org.onosproject.net.pi.service.PiTranslationException;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.LongAdder;
+
+import static com.google.common.base.MoreObjects.toStringHelper;
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * Bounded cache of the flow rule translations, scoped by pipeconf.
+ * <p>
+ * Translations are indexed by device, table, selector and treatment, the
+ * parts of a flow rule resulting from the pipeconf and from the interpreter of
+ * the device. The translations of a pipeconf are dropped as soon as a
+ * different instance of the pipeconf with the same identifier is used, i.e.
+ * when the pipeconf is registered again, or when the pipeconf is invalidated
+ * explicitly. Failed translations are not cached.
+ */
+final class PiFlowRuleTranslationCache {
+
+    private final long maxSize;
+    private final Map<PiPipeconfId, Scope> scopes = Maps.newConcurrentMap();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * Creates a new cache.
+     *
+     * @param maxSize maximum number of translations kept per pipeconf
+     */
+    PiFlowRuleTranslationCache(long maxSize) {
+        checkArgument(maxSize > 0, "Cache size must be positive");
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Returns the translation of the given flow rule, computing it if not
+     * present.
+     *
+     * @param rule        flow rule
+     * @param pipeconf    pipeconf of the device of the flow rule
+     * @param translation computes the translation
+     * @return translation
+     * @throws PiTranslationException if the translation fails
+     */
+    PiFlowRuleTranslatorImpl.Shape get(FlowRule rule, PiPipeconf pipeconf,
+                                       Callable<PiFlowRuleTranslatorImpl.Shape> translation)
+            throws PiTranslationException {
+        Cache<Key, PiFlowRuleTranslatorImpl.Shape> translations = scope(pipeconf).translations;
+        Key key = new Key(rule.deviceId(), rule.table(), rule.selector(), rule.treatment());
+        PiFlowRuleTranslatorImpl.Shape shape = translations.getIfPresent(key);
+        if (shape != null) {
+            hits.increment();
+            return shape;
+        }
+        misses.increment();
+        try {
+            return translations.get(key, translation);
+        } catch (ExecutionException | UncheckedExecutionException e) {
+            if (e.getCause() instanceof PiTranslationException) {
+                throw (PiTranslationException) e.getCause();
+            }
+            throw new PiTranslationException("Unable to translate flow rule: " + e.getCause().getMessage());
+        }
+    }
+
+    private Scope scope(PiPipeconf pipeconf) {
+        Scope scope = scopes.get(pipeconf.id());
+        if (scope != null && scope.pipeconf == pipeconf) {
+            return scope;
+        }
+        return scopes.compute(pipeconf.id(), (id, existing) ->
+                existing != null && existing.pipeconf == pipeconf ? existing : new Scope(pipeconf));
+    }
+
+    /**
+     * Drops the translations of the given pipeconf.
+     *
+     * @param pipeconfId pipeconf identifier
+     */
+    void invalidate(PiPipeconfId pipeconfId) {
+        scopes.remove(pipeconfId);
+    }
+
+    /**
+     * Drops all the translations.
+     */
+    void invalidateAll() {
+        scopes.clear();
+    }
+
+    /**
+     * Returns the number of translations found in the cache.
+     *
+     * @return number of hits
+     */
+    long hits() {
+        return hits.sum();
+    }
+
+    /**
+     * Returns the number of translations computed.
+     *
+     * @return number of misses
+     */
+    long misses() {
+        return misses.sum();
+    }
+
+    /**
+     * Returns the fraction of the translations found in the cache.
+     *
+     * @return hit ratio, between 0 and 1
+     */
+    double hitRatio() {
+        long hitCount = hits.sum();
+        long total = hitCount + misses.sum();
+        return total == 0 ? 0 : (double) hitCount / total;
+    }
+
+    /**
+     * Returns the number of cached translations.
+     *
+     * @return cache size
+     */
+    long size() {
+        return scopes.values().stream().mapToLong(scope -> scope.translations.size()).sum();
+    }
+
+    @Override
+    public String toString() {
+        return toStringHelper(this)
+                .add("size", size())
+                .add("hits", hits())
+                .add("misses", misses())
+                .toString();
+    }
+
+    // Translations of a pipeconf instance
+    private final class Scope {
+        private final PiPipeconf pipeconf;
+        private final Cache<Key, PiFlowRuleTranslatorImpl.Shape> translations;
+
+        private Scope(PiPipeconf pipeconf) {
+            this.pipeconf = pipeconf;
+            this.translations = CacheBuilder.newBuilder().maximumSize(maxSize).build();
+        }
+    }
+
+    private static final class Key {
+        private final DeviceId deviceId;
+        private final TableId tableId;
+        private final TrafficSelector selector;
+        private final TrafficTreatment treatment;
+        private final int hash;
+
+        private Key(DeviceId deviceId, TableId tableId, TrafficSelector selector, TrafficTreatment treatment) {
+            this.deviceId = deviceId;
+            this.tableId = tableId;
+            this.selector = selector;
+            this.treatment = treatment;
+            this.hash = Objects.hash(deviceId, tableId, selector, treatment);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof Key)) {
+                return false;
+            }
+            Key that = (Key) obj;
+            return hash == that.hash
+                    && deviceId.equals(that.deviceId)
+                    && tableId.equals(that.tableId)
+                    && selector.equals(that.selector)
+                    && treatment.equals(that.treatment);
+        }
+    }
+}
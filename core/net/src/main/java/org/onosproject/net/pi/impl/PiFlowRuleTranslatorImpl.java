@@ -90,6 +90,33 @@ final class PiFlowRuleTranslatorImpl {
      */
     static PiTableEntry translate(FlowRule rule, PiPipeconf pipeconf, Device device)
             throws PiTranslationException {
+        return buildEntry(rule, translateShape(rule, pipeconf, device));
+    }
+
+    /**
+     * Returns a PI table entry equivalent to the given flow rule, for the given
+     * pipeconf and device, reusing the translation of previous flow rules with
+     * the same table, selector and treatment when present in the given cache.
+     *
+     * @param rule     flow rule
+     * @param pipeconf pipeconf
+     * @param device   device
+     * @param cache    translation cache
+     * @return PI table entry
+     * @throws PiTranslationException if the flow rule cannot be translated
+     */
+    static PiTableEntry translate(FlowRule rule, PiPipeconf pipeconf, Device device,
+                                  PiFlowRuleTranslationCache cache)
+            throws PiTranslationException {
+        return buildEntry(rule, cache.get(rule, pipeconf, () -> translateShape(rule, pipeconf, device)));
+    }
+
+    /**
+     * Translates the parts of the given flow rule that depend only on its
+     * table, selector and treatment.
+     */
+    private static Shape translateShape(FlowRule rule, PiPipeconf pipeconf, Device device)
+            throws PiTranslationException {
 
         PiPipelineModel pipelineModel = pipeconf.pipelineModel();
 
@@ -119,18 +146,23 @@ final class PiFlowRuleTranslatorImpl {
         // Translate treatment.
         final PiTableAction piTableAction = translateTreatment(rule.treatment(), interpreter, piTableId, pipelineModel);
 
+        return new Shape(piTableId, piMatchKey, needPriority, piTableAction, tableModel.supportsAging());
+    }
+
+    private static PiTableEntry buildEntry(FlowRule rule, Shape shape) {
+
         // Build PI entry.
         final PiTableEntry.Builder tableEntryBuilder = PiTableEntry.builder();
 
         tableEntryBuilder
-                .forTable(piTableId)
-                .withMatchKey(piMatchKey);
+                .forTable(shape.tableId)
+                .withMatchKey(shape.matchKey);
 
-        if (piTableAction != null) {
-            tableEntryBuilder.withAction(piTableAction);
+        if (shape.action != null) {
+            tableEntryBuilder.withAction(shape.action);
         }
 
-        if (needPriority) {
+        if (shape.needPriority) {
             // FIXME: move priority check to P4Runtime driver.
             final int newPriority;
             if (rule.priority() > MAX_PI_PRIORITY) {
@@ -144,11 +176,11 @@ final class PiFlowRuleTranslatorImpl {
         }
 
         if (!rule.isPermanent()) {
-            if (tableModel.supportsAging()) {
+            if (shape.supportsAging) {
                 tableEntryBuilder.withTimeout((double) rule.timeout());
             } else {
                 log.debug("Flow rule is temporary, but table '{}' doesn't support " +
-                                  "aging, translating to permanent.", tableModel.id());
+                                  "aging, translating to permanent.", shape.tableId);
             }
 
         }
@@ -156,6 +188,27 @@ final class PiFlowRuleTranslatorImpl {
         return tableEntryBuilder.build();
     }
 
+    /**
+     * Translation of the table, selector and treatment of a flow rule; all the
+     * flow rules sharing them are translated to entries differing only by
+     * priority and timeout.
+     */
+    static final class Shape {
+        private final PiTableId tableId;
+        private final PiMatchKey matchKey;
+        private final boolean needPriority;
+        private final PiTableAction action;
+        private final boolean supportsAging;
+
+        private Shape(PiTableId tableId, PiMatchKey matchKey, boolean needPriority,
+                      PiTableAction action, boolean supportsAging) {
+            this.tableId = tableId;
+            this.matchKey = matchKey;
+            this.needPriority = needPriority;
+            this.action = action;
+            this.supportsAging = supportsAging;
+        }
+    }
 
     /**
      * Returns a PI action equivalent to the given treatment, optionally using
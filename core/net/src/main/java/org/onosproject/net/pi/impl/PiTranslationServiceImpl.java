@@ -16,6 +16,12 @@
 
 package org.onosproject.net.pi.impl;
 
+import com.codahale.metrics.Gauge;
+import org.onlab.metrics.MetricsComponent;
+import org.onlab.metrics.MetricsFeature;
+import org.onlab.metrics.MetricsService;
+import org.onlab.util.Tools;
+import org.onosproject.cfg.ComponentConfigService;
 import org.onosproject.net.Device;
 import org.onosproject.net.DeviceId;
 import org.onosproject.net.device.DeviceService;
@@ -33,33 +39,63 @@ import org.onosproject.net.pi.service.PiGroupTranslationStore;
 import org.onosproject.net.pi.service.PiGroupTranslator;
 import org.onosproject.net.pi.service.PiMeterTranslationStore;
 import org.onosproject.net.pi.service.PiMeterTranslator;
+import org.onosproject.net.pi.service.PiPipeconfEvent;
+import org.onosproject.net.pi.service.PiPipeconfListener;
+import org.onosproject.net.pi.service.PiPipeconfService;
 import org.onosproject.net.pi.service.PiReplicationGroupTranslationStore;
 import org.onosproject.net.pi.service.PiReplicationGroupTranslator;
 import org.onosproject.net.pi.service.PiTranslationException;
 import org.onosproject.net.pi.service.PiTranslationService;
+import org.osgi.service.component.ComponentContext;
 import org.osgi.service.component.annotations.Activate;
 import org.osgi.service.component.annotations.Component;
 import org.osgi.service.component.annotations.Deactivate;
+import org.osgi.service.component.annotations.Modified;
 import org.osgi.service.component.annotations.Reference;
 import org.osgi.service.component.annotations.ReferenceCardinality;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.Dictionary;
+import java.util.function.ToLongFunction;
+
 import static com.google.common.base.Preconditions.checkNotNull;
+import static org.onosproject.net.OsgiPropertyConstants.PTS_FLOW_RULE_CACHE_SIZE;
+import static org.onosproject.net.OsgiPropertyConstants.PTS_FLOW_RULE_CACHE_SIZE_DEFAULT;
 
 /**
  * Implementation of the PI translation service.
+ * <p>
+ * Flow rule translations are memoized per pipeconf, so that flow rules with
+ * the same table, selector and treatment are translated only once. The
+ * translations of a pipeconf are dropped when the pipeconf is unregistered.
  */
-@Component(immediate = true, service = PiTranslationService.class)
+@Component(
+    immediate = true,
+    service = PiTranslationService.class,
+    property = {
+        PTS_FLOW_RULE_CACHE_SIZE + ":Integer=" + PTS_FLOW_RULE_CACHE_SIZE_DEFAULT
+    }
+)
 public class PiTranslationServiceImpl implements PiTranslationService {
 
     private final Logger log = LoggerFactory.getLogger(this.getClass());
 
-    // TODO: implement cache to speed up translation.
+    private static final String METRICS_COMPONENT = "PiTranslation";
+    private static final String METRICS_FEATURE = "flowRuleCache";
 
     @Reference(cardinality = ReferenceCardinality.MANDATORY)
     protected DeviceService deviceService;
 
+    @Reference(cardinality = ReferenceCardinality.MANDATORY)
+    protected ComponentConfigService cfgService;
+
+    @Reference(cardinality = ReferenceCardinality.MANDATORY)
+    protected MetricsService metricsService;
+
+    @Reference(cardinality = ReferenceCardinality.MANDATORY)
+    protected PiPipeconfService pipeconfService;
+
     @Reference(cardinality = ReferenceCardinality.MANDATORY)
     private PiFlowRuleTranslationStore flowRuleTranslationStore;
 
@@ -77,8 +113,22 @@ public class PiTranslationServiceImpl implements PiTranslationService {
     private PiReplicationGroupTranslator repGroupTranslator;
     private PiMeterTranslator meterTranslator;
 
+    /** Maximum number of flow rule translations cached per pipeconf; 0 disables the cache. */
+    private int flowRuleCacheSize = PTS_FLOW_RULE_CACHE_SIZE_DEFAULT;
+
+    private volatile PiFlowRuleTranslationCache flowRuleCache;
+
+    private final PiPipeconfListener pipeconfListener = new InternalPipeconfListener();
+
+    private MetricsComponent metricsComponent;
+    private MetricsFeature metricsFeature;
+
     @Activate
-    public void activate() {
+    public void activate(ComponentContext context) {
+        cfgService.registerProperties(getClass());
+        modified(context);
+        registerMetrics();
+        pipeconfService.addListener(pipeconfListener);
         flowRuleTranslator = new InternalFlowRuleTranslator(flowRuleTranslationStore);
         groupTranslator = new InternalGroupTranslator(groupTranslationStore);
         repGroupTranslator = new InternalReplicationGroupTranslator(repGroupTranslationStore);
@@ -88,12 +138,60 @@ public class PiTranslationServiceImpl implements PiTranslationService {
 
     @Deactivate
     public void deactivate() {
+        cfgService.unregisterProperties(getClass(), false);
+        unregisterMetrics();
+        pipeconfService.removeListener(pipeconfListener);
+        PiFlowRuleTranslationCache cache = flowRuleCache;
+        if (cache != null) {
+            cache.invalidateAll();
+        }
+        flowRuleCache = null;
         flowRuleTranslator = null;
         groupTranslator = null;
         meterTranslator = null;
         log.info("Stopped");
     }
 
+    @Modified
+    public void modified(ComponentContext context) {
+        Dictionary<?, ?> properties = context != null ? context.getProperties() : null;
+        int newSize = properties != null ? Tools.getIntegerProperty(
+                properties, PTS_FLOW_RULE_CACHE_SIZE, PTS_FLOW_RULE_CACHE_SIZE_DEFAULT)
+                : PTS_FLOW_RULE_CACHE_SIZE_DEFAULT;
+        if (newSize != flowRuleCacheSize || flowRuleCache == null) {
+            flowRuleCacheSize = newSize;
+            flowRuleCache = newSize > 0 ? new PiFlowRuleTranslationCache(newSize) : null;
+        }
+        log.info("Settings: {}={}", PTS_FLOW_RULE_CACHE_SIZE, flowRuleCacheSize);
+    }
+
+    private void registerMetrics() {
+        metricsComponent = metricsService.registerComponent(METRICS_COMPONENT);
+        metricsFeature = metricsComponent.registerFeature(METRICS_FEATURE);
+        metricsService.registerMetric(metricsComponent, metricsFeature, "hits",
+                                      (Gauge<Long>) () -> cacheStat(PiFlowRuleTranslationCache::hits));
+        metricsService.registerMetric(metricsComponent, metricsFeature, "misses",
+                                      (Gauge<Long>) () -> cacheStat(PiFlowRuleTranslationCache::misses));
+        metricsService.registerMetric(metricsComponent, metricsFeature, "size",
+                                      (Gauge<Long>) () -> cacheStat(PiFlowRuleTranslationCache::size));
+        metricsService.registerMetric(metricsComponent, metricsFeature, "hitRatio",
+                                      (Gauge<Double>) () -> {
+                                          PiFlowRuleTranslationCache cache = flowRuleCache;
+                                          return cache != null ? cache.hitRatio() : 0;
+                                      });
+    }
+
+    private long cacheStat(ToLongFunction<PiFlowRuleTranslationCache> stat) {
+        PiFlowRuleTranslationCache cache = flowRuleCache;
+        return cache != null ? stat.applyAsLong(cache) : 0;
+    }
+
+    private void unregisterMetrics() {
+        for (String name : new String[]{"hits", "misses", "size", "hitRatio"}) {
+            metricsService.removeMetric(metricsComponent, metricsFeature, name);
+        }
+    }
+
     @Override
     public PiFlowRuleTranslator flowRuleTranslator() {
         return flowRuleTranslator;
@@ -122,6 +220,18 @@ public class PiTranslationServiceImpl implements PiTranslationService {
         return device;
     }
 
+    private final class InternalPipeconfListener implements PiPipeconfListener {
+
+        @Override
+        public void event(PiPipeconfEvent event) {
+            PiFlowRuleTranslationCache cache = flowRuleCache;
+            if (cache != null && event.type() == PiPipeconfEvent.Type.UNREGISTERED) {
+                log.debug("Dropping the flow rule translations of {}", event.subject());
+                cache.invalidate(event.subject());
+            }
+        }
+    }
+
     private final class InternalFlowRuleTranslator
             extends AbstractPiTranslatorImpl<FlowRule, PiTableEntry>
             implements PiFlowRuleTranslator {
@@ -135,8 +245,13 @@ public class PiTranslationServiceImpl implements PiTranslationService {
                 throws PiTranslationException {
             checkNotNull(original);
             checkNotNull(pipeconf);
+            final PiFlowRuleTranslationCache cache = flowRuleCache;
+            if (cache == null) {
+                return PiFlowRuleTranslatorImpl
+                        .translate(original, pipeconf, getDevice(original.deviceId()));
+            }
             return PiFlowRuleTranslatorImpl
-                    .translate(original, pipeconf, getDevice(original.deviceId()));
+                    .translate(original, pipeconf, getDevice(original.deviceId()), cache);
         }
     }
 
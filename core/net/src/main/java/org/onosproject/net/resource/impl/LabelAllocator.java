@@ -44,6 +44,8 @@ import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -94,6 +96,8 @@ public final class LabelAllocator {
     private ResourceService resourceService;
     private LabelSelection labelSelection;
     private OptimizationBehavior optLabelSelection;
+    private volatile LabelBlockCache blockCache;
+    private volatile Supplier<Predicate<Identifier<?>>> blockOwner = () -> label -> true;
 
     /**
      * Creates a new label allocator. Random is the default selection behavior.
@@ -177,6 +181,44 @@ public final class LabelAllocator {
         return this.optLabelSelection;
     }
 
+    /**
+     * Changes the size of the label blocks claimed per port. Blocks are
+     * cached locally and labels are selected from them without querying
+     * the resource store; a size of zero disables the cache.
+     *
+     * @param size the maximum number of labels in a block
+     */
+    public void setLabelBlockSize(int size) {
+        LabelBlockCache current = blockCache;
+        if (size <= 0) {
+            blockCache = null;
+        } else if (current == null || current.blockSize() != size) {
+            blockCache = new LabelBlockCache(size, () -> blockOwner.get());
+        }
+    }
+
+    /**
+     * Changes the labels the local node may claim in its label blocks. Nodes
+     * sharing the resource store should own disjoint sets of labels, so that
+     * their blocks do not collide. All labels are owned by default.
+     *
+     * @param owner supplier of the predicate selecting the labels owned by the
+     *              local node; called each time a block is claimed
+     */
+    public void setLabelBlockOwner(Supplier<Predicate<Identifier<?>>> owner) {
+        this.blockOwner = checkNotNull(owner);
+    }
+
+    /**
+     * Retrieves the size of the label blocks claimed per port.
+     *
+     * @return the block size, zero if the block cache is disabled
+     */
+    public int getLabelBlockSize() {
+        LabelBlockCache current = blockCache;
+        return current == null ? 0 : current.blockSize();
+    }
+
     /**
      * Returns the label selection behavior, given a behavior type.
      *
@@ -210,17 +252,18 @@ public final class LabelAllocator {
     }
 
     // Given a link and a encapsulation type, returns a set of candidates
-    private Set<Identifier<?>> getCandidates(LinkKey link, EncapsulationType type) {
+    private Set<Identifier<?>> getCandidates(LinkKey link, EncapsulationType type, LabelBlockCache cache) {
         // Available ids on src port
-        Set<Identifier<?>> availableIDsatSrc = getAvailableIDs(link.src(), type);
+        Set<Identifier<?>> availableIDsatSrc = getAvailableIDs(link.src(), type, cache);
         // Available ids on dst port
-        Set<Identifier<?>> availableIDsatDst = getAvailableIDs(link.dst(), type);
+        Set<Identifier<?>> availableIDsatDst = getAvailableIDs(link.dst(), type, cache);
         // Create the candidate set doing an intersection of the previous sets
         return Sets.intersection(availableIDsatSrc, availableIDsatDst);
     }
 
     // Implements NONE behavior
-    private Map<LinkKey, Identifier<?>> noOptimizeBehavior(Set<LinkKey> links, EncapsulationType type) {
+    private Map<LinkKey, Identifier<?>> noOptimizeBehavior(Set<LinkKey> links, EncapsulationType type,
+                                                           LabelBlockCache cache) {
         // Init step
         Map<LinkKey, Identifier<?>> ids = Maps.newHashMap();
         Set<Identifier<?>> candidates;
@@ -228,7 +271,7 @@ public final class LabelAllocator {
         // Iterates for each link selecting a label in the candidate set
         for (LinkKey link : links) {
             // Get candidates set for the current link
-            candidates = getCandidates(link, type);
+            candidates = getCandidates(link, type, cache);
             // Select a label for the current link
             selected = labelSelection.select(candidates);
             // If candidates is empty, selected is null
@@ -243,7 +286,8 @@ public final class LabelAllocator {
     }
 
     // Implements NO_SWAP behavior
-    private Map<LinkKey, Identifier<?>> noSwapBehavior(Set<LinkKey> links, EncapsulationType type) {
+    private Map<LinkKey, Identifier<?>> noSwapBehavior(Set<LinkKey> links, EncapsulationType type,
+                                                       LabelBlockCache cache) {
         // Init steps
         Map<LinkKey, Identifier<?>> ids = Maps.newHashMap();
         Identifier<?> selected;
@@ -252,7 +296,7 @@ public final class LabelAllocator {
         // Iterates for each link building the candidate set
         for (LinkKey link : links) {
             // Get candidates set for the current link
-            linkCandidates = getCandidates(link, type);
+            linkCandidates = getCandidates(link, type, cache);
             // Warm up
             if (candidates == null) {
                 candidates = linkCandidates;
@@ -274,7 +318,8 @@ public final class LabelAllocator {
     }
 
     // Implements MIN_SWAP behavior
-    private Map<LinkKey, Identifier<?>> minSwapBehavior(Set<LinkKey> links, EncapsulationType type) {
+    private Map<LinkKey, Identifier<?>> minSwapBehavior(Set<LinkKey> links, EncapsulationType type,
+                                                        LabelBlockCache cache) {
         // Init step
         Map<LinkKey, Identifier<?>> ids = Maps.newHashMap();
         Set<Identifier<?>> candidates;
@@ -282,7 +327,7 @@ public final class LabelAllocator {
         // Iterates for each link selecting a label in the candidate set
         for (LinkKey link : links) {
             // Get candidates set for the current link
-            candidates = getCandidates(link, type);
+            candidates = getCandidates(link, type, cache);
             // If we are in the first link or selected is not available
             if (selected == null || !candidates.contains(selected)) {
                 // Select a label for the current link
@@ -304,25 +349,27 @@ public final class LabelAllocator {
      *
      * @param links the links where to look for Ids
      * @param  type the encapsulation type
+     * @param cache the label blocks to select from, null to query the resource store
      * @return the mappings between key and id
      */
-    private Map<LinkKey, Identifier<?>> findAvailableIDs(Set<LinkKey> links, EncapsulationType type) {
+    private Map<LinkKey, Identifier<?>> findAvailableIDs(Set<LinkKey> links, EncapsulationType type,
+                                                         LabelBlockCache cache) {
         // Init step
         Map<LinkKey, Identifier<?>> ids;
         // Performs label selection according to the defined optimization behavior
         switch (optLabelSelection) {
             // No swapping of the labels
             case NO_SWAP:
-                ids = noSwapBehavior(links, type);
+                ids = noSwapBehavior(links, type, cache);
                 break;
             // Swapping is minimized
             case MIN_SWAP:
-                ids = minSwapBehavior(links, type);
+                ids = minSwapBehavior(links, type, cache);
                 break;
             // No optimizations are in place
             case NONE:
             default:
-                ids = noOptimizeBehavior(links, type);
+                ids = noOptimizeBehavior(links, type, cache);
         }
         // Done exit
         return ids;
@@ -333,9 +380,13 @@ public final class LabelAllocator {
      *
      * @param cp the connection point
      * @param type the type of Id
+     * @param cache the label blocks to select from, null to query the resource store
      * @return the set of available Ids
      */
-    private Set<Identifier<?>> getAvailableIDs(ConnectPoint cp, EncapsulationType type) {
+    private Set<Identifier<?>> getAvailableIDs(ConnectPoint cp, EncapsulationType type, LabelBlockCache cache) {
+        if (cache != null) {
+            return cache.block(cp, type, () -> getAvailableIDs(cp, type, null));
+        }
         return resourceService.getAvailableResourceValues(
                 Resources.discrete(cp.deviceId(), cp.port()).id(), getEncapsulationClass(type)
         );
@@ -377,7 +428,40 @@ public final class LabelAllocator {
                 .map(LinkKey::linkKey)
                 .collect(Collectors.toCollection(LinkedHashSet::new));
 
-        Map<LinkKey, Identifier<?>> availableIds = findAvailableIDs(linkRequest, type);
+        LabelBlockCache cache = blockCache;
+        if (cache != null) {
+            Map<LinkKey, Identifier<?>> ids = assignLabels(linkRequest, resourceConsumer, type, cache);
+            if (!ids.isEmpty()) {
+                return ids;
+            }
+            // Blocks have no common label or are stale, claim new ones: the
+            // store is queried as it would be without the cache
+            log.debug("Label blocks exhausted or stale for {}, claiming new blocks", linkRequest);
+            invalidateBlocks(cache, linkRequest, type);
+            ids = assignLabels(linkRequest, resourceConsumer, type, cache);
+            if (!ids.isEmpty()) {
+                return ids;
+            }
+            // The labels owned by the local node are exhausted on these ports
+            log.debug("No owned labels for {}, selecting among all available labels", linkRequest);
+            invalidateBlocks(cache, linkRequest, type);
+        }
+        return assignLabels(linkRequest, resourceConsumer, type, null);
+    }
+
+    private void invalidateBlocks(LabelBlockCache cache, Set<LinkKey> linkRequest, EncapsulationType type) {
+        linkRequest.forEach(link -> {
+            cache.invalidate(link.src(), type);
+            cache.invalidate(link.dst(), type);
+        });
+    }
+
+    // Selects labels for the given links and allocates them through the resource service
+    private Map<LinkKey, Identifier<?>> assignLabels(Set<LinkKey> linkRequest,
+                                                     ResourceConsumer resourceConsumer,
+                                                     EncapsulationType type,
+                                                     LabelBlockCache cache) {
+        Map<LinkKey, Identifier<?>> availableIds = findAvailableIDs(linkRequest, type, cache);
         if (availableIds.isEmpty()) {
             return Collections.emptyMap();
         }
@@ -404,6 +488,14 @@ public final class LabelAllocator {
             return Collections.emptyMap();
         }
 
+        LabelBlockCache current = blockCache;
+        if (current != null) {
+            availableIds.forEach((link, id) -> {
+                current.consume(link.src(), type, id);
+                current.consume(link.dst(), type, id);
+            });
+        }
+
         return ImmutableMap.copyOf(availableIds);
     }
 
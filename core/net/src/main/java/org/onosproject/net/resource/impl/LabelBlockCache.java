@@ -0,0 +1,122 @@
+/*
+ * Copyright 2020-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.onosproject.net.resource.impl;
+
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Iterables;
+import com.google.common.collect.Maps;
+import org.onlab.util.Identifier;
+import org.onosproject.net.ConnectPoint;
+import org.onosproject.net.EncapsulationType;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * Local cache of label blocks claimed per port and encapsulation type.
+ * <p>
+ * A block is a bounded snapshot of the labels the resource store reported as
+ * available on a port, restricted to the labels owned by the local node. The
+ * label space is partitioned among the nodes of the cluster, so that the
+ * blocks of different nodes are disjoint and their allocations do not
+ * collide. Labels are handed out from the block without querying the store
+ * again; the store remains the authority, so a stale block only results in a
+ * failed allocation which the caller handles by claiming a new block.
+ */
+final class LabelBlockCache {
+
+    private final int blockSize;
+    private final Supplier<Predicate<Identifier<?>>> owner;
+    private final Map<EncapsulationType, Map<ConnectPoint, Set<Identifier<?>>>> blocks =
+            Maps.newConcurrentMap();
+
+    /**
+     * Creates a new label block cache.
+     *
+     * @param blockSize maximum number of labels claimed per port
+     * @param owner     supplier of the predicate selecting the labels owned by
+     *                  the local node; called once per claimed block
+     */
+    LabelBlockCache(int blockSize, Supplier<Predicate<Identifier<?>>> owner) {
+        checkArgument(blockSize > 0, "Block size must be positive");
+        this.blockSize = blockSize;
+        this.owner = owner;
+    }
+
+    /**
+     * Returns the maximum number of labels claimed per port.
+     *
+     * @return block size
+     */
+    int blockSize() {
+        return blockSize;
+    }
+
+    /**
+     * Returns the block of labels for the given port, claiming a new block
+     * from the supplied available labels if the current one is missing or
+     * exhausted. The available labels are retrieved without holding any lock.
+     *
+     * @param cp        the connect point
+     * @param type      the encapsulation type
+     * @param available supplier of the labels currently available on the port
+     * @return the labels in the block
+     */
+    Set<Identifier<?>> block(ConnectPoint cp, EncapsulationType type,
+                             Supplier<Set<Identifier<?>>> available) {
+        Map<ConnectPoint, Set<Identifier<?>>> typeBlocks = blocks(type);
+        Set<Identifier<?>> block = typeBlocks.get(cp);
+        if (block != null && !block.isEmpty()) {
+            return block;
+        }
+        Predicate<Identifier<?>> owned = owner.get();
+        Set<Identifier<?>> claimed = ImmutableSet.copyOf(
+                Iterables.limit(Iterables.filter(available.get(), owned::test), blockSize));
+        // Keep the block claimed in the meantime by a concurrent request, if any
+        return typeBlocks.merge(cp, claimed, (current, fresh) -> current.isEmpty() ? fresh : current);
+    }
+
+    /**
+     * Removes a label that has been allocated from the block of the given port.
+     *
+     * @param cp    the connect point
+     * @param type  the encapsulation type
+     * @param label the allocated label
+     */
+    void consume(ConnectPoint cp, EncapsulationType type, Identifier<?> label) {
+        blocks(type).computeIfPresent(cp, (k, block) -> ImmutableSet.copyOf(
+                Iterables.filter(block, id -> !id.equals(label))));
+    }
+
+    /**
+     * Drops the block of the given port; the next request claims a new one.
+     *
+     * @param cp   the connect point
+     * @param type the encapsulation type
+     */
+    void invalidate(ConnectPoint cp, EncapsulationType type) {
+        blocks(type).remove(cp);
+    }
+
+    private Map<ConnectPoint, Set<Identifier<?>>> blocks(EncapsulationType type) {
+        return blocks.computeIfAbsent(type, t -> Maps.newConcurrentMap());
+    }
+}
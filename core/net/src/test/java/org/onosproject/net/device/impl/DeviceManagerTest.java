@@ -15,19 +15,26 @@
  */
 package org.onosproject.net.device.impl;
 
+import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Sets;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 import org.onlab.packet.ChassisId;
 import org.onlab.packet.IpAddress;
+import org.onosproject.cfg.ComponentConfigAdapter;
+import org.onosproject.cfg.ConfigProperty;
 import org.onosproject.cluster.ClusterServiceAdapter;
 import org.onosproject.cluster.ControllerNode;
 import org.onosproject.cluster.DefaultControllerNode;
 import org.onosproject.cluster.NodeId;
+import org.onosproject.cluster.impl.MastershipManager;
 import org.onosproject.common.event.impl.TestEventDispatcher;
 import org.onosproject.event.Event;
 import org.onosproject.net.config.NetworkConfigServiceAdapter;
+import org.onosproject.mastership.MastershipEvent;
+import org.onosproject.mastership.MastershipInfo;
+import org.onosproject.mastership.MastershipListener;
 import org.onosproject.mastership.MastershipServiceAdapter;
 import org.onosproject.mastership.MastershipTerm;
 import org.onosproject.mastership.MastershipTermService;
@@ -55,13 +62,18 @@ import org.onosproject.store.trivial.SimpleDeviceStore;
 import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.Assert.*;
 import static org.onosproject.net.Device.Type.SWITCH;
 import static org.onosproject.net.DeviceId.deviceId;
 import static org.onosproject.net.NetTestTools.injectEventDispatcher;
+import static org.onosproject.net.OsgiPropertyConstants.FAST_FAILOVER;
 import static org.onosproject.net.device.DeviceEvent.Type.*;
 
 /**
@@ -86,6 +98,7 @@ public class DeviceManagerTest {
     private static final IpAddress LOCALHOST = IpAddress.valueOf("127.0.0.1");
 
     private DeviceManager mgr;
+    private TestMastershipManager mastershipManager;
 
     protected DeviceService service;
     protected DeviceAdminService admin;
@@ -93,6 +106,7 @@ public class DeviceManagerTest {
     protected DeviceProviderService providerService;
     protected TestProvider provider;
     protected TestListener listener = new TestListener();
+    private final TestComponentConfigService cfgService = new TestComponentConfigService();
 
     @Before
     public void setUp() {
@@ -102,12 +116,13 @@ public class DeviceManagerTest {
         registry = mgr;
         mgr.store = new SimpleDeviceStore();
         injectEventDispatcher(mgr, new TestEventDispatcher());
-        TestMastershipManager mastershipManager = new TestMastershipManager();
+        mastershipManager = new TestMastershipManager();
         mgr.mastershipService = mastershipManager;
         mgr.termService = mastershipManager;
         mgr.clusterService = new TestClusterService();
         mgr.networkConfigService = new TestNetworkConfigService();
         mgr.communicationService = new TestClusterCommunicationService();
+        mgr.cfgService = cfgService;
         mgr.activate();
 
 
@@ -259,6 +274,40 @@ public class DeviceManagerTest {
         listener.events.clear();
     }
 
+    @Test
+    public void mastershipEventExecutor() throws InterruptedException {
+        connectDevice(DID1, SW1);
+        assertTrue("role should be handled in the background",
+                   roleThreadOf(DID1).contains("manager-background"));
+
+        cfgService.fastFailover = ConfigProperty.setProperty(
+                ConfigProperty.defineProperty(FAST_FAILOVER, ConfigProperty.Type.BOOLEAN, "false", ""), "true");
+        assertTrue("role should be handled per device",
+                   roleThreadOf(DID1).contains("mastership-event"));
+    }
+
+    // Posts a mastership change for the unreachable device and returns the
+    // name of the thread that relinquished its mastership
+    private String roleThreadOf(DeviceId deviceId) throws InterruptedException {
+        MastershipInfo info = new MastershipInfo(1, Optional.of(NID_LOCAL),
+                                                 ImmutableMap.of(NID_LOCAL, MastershipRole.MASTER));
+        mastershipManager.relinquished.clear();
+        mastershipManager.listener.event(new MastershipEvent(MastershipEvent.Type.MASTER_CHANGED, deviceId, info));
+        String thread = mastershipManager.relinquished.poll(5, TimeUnit.SECONDS);
+        assertNotNull("mastership should be relinquished", thread);
+        return thread;
+    }
+
+    // Serves the fast failover setting of the mastership manager
+    private static class TestComponentConfigService extends ComponentConfigAdapter {
+        private ConfigProperty fastFailover;
+
+        @Override
+        public ConfigProperty getProperty(String componentName, String attribute) {
+            return MastershipManager.class.getName().equals(componentName) && FAST_FAILOVER.equals(attribute) ?
+                    fastFailover : null;
+        }
+    }
 
     private class TestProvider extends AbstractProvider implements DeviceProvider {
         private DeviceId deviceReceived;
@@ -300,6 +349,14 @@ public class DeviceManagerTest {
 
     private static class TestMastershipManager
             extends MastershipServiceAdapter implements MastershipTermService {
+        private final BlockingQueue<String> relinquished = new LinkedBlockingQueue<>();
+        private MastershipListener listener;
+
+        @Override
+        public void addListener(MastershipListener listener) {
+            this.listener = listener;
+        }
+
         @Override
         public MastershipRole getLocalRole(DeviceId deviceId) {
             return MastershipRole.MASTER;
@@ -317,6 +374,7 @@ public class DeviceManagerTest {
 
         @Override
         public CompletableFuture<Void> relinquishMastership(DeviceId deviceId) {
+            relinquished.add(Thread.currentThread().getName());
             return CompletableFuture.completedFuture(null);
         }
 
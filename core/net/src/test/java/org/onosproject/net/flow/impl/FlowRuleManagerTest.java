@@ -25,6 +25,7 @@ import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 import org.onlab.junit.TestTools;
+import org.onlab.junit.TestUtils;
 import org.onosproject.cfg.ComponentConfigAdapter;
 import org.onosproject.common.event.impl.TestEventDispatcher;
 import org.onosproject.core.ApplicationId;
@@ -240,6 +241,33 @@ public class FlowRuleManagerTest {
         validateEvents(RULE_UPDATED, RULE_UPDATED);
     }
 
+    @Test
+    public void getFlowEntriesWithFingerprints() {
+        TestUtils.setField(mgr, "auditFingerprints", true);
+        FlowRule f1 = addFlowRule(1);
+        FlowRule f2 = addFlowRule(2);
+
+        FlowEntry fe1 = new DefaultFlowEntry(f1);
+        FlowEntry fe2 = new DefaultFlowEntry(f2);
+
+        // Pending rules never match, they get confirmed
+        providerService.pushFlowMetrics(DID, ImmutableList.of(fe1, fe2));
+        validateEvents(RULE_ADD_REQUESTED, RULE_ADD_REQUESTED,
+                       RULE_ADDED, RULE_ADDED);
+
+        // Fingerprints match, only the statistics are refreshed
+        providerService.pushFlowMetrics(DID, ImmutableList.of(fe1, fe2));
+        validateEvents(RULE_UPDATED, RULE_UPDATED);
+
+        // The second rule disappeared from the device
+        providerService.pushFlowMetrics(DID, ImmutableList.of(fe1));
+        assertTrue("Second entry should be pending add.",
+                   validateState(ImmutableMap.of(
+                           f1, FlowEntryState.ADDED,
+                           f2, FlowEntryState.PENDING_ADD)));
+        listener.events.clear();
+    }
+
     private boolean validateState(Map<FlowRule, FlowEntryState> expected) {
         Map<FlowRule, FlowEntryState> expectedToCheck = new HashMap<>(expected);
         Iterable<FlowEntry> rules = service.getFlowEntries(DID);
@@ -0,0 +1,96 @@
+/*
+ * Copyright 2020-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.net.flowobjective.impl;
+
+import org.junit.Test;
+import org.onosproject.net.DeviceId;
+import org.onosproject.net.flowobjective.Objective;
+
+import static org.easymock.EasyMock.createMock;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests of the in-order objective mailbox.
+ */
+public class ObjectiveMailboxTest {
+
+    private static final DeviceId DID = DeviceId.deviceId("of:1");
+
+    private final ObjectiveMailbox mailbox = new ObjectiveMailbox();
+
+    private static ObjectiveMailbox.Entry entry() {
+        return new ObjectiveMailbox.Entry(DID, createMock(Objective.class), System.nanoTime());
+    }
+
+    /**
+     * Tests that objectives are executed one at a time, in order.
+     */
+    @Test
+    public void testInOrder() {
+        ObjectiveMailbox.Entry first = entry();
+        ObjectiveMailbox.Entry second = entry();
+        ObjectiveMailbox.Entry third = entry();
+
+        assertEquals(0, mailbox.add(first));
+        assertSame(first, mailbox.next());
+        assertEquals(1, mailbox.add(second));
+        assertEquals(2, mailbox.add(third));
+        assertEquals(3, mailbox.objectives().size());
+
+        assertSame(second, mailbox.complete(first.objective()));
+        assertSame(second, mailbox.inFlight());
+        assertSame(third, mailbox.complete(second.objective()));
+        assertNull(mailbox.complete(third.objective()));
+        assertNull(mailbox.inFlight());
+        assertTrue(mailbox.objectives().isEmpty());
+    }
+
+    /**
+     * Tests that completing an objective not in flight is ignored.
+     */
+    @Test
+    public void testStaleCompletion() {
+        ObjectiveMailbox.Entry first = entry();
+        ObjectiveMailbox.Entry second = entry();
+        mailbox.add(first);
+        mailbox.next();
+        mailbox.add(second);
+
+        assertNull(mailbox.complete(second.objective()));
+        assertSame(first, mailbox.inFlight());
+        assertSame(second, mailbox.complete(first.objective()));
+        assertNull(mailbox.complete(first.objective()));
+    }
+
+    /**
+     * Tests that only an idle mailbox can be closed.
+     */
+    @Test
+    public void testClose() {
+        ObjectiveMailbox.Entry first = entry();
+        mailbox.add(first);
+        mailbox.next();
+        assertFalse(mailbox.close());
+
+        assertNull(mailbox.complete(first.objective()));
+        assertTrue(mailbox.close());
+        assertEquals(ObjectiveMailbox.CLOSED, mailbox.add(entry()));
+    }
+}
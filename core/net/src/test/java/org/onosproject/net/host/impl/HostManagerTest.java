@@ -240,6 +240,30 @@ public class HostManagerTest {
         assertEquals("Expect 1 host in the store", 1, mgr.getHostCount());
     }
 
+    @Test
+    public void hostsDetected() {
+        // Two descriptions of the same host are coalesced in detection order
+        List<HostDescription> descriptions = Lists.newArrayList(
+                new DefaultHostDescription(MAC1, VLAN1, LOC1, IP1),
+                new DefaultHostDescription(MAC2, VLAN1, LOC1, IP2),
+                new DefaultHostDescription(MAC1, VLAN1, LOC2, IP3));
+        providerService.hostsDetected(descriptions, false);
+        validateEvents(HOST_ADDED, HOST_ADDED);
+        assertEquals("two hosts should be found", 2, mgr.getHostCount());
+
+        Host host = mgr.getHost(HID1);
+        assertEquals("host should be at the last location", Sets.newHashSet(LOC2), host.locations());
+        assertEquals("IPs should be merged", Sets.newHashSet(IP1, IP3), host.ipAddresses());
+
+        // Replacing IPs keeps only the last description of the host
+        descriptions = Lists.newArrayList(
+                new DefaultHostDescription(MAC1, VLAN1, LOC2, IP1),
+                new DefaultHostDescription(MAC1, VLAN1, LOC2, IP4));
+        providerService.hostsDetected(descriptions, true);
+        validateEvents(HOST_UPDATED);
+        assertEquals("IPs should be replaced", Sets.newHashSet(IP4), mgr.getHost(HID1).ipAddresses());
+    }
+
     @Test
     public void hostVanished() {
         detect(HID1, MAC1, VLAN1, LOC1, IP1);
@@ -1106,4 +1106,55 @@ public class LinkCollectionIntentCompilerTest extends AbstractLinkCollectionTest
 
     }
 
+    /**
+     * We test that recompiling link collection intents sharing the same
+     * links and points, but not the same treatment, gives the rules of each
+     * intent.
+     */
+    @Test
+    public void testRecompileWithDifferentTreatment() {
+        sut.activate();
+
+        LinkCollectionIntent macIntent = LinkCollectionIntent.builder()
+                .appId(APP_ID)
+                .selector(selector)
+                .treatment(DefaultTrafficTreatment.builder().setEthDst(MacAddress.BROADCAST).build())
+                .links(links)
+                .filteredIngressPoints(ImmutableSet.of(new FilteredConnectPoint(d1p1)))
+                .filteredEgressPoints(ImmutableSet.of(new FilteredConnectPoint(d3p1)))
+                .build();
+
+        Collection<FlowRule> rules = compileRules(intent);
+        Collection<FlowRule> macRules = compileRules(macIntent);
+        assertThat(compileRules(intent), is(rules));
+        assertThat(macRules, hasSize(rules.size()));
+
+        FlowRule rule1 = macRules.stream()
+                .filter(rule -> rule.deviceId().equals(d1p10.deviceId()))
+                .findFirst()
+                .get();
+        assertThat(rule1.treatment(), is(
+                DefaultTrafficTreatment.builder(macIntent.treatment()).setOutput(d1p1.port()).build()
+        ));
+
+        FlowRule rule2 = macRules.stream()
+                .filter(rule -> rule.deviceId().equals(d2p0.deviceId()))
+                .findFirst()
+                .get();
+        assertThat(rule2.selector(), is(
+                DefaultTrafficSelector.builder(intent.selector())
+                        .matchInPort(d2p0.port())
+                        .matchEthDst(MacAddress.BROADCAST)
+                        .build()
+        ));
+
+        sut.deactivate();
+    }
+
+    private Collection<FlowRule> compileRules(LinkCollectionIntent linkCollectionIntent) {
+        List<Intent> compiled = sut.compile(linkCollectionIntent, Collections.emptyList());
+        assertThat(compiled, hasSize(1));
+        return ((FlowRuleIntent) compiled.get(0)).flowRules();
+    }
+
 }
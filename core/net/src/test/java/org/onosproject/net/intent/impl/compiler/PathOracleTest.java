@@ -0,0 +1,135 @@
+/*
+ * Copyright 2020-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.net.intent.impl.compiler;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import org.junit.Before;
+import org.junit.Test;
+import org.onosproject.common.DefaultTopologyGraph;
+import org.onosproject.core.CoreService;
+import org.onosproject.net.Link;
+import org.onosproject.net.Path;
+import org.onosproject.net.topology.DefaultTopologyEdge;
+import org.onosproject.net.topology.DefaultTopologyVertex;
+import org.onosproject.net.topology.Topology;
+import org.onosproject.net.topology.TopologyEdge;
+import org.onosproject.net.topology.TopologyGraph;
+import org.onosproject.net.topology.TopologyServiceAdapter;
+import org.onosproject.net.topology.TopologyVertex;
+
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.easymock.EasyMock.createMock;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.onosproject.net.NetTestTools.did;
+import static org.onosproject.net.NetTestTools.link;
+
+/**
+ * Tests of the shortest-path oracle of the connectivity intent compilers.
+ */
+public class PathOracleTest {
+
+    private static final Link AB = link("A", 1, "B", 1);
+    private static final Link AC = link("A", 2, "C", 1);
+    private static final Link BD = link("B", 2, "D", 1);
+    private static final Link CD = link("C", 2, "D", 2);
+    private static final Link DE = link("D", 3, "E", 1);
+
+    private final TestTopologyService topologyService = new TestTopologyService();
+    private final PathOracle oracle = new PathOracle(16);
+
+    @Before
+    public void setUp() {
+        topologyService.update(AB, AC, BD, CD, DE);
+    }
+
+    /**
+     * Tests that all the shortest paths are returned, with their cost.
+     */
+    @Test
+    public void testShortestPaths() {
+        Set<Path> paths = oracle.getPaths(topologyService, did("A"), did("D"));
+        assertThat(paths, hasSize(2));
+        assertThat(links(paths), is(ImmutableSet.of(ImmutableList.of(AB, BD), ImmutableList.of(AC, CD))));
+        paths.forEach(path -> assertThat(path.cost(), is(2.0)));
+        paths.forEach(path -> assertThat(path.providerId(), is(CoreService.CORE_PROVIDER_ID)));
+
+        assertThat(links(oracle.getPaths(topologyService, did("B"), did("E"))),
+                   is(ImmutableSet.of(ImmutableList.of(BD, DE))));
+        assertThat(oracle.getPaths(topologyService, did("D"), did("A")), is(empty()));
+        assertThat(oracle.getPaths(topologyService, did("X"), did("A")), is(empty()));
+    }
+
+    /**
+     * Tests that the queries from a source share the same tree, until the
+     * topology changes.
+     */
+    @Test
+    public void testTreeReuse() {
+        oracle.getPaths(topologyService, did("A"), did("D"));
+        oracle.getPaths(topologyService, did("A"), did("E"));
+        oracle.getPaths(topologyService, did("A"), did("B"));
+        assertThat(topologyService.graphs, is(1));
+
+        topologyService.update(AC, CD, DE);
+        assertThat(links(oracle.getPaths(topologyService, did("A"), did("D"))),
+                   is(ImmutableSet.of(ImmutableList.of(AC, CD))));
+        assertThat(oracle.getPaths(topologyService, did("A"), did("B")), is(empty()));
+        assertThat(topologyService.graphs, is(2));
+    }
+
+    private static Set<List<Link>> links(Set<Path> paths) {
+        return paths.stream().map(Path::links).collect(Collectors.toSet());
+    }
+
+    // Topology service serving a graph made of the given links
+    private static class TestTopologyService extends TopologyServiceAdapter {
+        private Topology topology;
+        private TopologyGraph graph;
+        private int graphs;
+
+        void update(Link... links) {
+            Set<TopologyVertex> vertexes = ImmutableSet.of("A", "B", "C", "D", "E").stream()
+                    .map(id -> new DefaultTopologyVertex(did(id)))
+                    .collect(Collectors.toSet());
+            ImmutableSet.Builder<TopologyEdge> edges = ImmutableSet.builder();
+            for (Link link : links) {
+                edges.add(new DefaultTopologyEdge(new DefaultTopologyVertex(link.src().deviceId()),
+                                                  new DefaultTopologyVertex(link.dst().deviceId()),
+                                                  link));
+            }
+            topology = createMock(Topology.class);
+            graph = new DefaultTopologyGraph(vertexes, edges.build());
+        }
+
+        @Override
+        public Topology currentTopology() {
+            return topology;
+        }
+
+        @Override
+        public TopologyGraph getGraph(Topology topology) {
+            graphs++;
+            return graph;
+        }
+    }
+}
@@ -173,4 +173,44 @@ public class PiFlowRuleTranslatorImplTest {
                    defActionEntry.matchKey(), is(equalTo(PiMatchKey.EMPTY)));
         assertThat("Priority should not be set", !defActionEntry.priority().isPresent());
     }
+
+    @Test
+    public void testTranslationCache() throws Exception {
+        ApplicationId appId = new DefaultApplicationId(1, "test");
+        PiFlowRuleTranslationCache cache = new PiFlowRuleTranslationCache(10);
+
+        TrafficSelector selector = DefaultTrafficSelector.builder()
+                .matchInPort(PortNumber.portNumber(1))
+                .matchEthType((short) 0x0800)
+                .build();
+        TrafficTreatment treatment = DefaultTrafficTreatment.builder()
+                .setOutput(PortNumber.portNumber(2))
+                .build();
+        FlowRule.Builder ruleBuilder = DefaultFlowRule.builder()
+                .forDevice(DEVICE_ID)
+                .forTable(INGRESS_TABLE0_CONTROL_TABLE0)
+                .fromApp(appId)
+                .withSelector(selector)
+                .withTreatment(treatment)
+                .makePermanent();
+        FlowRule rule1 = ruleBuilder.withPriority(10).build();
+        FlowRule rule2 = ruleBuilder.withPriority(20).build();
+
+        PiTableEntry entry1 = PiFlowRuleTranslatorImpl.translate(rule1, pipeconf, null, cache);
+        PiTableEntry cachedEntry1 = PiFlowRuleTranslatorImpl.translate(rule1, pipeconf, null, cache);
+        PiTableEntry entry2 = PiFlowRuleTranslatorImpl.translate(rule2, pipeconf, null, cache);
+
+        // Cached translations must be the same as uncached ones
+        assertThat("Incorrect cached translation", cachedEntry1,
+                   is(equalTo(PiFlowRuleTranslatorImpl.translate(rule1, pipeconf, null))));
+        assertThat("Incorrect cached translation", entry2,
+                   is(equalTo(PiFlowRuleTranslatorImpl.translate(rule2, pipeconf, null))));
+        assertThat("Entries should differ only by priority", entry1.matchKey(), is(equalTo(entry2.matchKey())));
+        assertThat("Incorrect number of misses", cache.misses(), is(1L));
+        assertThat("Incorrect number of hits", cache.hits(), is(2L));
+
+        cache.invalidate(pipeconf.id());
+        PiFlowRuleTranslatorImpl.translate(rule1, pipeconf, null, cache);
+        assertThat("Incorrect number of misses after invalidation", cache.misses(), is(2L));
+    }
 }
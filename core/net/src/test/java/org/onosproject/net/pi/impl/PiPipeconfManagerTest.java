@@ -24,6 +24,7 @@ import com.google.common.collect.Sets;
 import org.junit.Before;
 import org.junit.Test;
 import org.onlab.util.ItemNotFoundException;
+import org.onosproject.common.event.impl.TestEventDispatcher;
 import org.onosproject.net.DeviceId;
 import org.onosproject.net.config.Config;
 import org.onosproject.net.config.ConfigApplyDelegate;
@@ -45,9 +46,11 @@ import org.onosproject.net.driver.DriverAdminServiceAdapter;
 import org.onosproject.net.driver.DriverProvider;
 import org.onosproject.net.pi.model.PiPipeconf;
 import org.onosproject.net.pi.model.PiPipeconfId;
+import org.onosproject.net.pi.service.PiPipeconfEvent;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
@@ -56,6 +59,7 @@ import java.util.Set;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
+import static org.onosproject.net.NetTestTools.injectEventDispatcher;
 import static org.onosproject.pipelines.basic.PipeconfLoader.BASIC_PIPECONF;
 
 
@@ -91,6 +95,7 @@ public class PiPipeconfManagerTest {
         piPipeconf = BASIC_PIPECONF;
         piPipeconfService.cfgService = cfgService;
         piPipeconfService.driverAdminService = driverAdminService;
+        injectEventDispatcher(piPipeconfService, new TestEventDispatcher());
         ObjectMapper mapper = new ObjectMapper();
         ConfigApplyDelegate delegate = new MockDelegate();
         String keyBasic = "basic";
@@ -120,6 +125,19 @@ public class PiPipeconfManagerTest {
         assertTrue("PiPipeconf should be registered", piPipeconfService.pipeconfs.containsValue(piPipeconf));
     }
 
+    @Test
+    public void registerAndRemoveEvents() {
+        List<PiPipeconfEvent> events = new ArrayList<>();
+        piPipeconfService.addListener(events::add);
+        piPipeconfService.register(piPipeconf);
+        piPipeconfService.remove(piPipeconf.id());
+
+        assertEquals("Incorrect number of events", 2, events.size());
+        assertEquals("Incorrect event type", PiPipeconfEvent.Type.REGISTERED, events.get(0).type());
+        assertEquals("Incorrect event type", PiPipeconfEvent.Type.UNREGISTERED, events.get(1).type());
+        assertEquals("Incorrect event subject", piPipeconf.id(), events.get(1).subject());
+    }
+
     @Test
     public void getPipeconf() {
         piPipeconfService.register(piPipeconf);
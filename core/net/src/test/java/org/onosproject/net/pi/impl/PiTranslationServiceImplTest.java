@@ -0,0 +1,202 @@
+/*
+ * Copyright 2020-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.net.pi.impl;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.Metric;
+import com.google.common.collect.Maps;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.onlab.metrics.MetricsComponent;
+import org.onlab.metrics.MetricsFeature;
+import org.onlab.metrics.MetricsServiceAdapter;
+import org.onlab.packet.ChassisId;
+import org.onosproject.cfg.ComponentConfigAdapter;
+import org.onosproject.core.DefaultApplicationId;
+import org.onosproject.net.DefaultDevice;
+import org.onosproject.net.Device;
+import org.onosproject.net.DeviceId;
+import org.onosproject.net.device.DeviceServiceAdapter;
+import org.onosproject.net.driver.Behaviour;
+import org.onosproject.net.flow.DefaultFlowRule;
+import org.onosproject.net.flow.DefaultTrafficSelector;
+import org.onosproject.net.flow.DefaultTrafficTreatment;
+import org.onosproject.net.flow.FlowRule;
+import org.onosproject.net.pi.PiPipeconfServiceAdapter;
+import org.onosproject.net.pi.model.PiPipeconf;
+import org.onosproject.net.pi.model.PiPipeconfId;
+import org.onosproject.net.pi.runtime.PiAction;
+import org.onosproject.net.pi.runtime.PiTableEntry;
+import org.onosproject.net.pi.service.PiPipeconfEvent;
+import org.onosproject.net.pi.service.PiPipeconfListener;
+import org.onosproject.net.provider.ProviderId;
+
+import java.util.Map;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.onosproject.pipelines.basic.BasicConstants.INGRESS_TABLE0_CONTROL_SEND_TO_CPU;
+import static org.onosproject.pipelines.basic.BasicConstants.INGRESS_TABLE0_CONTROL_TABLE0;
+import static org.onosproject.pipelines.basic.PipeconfLoader.BASIC_PIPECONF;
+
+/**
+ * Unit tests for the flow rule translation cache of PiTranslationServiceImpl.
+ */
+public class PiTranslationServiceImplTest {
+
+    private static final DeviceId DEVICE_ID = DeviceId.deviceId("device:dummy:1");
+    private static final Device DEVICE = new TestDevice();
+
+    private final PiPipeconf pipeconf = BASIC_PIPECONF;
+    private final Map<String, Metric> metrics = Maps.newHashMap();
+    private TestPipeconfService pipeconfService;
+    private PiTranslationServiceImpl service;
+    private FlowRule rule;
+
+    @Before
+    public void setUp() {
+        pipeconfService = new TestPipeconfService();
+        service = new PiTranslationServiceImpl();
+        service.deviceService = new TestDeviceService();
+        service.cfgService = new ComponentConfigAdapter();
+        service.metricsService = new TestMetricsService();
+        service.pipeconfService = pipeconfService;
+        service.activate(null);
+
+        rule = DefaultFlowRule.builder()
+                .forDevice(DEVICE_ID)
+                .forTable(INGRESS_TABLE0_CONTROL_TABLE0)
+                .fromApp(new DefaultApplicationId(1, "test"))
+                .withSelector(DefaultTrafficSelector.emptySelector())
+                .withTreatment(DefaultTrafficTreatment.builder()
+                                       .piTableAction(PiAction.builder()
+                                                              .withId(INGRESS_TABLE0_CONTROL_SEND_TO_CPU)
+                                                              .build())
+                                       .build())
+                .withPriority(10)
+                .makePermanent()
+                .build();
+    }
+
+    @After
+    public void tearDown() {
+        if (service != null) {
+            service.deactivate();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private long gauge(String name) {
+        return ((Gauge<Long>) metrics.get(name)).getValue();
+    }
+
+    /**
+     * Tests that the translations of a pipeconf are dropped when the pipeconf
+     * is unregistered, and not served once it is registered again.
+     */
+    @Test
+    public void testUnregisteredPipeconf() throws Exception {
+        PiTableEntry entry = service.flowRuleTranslator().translate(rule, pipeconf);
+        assertThat("Incorrect cached translation", service.flowRuleTranslator().translate(rule, pipeconf),
+                   is(equalTo(entry)));
+        assertThat("Incorrect number of misses", gauge("misses"), is(1L));
+        assertThat("Incorrect number of hits", gauge("hits"), is(1L));
+        assertThat("Incorrect cache size", gauge("size"), is(1L));
+
+        pipeconfService.post(new PiPipeconfEvent(PiPipeconfEvent.Type.UNREGISTERED, pipeconf.id()));
+        assertThat("Translations of an unregistered pipeconf should be dropped", gauge("size"), is(0L));
+
+        pipeconfService.post(new PiPipeconfEvent(PiPipeconfEvent.Type.REGISTERED, pipeconf.id()));
+        assertThat("Incorrect translation", service.flowRuleTranslator().translate(rule, pipeconf),
+                   is(equalTo(entry)));
+        assertThat("Translation should not be served from the cache", gauge("misses"), is(2L));
+        assertThat("Incorrect number of hits", gauge("hits"), is(1L));
+    }
+
+    /**
+     * Tests that the translations of other pipeconfs are kept.
+     */
+    @Test
+    public void testOtherPipeconf() throws Exception {
+        service.flowRuleTranslator().translate(rule, pipeconf);
+        pipeconfService.post(new PiPipeconfEvent(PiPipeconfEvent.Type.UNREGISTERED,
+                                                 new PiPipeconfId("other")));
+        assertThat("Incorrect cache size", gauge("size"), is(1L));
+    }
+
+    /**
+     * Tests that the listener is removed on deactivation.
+     */
+    @Test
+    public void testDeactivate() throws Exception {
+        service.flowRuleTranslator().translate(rule, pipeconf);
+        service.deactivate();
+        service = null;
+        assertThat("Listener should be removed", pipeconfService.listener, is(nullValue()));
+    }
+
+    private class TestPipeconfService extends PiPipeconfServiceAdapter {
+        private PiPipeconfListener listener;
+
+        @Override
+        public void addListener(PiPipeconfListener listener) {
+            this.listener = listener;
+        }
+
+        @Override
+        public void removeListener(PiPipeconfListener listener) {
+            if (this.listener == listener) {
+                this.listener = null;
+            }
+        }
+
+        private void post(PiPipeconfEvent event) {
+            listener.event(event);
+        }
+    }
+
+    // Device without a pipeline interpreter
+    private static class TestDevice extends DefaultDevice {
+        TestDevice() {
+            super(new ProviderId("dummy", "test"), DEVICE_ID, Type.SWITCH,
+                  "manufacturer", "hw", "sw", "serial", new ChassisId());
+        }
+
+        @Override
+        public <B extends Behaviour> boolean is(Class<B> projectionClass) {
+            return false;
+        }
+    }
+
+    private class TestDeviceService extends DeviceServiceAdapter {
+        @Override
+        public Device getDevice(DeviceId deviceId) {
+            return DEVICE_ID.equals(deviceId) ? DEVICE : null;
+        }
+    }
+
+    private class TestMetricsService extends MetricsServiceAdapter {
+        @Override
+        public <T extends Metric> T registerMetric(MetricsComponent component, MetricsFeature feature,
+                                                   String metricName, T metric) {
+            metrics.put(metricName, metric);
+            return metric;
+        }
+    }
+}
@@ -17,6 +17,7 @@
 package org.onosproject.net.resource.impl;
 
 import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Sets;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
@@ -40,6 +41,7 @@ import org.onosproject.net.resource.impl.LabelAllocator.RandomSelection;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import static org.hamcrest.CoreMatchers.instanceOf;
 import static org.hamcrest.MatcherAssert.assertThat;
@@ -707,4 +709,81 @@ public class LabelAllocatorTest {
         assertNull(id);
     }
 
+    /**
+     * To test the allocation of labels from locally cached label blocks.
+     */
+    @Test
+    public void testLabelBlockCache() {
+        // Block cache is disabled by default
+        assertEquals(0, this.allocator.getLabelBlockSize());
+        this.allocator.setLabelBlockSize(2);
+        assertEquals(2, this.allocator.getLabelBlockSize());
+        this.allocator.setLabelSelection(firstFit);
+        // Filter reservations
+        this.resourceService.filterAssignment = true;
+        // We change the available Ids
+        this.resourceService.availableVlanLabels = ImmutableSet.of(
+                (short) 1,
+                (short) 2,
+                (short) 3
+        );
+        // Each allocation has to get a different label, the third one
+        // exhausts the block and claims a new one from the resource store
+        Set<Identifier<?>> allocated = Sets.newHashSet();
+        for (int i = 0; i < 3; i++) {
+            Map<LinkKey, Identifier<?>> allocation = this.allocator.assignLabelToLinks(
+                    ImmutableSet.copyOf(links.subList(2, 3)),
+                    IntentId.valueOf(idGenerator.getNewId()),
+                    EncapsulationType.VLAN);
+            Identifier<?> id = allocation.get(LinkKey.linkKey(d3p0, d2p1));
+            assertThat(id, instanceOf(VlanId.class));
+            assertTrue(allocated.add(id));
+        }
+        // No labels are available, reservation is not possible
+        Map<LinkKey, Identifier<?>> allocation = this.allocator.assignLabelToLinks(
+                ImmutableSet.copyOf(links.subList(2, 3)),
+                IntentId.valueOf(idGenerator.getNewId()),
+                EncapsulationType.VLAN);
+        assertTrue(allocation.isEmpty());
+        // Disable the block cache
+        this.allocator.setLabelBlockSize(0);
+        assertEquals(0, this.allocator.getLabelBlockSize());
+    }
+
+    /**
+     * To test the label blocks restricted to the labels owned by the local node.
+     */
+    @Test
+    public void testLabelBlockOwner() {
+        this.allocator.setLabelBlockSize(2);
+        this.allocator.setLabelSelection(firstFit);
+        // The local node owns the odd labels
+        this.allocator.setLabelBlockOwner(() -> label -> ((VlanId) label).toShort() % 2 == 1);
+        // Filter reservations
+        this.resourceService.filterAssignment = true;
+        // We change the available Ids
+        this.resourceService.availableVlanLabels = ImmutableSet.of(
+                (short) 1,
+                (short) 2,
+                (short) 3,
+                (short) 4
+        );
+        // Owned labels are allocated first, then the allocator falls
+        // back to the labels owned by the other nodes
+        List<Identifier<?>> expected = Arrays.asList(
+                VlanId.vlanId((short) 1),
+                VlanId.vlanId((short) 3),
+                VlanId.vlanId((short) 2),
+                VlanId.vlanId((short) 4)
+        );
+        for (Identifier<?> label : expected) {
+            Map<LinkKey, Identifier<?>> allocation = this.allocator.assignLabelToLinks(
+                    ImmutableSet.copyOf(links.subList(2, 3)),
+                    IntentId.valueOf(idGenerator.getNewId()),
+                    EncapsulationType.VLAN);
+            assertEquals(label, allocation.get(LinkKey.linkKey(d3p0, d2p1)));
+        }
+        this.allocator.setLabelBlockSize(0);
+    }
+
 }
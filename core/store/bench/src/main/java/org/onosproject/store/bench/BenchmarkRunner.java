@@ -0,0 +1,208 @@
+/*
+ * Copyright 2020-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.store.bench;
+
+import com.google.common.collect.Lists;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * Runs an operation from a number of threads for a fixed duration, after a
+ * warm-up, and reports its throughput and latency percentiles.
+ */
+public final class BenchmarkRunner {
+
+    // Number of latencies kept per thread, by reservoir sampling
+    private static final int RESERVOIR_SIZE = 100_000;
+
+    private final int threads;
+    private final long warmupMillis;
+    private final long durationMillis;
+
+    /**
+     * Operation under measurement.
+     */
+    @FunctionalInterface
+    public interface Operation {
+        /**
+         * Runs the operation once.
+         *
+         * @param thread index of the calling thread
+         * @throws Exception if the operation fails
+         */
+        void run(int thread) throws Exception;
+    }
+
+    /**
+     * Creates a new runner.
+     *
+     * @param threads        number of threads running the operation
+     * @param warmupMillis   warm-up duration in milliseconds
+     * @param durationMillis measurement duration in milliseconds
+     */
+    public BenchmarkRunner(int threads, long warmupMillis, long durationMillis) {
+        checkArgument(threads > 0, "Number of threads must be positive");
+        checkArgument(durationMillis > 0, "Duration must be positive");
+        this.threads = threads;
+        this.warmupMillis = warmupMillis;
+        this.durationMillis = durationMillis;
+    }
+
+    /**
+     * Warms up and measures the given operation.
+     *
+     * @param name      benchmark name
+     * @param operation operation to measure
+     * @return benchmark result
+     */
+    public Result run(String name, Operation operation) {
+        if (warmupMillis > 0) {
+            measure(name, operation, warmupMillis);
+        }
+        return measure(name, operation, durationMillis);
+    }
+
+    private Result measure(String name, Operation operation, long millis) {
+        Recorder[] recorders = new Recorder[threads];
+        List<Thread> workers = Lists.newArrayList();
+        AtomicReference<Exception> failure = new AtomicReference<>();
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(millis);
+        for (int i = 0; i < threads; i++) {
+            int thread = i;
+            recorders[i] = new Recorder();
+            workers.add(new Thread(() -> {
+                try {
+                    long start;
+                    while ((start = System.nanoTime()) < deadline) {
+                        operation.run(thread);
+                        recorders[thread].record(System.nanoTime() - start);
+                    }
+                } catch (Exception e) {
+                    failure.compareAndSet(null, e);
+                }
+            }, "bench-" + name + "-" + i));
+        }
+        long start = System.nanoTime();
+        workers.forEach(Thread::start);
+        for (Thread worker : workers) {
+            try {
+                worker.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while running " + name, e);
+            }
+        }
+        long elapsed = System.nanoTime() - start;
+        if (failure.get() != null) {
+            throw new IllegalStateException("Benchmark " + name + " failed", failure.get());
+        }
+        return new Result(name, recorders, elapsed);
+    }
+
+    // Per-thread operation count and latency sample
+    private static final class Recorder {
+        private final long[] reservoir = new long[RESERVOIR_SIZE];
+        private long count;
+
+        private void record(long latency) {
+            if (count < RESERVOIR_SIZE) {
+                reservoir[(int) count] = latency;
+            } else {
+                long slot = ThreadLocalRandom.current().nextLong(count + 1);
+                if (slot < RESERVOIR_SIZE) {
+                    reservoir[(int) slot] = latency;
+                }
+            }
+            count++;
+        }
+
+        private long[] sample() {
+            return Arrays.copyOf(reservoir, (int) Math.min(count, RESERVOIR_SIZE));
+        }
+    }
+
+    /**
+     * Result of a benchmark.
+     */
+    public static final class Result {
+        private final String name;
+        private final long operations;
+        private final double throughput;
+        private final long[] latencies;
+
+        private Result(String name, Recorder[] recorders, long elapsedNanos) {
+            this.name = name;
+            this.operations = Arrays.stream(recorders).mapToLong(recorder -> recorder.count).sum();
+            this.throughput = operations * 1e9 / Math.max(elapsedNanos, 1);
+            this.latencies = Arrays.stream(recorders).flatMapToLong(recorder -> Arrays.stream(recorder.sample()))
+                    .sorted()
+                    .toArray();
+        }
+
+        /**
+         * Returns the benchmark name.
+         *
+         * @return name
+         */
+        public String name() {
+            return name;
+        }
+
+        /**
+         * Returns the number of operations completed during the measurement.
+         *
+         * @return operation count
+         */
+        public long operations() {
+            return operations;
+        }
+
+        /**
+         * Returns the throughput.
+         *
+         * @return operations per second
+         */
+        public double throughput() {
+            return throughput;
+        }
+
+        /**
+         * Returns the given latency percentile.
+         *
+         * @param percentile percentile, between 0 and 100
+         * @return latency in microseconds
+         */
+        public double latencyMicros(double percentile) {
+            if (latencies.length == 0) {
+                return 0;
+            }
+            int index = (int) Math.min(latencies.length - 1, Math.ceil(percentile / 100 * latencies.length) - 1);
+            return latencies[Math.max(index, 0)] / 1e3;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%-12s %12.0f ops/s  p50=%.1fus  p99=%.1fus  p99.9=%.1fus",
+                                 name, throughput, latencyMicros(50), latencyMicros(99), latencyMicros(99.9));
+        }
+    }
+}
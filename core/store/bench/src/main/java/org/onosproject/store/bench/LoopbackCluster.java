@@ -0,0 +1,152 @@
+/*
+ * Copyright 2020-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.store.bench;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Maps;
+import org.onlab.packet.IpAddress;
+import org.onosproject.cfg.ComponentConfigAdapter;
+import org.onosproject.cluster.ClusterServiceAdapter;
+import org.onosproject.cluster.ControllerNode;
+import org.onosproject.cluster.DefaultControllerNode;
+import org.onosproject.cluster.NodeId;
+import org.onosproject.store.cluster.messaging.ClusterCommunicationService;
+import org.onosproject.store.cluster.messaging.Endpoint;
+import org.onosproject.store.cluster.messaging.MessagingService;
+import org.onosproject.store.cluster.messaging.impl.ClusterCommunicationManager;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * Cluster of in-process nodes, each with its own cluster communication
+ * manager on top of a loopback messaging service.
+ */
+public class LoopbackCluster {
+
+    private static final IpAddress LOOPBACK = IpAddress.valueOf("127.0.0.1");
+    private static final int BASE_PORT = 9876;
+
+    private final List<ControllerNode> nodes;
+    private final List<ClusterCommunicationService> communicators;
+
+    /**
+     * Creates a new cluster.
+     *
+     * @param size number of nodes
+     */
+    public LoopbackCluster(int size) {
+        checkArgument(size > 0, "Cluster size must be positive");
+        nodes = IntStream.range(0, size)
+                .mapToObj(i -> new DefaultControllerNode(NodeId.nodeId("node" + i), LOOPBACK, BASE_PORT + i))
+                .collect(ImmutableList.toImmutableList());
+
+        Map<Endpoint, LoopbackMessagingService> network = Maps.newConcurrentMap();
+        communicators = nodes.stream()
+                .map(node -> new LoopbackCommunicationManager(
+                        new LoopbackClusterService(node, nodes),
+                        new LoopbackMessagingService(new Endpoint(node.ip(), node.tcpPort()), network)))
+                .collect(ImmutableList.toImmutableList());
+    }
+
+    /**
+     * Returns the number of nodes.
+     *
+     * @return cluster size
+     */
+    public int size() {
+        return nodes.size();
+    }
+
+    /**
+     * Returns the identifier of the given node.
+     *
+     * @param index node index
+     * @return node identifier
+     */
+    public NodeId nodeId(int index) {
+        return nodes.get(index).id();
+    }
+
+    /**
+     * Returns the identifiers of all the nodes but the given one.
+     *
+     * @param index node index
+     * @return peer identifiers
+     */
+    public List<NodeId> peersOf(int index) {
+        return nodes.stream()
+                .map(ControllerNode::id)
+                .filter(id -> !id.equals(nodeId(index)))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Returns the cluster communication service of the given node.
+     *
+     * @param index node index
+     * @return cluster communication service
+     */
+    public ClusterCommunicationService communicator(int index) {
+        return communicators.get(index);
+    }
+
+    private static final class LoopbackClusterService extends ClusterServiceAdapter {
+        private final ControllerNode localNode;
+        private final Set<ControllerNode> nodes;
+
+        private LoopbackClusterService(ControllerNode localNode, List<ControllerNode> nodes) {
+            this.localNode = localNode;
+            this.nodes = ImmutableSet.copyOf(nodes);
+        }
+
+        @Override
+        public ControllerNode getLocalNode() {
+            return localNode;
+        }
+
+        @Override
+        public Set<ControllerNode> getNodes() {
+            return nodes;
+        }
+
+        @Override
+        public ControllerNode getNode(NodeId nodeId) {
+            return nodes.stream().filter(node -> node.id().equals(nodeId)).findFirst().orElse(null);
+        }
+
+        @Override
+        public ControllerNode.State getState(NodeId nodeId) {
+            return ControllerNode.State.ACTIVE;
+        }
+    }
+
+    private static final class LoopbackCommunicationManager extends ClusterCommunicationManager {
+        private LoopbackCommunicationManager(LoopbackClusterService clusterService,
+                                             MessagingService messagingService) {
+            this.clusterService = clusterService;
+            this.messagingService = messagingService;
+            this.cfgService = new ComponentConfigAdapter();
+            activate(null);
+        }
+    }
+}
@@ -0,0 +1,117 @@
+/*
+ * Copyright 2020-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.store.bench;
+
+import com.google.common.collect.Maps;
+import org.onlab.util.Tools;
+import org.onosproject.store.cluster.messaging.Endpoint;
+import org.onosproject.store.cluster.messaging.MessagingException;
+import org.onosproject.store.cluster.messaging.MessagingService;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * In-process messaging service delivering the messages to the other loopback
+ * messaging services of the same network.
+ * <p>
+ * Payloads are copied on both ways, like they would be on the wire, but no
+ * socket is involved; benchmarks built on top of it measure the cost of the
+ * messaging layers above the transport.
+ */
+public class LoopbackMessagingService implements MessagingService {
+
+    private final Endpoint localEndpoint;
+    private final Map<Endpoint, LoopbackMessagingService> network;
+    private final Map<String, BiFunction<Endpoint, byte[], CompletableFuture<byte[]>>> handlers =
+            Maps.newConcurrentMap();
+
+    /**
+     * Creates a new loopback messaging service and attaches it to the network.
+     *
+     * @param localEndpoint endpoint of the service
+     * @param network       services of the network, by endpoint
+     */
+    public LoopbackMessagingService(Endpoint localEndpoint, Map<Endpoint, LoopbackMessagingService> network) {
+        this.localEndpoint = checkNotNull(localEndpoint);
+        this.network = checkNotNull(network);
+        network.put(localEndpoint, this);
+    }
+
+    @Override
+    public CompletableFuture<Void> sendAsync(Endpoint ep, String type, byte[] payload) {
+        // Completes once the message is handed to the receiver, like a socket write
+        return deliver(ep, type, payload, true).thenApply(v -> null);
+    }
+
+    @Override
+    public CompletableFuture<byte[]> sendAndReceive(Endpoint ep, String type, byte[] payload) {
+        return deliver(ep, type, payload, false);
+    }
+
+    @Override
+    public CompletableFuture<byte[]> sendAndReceive(Endpoint ep, String type, byte[] payload, Executor executor) {
+        return deliver(ep, type, payload, false).thenApplyAsync(Function.identity(), executor);
+    }
+
+    @Override
+    public void registerHandler(String type, BiConsumer<Endpoint, byte[]> handler, Executor executor) {
+        handlers.put(type, (ep, payload) -> {
+            executor.execute(() -> handler.accept(ep, payload));
+            return CompletableFuture.completedFuture(null);
+        });
+    }
+
+    @Override
+    public void registerHandler(String type, BiFunction<Endpoint, byte[], byte[]> handler, Executor executor) {
+        handlers.put(type, (ep, payload) -> CompletableFuture.supplyAsync(() -> handler.apply(ep, payload), executor));
+    }
+
+    @Override
+    public void registerHandler(String type, BiFunction<Endpoint, byte[], CompletableFuture<byte[]>> handler) {
+        handlers.put(type, handler);
+    }
+
+    @Override
+    public void unregisterHandler(String type) {
+        handlers.remove(type);
+    }
+
+    private CompletableFuture<byte[]> deliver(Endpoint ep, String type, byte[] payload, boolean oneWay) {
+        LoopbackMessagingService receiver = network.get(ep);
+        BiFunction<Endpoint, byte[], CompletableFuture<byte[]>> handler =
+                receiver != null ? receiver.handlers.get(type) : null;
+        if (handler == null) {
+            return Tools.exceptionalFuture(new MessagingException.NoRemoteHandler());
+        }
+        try {
+            CompletableFuture<byte[]> reply = handler.apply(localEndpoint, Arrays.copyOf(payload, payload.length));
+            if (oneWay) {
+                return CompletableFuture.completedFuture(null);
+            }
+            return reply.thenApply(bytes -> bytes != null ? Arrays.copyOf(bytes, bytes.length) : null);
+        } catch (Exception e) {
+            return Tools.exceptionalFuture(new MessagingException.RemoteHandlerFailure());
+        }
+    }
+}
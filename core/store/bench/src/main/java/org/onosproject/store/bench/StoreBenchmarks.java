@@ -0,0 +1,208 @@
+/*
+ * Copyright 2020-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.store.bench;
+
+import com.google.common.base.Splitter;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import org.onlab.util.KryoNamespace;
+import org.onosproject.cluster.NodeId;
+import org.onosproject.store.atomix.primitives.impl.EventuallyConsistentMapBuilderImpl;
+import org.onosproject.store.cluster.messaging.MessageSubject;
+import org.onosproject.store.serializers.KryoNamespaces;
+import org.onosproject.store.service.EventuallyConsistentMap;
+import org.onosproject.store.service.WallClockTimestamp;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import static org.onlab.util.Tools.groupedThreads;
+
+/**
+ * Offline benchmarks of the cluster messaging and serialization hot paths.
+ * <p>
+ * The benchmarks run a cluster of in-process nodes connected through
+ * loopback messaging services, so that they can run anywhere, CI included.
+ * Parameters are given as {@code name=value} arguments:
+ * <ul>
+ *     <li>{@code benchmarks}: comma-separated list among kryo, unicast, rpc,
+ *     fanout and ecmap; all by default</li>
+ *     <li>{@code payload}: payload size in bytes; 1024 by default</li>
+ *     <li>{@code fanout}: number of peers messages are sent to; 2 by default</li>
+ *     <li>{@code threads}: number of concurrent senders; 4 by default</li>
+ *     <li>{@code warmup}: warm-up duration in seconds; 5 by default</li>
+ *     <li>{@code duration}: measurement duration in seconds; 10 by default</li>
+ *     <li>{@code keys}: number of distinct map keys; 10000 by default</li>
+ * </ul>
+ */
+public final class StoreBenchmarks {
+
+    private static final MessageSubject ONE_WAY_SUBJECT = new MessageSubject("bench-one-way");
+    private static final MessageSubject ECHO_SUBJECT = new MessageSubject("bench-echo");
+    private static final int CHUNK_SIZE = 64;
+    private static final long CONVERGENCE_TIMEOUT_MILLIS = 30_000;
+
+    private final Map<String, String> params;
+    private final int payloadSize;
+    private final int fanout;
+    private final int keys;
+    private final BenchmarkRunner runner;
+
+    private StoreBenchmarks(Map<String, String> params) {
+        this.params = params;
+        this.payloadSize = intParam("payload", 1024);
+        this.fanout = intParam("fanout", 2);
+        this.keys = intParam("keys", 10000);
+        this.runner = new BenchmarkRunner(intParam("threads", 4),
+                                          TimeUnit.SECONDS.toMillis(intParam("warmup", 5)),
+                                          TimeUnit.SECONDS.toMillis(intParam("duration", 10)));
+    }
+
+    /**
+     * Runs the benchmarks.
+     *
+     * @param args benchmark parameters, as name=value pairs
+     */
+    public static void main(String[] args) {
+        Map<String, String> params = Maps.newHashMap();
+        for (String arg : args) {
+            List<String> pair = Splitter.on('=').limit(2).splitToList(arg);
+            if (pair.size() != 2) {
+                System.err.println("Ignoring malformed argument " + arg);
+                continue;
+            }
+            params.put(pair.get(0), pair.get(1));
+        }
+        new StoreBenchmarks(params).run();
+    }
+
+    private int intParam(String name, int defaultValue) {
+        String value = params.get(name);
+        return value != null ? Integer.parseInt(value.trim()) : defaultValue;
+    }
+
+    private void run() {
+        List<String> benchmarks = Splitter.on(',').omitEmptyStrings().trimResults()
+                .splitToList(params.getOrDefault("benchmarks", "kryo,unicast,rpc,fanout,ecmap"));
+        System.out.println(String.format("payload=%d fanout=%d threads=%s keys=%d",
+                                         payloadSize, fanout, params.getOrDefault("threads", "4"), keys));
+
+        if (benchmarks.contains("kryo")) {
+            kryo();
+        }
+        if (benchmarks.contains("unicast") || benchmarks.contains("rpc") || benchmarks.contains("fanout")) {
+            messaging(benchmarks);
+        }
+        if (benchmarks.contains("ecmap")) {
+            ecmap();
+        }
+    }
+
+    // Round trip of a payload through the API serializer
+    private void kryo() {
+        KryoNamespace serializer = KryoNamespace.newBuilder()
+                .register(KryoNamespaces.API)
+                .build("bench");
+        ArrayList<String> payload = Lists.newArrayList();
+        for (int size = 0; size < payloadSize; size += CHUNK_SIZE) {
+            payload.add(String.valueOf(new char[Math.min(CHUNK_SIZE, payloadSize - size)]).replace('\0', 'x'));
+        }
+        System.out.println(runner.run("kryo", thread -> serializer.deserialize(serializer.serialize(payload))));
+    }
+
+    private void messaging(List<String> benchmarks) {
+        LoopbackCluster cluster = new LoopbackCluster(fanout + 1);
+        ExecutorService executor = Executors.newFixedThreadPool(
+                Runtime.getRuntime().availableProcessors(), groupedThreads("onos/bench", "handler-%d"));
+        try {
+            for (int i = 1; i < cluster.size(); i++) {
+                cluster.communicator(i).addSubscriber(ONE_WAY_SUBJECT, Function.identity(),
+                                                      (byte[] message) -> { }, executor);
+                cluster.communicator(i).addSubscriber(ECHO_SUBJECT, Function.identity(),
+                                                      (byte[] message) -> message, Function.identity(), executor);
+            }
+            List<NodeId> peers = cluster.peersOf(0);
+            byte[] payload = new byte[payloadSize];
+
+            if (benchmarks.contains("unicast")) {
+                System.out.println(runner.run("unicast", thread -> cluster.communicator(0).unicast(
+                        payload, ONE_WAY_SUBJECT, Function.identity(), randomPeer(peers)).join()));
+            }
+            if (benchmarks.contains("rpc")) {
+                System.out.println(runner.run("rpc", thread -> cluster.communicator(0).<byte[], byte[]>sendAndReceive(
+                        payload, ECHO_SUBJECT, Function.identity(), Function.identity(), randomPeer(peers)).join()));
+            }
+            if (benchmarks.contains("fanout")) {
+                System.out.println(runner.run("fanout", thread -> CompletableFuture.allOf(peers.stream()
+                        .map(peer -> cluster.communicator(0).<byte[], byte[]>sendAndReceive(
+                                payload, ECHO_SUBJECT, Function.identity(), Function.identity(), peer))
+                        .toArray(CompletableFuture[]::new)).join()));
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    // Local updates of a map replicated to the fan-out peers, then the time
+    // it takes for an update to reach all the replicas
+    private void ecmap() {
+        LoopbackCluster cluster = new LoopbackCluster(fanout + 1);
+        List<EventuallyConsistentMap<String, byte[]>> maps = Lists.newArrayList();
+        for (int i = 0; i < cluster.size(); i++) {
+            int index = i;
+            maps.add(new EventuallyConsistentMapBuilderImpl<String, byte[]>(
+                    cluster.nodeId(i), cluster.communicator(i), null,
+                    () -> cluster.peersOf(index), () -> cluster.peersOf(index))
+                             .withName("bench-ecmap")
+                             .withSerializer(KryoNamespace.newBuilder().register(KryoNamespaces.API))
+                             .withTimestampProvider((key, value) -> new WallClockTimestamp())
+                             .build());
+        }
+        try {
+            byte[] payload = new byte[payloadSize];
+            System.out.println(runner.run("ecmap", thread -> maps.get(0).put(
+                    "key-" + ThreadLocalRandom.current().nextInt(keys), payload)));
+
+            long start = System.nanoTime();
+            maps.get(0).put("marker", payload);
+            long deadline = System.currentTimeMillis() + CONVERGENCE_TIMEOUT_MILLIS;
+            while (maps.stream().anyMatch(map -> map.get("marker") == null)) {
+                if (System.currentTimeMillis() > deadline) {
+                    System.out.println("ecmap-converge timed out");
+                    return;
+                }
+                Thread.sleep(1);
+            }
+            System.out.println(String.format("%-12s %12.1f ms", "ecmap-converge",
+                                             (System.nanoTime() - start) / 1e6));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            maps.forEach(EventuallyConsistentMap::destroy);
+        }
+    }
+
+    private static NodeId randomPeer(List<NodeId> peers) {
+        return peers.get(ThreadLocalRandom.current().nextInt(peers.size()));
+    }
+}
@@ -50,6 +50,18 @@ public final class OsgiPropertyConstants {
     public static final String ALLOW_EXTRANEOUS_GROUPS = "allowExtraneousGroups";
     public static final boolean ALLOW_EXTRANEOUS_GROUPS_DEFAULT = false;
 
+    public static final String GROUP_WRITE_BATCHING = "writeBatching";
+    public static final boolean GROUP_WRITE_BATCHING_DEFAULT = false;
+
+    public static final String GROUP_WRITE_BATCH_SIZE = "writeBatchSize";
+    public static final int GROUP_WRITE_BATCH_SIZE_DEFAULT = 100;
+
+    public static final String GROUP_WRITE_BATCH_INTERVAL = "writeBatchInterval";
+    public static final int GROUP_WRITE_BATCH_INTERVAL_DEFAULT = 10;
+
+    public static final String GROUP_AUDIT_FINGERPRINTS = "auditFingerprints";
+    public static final boolean GROUP_AUDIT_FINGERPRINTS_DEFAULT = false;
+
     public static final String GIS_PERSISTENCE_ENABLED = "persistenceEnabled";
     public static final boolean GIS_PERSISTENCE_ENABLED_DEFAULT = false;
 
@@ -64,4 +76,13 @@ public final class OsgiPropertyConstants {
 
     public static final String LINK_WEIGHT_FUNCTION = "linkWeightFunction";
     public static final String LINK_WEIGHT_FUNCTION_DEFAULT = "hopCount";
+
+    public static final String COMPRESS_MESSAGES = "compressMessages";
+    public static final boolean COMPRESS_MESSAGES_DEFAULT = false;
+
+    public static final String COMPRESSION_THRESHOLD = "compressionThreshold";
+    public static final int COMPRESSION_THRESHOLD_DEFAULT = 16 * 1024;
+
+    public static final String PRIORITIZE_MESSAGES = "prioritizeMessages";
+    public static final boolean PRIORITIZE_MESSAGES_DEFAULT = false;
 }
@@ -15,9 +15,17 @@
  */
 package org.onosproject.store.cluster.messaging.impl;
 
+import com.codahale.metrics.Counter;
+import com.codahale.metrics.Histogram;
+import com.codahale.metrics.Timer;
 import com.google.common.base.Objects;
 import com.google.common.base.Throwables;
+import com.google.common.collect.Maps;
+import org.onlab.metrics.MetricsComponent;
+import org.onlab.metrics.MetricsFeature;
+import org.onlab.metrics.MetricsService;
 import org.onlab.util.Tools;
+import org.onosproject.cfg.ComponentConfigService;
 import org.onosproject.cluster.ClusterService;
 import org.onosproject.cluster.ControllerNode;
 import org.onosproject.cluster.NodeId;
@@ -25,33 +33,69 @@ import org.onosproject.store.cluster.messaging.ClusterCommunicationService;
 import org.onosproject.store.cluster.messaging.ClusterMessage;
 import org.onosproject.store.cluster.messaging.ClusterMessageHandler;
 import org.onosproject.store.cluster.messaging.Endpoint;
+import org.onosproject.store.cluster.messaging.MessagePriority;
 import org.onosproject.store.cluster.messaging.MessageSubject;
 import org.onosproject.store.cluster.messaging.MessagingService;
 import org.onosproject.utils.MeteringAgent;
+import org.osgi.service.component.ComponentContext;
 import org.osgi.service.component.annotations.Activate;
 import org.osgi.service.component.annotations.Component;
 import org.osgi.service.component.annotations.Deactivate;
+import org.osgi.service.component.annotations.Modified;
 import org.osgi.service.component.annotations.Reference;
 import org.osgi.service.component.annotations.ReferenceCardinality;
+import org.osgi.service.component.annotations.ReferencePolicy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.Dictionary;
+import java.util.Map;
+import java.util.Properties;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.Executor;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
 import java.util.function.BiConsumer;
 import java.util.function.BiFunction;
 import java.util.function.Consumer;
 import java.util.function.Function;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.base.Strings.isNullOrEmpty;
+import static org.onlab.util.Tools.get;
+import static org.onosproject.store.OsgiPropertyConstants.COMPRESS_MESSAGES;
+import static org.onosproject.store.OsgiPropertyConstants.COMPRESS_MESSAGES_DEFAULT;
+import static org.onosproject.store.OsgiPropertyConstants.COMPRESSION_THRESHOLD;
+import static org.onosproject.store.OsgiPropertyConstants.COMPRESSION_THRESHOLD_DEFAULT;
+import static org.onosproject.store.OsgiPropertyConstants.PRIORITIZE_MESSAGES;
+import static org.onosproject.store.OsgiPropertyConstants.PRIORITIZE_MESSAGES_DEFAULT;
 import static org.onosproject.security.AppGuard.checkPermission;
 import static org.onosproject.security.AppPermission.Type.CLUSTER_WRITE;
 
-@Component(immediate = true, service = ClusterCommunicationService.class)
+/**
+ * Cluster communication service implementation.
+ * <p>
+ * The payloads of the compressible subjects are sent compressed, under a
+ * distinct message type, when compression is enabled and they exceed the
+ * configured threshold. Handlers are always registered for both types, so
+ * compression only has to be enabled once all the nodes run this version.
+ * <p>
+ * When prioritization is enabled, the messages to each node go through a send
+ * queue of that node bounding its bytes in flight.
+ */
+@Component(
+        immediate = true,
+        service = ClusterCommunicationService.class,
+        property = {
+                COMPRESS_MESSAGES + ":Boolean=" + COMPRESS_MESSAGES_DEFAULT,
+                COMPRESSION_THRESHOLD + ":Integer=" + COMPRESSION_THRESHOLD_DEFAULT,
+                PRIORITIZE_MESSAGES + ":Boolean=" + PRIORITIZE_MESSAGES_DEFAULT
+        }
+)
 public class ClusterCommunicationManager implements ClusterCommunicationService {
 
     private final Logger log = LoggerFactory.getLogger(getClass());
@@ -68,6 +112,13 @@ public class ClusterCommunicationManager implements ClusterCommunicationService
     private static final String NODE_PREFIX = "node:";
     private static final String ROUND_TRIP_SUFFIX = ".rtt";
     private static final String ONE_WAY_SUFFIX = ".oneway";
+    private static final String CLASS_PREFIX = "class-";
+    private static final String COMPRESSION = "compression";
+    private static final String COMPRESSED_SUFFIX = "/deflate";
+
+    // Budget of bytes sent to a node and not yet acknowledged by the messaging
+    // service; beyond it, messages are queued and drained by priority class
+    private static final long MAX_BYTES_IN_FLIGHT = 16 * 1024 * 1024;
 
     @Reference(cardinality = ReferenceCardinality.MANDATORY)
     protected ClusterService clusterService;
@@ -75,11 +126,79 @@ public class ClusterCommunicationManager implements ClusterCommunicationService
     @Reference(cardinality = ReferenceCardinality.MANDATORY)
     protected MessagingService messagingService;
 
+    @Reference(cardinality = ReferenceCardinality.MANDATORY)
+    protected MetricsService metricsService;
+
+    // Optional: the configuration service depends on the distributed stores,
+    // which depend on this service
+    @Reference(cardinality = ReferenceCardinality.OPTIONAL,
+            bind = "bindComponentConfigService",
+            unbind = "unbindComponentConfigService",
+            policy = ReferencePolicy.DYNAMIC)
+    protected volatile ComponentConfigService cfgService;
+
+    /** Send the payloads of the compressible subjects compressed. */
+    private volatile boolean compressMessages = COMPRESS_MESSAGES_DEFAULT;
+
+    /** Minimum size in bytes of the payloads to compress. */
+    private volatile int compressionThreshold = COMPRESSION_THRESHOLD_DEFAULT;
+
+    /** Queue the messages to each node beyond a budget of bytes in flight and drain them by priority class. */
+    private volatile boolean prioritizeMessages = PRIORITIZE_MESSAGES_DEFAULT;
+
     private NodeId localNodeId;
 
+    private final Map<Endpoint, PrioritizedSendQueue> sendQueues = Maps.newConcurrentMap();
+    private final Map<MessagePriority, Counter> classBytes = Maps.newEnumMap(MessagePriority.class);
+    private final Map<MessagePriority, Timer> classLatencies = Maps.newEnumMap(MessagePriority.class);
+    private Counter uncompressedBytes;
+    private Counter compressedBytes;
+    private Histogram compressionRatio;
+    private Timer compressionTime;
+    private Timer decompressionTime;
+
+    /**
+     * Hook for wiring optional reference to the configuration service.
+     *
+     * @param service service being bound
+     */
+    protected void bindComponentConfigService(ComponentConfigService service) {
+        if (cfgService == null) {
+            cfgService = service;
+            service.registerProperties(getClass());
+        }
+    }
+
+    /**
+     * Hook for unwiring optional reference to the configuration service.
+     *
+     * @param service service being withdrawn
+     */
+    protected void unbindComponentConfigService(ComponentConfigService service) {
+        if (cfgService == service) {
+            service.unregisterProperties(getClass(), false);
+            cfgService = null;
+        }
+    }
+
     @Activate
-    public void activate() {
+    public void activate(ComponentContext context) {
+        modified(context);
         localNodeId = clusterService.getLocalNode().id();
+        if (metricsService != null) {
+            MetricsComponent component = metricsService.registerComponent(PRIMITIVE_NAME);
+            for (MessagePriority priority : MessagePriority.values()) {
+                MetricsFeature feature = component.registerFeature(CLASS_PREFIX + priority.name().toLowerCase());
+                classBytes.put(priority, metricsService.createCounter(component, feature, "bytes"));
+                classLatencies.put(priority, metricsService.createTimer(component, feature, "latency"));
+            }
+            MetricsFeature feature = component.registerFeature(COMPRESSION);
+            uncompressedBytes = metricsService.createCounter(component, feature, "uncompressedBytes");
+            compressedBytes = metricsService.createCounter(component, feature, "compressedBytes");
+            compressionRatio = metricsService.createHistogram(component, feature, "ratioPercent");
+            compressionTime = metricsService.createTimer(component, feature, "compressTime");
+            decompressionTime = metricsService.createTimer(component, feature, "decompressTime");
+        }
         log.info("Started");
     }
 
@@ -88,6 +207,27 @@ public class ClusterCommunicationManager implements ClusterCommunicationService
         log.info("Stopped");
     }
 
+    @Modified
+    public void modified(ComponentContext context) {
+        Dictionary<?, ?> properties = context != null ? context.getProperties() : new Properties();
+        try {
+            String s = get(properties, COMPRESS_MESSAGES);
+            compressMessages = isNullOrEmpty(s) ? COMPRESS_MESSAGES_DEFAULT : Boolean.parseBoolean(s.trim());
+
+            s = get(properties, COMPRESSION_THRESHOLD);
+            compressionThreshold = isNullOrEmpty(s) ? COMPRESSION_THRESHOLD_DEFAULT : Integer.parseInt(s.trim());
+
+            s = get(properties, PRIORITIZE_MESSAGES);
+            prioritizeMessages = isNullOrEmpty(s) ? PRIORITIZE_MESSAGES_DEFAULT : Boolean.parseBoolean(s.trim());
+        } catch (Exception e) {
+            compressMessages = COMPRESS_MESSAGES_DEFAULT;
+            compressionThreshold = COMPRESSION_THRESHOLD_DEFAULT;
+            prioritizeMessages = PRIORITIZE_MESSAGES_DEFAULT;
+        }
+        log.info("Settings: compressMessages={}, compressionThreshold={}, prioritizeMessages={}",
+                 compressMessages, compressionThreshold, prioritizeMessages);
+    }
+
     @Override
     public <M> void broadcast(M message,
                               MessageSubject subject,
@@ -129,7 +269,7 @@ public class ClusterCommunicationManager implements ClusterCommunicationService
                     subject,
                     timeFunction(encoder, subjectMeteringAgent, SERIALIZING).apply(message)
                     ).getBytes();
-            return doUnicast(subject, payload, toNodeId);
+            return doUnicast(subject, outbound(subject, payload), toNodeId);
         } catch (Exception e) {
             return Tools.exceptionalFuture(e);
         }
@@ -146,7 +286,8 @@ public class ClusterCommunicationManager implements ClusterCommunicationService
                 subject,
                 timeFunction(encoder, subjectMeteringAgent, SERIALIZING).apply(message))
                 .getBytes();
-        nodes.forEach(nodeId -> doUnicast(subject, payload, nodeId));
+        OutboundMessage outbound = outbound(subject, payload);
+        nodes.forEach(nodeId -> doUnicast(subject, outbound, nodeId));
     }
 
     @Override
@@ -162,22 +303,25 @@ public class ClusterCommunicationManager implements ClusterCommunicationService
                     subject,
                     timeFunction(encoder, subjectMeteringAgent, SERIALIZING).
                             apply(message));
-            return sendAndReceive(subject, envelope.getBytes(), toNodeId).
+            return sendAndReceive(subject, outbound(subject, envelope.getBytes()), toNodeId).
                     thenApply(bytes -> timeFunction(decoder, subjectMeteringAgent, DESERIALIZING).apply(bytes));
         } catch (Exception e) {
             return Tools.exceptionalFuture(e);
         }
     }
 
-    private CompletableFuture<Void> doUnicast(MessageSubject subject, byte[] payload, NodeId toNodeId) {
+    private CompletableFuture<Void> doUnicast(MessageSubject subject, OutboundMessage message, NodeId toNodeId) {
         ControllerNode node = clusterService.getNode(toNodeId);
         checkArgument(node != null, "Unknown nodeId: %s", toNodeId);
         Endpoint nodeEp = new Endpoint(node.ip(), node.tcpPort());
         MeteringAgent.Context context = subjectMeteringAgent.startTimer(subject.toString() + ONE_WAY_SUFFIX);
-        return messagingService.sendAsync(nodeEp, subject.toString(), payload).whenComplete((r, e) -> context.stop(e));
+        return send(subject, nodeEp, message.payload, false,
+                    () -> messagingService.sendAsync(nodeEp, message.type, message.payload))
+                .whenComplete((r, e) -> context.stop(e));
     }
 
-    private CompletableFuture<byte[]> sendAndReceive(MessageSubject subject, byte[] payload, NodeId toNodeId) {
+    private CompletableFuture<byte[]> sendAndReceive(MessageSubject subject, OutboundMessage message,
+                                                     NodeId toNodeId) {
         ControllerNode node = clusterService.getNode(toNodeId);
         checkArgument(node != null, "Unknown nodeId: %s", toNodeId);
         Endpoint nodeEp = new Endpoint(node.ip(), node.tcpPort());
@@ -185,27 +329,96 @@ public class ClusterCommunicationManager implements ClusterCommunicationService
                 startTimer(NODE_PREFIX + toNodeId.toString() + ROUND_TRIP_SUFFIX);
         MeteringAgent.Context subjectContext = subjectMeteringAgent.
                 startTimer(subject.toString() + ROUND_TRIP_SUFFIX);
-        return messagingService.sendAndReceive(nodeEp, subject.toString(), payload).
+        CompletableFuture<byte[]> response = send(subject, nodeEp, message.payload, true,
+                () -> messagingService.sendAndReceive(nodeEp, message.type, message.payload));
+        return (message.framed ? response.thenApply(this::decode) : response).
                 whenComplete((bytes, throwable) -> {
                     subjectContext.stop(throwable);
                     epContext.stop(throwable);
                 });
     }
 
+    // Sends the payload, through the send queue of the endpoint when enabled,
+    // accounting it to the priority class of the subject
+    private <T> CompletableFuture<T> send(MessageSubject subject, Endpoint endpoint, byte[] payload,
+                                          boolean request, Supplier<CompletableFuture<T>> sender) {
+        MessagePriority priority = subject.priority();
+        Counter bytes = classBytes.get(priority);
+        if (bytes != null) {
+            bytes.inc(payload.length);
+        }
+        Timer latency = classLatencies.get(priority);
+        long start = System.nanoTime();
+        CompletableFuture<T> result;
+        if (!prioritizeMessages) {
+            result = sender.get();
+        } else {
+            PrioritizedSendQueue queue =
+                    sendQueues.computeIfAbsent(endpoint, ep -> new PrioritizedSendQueue(MAX_BYTES_IN_FLIGHT));
+            result = request ? queue.submitRequest(priority, payload.length, sender)
+                    : queue.submit(priority, payload.length, sender);
+        }
+        return result.whenComplete((r, e) -> {
+            if (latency != null) {
+                latency.update(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            }
+        });
+    }
+
+    // Returns the message type and payload to send for the given subject;
+    // the payloads of the compressible subjects are framed and sent under the
+    // compressed type, which also tells the receiver to frame its reply
+    private OutboundMessage outbound(MessageSubject subject, byte[] payload) {
+        if (!compressMessages || !subject.isCompressible()) {
+            return new OutboundMessage(subject.toString(), payload, false);
+        }
+        return new OutboundMessage(compressedType(subject), encode(payload), true);
+    }
+
+    private static String compressedType(MessageSubject subject) {
+        return subject.toString() + COMPRESSED_SUFFIX;
+    }
+
+    private byte[] encode(byte[] payload) {
+        long start = System.nanoTime();
+        byte[] frame = PayloadCompressor.encode(payload, compressionThreshold);
+        if (compressionTime != null && PayloadCompressor.isCompressed(frame)) {
+            compressionTime.update(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            uncompressedBytes.inc(payload.length);
+            compressedBytes.inc(frame.length);
+            compressionRatio.update(frame.length * 100L / Math.max(payload.length, 1));
+        }
+        return frame;
+    }
+
+    private byte[] decode(byte[] frame) {
+        long start = System.nanoTime();
+        byte[] payload = PayloadCompressor.decode(frame);
+        if (decompressionTime != null && PayloadCompressor.isCompressed(frame)) {
+            decompressionTime.update(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+        return payload;
+    }
+
     @Override
     public void addSubscriber(MessageSubject subject,
                               ClusterMessageHandler subscriber,
                               ExecutorService executor) {
         checkPermission(CLUSTER_WRITE);
-        messagingService.registerHandler(subject.toString(),
-                new InternalClusterMessageHandler(subscriber),
-                executor);
+        InternalClusterMessageHandler handler = new InternalClusterMessageHandler(subscriber);
+        BiFunction<Endpoint, byte[], byte[]> compressedHandler = (sender, bytes) -> {
+            byte[] response = handler.apply(sender, decode(bytes));
+            return response != null ? encode(response) : null;
+        };
+        messagingService.registerHandler(subject.toString(), handler, executor);
+        messagingService.registerHandler(compressedType(subject), compressedHandler, executor);
     }
 
     @Override
     public void removeSubscriber(MessageSubject subject) {
         checkPermission(CLUSTER_WRITE);
         messagingService.unregisterHandler(subject.toString());
+        messagingService.unregisterHandler(compressedType(subject));
     }
 
     @Override
@@ -215,8 +428,7 @@ public class ClusterCommunicationManager implements ClusterCommunicationService
             Function<R, byte[]> encoder,
             Executor executor) {
         checkPermission(CLUSTER_WRITE);
-        messagingService.registerHandler(subject.toString(),
-                new InternalMessageResponder<M, R>(decoder, encoder, m -> {
+        registerResponder(subject, new InternalMessageResponder<M, R>(decoder, encoder, m -> {
                     CompletableFuture<R> responseFuture = new CompletableFuture<>();
                     executor.execute(() -> {
                         try {
@@ -235,8 +447,14 @@ public class ClusterCommunicationManager implements ClusterCommunicationService
             Function<M, CompletableFuture<R>> handler,
             Function<R, byte[]> encoder) {
         checkPermission(CLUSTER_WRITE);
-        messagingService.registerHandler(subject.toString(),
-                new InternalMessageResponder<>(decoder, encoder, handler));
+        registerResponder(subject, new InternalMessageResponder<>(decoder, encoder, handler));
+    }
+
+    private void registerResponder(MessageSubject subject, InternalMessageResponder<?, ?> responder) {
+        BiFunction<Endpoint, byte[], CompletableFuture<byte[]>> compressedResponder =
+                (sender, bytes) -> responder.apply(sender, decode(bytes)).thenApply(this::encode);
+        messagingService.registerHandler(subject.toString(), responder);
+        messagingService.registerHandler(compressedType(subject), compressedResponder);
     }
 
     @Override
@@ -245,9 +463,10 @@ public class ClusterCommunicationManager implements ClusterCommunicationService
             Consumer<M> handler,
             Executor executor) {
         checkPermission(CLUSTER_WRITE);
-        messagingService.registerHandler(subject.toString(),
-                new InternalMessageConsumer<>(decoder, handler),
-                executor);
+        InternalMessageConsumer<M> consumer = new InternalMessageConsumer<>(decoder, handler);
+        BiConsumer<Endpoint, byte[]> compressedConsumer = (sender, bytes) -> consumer.accept(sender, decode(bytes));
+        messagingService.registerHandler(subject.toString(), consumer, executor);
+        messagingService.registerHandler(compressedType(subject), compressedConsumer, executor);
     }
 
     /**
@@ -284,6 +503,18 @@ public class ClusterCommunicationManager implements ClusterCommunicationService
     }
 
 
+    private static final class OutboundMessage {
+        private final String type;
+        private final byte[] payload;
+        private final boolean framed;
+
+        private OutboundMessage(String type, byte[] payload, boolean framed) {
+            this.type = type;
+            this.payload = payload;
+            this.framed = framed;
+        }
+    }
+
     private class InternalClusterMessageHandler implements BiFunction<Endpoint, byte[], byte[]> {
         private ClusterMessageHandler handler;
 
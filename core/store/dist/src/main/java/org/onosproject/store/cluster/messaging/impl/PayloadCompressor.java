@@ -0,0 +1,135 @@
+/*
+ * Copyright 2020-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.store.cluster.messaging.impl;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * Compression of cluster message payloads.
+ * <p>
+ * Payloads are framed with a leading flag telling whether they are
+ * compressed; only the payloads above a size threshold are. A compressed
+ * payload is the length of the original payload followed by its raw deflate
+ * stream. The fastest compression level is used:
+ * cluster messages are dominated by repeated identifiers and structures, for
+ * which the gain of the higher levels does not pay back their CPU cost.
+ */
+final class PayloadCompressor {
+
+    private static final byte RAW = 0;
+    private static final byte DEFLATED = 1;
+    private static final int LENGTH_BYTES = Integer.BYTES;
+    private static final int HEADER_BYTES = 1 + LENGTH_BYTES;
+    private static final int CHUNK_SIZE = 8 * 1024;
+
+    private PayloadCompressor() {
+    }
+
+    /**
+     * Frames the given payload, compressing it if it reaches the threshold.
+     *
+     * @param payload   payload to frame
+     * @param threshold minimum size of the payloads to compress
+     * @return framed payload
+     */
+    static byte[] encode(byte[] payload, int threshold) {
+        if (payload.length < threshold) {
+            byte[] frame = new byte[payload.length + 1];
+            frame[0] = RAW;
+            System.arraycopy(payload, 0, frame, 1, payload.length);
+            return frame;
+        }
+        return compress(payload);
+    }
+
+    /**
+     * Returns whether the given frame holds a compressed payload.
+     *
+     * @param frame framed payload
+     * @return true if the payload is compressed
+     */
+    static boolean isCompressed(byte[] frame) {
+        return frame.length > 0 && frame[0] == DEFLATED;
+    }
+
+    /**
+     * Returns the payload held by the given frame.
+     *
+     * @param frame payload framed by {@link #encode(byte[], int)}
+     * @return original payload
+     * @throws IllegalArgumentException if the frame is corrupted
+     */
+    static byte[] decode(byte[] frame) {
+        checkArgument(frame.length > 0, "Empty payload frame");
+        if (frame[0] == RAW) {
+            byte[] payload = new byte[frame.length - 1];
+            System.arraycopy(frame, 1, payload, 0, payload.length);
+            return payload;
+        }
+        checkArgument(frame[0] == DEFLATED, "Unknown payload encoding: %s", frame[0]);
+        return decompress(frame);
+    }
+
+    private static byte[] compress(byte[] payload) {
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED, true);
+        try {
+            deflater.setInput(payload);
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(HEADER_BYTES + payload.length / 2);
+            out.write(ByteBuffer.allocate(HEADER_BYTES).put(DEFLATED).putInt(payload.length).array(),
+                      0, HEADER_BYTES);
+            byte[] chunk = new byte[CHUNK_SIZE];
+            while (!deflater.finished()) {
+                int count = deflater.deflate(chunk);
+                out.write(chunk, 0, count);
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static byte[] decompress(byte[] compressed) {
+        checkArgument(compressed.length >= HEADER_BYTES, "Truncated compressed payload");
+        int length = ByteBuffer.wrap(compressed, 1, LENGTH_BYTES).getInt();
+        checkArgument(length >= 0, "Invalid compressed payload length: %s", length);
+        Inflater inflater = new Inflater(true);
+        try {
+            inflater.setInput(compressed, HEADER_BYTES, compressed.length - HEADER_BYTES);
+            byte[] payload = new byte[length];
+            int offset = 0;
+            while (offset < length) {
+                int count = inflater.inflate(payload, offset, length - offset);
+                if (count == 0 && (inflater.finished() || inflater.needsInput() || inflater.needsDictionary())) {
+                    break;
+                }
+                offset += count;
+            }
+            checkArgument(offset == length, "Truncated compressed payload");
+            return payload;
+        } catch (DataFormatException e) {
+            throw new IllegalArgumentException("Corrupted compressed payload", e);
+        } finally {
+            inflater.end();
+        }
+    }
+}
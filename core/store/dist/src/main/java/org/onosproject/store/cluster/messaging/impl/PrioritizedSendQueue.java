@@ -0,0 +1,244 @@
+/*
+ * Copyright 2020-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.store.cluster.messaging.impl;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import org.onlab.util.Tools;
+import org.onosproject.store.cluster.messaging.MessagePriority;
+
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * Send queue of a destination bounding the bytes in flight and draining the
+ * waiting sends by priority class.
+ * <p>
+ * A send starts right away as long as nothing is waiting and the bytes of the
+ * sends in flight stay within the budget; a send larger than the budget starts
+ * alone. Otherwise it waits in the queue of its class. As in-flight sends
+ * complete, the waiting ones are started in weighted round-robin across the
+ * classes, so that a backlog of bulk messages delays the other messages by a
+ * bounded amount only. {@link MessagePriority#HIGH} sends are never held back
+ * nor counted against the budget.
+ * <p>
+ * The bytes of a one-way send are in flight until the messaging service
+ * completes it. Those of a request are in flight only until it is handed to
+ * the messaging service: the time to reply depends on the remote handler, not
+ * on the channel.
+ */
+final class PrioritizedSendQueue {
+
+    private static final MessagePriority[] PRIORITIES = MessagePriority.values();
+
+    private final long maxBytesInFlight;
+    private final Map<MessagePriority, Queue<Send<?>>> queues = Maps.newEnumMap(MessagePriority.class);
+    private final int[] credits = new int[PRIORITIES.length];
+    private final AtomicInteger drainRequests = new AtomicInteger();
+    private long bytesInFlight;
+    private int waiting;
+
+    /**
+     * Creates a new send queue.
+     *
+     * @param maxBytesInFlight budget of bytes in flight
+     */
+    PrioritizedSendQueue(long maxBytesInFlight) {
+        checkArgument(maxBytesInFlight > 0, "Budget must be positive");
+        this.maxBytesInFlight = maxBytesInFlight;
+        for (MessagePriority priority : PRIORITIES) {
+            queues.put(priority, new ArrayDeque<>());
+        }
+        resetCredits();
+    }
+
+    /**
+     * Submits a send.
+     *
+     * @param priority priority class of the message
+     * @param size     size of the message in bytes
+     * @param sender   starts the send and returns its completion
+     * @param <T>      send result type
+     * @return future completed with the result of the send once started and completed
+     */
+    <T> CompletableFuture<T> submit(MessagePriority priority, int size, Supplier<CompletableFuture<T>> sender) {
+        return submit(new Send<>(priority, size, sender, false));
+    }
+
+    /**
+     * Submits a request, whose bytes are released once it is handed off.
+     *
+     * @param priority priority class of the message
+     * @param size     size of the message in bytes
+     * @param sender   starts the request and returns its reply
+     * @param <T>      reply type
+     * @return future completed with the reply once started and replied
+     */
+    <T> CompletableFuture<T> submitRequest(MessagePriority priority, int size,
+                                           Supplier<CompletableFuture<T>> sender) {
+        return submit(new Send<>(priority, size, sender, true));
+    }
+
+    private <T> CompletableFuture<T> submit(Send<T> send) {
+        if (send.priority == MessagePriority.HIGH) {
+            return invoke(send);
+        }
+        boolean startNow;
+        synchronized (this) {
+            startNow = waiting == 0 && fits(send.size);
+            if (startNow) {
+                bytesInFlight += send.size;
+            } else {
+                queues.get(send.priority).add(send);
+                waiting++;
+            }
+        }
+        if (startNow) {
+            start(send);
+        } else {
+            drain();
+        }
+        return send.future;
+    }
+
+    /**
+     * Returns the number of sends waiting to be started.
+     *
+     * @return number of waiting sends
+     */
+    synchronized int waiting() {
+        return waiting;
+    }
+
+    /**
+     * Returns the number of bytes of the sends in flight.
+     *
+     * @return bytes in flight
+     */
+    synchronized long bytesInFlight() {
+        return bytesInFlight;
+    }
+
+    private boolean fits(int size) {
+        return bytesInFlight == 0 || bytesInFlight + size <= maxBytesInFlight;
+    }
+
+    private <T> void start(Send<T> send) {
+        CompletableFuture<T> result = invoke(send);
+        if (send.request) {
+            release(send);
+        }
+        result.whenComplete((value, error) -> {
+            if (!send.request) {
+                release(send);
+            }
+            if (error != null) {
+                send.future.completeExceptionally(error);
+            } else {
+                send.future.complete(value);
+            }
+        });
+    }
+
+    private static <T> CompletableFuture<T> invoke(Send<T> send) {
+        try {
+            return send.sender.get();
+        } catch (Exception e) {
+            return Tools.exceptionalFuture(e);
+        }
+    }
+
+    private void release(Send<?> send) {
+        synchronized (this) {
+            bytesInFlight -= send.size;
+        }
+        drain();
+    }
+
+    // Starts the waiting sends that fit; only one thread drains at a time so
+    // that sends completing synchronously do not recurse
+    private void drain() {
+        if (drainRequests.getAndIncrement() != 0) {
+            return;
+        }
+        do {
+            startAll(pollReady());
+        } while (drainRequests.decrementAndGet() != 0);
+    }
+
+    private void startAll(List<Send<?>> ready) {
+        ready.forEach(this::start);
+    }
+
+    private synchronized List<Send<?>> pollReady() {
+        List<Send<?>> ready = Lists.newArrayList();
+        Send<?> next;
+        while ((next = peekNext()) != null && fits(next.size)) {
+            queues.get(next.priority).poll();
+            credits[next.priority.ordinal()]--;
+            waiting--;
+            bytesInFlight += next.size;
+            ready.add(next);
+        }
+        return ready;
+    }
+
+    // Head of the highest priority class with credits left in the current
+    // round; starts a new round when all the waiting classes spent theirs
+    private Send<?> peekNext() {
+        if (waiting == 0) {
+            return null;
+        }
+        for (int round = 0; round < 2; round++) {
+            for (MessagePriority priority : PRIORITIES) {
+                Send<?> head = queues.get(priority).peek();
+                if (head != null && credits[priority.ordinal()] > 0) {
+                    return head;
+                }
+            }
+            resetCredits();
+        }
+        return null;
+    }
+
+    private void resetCredits() {
+        for (MessagePriority priority : PRIORITIES) {
+            credits[priority.ordinal()] = priority.weight();
+        }
+    }
+
+    private static final class Send<T> {
+        private final MessagePriority priority;
+        private final int size;
+        private final Supplier<CompletableFuture<T>> sender;
+        private final boolean request;
+        private final CompletableFuture<T> future = new CompletableFuture<>();
+
+        private Send(MessagePriority priority, int size, Supplier<CompletableFuture<T>> sender, boolean request) {
+            this.priority = priority;
+            this.size = size;
+            this.sender = sender;
+            this.request = request;
+        }
+    }
+}
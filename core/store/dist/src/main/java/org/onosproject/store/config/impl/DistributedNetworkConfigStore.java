@@ -57,6 +57,8 @@ import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
 
 import static com.google.common.base.Preconditions.checkArgument;
 import static org.onosproject.net.config.NetworkConfigEvent.Type.CONFIG_ADDED;
@@ -92,6 +94,11 @@ public class DistributedNetworkConfigStore
     private final ConfigApplyDelegate applyDelegate = new InternalApplyDelegate();
     private final MapEventListener<ConfigKey, JsonNode> listener = new InternalMapListener();
 
+    // Configs materialized by getConfig, along with the version of their JSON
+    private final Map<ConfigKey, Versioned<Config>> configCache = Maps.newConcurrentMap();
+    // Bumped on every change; prevents caching a config read before the change
+    private final AtomicLong cacheEpoch = new AtomicLong();
+
     @Activate
     public void activate() {
         KryoNamespace.Builder kryoBuilder = new KryoNamespace.Builder()
@@ -114,12 +121,14 @@ public class DistributedNetworkConfigStore
     @Deactivate
     public void deactivate() {
         configs.removeListener(listener);
+        invalidateConfigs(k -> true);
         log.info("Stopped");
     }
 
     @Override
     public void addConfigFactory(ConfigFactory configFactory) {
         factoriesByConfig.put(configFactory.configClass().getName(), configFactory);
+        invalidateConfigs(k -> Objects.equals(configFactory.configClass().getName(), k.configClass));
         processPendingConfigs(configFactory);
         notifyDelegate(new NetworkConfigEvent(CONFIG_REGISTERED, configFactory.configKey(),
                                               configFactory.configClass()));
@@ -166,6 +175,7 @@ public class DistributedNetworkConfigStore
     @Override
     public void removeConfigFactory(ConfigFactory configFactory) {
         factoriesByConfig.remove(configFactory.configClass().getName());
+        invalidateConfigs(k -> Objects.equals(configFactory.configClass().getName(), k.configClass));
         processExistingConfigs(configFactory);
         notifyDelegate(new NetworkConfigEvent(CONFIG_UNREGISTERED, configFactory.configKey(),
                                               configFactory.configClass()));
@@ -235,9 +245,26 @@ public class DistributedNetworkConfigStore
     }
 
     @Override
+    @SuppressWarnings("unchecked")
     public <S, T extends Config<S>> T getConfig(S subject, Class<T> configClass) {
-        Versioned<JsonNode> json = configs.get(key(subject, configClass));
-        return json != null ? createConfig(subject, configClass, json.value()) : null;
+        ConfigKey key = key(subject, configClass);
+        Versioned<Config> cached = configCache.get(key);
+        if (cached != null) {
+            return (T) cached.value();
+        }
+
+        long epoch = cacheEpoch.get();
+        Versioned<JsonNode> json = configs.get(key);
+        if (json == null) {
+            return null;
+        }
+        T config = createConfig(subject, configClass, json.value());
+        if (config != null) {
+            configCache.compute(key, (k, v) -> cacheEpoch.get() != epoch ||
+                    (v != null && v.version() >= json.version()) ?
+                    v : new Versioned<>(config, json.version()));
+        }
+        return config;
     }
 
 
@@ -269,6 +296,7 @@ public class DistributedNetworkConfigStore
 
         // Insert the validated configuration and get it back.
         Versioned<JsonNode> versioned = configs.putAndGet(key(subject, configClass), json);
+        invalidateConfig(key(subject, configClass));
 
         // Re-create the config if for some reason what we attempted to put
         // was supplanted by someone else already.
@@ -283,6 +311,7 @@ public class DistributedNetworkConfigStore
     @Override
     public <S, C extends Config<S>> void clearConfig(S subject, Class<C> configClass) {
         configs.remove(key(subject, configClass));
+        invalidateConfig(key(subject, configClass));
     }
 
     @Override
@@ -295,6 +324,7 @@ public class DistributedNetworkConfigStore
         configs.keySet().forEach(k -> {
             if (Objects.equals(subject, k.subject) && delegate != null) {
                 configs.remove(k);
+                invalidateConfig(k);
             }
         });
     }
@@ -304,6 +334,7 @@ public class DistributedNetworkConfigStore
         configs.keySet().forEach(k -> {
             if (delegate != null) {
                 configs.remove(k);
+                invalidateConfig(k);
             }
         });
     }
@@ -379,12 +410,26 @@ public class DistributedNetworkConfigStore
     }
 
 
+    // Drops the cached config of the given key; local writes call it so that
+    // they are visible to the next read without waiting for the map event.
+    private void invalidateConfig(ConfigKey key) {
+        cacheEpoch.incrementAndGet();
+        configCache.remove(key);
+    }
+
+    // Drops the cached configs whose key matches the given predicate.
+    private void invalidateConfigs(Predicate<ConfigKey> predicate) {
+        cacheEpoch.incrementAndGet();
+        configCache.keySet().removeIf(predicate);
+    }
+
     // Auxiliary delegate to receive notifications about changes applied to
     // the network configuration - by the apps.
     private class InternalApplyDelegate implements ConfigApplyDelegate {
         @Override
         public void onApply(Config config) {
             configs.put(key(config.subject(), config.getClass()), config.node());
+            invalidateConfig(key(config.subject(), config.getClass()));
         }
     }
 
@@ -447,6 +492,8 @@ public class DistributedNetworkConfigStore
                 return;
             }
 
+            invalidateConfig(event.key());
+
             ConfigFactory factory = factoriesByConfig.get(event.key().configClass);
             if (factory != null) {
                 Object subject = event.key().subject;
@@ -43,6 +43,7 @@ import org.onosproject.net.flow.FlowRule;
 import org.onosproject.net.flow.StoredFlowEntry;
 import org.onosproject.store.LogicalTimestamp;
 import org.onosproject.store.cluster.messaging.ClusterCommunicationService;
+import org.onosproject.store.cluster.messaging.MessagePriority;
 import org.onosproject.store.cluster.messaging.MessageSubject;
 import org.onosproject.store.serializers.KryoNamespaces;
 import org.onosproject.store.service.Serializer;
@@ -129,8 +130,10 @@ public class DeviceFlowTable {
         }
 
         getDigestsSubject = new MessageSubject(String.format("flow-store-%s-digests", deviceId));
-        getBucketSubject = new MessageSubject(String.format("flow-store-%s-bucket", deviceId));
-        backupSubject = new MessageSubject(String.format("flow-store-%s-backup", deviceId));
+        getBucketSubject = new MessageSubject(String.format("flow-store-%s-bucket", deviceId),
+                                              MessagePriority.NORMAL, true);
+        backupSubject = new MessageSubject(String.format("flow-store-%s-backup", deviceId),
+                                           MessagePriority.BULK, true);
 
         addListeners();
 
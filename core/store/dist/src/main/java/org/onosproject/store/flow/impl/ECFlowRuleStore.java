@@ -20,6 +20,10 @@ import com.google.common.collect.Maps;
 import com.google.common.collect.Streams;
 import org.apache.commons.lang3.tuple.ImmutablePair;
 import org.apache.commons.lang3.tuple.Pair;
+import org.onlab.packet.Ethernet;
+import org.onlab.packet.IpPrefix;
+import org.onlab.packet.MacAddress;
+import org.onlab.packet.VlanId;
 import org.onlab.util.KryoNamespace;
 import org.onlab.util.OrderedExecutor;
 import org.onlab.util.Tools;
@@ -27,15 +31,20 @@ import org.onosproject.cfg.ComponentConfigService;
 import org.onosproject.cluster.ClusterService;
 import org.onosproject.cluster.NodeId;
 import org.onosproject.core.CoreService;
+import org.onosproject.core.DefaultApplicationId;
 import org.onosproject.core.IdGenerator;
 import org.onosproject.event.AbstractListenerManager;
 import org.onosproject.mastership.MastershipService;
 import org.onosproject.net.DeviceId;
+import org.onosproject.net.PortNumber;
 import org.onosproject.net.device.DeviceEvent;
 import org.onosproject.net.device.DeviceListener;
 import org.onosproject.net.device.DeviceService;
 import org.onosproject.net.flow.CompletedBatchOperation;
 import org.onosproject.net.flow.DefaultFlowEntry;
+import org.onosproject.net.flow.DefaultFlowRule;
+import org.onosproject.net.flow.DefaultTrafficSelector;
+import org.onosproject.net.flow.DefaultTrafficTreatment;
 import org.onosproject.net.flow.FlowEntry;
 import org.onosproject.net.flow.FlowEntry.FlowEntryState;
 import org.onosproject.net.flow.FlowRule;
@@ -189,12 +198,14 @@ public class ECFlowRuleStore
     @Reference(cardinality = ReferenceCardinality.MANDATORY)
     protected StorageService storageService;
 
-    protected final Serializer serializer = Serializer.using(KryoNamespace.newBuilder()
+    private final KryoNamespace flowNamespace = KryoNamespace.newBuilder()
         .register(KryoNamespaces.API)
         .register(BucketId.class)
         .register(FlowBucket.class)
         .register(ImmutablePair.class)
-        .build());
+        .build();
+
+    protected final Serializer serializer = Serializer.using(flowNamespace);
 
     protected final KryoNamespace.Builder serializerBuilder = KryoNamespace.newBuilder()
         .register(KryoNamespaces.API)
@@ -225,6 +236,10 @@ public class ECFlowRuleStore
         messageHandlingExecutor = Executors.newFixedThreadPool(
             msgHandlerPoolSize, groupedThreads("onos/store/flow", "message-handlers", log));
 
+        // Initializes the serializers of the flow rules ahead of the first
+        // bucket transfers, on as many instances as message handlers
+        flowNamespace.warmUp(warmUpSamples(), msgHandlerPoolSize);
+
         registerMessageHandlers(messageHandlingExecutor);
 
         mastershipTermLifecycles = storageService.<DeviceId, Long>consistentMapBuilder()
@@ -247,6 +262,31 @@ public class ECFlowRuleStore
         logConfig("Started");
     }
 
+    // Representative flow entries and operations, covering the most common
+    // criteria and instructions
+    private static List<Object> warmUpSamples() {
+        FlowRule rule = DefaultFlowRule.builder()
+            .forDevice(DeviceId.deviceId("of:0000000000000001"))
+            .withSelector(DefaultTrafficSelector.builder()
+                              .matchInPort(PortNumber.portNumber(1))
+                              .matchEthType(Ethernet.TYPE_IPV4)
+                              .matchEthDst(MacAddress.valueOf("00:00:00:00:00:01"))
+                              .matchVlanId(VlanId.vlanId((short) 10))
+                              .matchIPDst(IpPrefix.valueOf("10.0.0.0/24"))
+                              .build())
+            .withTreatment(DefaultTrafficTreatment.builder()
+                               .setEthSrc(MacAddress.valueOf("00:00:00:00:00:02"))
+                               .popVlan()
+                               .setOutput(PortNumber.portNumber(2))
+                               .build())
+            .withPriority(40000)
+            .fromApp(new DefaultApplicationId(1, "org.onosproject.warmup"))
+            .makePermanent()
+            .build();
+        FlowEntry entry = new DefaultFlowEntry(rule, FlowEntryState.ADDED, 0, 0, 0);
+        return ImmutableList.of(rule, entry, new FlowRuleBatchEntry(FlowRuleOperation.ADD, rule));
+    }
+
     @Deactivate
     public void deactivate(ComponentContext context) {
         configService.unregisterProperties(getClass(), false);
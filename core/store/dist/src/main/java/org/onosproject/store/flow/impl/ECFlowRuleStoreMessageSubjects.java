@@ -15,6 +15,7 @@
  */
 package org.onosproject.store.flow.impl;
 
+import org.onosproject.store.cluster.messaging.MessagePriority;
 import org.onosproject.store.cluster.messaging.MessageSubject;
 
 /**
@@ -24,7 +25,7 @@ public final class ECFlowRuleStoreMessageSubjects {
     private ECFlowRuleStoreMessageSubjects() {}
 
     public static final  MessageSubject APPLY_BATCH_FLOWS
-        = new MessageSubject("peer-forward-apply-batch");
+        = new MessageSubject("peer-forward-apply-batch", MessagePriority.HIGH);
 
     public static final MessageSubject GET_FLOW_ENTRY
         = new MessageSubject("peer-forward-get-flow-entry");
@@ -36,11 +37,11 @@ public final class ECFlowRuleStoreMessageSubjects {
         = new MessageSubject("peer-forward-get-flow-count");
 
     public static final MessageSubject REMOVE_FLOW_ENTRY
-        = new MessageSubject("peer-forward-remove-flow-entry");
+        = new MessageSubject("peer-forward-remove-flow-entry", MessagePriority.HIGH);
 
     public static final MessageSubject REMOTE_APPLY_COMPLETED
-        = new MessageSubject("peer-apply-completed");
+        = new MessageSubject("peer-apply-completed", MessagePriority.HIGH);
 
     public static final MessageSubject FLOW_TABLE_BACKUP
-        = new MessageSubject("peer-flow-table-backup");
+        = new MessageSubject("peer-flow-table-backup", MessagePriority.BULK, true);
 }
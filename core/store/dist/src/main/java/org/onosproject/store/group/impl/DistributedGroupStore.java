@@ -20,6 +20,7 @@ import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Iterables;
 import com.google.common.collect.Sets;
 import org.onlab.util.KryoNamespace;
+import org.onlab.util.PartitionedFingerprint;
 import org.onosproject.cfg.ComponentConfigService;
 import org.onosproject.cluster.ClusterService;
 import org.onosproject.cluster.NodeId;
@@ -48,14 +49,18 @@ import org.onosproject.net.group.StoredGroupEntry;
 import org.onosproject.store.AbstractStore;
 import org.onosproject.store.cluster.messaging.ClusterCommunicationService;
 import org.onosproject.store.serializers.KryoNamespaces;
+import org.onosproject.store.service.CommitStatus;
 import org.onosproject.store.service.ConsistentMap;
 import org.onosproject.store.service.DistributedPrimitive.Status;
 import org.onosproject.store.service.MapEvent;
 import org.onosproject.store.service.MapEventListener;
 import org.onosproject.store.service.MultiValuedTimestamp;
 import org.onosproject.store.service.Serializer;
+import org.onosproject.store.service.StorageException;
 import org.onosproject.store.service.StorageService;
 import org.onosproject.store.service.Topic;
+import org.onosproject.store.service.TransactionContext;
+import org.onosproject.store.service.TransactionalMap;
 import org.onosproject.store.service.Versioned;
 import org.osgi.service.component.ComponentContext;
 import org.osgi.service.component.annotations.Activate;
@@ -67,6 +72,7 @@ import org.osgi.service.component.annotations.ReferenceCardinality;
 import org.slf4j.Logger;
 
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Dictionary;
@@ -82,9 +88,13 @@ import java.util.Properties;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Consumer;
 import java.util.stream.Collectors;
@@ -99,6 +109,15 @@ import static org.onosproject.store.OsgiPropertyConstants.GARBAGE_COLLECT;
 import static org.onosproject.store.OsgiPropertyConstants.GARBAGE_COLLECT_DEFAULT;
 import static org.onosproject.store.OsgiPropertyConstants.GARBAGE_COLLECT_THRESH;
 import static org.onosproject.store.OsgiPropertyConstants.GARBAGE_COLLECT_THRESH_DEFAULT;
+import static org.onosproject.store.OsgiPropertyConstants.GROUP_AUDIT_FINGERPRINTS;
+import static org.onosproject.store.OsgiPropertyConstants.GROUP_AUDIT_FINGERPRINTS_DEFAULT;
+import static org.onosproject.store.OsgiPropertyConstants.GROUP_WRITE_BATCHING;
+import static org.onosproject.store.OsgiPropertyConstants.GROUP_WRITE_BATCHING_DEFAULT;
+import static org.onosproject.store.OsgiPropertyConstants.GROUP_WRITE_BATCH_INTERVAL;
+import static org.onosproject.store.OsgiPropertyConstants.GROUP_WRITE_BATCH_INTERVAL_DEFAULT;
+import static org.onosproject.store.OsgiPropertyConstants.GROUP_WRITE_BATCH_SIZE;
+import static org.onosproject.store.OsgiPropertyConstants.GROUP_WRITE_BATCH_SIZE_DEFAULT;
+import static org.onosproject.store.service.DistributedPrimitive.DEFAULT_OPERATION_TIMEOUT_MILLIS;
 import static org.slf4j.LoggerFactory.getLogger;
 
 /**
@@ -111,7 +130,11 @@ import static org.slf4j.LoggerFactory.getLogger;
         property = {
                 GARBAGE_COLLECT + ":Boolean=" + GARBAGE_COLLECT_DEFAULT,
                 GARBAGE_COLLECT_THRESH + ":Integer=" + GARBAGE_COLLECT_THRESH_DEFAULT,
-                ALLOW_EXTRANEOUS_GROUPS + ":Boolean=" + ALLOW_EXTRANEOUS_GROUPS_DEFAULT
+                ALLOW_EXTRANEOUS_GROUPS + ":Boolean=" + ALLOW_EXTRANEOUS_GROUPS_DEFAULT,
+                GROUP_WRITE_BATCHING + ":Boolean=" + GROUP_WRITE_BATCHING_DEFAULT,
+                GROUP_WRITE_BATCH_SIZE + ":Integer=" + GROUP_WRITE_BATCH_SIZE_DEFAULT,
+                GROUP_WRITE_BATCH_INTERVAL + ":Integer=" + GROUP_WRITE_BATCH_INTERVAL_DEFAULT,
+                GROUP_AUDIT_FINGERPRINTS + ":Boolean=" + GROUP_AUDIT_FINGERPRINTS_DEFAULT
         }
 )
 public class DistributedGroupStore
@@ -121,6 +144,14 @@ public class DistributedGroupStore
     private final Logger log = getLogger(getClass());
 
     private static final int MAX_FAILED_ATTEMPTS = 3;
+    // Attempts of the transaction committing a batch of buffered writes
+    private static final int MAX_WRITE_BATCH_ATTEMPTS = 3;
+
+    private static final String GROUP_STORE_KEY_MAP = "onos-group-store-keymap";
+
+    private static final int AUDIT_PARTITIONS = 64;
+    // Mixed into the fingerprint of stored groups not yet confirmed by the device
+    private static final int UNSETTLED_GROUP_SALT = 0x5bd1e995;
 
     private final int dummyId = 0xffffffff;
     private final GroupId dummyGroupId = new GroupId(dummyId);
@@ -146,10 +177,16 @@ public class DistributedGroupStore
     protected DriverService driverService;
 
     private ScheduledExecutorService executor;
+    private ScheduledExecutorService writeBehindExecutor;
     private Consumer<Status> statusChangeListener;
+    private Serializer serializer;
     // Per device group table with (device id + app cookie) as key
     private ConsistentMap<GroupStoreKeyMapKey,
             StoredGroupEntry> groupStoreEntriesByKey = null;
+    // Write-behind view of groupStoreEntriesByKey, null if batching is disabled
+    private volatile GroupStoreWriteBuffer<GroupStoreKeyMapKey,
+            StoredGroupEntry> groupStoreWriteBuffer = null;
+    private ScheduledFuture<?> writeBehindFlushTask;
     // Per device group table with (device id + group id) as key
     private final ConcurrentMap<DeviceId, ConcurrentMap<GroupId, StoredGroupEntry>>
             groupEntriesById = new ConcurrentHashMap<>();
@@ -179,6 +216,18 @@ public class DistributedGroupStore
     /** Allow groups in switches not installed by ONOS. */
     private boolean allowExtraneousGroups = ALLOW_EXTRANEOUS_GROUPS_DEFAULT;
 
+    /** Accumulate group writes per device and commit them as one transaction. */
+    private boolean writeBatching = GROUP_WRITE_BATCHING_DEFAULT;
+
+    /** Number of pending group writes of a device triggering a commit. */
+    private int writeBatchSize = GROUP_WRITE_BATCH_SIZE_DEFAULT;
+
+    /** Maximum delay in ms before pending group writes are committed. */
+    private int writeBatchInterval = GROUP_WRITE_BATCH_INTERVAL_DEFAULT;
+
+    /** Skip the audit of the groups whose fingerprints match the device ones. */
+    private boolean auditFingerprints = GROUP_AUDIT_FINGERPRINTS_DEFAULT;
+
     @Activate
     public void activate(ComponentContext context) {
         cfgService.registerProperties(getClass());
@@ -204,7 +253,7 @@ public class DistributedGroupStore
                 );
 
         clusterMsgSerializer = kryoBuilder.build("GroupStore");
-        Serializer serializer = Serializer.using(clusterMsgSerializer);
+        serializer = Serializer.using(clusterMsgSerializer);
 
         messageHandlingExecutor = Executors.
                 newFixedThreadPool(MESSAGE_HANDLER_THREAD_POOL_SIZE,
@@ -220,7 +269,7 @@ public class DistributedGroupStore
         log.debug("Creating Consistent map onos-group-store-keymap");
 
         groupStoreEntriesByKey = storageService.<GroupStoreKeyMapKey, StoredGroupEntry>consistentMapBuilder()
-                .withName("onos-group-store-keymap")
+                .withName(GROUP_STORE_KEY_MAP)
                 .withSerializer(serializer)
                 .build();
         groupStoreEntriesByKey.addListener(mapListener);
@@ -250,11 +299,17 @@ public class DistributedGroupStore
         groupTopic = getOrCreateGroupTopic(serializer);
         groupTopic.subscribe(this::processGroupMessage);
 
+        writeBehindExecutor = newSingleThreadScheduledExecutor(groupedThreads("onos/group", "write-behind", log));
+        configureWriteBatching();
+
         log.info("Started");
     }
 
     @Deactivate
     public void deactivate() {
+        writeBatching = false;
+        configureWriteBatching();
+        writeBehindExecutor.shutdown();
         groupStoreEntriesByKey.removeListener(mapListener);
         cfgService.unregisterProperties(getClass(), false);
         clusterCommunicator.removeSubscriber(GroupStoreMessageSubjects.REMOTE_GROUP_OP_REQUEST);
@@ -274,10 +329,127 @@ public class DistributedGroupStore
 
             s = get(properties, ALLOW_EXTRANEOUS_GROUPS);
             allowExtraneousGroups = isNullOrEmpty(s) ? ALLOW_EXTRANEOUS_GROUPS_DEFAULT : Boolean.parseBoolean(s.trim());
+
+            s = get(properties, GROUP_WRITE_BATCHING);
+            writeBatching = isNullOrEmpty(s) ? GROUP_WRITE_BATCHING_DEFAULT : Boolean.parseBoolean(s.trim());
+
+            s = get(properties, GROUP_WRITE_BATCH_SIZE);
+            writeBatchSize = isNullOrEmpty(s) ? GROUP_WRITE_BATCH_SIZE_DEFAULT : Integer.parseInt(s.trim());
+
+            s = get(properties, GROUP_WRITE_BATCH_INTERVAL);
+            writeBatchInterval = isNullOrEmpty(s) ? GROUP_WRITE_BATCH_INTERVAL_DEFAULT : Integer.parseInt(s.trim());
+
+            s = get(properties, GROUP_AUDIT_FINGERPRINTS);
+            auditFingerprints = isNullOrEmpty(s) ? GROUP_AUDIT_FINGERPRINTS_DEFAULT : Boolean.parseBoolean(s.trim());
         } catch (Exception e) {
             gcThresh = GARBAGE_COLLECT_THRESH_DEFAULT;
             garbageCollect = GARBAGE_COLLECT_DEFAULT;
             allowExtraneousGroups = ALLOW_EXTRANEOUS_GROUPS_DEFAULT;
+            writeBatching = GROUP_WRITE_BATCHING_DEFAULT;
+            writeBatchSize = GROUP_WRITE_BATCH_SIZE_DEFAULT;
+            writeBatchInterval = GROUP_WRITE_BATCH_INTERVAL_DEFAULT;
+            auditFingerprints = GROUP_AUDIT_FINGERPRINTS_DEFAULT;
+        }
+        if (writeBatchSize <= 0 || writeBatchInterval <= 0) {
+            writeBatchSize = GROUP_WRITE_BATCH_SIZE_DEFAULT;
+            writeBatchInterval = GROUP_WRITE_BATCH_INTERVAL_DEFAULT;
+        }
+
+        // Not yet activated, the write buffer is configured once the maps are built
+        if (writeBehindExecutor != null) {
+            configureWriteBatching();
+        }
+    }
+
+    /**
+     * Installs or removes the write-behind buffer according to the
+     * configuration. The current buffer, if any, is drained before being
+     * replaced so that no pending write is lost.
+     */
+    private synchronized void configureWriteBatching() {
+        GroupStoreWriteBuffer<GroupStoreKeyMapKey, StoredGroupEntry> oldBuffer = groupStoreWriteBuffer;
+        if (writeBehindFlushTask != null) {
+            writeBehindFlushTask.cancel(false);
+            writeBehindFlushTask = null;
+        }
+
+        if (writeBatching) {
+            GroupStoreWriteBuffer<GroupStoreKeyMapKey, StoredGroupEntry> newBuffer =
+                    new GroupStoreWriteBuffer<>(groupStoreEntriesByKey.asJavaMap(),
+                                                GroupStoreKeyMapKey::deviceId,
+                                                this::commitGroupWrites,
+                                                this::updateGroupIdTable,
+                                                writeBatchSize,
+                                                writeBehindExecutor);
+            groupStoreWriteBuffer = newBuffer;
+            writeBehindFlushTask = writeBehindExecutor.scheduleWithFixedDelay(
+                    newBuffer::flushAll, writeBatchInterval, writeBatchInterval, TimeUnit.MILLISECONDS);
+        } else {
+            groupStoreWriteBuffer = null;
+        }
+
+        if (oldBuffer != null) {
+            oldBuffer.flushAll();
+        }
+        log.info("Settings: writeBatching={}, writeBatchSize={}, writeBatchInterval={}",
+                 writeBatching, writeBatchSize, writeBatchInterval);
+    }
+
+    /**
+     * Commits a batch of writes of a device in a single transaction, which is
+     * attempted up to {@link #MAX_WRITE_BATCH_ATTEMPTS} times. A batch that
+     * does not go through is kept by the write buffer for the next flush.
+     *
+     * @param deviceId device identifier
+     * @param writes   coalesced writes; an empty value denotes a removal
+     * @return true if the writes have been committed
+     */
+    private boolean commitGroupWrites(DeviceId deviceId,
+                                      Map<GroupStoreKeyMapKey, Optional<StoredGroupEntry>> writes) {
+        log.trace("Committing {} group writes for device {}", writes.size(), deviceId);
+        for (int attempt = 1; attempt <= MAX_WRITE_BATCH_ATTEMPTS; attempt++) {
+            try {
+                TransactionContext tx = storageService.transactionContextBuilder().build();
+                tx.begin();
+                TransactionalMap<GroupStoreKeyMapKey, StoredGroupEntry> txMap =
+                        tx.getTransactionalMap(GROUP_STORE_KEY_MAP, serializer);
+                writes.forEach((key, value) -> {
+                    if (value.isPresent()) {
+                        txMap.put(key, value.get());
+                    } else {
+                        txMap.remove(key);
+                    }
+                });
+                CommitStatus status = tx.commit().get(DEFAULT_OPERATION_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+                if (status == CommitStatus.SUCCESS) {
+                    return true;
+                }
+                log.debug("Transaction of {} group writes for device {} failed, attempt {}",
+                          writes.size(), deviceId, attempt);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (ExecutionException | TimeoutException | StorageException e) {
+                log.debug("Transaction of {} group writes for device {} failed, attempt {}",
+                          writes.size(), deviceId, attempt, e);
+            }
+        }
+        log.warn("Unable to commit {} group writes for device {}, retrying with the next flush",
+                 writes.size(), deviceId);
+        return false;
+    }
+
+    /**
+     * Applies a buffered write to the group id table, ahead of its commit.
+     *
+     * @param previousGroup group replaced by the write, if any
+     * @param group         group written, null for a removal
+     */
+    private void updateGroupIdTable(StoredGroupEntry previousGroup, StoredGroupEntry group) {
+        if (group != null) {
+            getGroupIdTable(group.deviceId()).put(group.id(), group);
+        } else if (previousGroup != null) {
+            getGroupIdTable(previousGroup.deviceId()).remove(previousGroup.id(), previousGroup);
         }
     }
 
@@ -316,7 +488,8 @@ public class DistributedGroupStore
      */
     private Map<GroupStoreKeyMapKey, StoredGroupEntry>
     getGroupStoreKeyMap() {
-        return groupStoreEntriesByKey.asJavaMap();
+        GroupStoreWriteBuffer<GroupStoreKeyMapKey, StoredGroupEntry> writeBuffer = groupStoreWriteBuffer;
+        return writeBuffer != null ? writeBuffer : groupStoreEntriesByKey.asJavaMap();
     }
 
     /**
@@ -1012,7 +1185,7 @@ public class DistributedGroupStore
 
     private void purgeGroupEntries(Set<Entry<GroupStoreKeyMapKey, StoredGroupEntry>> entries) {
         entries.forEach(entry -> {
-            groupStoreEntriesByKey.remove(entry.getKey());
+            getGroupStoreKeyMap().remove(entry.getKey());
         });
     }
 
@@ -1204,6 +1377,9 @@ public class DistributedGroupStore
                                   + "event {} with null entry", mapEvent.type());
                 return;
             } else if (group == null) {
+                group = Versioned.valueOrNull(mapEvent.oldValue());
+            }
+            if (group == null) {
                 group = getGroupIdTable(key.deviceId()).values()
                         .stream()
                         .filter((storedGroup) -> (storedGroup.appCookie().equals(key.appCookie)))
@@ -1218,9 +1394,15 @@ public class DistributedGroupStore
                       mapEvent.type(),
                       group.id(),
                       (key != null ? key.deviceId() : null));
+            // Buffered writes are applied to the group ID table as soon as they
+            // are made, a newer write of the key supersedes the committed one
+            GroupStoreWriteBuffer<GroupStoreKeyMapKey, StoredGroupEntry> writeBuffer = groupStoreWriteBuffer;
+            boolean superseded = key != null && writeBuffer != null && writeBuffer.isPending(key);
             if (mapEvent.type() == MapEvent.Type.INSERT || mapEvent.type() == MapEvent.Type.UPDATE) {
                 // Update the group ID table
-                getGroupIdTable(group.deviceId()).put(group.id(), group);
+                if (!superseded) {
+                    getGroupIdTable(group.deviceId()).put(group.id(), group);
+                }
                 StoredGroupEntry value = Versioned.valueOrNull(mapEvent.newValue());
                 if (value.state() == Group.GroupState.ADDED) {
                     if (value.isGroupStateAddedFirstTime()) {
@@ -1238,7 +1420,9 @@ public class DistributedGroupStore
             } else if (mapEvent.type() == MapEvent.Type.REMOVE) {
                 groupEvent = new GroupEvent(Type.GROUP_REMOVED, group);
                 // Remove the entry from the group ID table
-                getGroupIdTable(group.deviceId()).remove(group.id(), group);
+                if (!superseded) {
+                    getGroupIdTable(group.deviceId()).remove(group.id(), group);
+                }
             }
 
             if (groupEvent != null) {
@@ -1384,6 +1568,13 @@ public class DistributedGroupStore
                                  Collection<Group> groupEntries) {
         boolean deviceInitialAuditStatus =
                 deviceInitialAuditStatus(deviceId);
+        // Fingerprints do not cover the group age the garbage collection relies on
+        if (auditFingerprints && deviceInitialAuditStatus && !garbageCollect &&
+                getExtraneousGroupIdTable(deviceId).isEmpty()) {
+            auditChangedGroups(deviceId, groupEntries);
+            return;
+        }
+
         Set<Group> southboundGroupEntries =
                 Sets.newHashSet(groupEntries);
         Set<StoredGroupEntry> storedGroupEntries =
@@ -1407,6 +1598,70 @@ public class DistributedGroupStore
             }
         }
 
+        auditGroups(deviceId, southboundGroupEntries, storedGroupEntries, extraneousStoredEntries);
+
+        if (!deviceInitialAuditStatus) {
+            log.info("Group AUDIT: Setting device {} initial AUDIT completed",
+                     deviceId);
+            deviceInitialAuditCompleted(deviceId, true);
+        }
+    }
+
+    /**
+     * Audits only the groups of the partitions whose fingerprints differ
+     * between the device and the store. The groups of the other partitions are
+     * known to be in sync and only have their statistics refreshed, when they
+     * changed.
+     *
+     * @param deviceId     device identifier
+     * @param groupEntries groups reported by the device
+     */
+    private void auditChangedGroups(DeviceId deviceId, Collection<Group> groupEntries) {
+        PartitionedFingerprint southboundFingerprint = new PartitionedFingerprint(AUDIT_PARTITIONS);
+        groupEntries.forEach(group -> southboundFingerprint.add(group.id(), group.hashCode()));
+        PartitionedFingerprint storedFingerprint = new PartitionedFingerprint(AUDIT_PARTITIONS);
+        getGroupIdTable(deviceId).values().forEach(group -> storedFingerprint.add(
+                group.id(), group.state() == GroupState.ADDED ?
+                        group.hashCode() : group.hashCode() ^ UNSETTLED_GROUP_SALT));
+
+        BitSet mismatches = southboundFingerprint.mismatches(storedFingerprint);
+        Set<Group> southboundGroupEntries = Sets.newHashSet();
+        for (Group group : groupEntries) {
+            if (mismatches.get(southboundFingerprint.partitionOf(group.id()))) {
+                southboundGroupEntries.add(group);
+            } else {
+                StoredGroupEntry existing = getStoredGroupEntry(deviceId, group.id());
+                if (existing != null && statsChanged(existing, group)) {
+                    groupAdded(group);
+                }
+            }
+        }
+        if (mismatches.isEmpty()) {
+            log.trace("Group AUDIT: fingerprints of device {} match, skipping audit", deviceId);
+            return;
+        }
+
+        log.trace("Group AUDIT: auditing {} of {} partitions for device {}",
+                  mismatches.cardinality(), AUDIT_PARTITIONS, deviceId);
+        Set<StoredGroupEntry> storedGroupEntries = Sets.newHashSet();
+        for (StoredGroupEntry group : getStoredGroups(deviceId)) {
+            if (mismatches.get(storedFingerprint.partitionOf(group.id()))) {
+                storedGroupEntries.add(group);
+            }
+        }
+        auditGroups(deviceId, southboundGroupEntries, storedGroupEntries, Sets.newHashSet());
+    }
+
+    private boolean statsChanged(Group stored, Group reported) {
+        return stored.packets() != reported.packets() ||
+                stored.bytes() != reported.bytes() ||
+                stored.referenceCount() != reported.referenceCount();
+    }
+
+    private void auditGroups(DeviceId deviceId,
+                             Set<Group> southboundGroupEntries,
+                             Set<StoredGroupEntry> storedGroupEntries,
+                             Set<Group> extraneousStoredEntries) {
         garbageCollect(deviceId, southboundGroupEntries, storedGroupEntries);
 
         for (Iterator<Group> it2 = southboundGroupEntries.iterator(); it2.hasNext();) {
@@ -1456,12 +1711,6 @@ public class DistributedGroupStore
                       group.id(), deviceId);
             removeExtraneousGroupEntry(group);
         }
-
-        if (!deviceInitialAuditStatus) {
-            log.info("Group AUDIT: Setting device {} initial AUDIT completed",
-                     deviceId);
-            deviceInitialAuditCompleted(deviceId, true);
-        }
     }
 
     @Override
@@ -15,6 +15,7 @@
  */
 package org.onosproject.store.group.impl;
 
+import org.onosproject.store.cluster.messaging.MessagePriority;
 import org.onosproject.store.cluster.messaging.MessageSubject;
 
 /**
@@ -24,5 +25,5 @@ public final class GroupStoreMessageSubjects {
     private GroupStoreMessageSubjects() {}
 
     public static final  MessageSubject REMOTE_GROUP_OP_REQUEST
-        = new MessageSubject("peer-forward-group-op-req");
+        = new MessageSubject("peer-forward-group-op-req", MessagePriority.HIGH);
 }
@@ -0,0 +1,310 @@
+/*
+ * Copyright 2020-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.store.group.impl;
+
+import com.google.common.collect.Iterators;
+import com.google.common.collect.Maps;
+import org.onosproject.net.DeviceId;
+
+import java.util.AbstractCollection;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.Executor;
+import java.util.function.BiConsumer;
+import java.util.function.BiPredicate;
+import java.util.function.Function;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Write-behind view of the group store map.
+ * <p>
+ * Writes are accumulated per device and committed as a single batch, either
+ * periodically through {@link #flushAll()} or as soon as the number of pending
+ * writes of a device reaches the maximum batch size. Successive writes of the
+ * same key are coalesced, only the last one is committed. Reads see the
+ * pending writes, so callers observe their own updates before the commit.
+ * A batch that fails to commit is kept and retried with the next flush of
+ * the device.
+ * <p>
+ * Mutators return the previous value, read from the pending writes or else
+ * from the backing map. The entry set and the collection views are not
+ * copies: they iterate over the backing map, overlaid with the pending writes.
+ *
+ * @param <K> key type
+ * @param <V> value type
+ */
+final class GroupStoreWriteBuffer<K, V> extends AbstractMap<K, V> {
+
+    private final Map<K, V> backing;
+    private final Function<K, DeviceId> deviceOf;
+    private final BiPredicate<DeviceId, Map<K, Optional<V>>> committer;
+    private final BiConsumer<V, V> writeListener;
+    private final int maxBatchSize;
+    private final Executor flushExecutor;
+
+    private final Map<DeviceId, DeviceBuffer> buffers = Maps.newConcurrentMap();
+    private final Set<Entry<K, V>> entrySet = new EntrySet();
+    private final Collection<V> values = new Values();
+
+    /**
+     * Creates a new write buffer.
+     *
+     * @param backing       map holding the committed entries
+     * @param deviceOf      function returning the device of a key
+     * @param committer     commits a batch of writes of a device and returns
+     *                      whether it succeeded; an empty value denotes a removal
+     * @param writeListener notified of each write with the previous and the new
+     *                      value, as soon as the write is buffered; a null new
+     *                      value denotes a removal
+     * @param maxBatchSize  number of pending writes of a device triggering a flush
+     * @param flushExecutor executor used for the flushes triggered by the batch size
+     */
+    GroupStoreWriteBuffer(Map<K, V> backing,
+                          Function<K, DeviceId> deviceOf,
+                          BiPredicate<DeviceId, Map<K, Optional<V>>> committer,
+                          BiConsumer<V, V> writeListener,
+                          int maxBatchSize,
+                          Executor flushExecutor) {
+        checkArgument(maxBatchSize > 0, "Batch size must be positive");
+        this.backing = checkNotNull(backing);
+        this.deviceOf = checkNotNull(deviceOf);
+        this.committer = checkNotNull(committer);
+        this.writeListener = checkNotNull(writeListener);
+        this.maxBatchSize = maxBatchSize;
+        this.flushExecutor = checkNotNull(flushExecutor);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public V get(Object key) {
+        Optional<V> pending = lookup((K) key);
+        if (pending != null) {
+            return pending.orElse(null);
+        }
+        return backing.get(key);
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return get(key) != null;
+    }
+
+    @Override
+    public V put(K key, V value) {
+        return write(key, Optional.of(checkNotNull(value)));
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public V remove(Object key) {
+        return write((K) key, Optional.empty());
+    }
+
+    @Override
+    public Set<Entry<K, V>> entrySet() {
+        return entrySet;
+    }
+
+    @Override
+    public Collection<V> values() {
+        return values;
+    }
+
+    /**
+     * Returns whether a write of the given key is waiting to be committed.
+     *
+     * @param key key
+     * @return true if a write of the key is pending
+     */
+    boolean isPending(K key) {
+        return lookup(key) != null;
+    }
+
+    /**
+     * Returns the number of writes waiting to be committed.
+     *
+     * @return number of pending writes
+     */
+    int pendingWrites() {
+        return buffers.values().stream().mapToInt(DeviceBuffer::size).sum();
+    }
+
+    /**
+     * Commits the pending writes of the given device.
+     *
+     * @param deviceId device identifier
+     */
+    void flush(DeviceId deviceId) {
+        DeviceBuffer buffer = buffers.get(deviceId);
+        if (buffer != null) {
+            buffer.flush(deviceId);
+        }
+    }
+
+    /**
+     * Commits the pending writes of all devices.
+     */
+    void flushAll() {
+        buffers.keySet().forEach(this::flush);
+    }
+
+    // Returns the pending write of the key, null if there is none
+    private Optional<V> lookup(K key) {
+        DeviceBuffer buffer = buffers.get(deviceOf.apply(key));
+        return buffer != null ? buffer.lookup(key) : null;
+    }
+
+    private V write(K key, Optional<V> value) {
+        DeviceId deviceId = deviceOf.apply(key);
+        DeviceBuffer buffer = buffers.computeIfAbsent(deviceId, k -> new DeviceBuffer());
+        Optional<V> previous = buffer.add(key, value);
+        V previousValue = previous != null ? previous.orElse(null) : backing.get(key);
+        writeListener.accept(previousValue, value.orElse(null));
+        if (buffer.size() >= maxBatchSize) {
+            flushExecutor.execute(() -> flush(deviceId));
+        }
+        return previousValue;
+    }
+
+    // Entries of the backing map overlaid with the pending writes
+    private final class EntrySet extends AbstractSet<Entry<K, V>> {
+        @Override
+        public Iterator<Entry<K, V>> iterator() {
+            Iterator<Entry<K, V>> committed = Iterators.filter(Iterators.transform(
+                    backing.entrySet().iterator(), entry -> {
+                        Optional<V> pending = lookup(entry.getKey());
+                        if (pending == null) {
+                            return entry;
+                        }
+                        return pending.map(value -> Maps.immutableEntry(entry.getKey(), value)).orElse(null);
+                    }), Objects::nonNull);
+            Iterator<Entry<K, V>> inserted = Iterators.concat(Iterators.transform(
+                    buffers.values().iterator(), DeviceBuffer::insertions));
+            return Iterators.concat(committed, inserted);
+        }
+
+        @Override
+        public int size() {
+            return Iterators.size(iterator());
+        }
+
+        // Streams do not need the size, which takes a full iteration
+        @Override
+        public Spliterator<Entry<K, V>> spliterator() {
+            return Spliterators.spliteratorUnknownSize(iterator(), Spliterator.DISTINCT);
+        }
+    }
+
+    private final class Values extends AbstractCollection<V> {
+        @Override
+        public Iterator<V> iterator() {
+            return Iterators.transform(entrySet.iterator(), Entry::getValue);
+        }
+
+        @Override
+        public int size() {
+            return entrySet.size();
+        }
+
+        @Override
+        public Spliterator<V> spliterator() {
+            return Spliterators.spliteratorUnknownSize(iterator(), 0);
+        }
+    }
+
+    // Writes of a device: the pending ones and the ones being committed
+    private final class DeviceBuffer {
+        private final Object flushLock = new Object();
+        private Map<K, Optional<V>> pending = Maps.newLinkedHashMap();
+        private Map<K, Optional<V>> inflight = Collections.emptyMap();
+
+        // Buffers the write and returns the write it replaces, null if there is none
+        synchronized Optional<V> add(K key, Optional<V> value) {
+            Optional<V> previous = pending.put(key, value);
+            return previous != null ? previous : inflight.get(key);
+        }
+
+        synchronized Optional<V> lookup(K key) {
+            Optional<V> value = pending.get(key);
+            return value != null ? value : inflight.get(key);
+        }
+
+        synchronized int size() {
+            return pending.size();
+        }
+
+        // Pending values of the keys missing from the backing map; the pending
+        // writes of a device are bounded by the batch size
+        Iterator<Entry<K, V>> insertions() {
+            Map<K, V> values = Maps.newLinkedHashMap();
+            synchronized (this) {
+                inflight.forEach((key, value) -> value.ifPresent(v -> values.put(key, v)));
+                pending.forEach((key, value) -> {
+                    if (value.isPresent()) {
+                        values.put(key, value.get());
+                    } else {
+                        values.remove(key);
+                    }
+                });
+            }
+            values.keySet().removeIf(backing::containsKey);
+            return Collections.unmodifiableMap(values).entrySet().iterator();
+        }
+
+        void flush(DeviceId deviceId) {
+            // Commits of a device are serialized to preserve the order of the writes
+            synchronized (flushLock) {
+                Map<K, Optional<V>> batch = drain();
+                if (batch.isEmpty()) {
+                    return;
+                }
+                boolean committed = false;
+                try {
+                    committed = committer.test(deviceId, batch);
+                } finally {
+                    completed(batch, committed);
+                }
+            }
+        }
+
+        private synchronized Map<K, Optional<V>> drain() {
+            inflight = pending;
+            pending = Maps.newLinkedHashMap();
+            return inflight;
+        }
+
+        private synchronized void completed(Map<K, Optional<V>> batch, boolean committed) {
+            if (!committed) {
+                // Keep the batch for the next flush, unless overwritten in the meantime
+                Map<K, Optional<V>> retained = Maps.newLinkedHashMap(batch);
+                retained.putAll(pending);
+                pending = retained;
+            }
+            inflight = Collections.emptyMap();
+        }
+    }
+}
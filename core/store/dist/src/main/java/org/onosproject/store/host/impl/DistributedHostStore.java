@@ -15,8 +15,12 @@
  */
 package org.onosproject.store.host.impl;
 
+import com.codahale.metrics.Gauge;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Sets;
+import org.onlab.metrics.MetricsComponent;
+import org.onlab.metrics.MetricsFeature;
+import org.onlab.metrics.MetricsService;
 import org.onlab.packet.IpAddress;
 import org.onlab.packet.MacAddress;
 import org.onlab.packet.VlanId;
@@ -36,12 +40,16 @@ import org.onosproject.net.host.HostStoreDelegate;
 import org.onosproject.net.provider.ProviderId;
 import org.onosproject.store.AbstractStore;
 import org.onosproject.store.serializers.KryoNamespaces;
+import org.onosproject.store.service.CommitStatus;
 import org.onosproject.store.service.ConsistentMap;
 import org.onosproject.store.service.DistributedPrimitive.Status;
 import org.onosproject.store.service.MapEvent;
 import org.onosproject.store.service.MapEventListener;
 import org.onosproject.store.service.Serializer;
+import org.onosproject.store.service.StorageException;
 import org.onosproject.store.service.StorageService;
+import org.onosproject.store.service.TransactionContext;
+import org.onosproject.store.service.TransactionalMap;
 import org.onosproject.store.service.Versioned;
 import org.osgi.service.component.annotations.Activate;
 import org.osgi.service.component.annotations.Component;
@@ -50,17 +58,19 @@ import org.osgi.service.component.annotations.Reference;
 import org.osgi.service.component.annotations.ReferenceCardinality;
 import org.slf4j.Logger;
 
-import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.function.Consumer;
-import java.util.function.Predicate;
-import java.util.stream.Collectors;
+import java.util.function.Function;
 
 import static com.google.common.base.Preconditions.checkState;
 import static java.util.concurrent.Executors.newSingleThreadScheduledExecutor;
@@ -70,6 +80,7 @@ import static org.onosproject.net.host.HostEvent.Type.HOST_ADDED;
 import static org.onosproject.net.host.HostEvent.Type.HOST_MOVED;
 import static org.onosproject.net.host.HostEvent.Type.HOST_REMOVED;
 import static org.onosproject.net.host.HostEvent.Type.HOST_UPDATED;
+import static org.onosproject.store.service.DistributedPrimitive.DEFAULT_OPERATION_TIMEOUT_MILLIS;
 import static org.slf4j.LoggerFactory.getLogger;
 
 /**
@@ -82,12 +93,34 @@ public class DistributedHostStore
 
     private final Logger log = getLogger(getClass());
 
+    private static final String HOSTS_MAP_NAME = "onos-hosts";
+
+    private static final String METRIC_COMPONENT = "DistributedHostStore";
+    private static final String METRIC_FEATURE = "HostIndexes";
+    private static final String MAC_INDEX_SIZE = "macIndexSize";
+    private static final String VLAN_INDEX_SIZE = "vlanIndexSize";
+    private static final String LOCATION_INDEX_SIZE = "locationIndexSize";
+    private static final String DEVICE_INDEX_SIZE = "deviceIndexSize";
+
     @Reference(cardinality = ReferenceCardinality.MANDATORY)
     protected StorageService storageService;
 
+    @Reference(cardinality = ReferenceCardinality.MANDATORY)
+    protected MetricsService metricsService;
+
+    private Serializer serializer;
     private ConsistentMap<HostId, DefaultHost> hostsConsistentMap;
     private Map<HostId, DefaultHost> hosts;
     private Map<IpAddress, Set<Host>> hostsByIp;
+
+    // Secondary indexes maintained by the host location tracker
+    private Map<MacAddress, Set<Host>> hostsByMac;
+    private Map<VlanId, Set<Host>> hostsByVlan;
+    private Map<ConnectPoint, Set<Host>> hostsByLocation;
+    private Map<DeviceId, Set<Host>> hostsByDevice;
+
+    private MetricsComponent metricsComponent;
+    private MetricsFeature metricsFeature;
     private MapEventListener<HostId, DefaultHost> hostLocationTracker =
             new HostLocationTracker();
 
@@ -99,10 +132,11 @@ public class DistributedHostStore
     public void activate() {
         KryoNamespace.Builder hostSerializer = KryoNamespace.newBuilder()
                 .register(KryoNamespaces.API);
+        serializer = Serializer.using(hostSerializer.build());
         hostsConsistentMap = storageService.<HostId, DefaultHost>consistentMapBuilder()
-                .withName("onos-hosts")
+                .withName(HOSTS_MAP_NAME)
                 .withRelaxedReadConsistency()
-                .withSerializer(Serializer.using(hostSerializer.build()))
+                .withSerializer(serializer)
                 .build();
         hostsConsistentMap.addListener(hostLocationTracker);
         hosts = hostsConsistentMap.asJavaMap();
@@ -110,11 +144,16 @@ public class DistributedHostStore
         executor = newSingleThreadScheduledExecutor(groupedThreads("onos/hosts", "status-listener", log));
         statusChangeListener = status -> {
             if (status == Status.ACTIVE) {
-                executor.execute(this::loadHostsByIp);
+                executor.execute(() -> {
+                    loadHostsByIp();
+                    loadHostIndexes();
+                });
             }
         };
         hostsConsistentMap.addStatusChangeListener(statusChangeListener);
         loadHostsByIp();
+        loadHostIndexes();
+        registerIndexMetrics();
         log.info("Started");
     }
 
@@ -122,10 +161,53 @@ public class DistributedHostStore
     public void deactivate() {
         hostsConsistentMap.removeListener(hostLocationTracker);
         executor.shutdown();
+        unregisterIndexMetrics();
 
         log.info("Stopped");
     }
 
+    private void loadHostIndexes() {
+        Map<MacAddress, Set<Host>> byMac = new ConcurrentHashMap<>();
+        Map<VlanId, Set<Host>> byVlan = new ConcurrentHashMap<>();
+        Map<ConnectPoint, Set<Host>> byLocation = new ConcurrentHashMap<>();
+        Map<DeviceId, Set<Host>> byDevice = new ConcurrentHashMap<>();
+        hostsConsistentMap.asJavaMap().values().forEach(host -> {
+            updateIndex(byMac, host, null, DistributedHostStore::macKeys);
+            updateIndex(byVlan, host, null, DistributedHostStore::vlanKeys);
+            updateIndex(byLocation, host, null, DistributedHostStore::locationKeys);
+            updateIndex(byDevice, host, null, DistributedHostStore::deviceKeys);
+        });
+        hostsByMac = byMac;
+        hostsByVlan = byVlan;
+        hostsByLocation = byLocation;
+        hostsByDevice = byDevice;
+    }
+
+    private void registerIndexMetrics() {
+        metricsComponent = metricsService.registerComponent(METRIC_COMPONENT);
+        metricsFeature = metricsComponent.registerFeature(METRIC_FEATURE);
+        metricsService.registerMetric(metricsComponent, metricsFeature, MAC_INDEX_SIZE,
+                                      (Gauge<Long>) () -> indexSize(hostsByMac));
+        metricsService.registerMetric(metricsComponent, metricsFeature, VLAN_INDEX_SIZE,
+                                      (Gauge<Long>) () -> indexSize(hostsByVlan));
+        metricsService.registerMetric(metricsComponent, metricsFeature, LOCATION_INDEX_SIZE,
+                                      (Gauge<Long>) () -> indexSize(hostsByLocation));
+        metricsService.registerMetric(metricsComponent, metricsFeature, DEVICE_INDEX_SIZE,
+                                      (Gauge<Long>) () -> indexSize(hostsByDevice));
+    }
+
+    private void unregisterIndexMetrics() {
+        metricsService.removeMetric(metricsComponent, metricsFeature, MAC_INDEX_SIZE);
+        metricsService.removeMetric(metricsComponent, metricsFeature, VLAN_INDEX_SIZE);
+        metricsService.removeMetric(metricsComponent, metricsFeature, LOCATION_INDEX_SIZE);
+        metricsService.removeMetric(metricsComponent, metricsFeature, DEVICE_INDEX_SIZE);
+    }
+
+    // Number of host references held by the index, a proxy of its memory footprint
+    private static long indexSize(Map<?, Set<Host>> index) {
+        return index.size() + index.values().stream().mapToLong(Set::size).sum();
+    }
+
     private void loadHostsByIp() {
         hostsByIp = new ConcurrentHashMap<IpAddress, Set<Host>>();
         hostsConsistentMap.asJavaMap().values().forEach(host -> {
@@ -191,38 +273,103 @@ public class DistributedHostStore
         hostsConsistentMap.computeIf(hostId,
                        existingHost -> shouldUpdate(existingHost, providerId,
                                                     hostDescription, replaceIPs),
-                       (id, existingHost) -> {
-
-                           final Set<IpAddress> addresses;
-                           if (existingHost == null || replaceIPs) {
-                               addresses = ImmutableSet.copyOf(hostDescription.ipAddress());
-                           } else {
-                               addresses = Sets.newHashSet(existingHost.ipAddresses());
-                               addresses.addAll(hostDescription.ipAddress());
-                           }
-
-                           final Annotations annotations;
-                           if (existingHost != null) {
-                               annotations = merge((DefaultAnnotations) existingHost.annotations(),
-                                       hostDescription.annotations());
-                           } else {
-                               annotations = hostDescription.annotations();
-                           }
-
-                           return new DefaultHost(providerId,
-                                                  hostId,
-                                                  hostDescription.hwAddress(),
-                                                  hostDescription.vlan(),
-                                                  hostDescription.locations(),
-                                                  addresses,
-                                                  hostDescription.innerVlan(),
-                                                  hostDescription.tpid(),
-                                                  hostDescription.configured(),
-                                                  annotations);
-                       });
+                       (id, existingHost) -> buildHost(providerId, hostId, hostDescription,
+                                                       existingHost, replaceIPs));
         return null;
     }
 
+    @Override
+    public void createOrUpdateHosts(ProviderId providerId,
+                                    Map<HostId, HostDescription> hostDescriptions,
+                                    boolean replaceIPs) {
+        if (hostDescriptions.size() > 1 && createOrUpdateHostsInTransaction(providerId, hostDescriptions,
+                                                                            replaceIPs)) {
+            return;
+        }
+        // Single host, or the transaction did not go through; apply the updates one by one
+        hostDescriptions.forEach((hostId, hostDescription) ->
+                createOrUpdateHost(providerId, hostId, hostDescription, replaceIPs));
+    }
+
+    // Applies all the host updates with a single transaction on the hosts map.
+    // The existing hosts are read from the locally cached map and only the hosts
+    // that change take part in the transaction; each update is conditioned on
+    // the host read, so that the transaction fails if the cache was stale.
+    private boolean createOrUpdateHostsInTransaction(ProviderId providerId,
+                                                     Map<HostId, HostDescription> hostDescriptions,
+                                                     boolean replaceIPs) {
+        Map<HostId, DefaultHost> existingHosts = new HashMap<>();
+        Map<HostId, DefaultHost> updatedHosts = new HashMap<>();
+        hostDescriptions.forEach((hostId, hostDescription) -> {
+            DefaultHost existingHost = hosts.get(hostId);
+            if (shouldUpdate(existingHost, providerId, hostDescription, replaceIPs)) {
+                existingHosts.put(hostId, existingHost);
+                updatedHosts.put(hostId, buildHost(providerId, hostId, hostDescription, existingHost, replaceIPs));
+            }
+        });
+        if (updatedHosts.isEmpty()) {
+            return true;
+        }
+        try {
+            TransactionContext tx = storageService.transactionContextBuilder().build();
+            tx.begin();
+            TransactionalMap<HostId, DefaultHost> txHosts = tx.getTransactionalMap(HOSTS_MAP_NAME, serializer);
+            boolean updated = updatedHosts.entrySet().stream().allMatch(update -> {
+                DefaultHost existingHost = existingHosts.get(update.getKey());
+                return existingHost == null ? txHosts.putIfAbsent(update.getKey(), update.getValue()) == null
+                        : txHosts.replace(update.getKey(), existingHost, update.getValue());
+            });
+            if (!updated) {
+                tx.abort();
+                log.debug("Batch update of {} hosts raced with other updates", updatedHosts.size());
+                return false;
+            }
+            CommitStatus status = tx.commit().get(DEFAULT_OPERATION_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+            if (status == CommitStatus.SUCCESS) {
+                return true;
+            }
+            log.debug("Batch update of {} hosts failed", updatedHosts.size());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException | TimeoutException | StorageException e) {
+            log.warn("Batch update of {} hosts failed", updatedHosts.size(), e);
+        }
+        return false;
+    }
+
+    private DefaultHost buildHost(ProviderId providerId,
+                                  HostId hostId,
+                                  HostDescription hostDescription,
+                                  DefaultHost existingHost,
+                                  boolean replaceIPs) {
+        final Set<IpAddress> addresses;
+        if (existingHost == null || replaceIPs) {
+            addresses = ImmutableSet.copyOf(hostDescription.ipAddress());
+        } else {
+            addresses = Sets.newHashSet(existingHost.ipAddresses());
+            addresses.addAll(hostDescription.ipAddress());
+        }
+
+        final Annotations annotations;
+        if (existingHost != null) {
+            annotations = merge((DefaultAnnotations) existingHost.annotations(),
+                    hostDescription.annotations());
+        } else {
+            annotations = hostDescription.annotations();
+        }
+
+        return new DefaultHost(providerId,
+                               hostId,
+                               hostDescription.hwAddress(),
+                               hostDescription.vlan(),
+                               hostDescription.locations(),
+                               addresses,
+                               hostDescription.innerVlan(),
+                               hostDescription.tpid(),
+                               hostDescription.configured(),
+                               annotations);
+    }
+
     // TODO No longer need to return HostEvent
     @Override
     public HostEvent removeHost(HostId hostId) {
@@ -328,12 +475,12 @@ public class DistributedHostStore
 
     @Override
     public Set<Host> getHosts(VlanId vlanId) {
-        return filter(hosts.values(), host -> Objects.equals(host.vlan(), vlanId));
+        return lookup(hostsByVlan, vlanId);
     }
 
     @Override
     public Set<Host> getHosts(MacAddress mac) {
-        return filter(hosts.values(), host -> Objects.equals(host.mac(), mac));
+        return lookup(hostsByMac, mac);
     }
 
     @Override
@@ -344,40 +491,83 @@ public class DistributedHostStore
 
     @Override
     public Set<Host> getConnectedHosts(ConnectPoint connectPoint) {
-        Set<Host> filtered = hosts.entrySet().stream()
-                .filter(entry -> entry.getValue().locations().contains(connectPoint))
-                .map(Map.Entry::getValue)
-                .collect(Collectors.toSet());
-        return ImmutableSet.copyOf(filtered);
+        return lookup(hostsByLocation, new ConnectPoint(connectPoint.elementId(), connectPoint.port()));
     }
 
     @Override
     public Set<Host> getConnectedHosts(DeviceId deviceId) {
-        Set<Host> filtered = hosts.entrySet().stream()
-                .filter(entry -> entry.getValue().locations().stream()
-                        .map(HostLocation::deviceId).anyMatch(dpid -> dpid.equals(deviceId)))
-                .map(Map.Entry::getValue)
-                .collect(Collectors.toSet());
-        return ImmutableSet.copyOf(filtered);
+        return lookup(hostsByDevice, deviceId);
+    }
+
+    private <K> Set<Host> lookup(Map<K, Set<Host>> index, K key) {
+        Set<Host> hosts = index.get(key);
+        return hosts != null ? ImmutableSet.copyOf(hosts) : ImmutableSet.of();
+    }
+
+    private static Set<MacAddress> macKeys(Host host) {
+        return ImmutableSet.of(host.mac());
+    }
+
+    private static Set<VlanId> vlanKeys(Host host) {
+        return ImmutableSet.of(host.vlan());
+    }
+
+    private static Set<ConnectPoint> locationKeys(Host host) {
+        // Strip the timestamp of the host locations
+        return host.locations().stream()
+                .map(location -> new ConnectPoint(location.elementId(), location.port()))
+                .collect(ImmutableSet.toImmutableSet());
+    }
+
+    private static Set<DeviceId> deviceKeys(Host host) {
+        return host.locations().stream()
+                .map(HostLocation::deviceId)
+                .collect(ImmutableSet.toImmutableSet());
+    }
+
+    /*
+     * Updates a secondary index: the host replaces its previous version under
+     * each of its current keys and it is removed from the keys it no longer has.
+     */
+    private static <K> void updateIndex(Map<K, Set<Host>> index, Host host, Host prevHost,
+                                        Function<Host, Set<K>> keys) {
+        Set<K> newKeys = host != null ? keys.apply(host) : Collections.emptySet();
+        Set<K> oldKeys = prevHost != null ? keys.apply(prevHost) : Collections.emptySet();
+        newKeys.forEach(key -> index.compute(key, (k, v) -> v == null ? addHosts(host) : updateHosts(v, host)));
+        Sets.difference(oldKeys, newKeys).forEach(key -> removeFromIndex(index, key, prevHost));
+    }
+
+    /*
+     * Removes the host from the given key of a secondary index; the key is
+     * dropped together with its last host so that no empty set is retained.
+     */
+    private static <K> void removeFromIndex(Map<K, Set<Host>> index, K key, Host host) {
+        index.computeIfPresent(key, (k, v) -> {
+            v.removeIf(existingHost -> existingHost.id().equals(host.id()));
+            return v.isEmpty() ? null : v;
+        });
     }
 
-    private Set<Host> filter(Collection<DefaultHost> collection, Predicate<DefaultHost> predicate) {
-        return collection.stream().filter(predicate).collect(Collectors.toSet());
+    private void updateHostIndexes(DefaultHost host, DefaultHost prevHost) {
+        updateIndex(hostsByMac, host, prevHost, DistributedHostStore::macKeys);
+        updateIndex(hostsByVlan, host, prevHost, DistributedHostStore::vlanKeys);
+        updateIndex(hostsByLocation, host, prevHost, DistributedHostStore::locationKeys);
+        updateIndex(hostsByDevice, host, prevHost, DistributedHostStore::deviceKeys);
     }
 
-    private Set<Host> addHosts(Host host) {
+    private static Set<Host> addHosts(Host host) {
         Set<Host> hosts = Sets.newConcurrentHashSet();
         hosts.add(host);
         return hosts;
     }
 
-    private Set<Host> updateHosts(Set<Host> existingHosts, Host host) {
+    private static Set<Host> updateHosts(Set<Host> existingHosts, Host host) {
         existingHosts.removeIf(existingHost -> existingHost.id().equals(host.id()));
         existingHosts.add(host);
         return existingHosts;
     }
 
-    private Set<Host> removeHosts(Set<Host> existingHosts, Host host) {
+    private static Set<Host> removeHosts(Set<Host> existingHosts, Host host) {
         if (existingHosts != null) {
             existingHosts.removeIf(existingHost -> existingHost.id().equals(host.id()));
         }
@@ -414,10 +604,12 @@ public class DistributedHostStore
             switch (event.type()) {
                 case INSERT:
                     updateHostsByIp(host, prevHost);
+                    updateHostIndexes(host, prevHost);
                     notifyDelegate(new HostEvent(HOST_ADDED, host));
                     break;
                 case UPDATE:
                     updateHostsByIp(host, prevHost);
+                    updateHostIndexes(host, prevHost);
                     if (!Objects.equals(prevHost.locations(), host.locations())) {
                         notifyDelegate(new HostEvent(HOST_MOVED, host, prevHost));
                     } else if (!Objects.equals(prevHost, host)) {
@@ -426,6 +618,7 @@ public class DistributedHostStore
                     break;
                 case REMOVE:
                     removeHostsByIp(prevHost);
+                    updateHostIndexes(null, prevHost);
                     notifyDelegate(new HostEvent(HOST_REMOVED, prevHost));
                     break;
                 default:
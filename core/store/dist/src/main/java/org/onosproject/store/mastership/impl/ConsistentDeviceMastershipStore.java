@@ -17,6 +17,7 @@ package org.onosproject.store.mastership.impl;
 
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Maps;
 import org.onlab.util.KryoNamespace;
 import org.onosproject.cluster.ClusterService;
 import org.onosproject.cluster.Leadership;
@@ -35,6 +36,7 @@ import org.onosproject.net.DeviceId;
 import org.onosproject.net.MastershipRole;
 import org.onosproject.store.AbstractStore;
 import org.onosproject.store.cluster.messaging.ClusterCommunicationService;
+import org.onosproject.store.cluster.messaging.MessagePriority;
 import org.onosproject.store.cluster.messaging.MessageSubject;
 import org.onosproject.store.serializers.KryoNamespaces;
 import org.onosproject.store.service.Serializer;
@@ -46,14 +48,17 @@ import org.osgi.service.component.annotations.ReferenceCardinality;
 import org.slf4j.Logger;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
@@ -91,7 +96,7 @@ public class ConsistentDeviceMastershipStore
     private NodeId localNodeId;
 
     private static final MessageSubject ROLE_RELINQUISH_SUBJECT =
-            new MessageSubject("mastership-store-device-role-relinquish");
+            new MessageSubject("mastership-store-device-role-relinquish", MessagePriority.HIGH);
 
     private static final String DEVICE_MASTERSHIP_TOPIC_PREFIX = "device-mastership:";
 
@@ -101,12 +106,21 @@ public class ConsistentDeviceMastershipStore
     private ExecutorService eventHandler;
     private ExecutorService messageHandlingExecutor;
     private ScheduledExecutorService transferExecutor;
+    private ExecutorService handoffExecutor;
     private final LeadershipEventListener leadershipEventListener =
             new InternalDeviceMastershipEventListener();
 
+    // Standbys of the devices mastered by each node, in order of succession;
+    // kept up to date from the leadership events so that the hand-off of all
+    // the devices of a failed node is known without reading every election
+    private final Map<NodeId, Map<DeviceId, List<NodeId>>> standbys = Maps.newConcurrentMap();
+    private final Map<DeviceId, NodeId> masters = Maps.newConcurrentMap();
+
     private static final String NODE_ID_NULL = "Node ID cannot be null";
     private static final String DEVICE_ID_NULL = "Device ID cannot be null";
     private static final int WAIT_BEFORE_MASTERSHIP_HANDOFF_MILLIS = 3000;
+    private static final int HANDOFF_THREADS = 16;
+    private static final long HANDOFF_TIMEOUT_MILLIS = 10000;
 
     public static final Serializer SERIALIZER = Serializer.using(
             KryoNamespace.newBuilder()
@@ -128,6 +142,9 @@ public class ConsistentDeviceMastershipStore
         transferExecutor =
                 Executors.newSingleThreadScheduledExecutor(
                         groupedThreads("onos/store/device/mastership", "mastership-transfer-executor", log));
+        handoffExecutor =
+                Executors.newFixedThreadPool(HANDOFF_THREADS,
+                        groupedThreads("onos/store/device/mastership", "handoff-%d", log));
         clusterCommunicator.addSubscriber(ROLE_RELINQUISH_SUBJECT,
                 SERIALIZER::decode,
                 this::relinquishLocalRole,
@@ -135,6 +152,9 @@ public class ConsistentDeviceMastershipStore
                 messageHandlingExecutor);
         localNodeId = clusterService.getLocalNode().id();
         leadershipService.addListener(leadershipEventListener);
+        leadershipAdminService.getLeaderBoard().values().stream()
+                .filter(leadership -> isDeviceMastershipTopic(leadership.topic()))
+                .forEach(leadership -> updateStandbys(extractDeviceIdFromTopic(leadership.topic()), leadership));
 
         log.info("Started");
     }
@@ -145,7 +165,10 @@ public class ConsistentDeviceMastershipStore
         leadershipService.removeListener(leadershipEventListener);
         messageHandlingExecutor.shutdown();
         transferExecutor.shutdown();
+        handoffExecutor.shutdown();
         eventHandler.shutdown();
+        standbys.clear();
+        masters.clear();
         log.info("Stopped");
     }
 
@@ -297,7 +320,61 @@ public class ConsistentDeviceMastershipStore
 
     @Override
     public void relinquishAllRole(NodeId nodeId) {
-        // Noop. LeadershipService already takes care of detecting and purging stale locks.
+        checkArgument(nodeId != null, NODE_ID_NULL);
+
+        // Hands off each device of the node to its top standby right away,
+        // instead of waiting for the elections to expire the node one by one.
+        // Only the device mastership elections are touched. The transfers are
+        // all started at once, so that they are in flight together instead of
+        // taking one round trip each in turn.
+        Map<DeviceId, List<NodeId>> handoffs = ImmutableMap.copyOf(standbys.getOrDefault(nodeId, ImmutableMap.of()));
+        List<CompletableFuture<Boolean>> transfers = handoffs.entrySet().stream()
+                .map(handoff -> CompletableFuture.supplyAsync(
+                        () -> handOff(handoff.getKey(), handoff.getValue()), handoffExecutor)
+                        .exceptionally(error -> {
+                            log.debug("Failed to hand off mastership of {}", handoff.getKey(), error);
+                            return false;
+                        }))
+                .collect(Collectors.toList());
+        try {
+            CompletableFuture.allOf(transfers.toArray(new CompletableFuture[0]))
+                    .get(HANDOFF_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException | TimeoutException e) {
+            log.warn("Timed out handing off the mastership of the devices of {}", nodeId);
+        }
+        long handedOff = transfers.stream().filter(transfer -> transfer.getNow(false)).count();
+        log.info("Handed off mastership of {} devices of {}; {} were left to the elections",
+                 handedOff, nodeId, handoffs.size() - handedOff);
+    }
+
+    // Transfers the mastership of the device to its first standby still running for it
+    private boolean handOff(DeviceId deviceId, List<NodeId> successors) {
+        String topic = createDeviceMastershipTopic(deviceId);
+        List<NodeId> candidates = leadershipService.getCandidates(topic);
+        Optional<NodeId> successor = successors.stream()
+                .filter(candidates::contains)
+                .findFirst();
+        return successor.isPresent() && leadershipAdminService.transferLeadership(topic, successor.get());
+    }
+
+    // Records the succession of the device after a leadership change
+    private void updateStandbys(DeviceId deviceId, Leadership leadership) {
+        NodeId master = leadership.leaderNodeId();
+        NodeId oldMaster = master != null ? masters.put(deviceId, master) : masters.remove(deviceId);
+        if (oldMaster != null && !oldMaster.equals(master)) {
+            standbys.computeIfPresent(oldMaster, (node, devices) -> {
+                devices.remove(deviceId);
+                return devices.isEmpty() ? null : devices;
+            });
+        }
+        if (master != null) {
+            List<NodeId> backups = leadership.candidates().stream()
+                    .filter(candidate -> !master.equals(candidate))
+                    .collect(Collectors.toList());
+            standbys.computeIfAbsent(master, node -> Maps.newConcurrentMap()).put(deviceId, backups);
+        }
     }
 
     private MastershipInfo buildMastershipFromLeadership(Leadership leadership) {
@@ -340,6 +417,9 @@ public class ConsistentDeviceMastershipStore
             MastershipInfo mastershipInfo = event.type() != LeadershipEvent.Type.SERVICE_DISRUPTED
                 ? buildMastershipFromLeadership(event.subject())
                 : new MastershipInfo();
+            if (event.type() != LeadershipEvent.Type.SERVICE_DISRUPTED) {
+                updateStandbys(deviceId, leadership);
+            }
 
             switch (event.type()) {
                 case LEADER_AND_CANDIDATES_CHANGED:
@@ -0,0 +1,81 @@
+/*
+ * Copyright 2020-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.store.cluster.messaging.impl;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThan;
+
+/**
+ * Tests of the cluster message payload compression.
+ */
+public class PayloadCompressorTest {
+
+    private static byte[] payload(int size) {
+        byte[] payload = new byte[size];
+        for (int i = 0; i < size; i++) {
+            payload[i] = (byte) ("of:000000000000000" + (i % 7)).charAt(i % 18);
+        }
+        return payload;
+    }
+
+    /**
+     * Tests that the payloads below the threshold are sent as they are.
+     */
+    @Test
+    public void testBelowThreshold() {
+        byte[] payload = payload(100);
+        byte[] frame = PayloadCompressor.encode(payload, 1024);
+        assertThat(PayloadCompressor.isCompressed(frame), is(false));
+        assertThat(frame.length, is(payload.length + 1));
+        assertThat(Arrays.equals(PayloadCompressor.decode(frame), payload), is(true));
+    }
+
+    /**
+     * Tests the compression of the payloads above the threshold.
+     */
+    @Test
+    public void testAboveThreshold() {
+        byte[] payload = payload(64 * 1024);
+        byte[] frame = PayloadCompressor.encode(payload, 1024);
+        assertThat(PayloadCompressor.isCompressed(frame), is(true));
+        assertThat(frame.length, lessThan(payload.length / 4));
+        assertThat(Arrays.equals(PayloadCompressor.decode(frame), payload), is(true));
+    }
+
+    /**
+     * Tests the round trip of an empty payload.
+     */
+    @Test
+    public void testEmpty() {
+        byte[] frame = PayloadCompressor.encode(new byte[0], 0);
+        assertThat(PayloadCompressor.isCompressed(frame), is(true));
+        assertThat(PayloadCompressor.decode(frame).length, is(0));
+    }
+
+    /**
+     * Tests that a truncated payload is rejected.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testTruncated() {
+        byte[] frame = PayloadCompressor.encode(payload(64 * 1024), 1024);
+        PayloadCompressor.decode(Arrays.copyOf(frame, frame.length / 2));
+    }
+}
@@ -0,0 +1,150 @@
+/*
+ * Copyright 2020-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.store.cluster.messaging.impl;
+
+import com.google.common.collect.Lists;
+import org.junit.Before;
+import org.junit.Test;
+import org.onosproject.store.cluster.messaging.MessagePriority;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
+
+/**
+ * Tests of the prioritized send queue.
+ */
+public class PrioritizedSendQueueTest {
+
+    private PrioritizedSendQueue queue;
+    private final List<String> started = Lists.newArrayList();
+    private final List<CompletableFuture<Void>> inflight = Lists.newArrayList();
+
+    @Before
+    public void setUp() {
+        queue = new PrioritizedSendQueue(10);
+    }
+
+    private CompletableFuture<Void> submit(String name, MessagePriority priority, int size) {
+        return queue.submit(priority, size, sender(name));
+    }
+
+    private Supplier<CompletableFuture<Void>> sender(String name) {
+        return () -> {
+            started.add(name);
+            CompletableFuture<Void> future = new CompletableFuture<>();
+            inflight.add(future);
+            return future;
+        };
+    }
+
+    /**
+     * Tests that sends within the budget start right away.
+     */
+    @Test
+    public void testWithinBudget() {
+        submit("a", MessagePriority.NORMAL, 4);
+        submit("b", MessagePriority.BULK, 6);
+        assertThat(started, contains("a", "b"));
+        assertThat(queue.bytesInFlight(), is(10L));
+        assertThat(queue.waiting(), is(0));
+    }
+
+    /**
+     * Tests that sends beyond the budget wait for the ones in flight.
+     */
+    @Test
+    public void testBeyondBudget() {
+        submit("a", MessagePriority.NORMAL, 8);
+        CompletableFuture<Void> b = submit("b", MessagePriority.NORMAL, 8);
+        assertThat(started, contains("a"));
+        assertThat(queue.waiting(), is(1));
+
+        inflight.get(0).complete(null);
+        assertThat(started, contains("a", "b"));
+        assertThat(queue.waiting(), is(0));
+        assertThat(b.isDone(), is(false));
+
+        inflight.get(1).complete(null);
+        assertThat(b.isDone(), is(true));
+        assertThat(queue.bytesInFlight(), is(0L));
+    }
+
+    /**
+     * Tests that a send larger than the budget starts alone.
+     */
+    @Test
+    public void testOversized() {
+        submit("a", MessagePriority.BULK, 100);
+        assertThat(started, contains("a"));
+        assertThat(queue.bytesInFlight(), is(100L));
+    }
+
+    /**
+     * Tests that waiting regular messages overtake the waiting bulk ones.
+     */
+    @Test
+    public void testPriorityOrder() {
+        submit("bulk0", MessagePriority.BULK, 10);
+        submit("bulk1", MessagePriority.BULK, 10);
+        submit("bulk2", MessagePriority.BULK, 10);
+        submit("normal", MessagePriority.NORMAL, 10);
+        assertThat(queue.waiting(), is(3));
+
+        for (int i = 0; i < 3; i++) {
+            inflight.get(i).complete(null);
+        }
+        assertThat(started, contains("bulk0", "normal", "bulk1", "bulk2"));
+    }
+
+    /**
+     * Tests that control messages are neither held back nor counted.
+     */
+    @Test
+    public void testHighPriority() {
+        submit("bulk0", MessagePriority.BULK, 10);
+        submit("bulk1", MessagePriority.BULK, 10);
+        CompletableFuture<Void> high = submit("high", MessagePriority.HIGH, 10);
+        assertThat(started, contains("bulk0", "high"));
+        assertThat(queue.bytesInFlight(), is(10L));
+        assertThat(queue.waiting(), is(1));
+
+        inflight.get(1).complete(null);
+        assertThat(high.isDone(), is(true));
+        assertThat(queue.waiting(), is(1));
+    }
+
+    /**
+     * Tests that the bytes of a request are released once it is handed off.
+     */
+    @Test
+    public void testRequest() {
+        CompletableFuture<Void> request = queue.submitRequest(MessagePriority.NORMAL, 8, sender("request"));
+        assertThat(queue.bytesInFlight(), is(0L));
+
+        submit("a", MessagePriority.NORMAL, 8);
+        assertThat(started, contains("request", "a"));
+        assertThat(request.isDone(), is(false));
+
+        inflight.get(0).complete(null);
+        assertThat(request.isDone(), is(true));
+        assertThat(queue.bytesInFlight(), is(8L));
+    }
+}
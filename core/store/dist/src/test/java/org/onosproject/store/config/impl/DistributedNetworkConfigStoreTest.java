@@ -24,11 +24,14 @@ import org.onosproject.net.config.SubjectFactory;
 import org.onosproject.store.service.TestStorageService;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
 
 import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
 import static org.hamcrest.Matchers.notNullValue;
 import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
 import static org.junit.Assert.assertThat;
 
 import java.util.Set;
@@ -143,6 +146,28 @@ public class DistributedNetworkConfigStoreTest {
         assertThat(queriedAfterClear, nullValue());
     }
 
+    /**
+     * Tests that queried configs are cached until their JSON changes.
+     */
+    @Test
+    public void testCachedConfig() {
+        configStore.addConfigFactory(new MockConfigFactory(BasicConfig.class, "config1"));
+        configStore.applyConfig("subject", BasicConfig.class, new ObjectMapper().createObjectNode());
+
+        BasicConfig queried = configStore.getConfig("subject", BasicConfig.class);
+        assertThat(queried, notNullValue());
+        assertThat(configStore.getConfig("subject", BasicConfig.class), sameInstance(queried));
+
+        ObjectNode json = new ObjectMapper().createObjectNode().put("name", "value");
+        configStore.applyConfig("subject", BasicConfig.class, json);
+        BasicConfig requeried = configStore.getConfig("subject", BasicConfig.class);
+        assertThat(requeried, not(sameInstance(queried)));
+        assertThat(requeried.node(), is(json));
+
+        configStore.removeConfigFactory(configStore.getConfigFactory(BasicConfig.class));
+        assertThat(configStore.getConfig("subject", BasicConfig.class), nullValue());
+    }
+
     /**
      * Tests creation, query and removal of a factory.
      */
@@ -229,6 +229,40 @@ public class DistributedGroupStoreTest {
         assertThat(auditPendingReqQueue.size(), is(0));
     }
 
+    /**
+     * Tests adding and removing a group with the write batching enabled.
+     */
+    @Test
+    public void testAddRemoveGroupWithWriteBatching() {
+        TestUtils.setField(groupStoreImpl, "writeBatching", true);
+        TestUtils.setField(groupStoreImpl, "writeBatchInterval", 60000);
+        TestUtils.callMethod(groupStoreImpl, "configureWriteBatching", new Class<?>[]{});
+        GroupStoreWriteBuffer<?, ?> writeBuffer = TestUtils.getField(groupStoreImpl, "groupStoreWriteBuffer");
+        ConsistentMap<?, ?> groupStoreEntriesByKey = TestUtils.getField(groupStoreImpl, "groupStoreEntriesByKey");
+        groupStore.deviceInitialAuditCompleted(deviceId1, true);
+
+        // The group is visible, by key and by id, before being committed
+        groupStore.storeGroupDescription(groupDescription1);
+        assertThat(groupStoreEntriesByKey.size(), is(0));
+        assertThat(groupStore.getGroupCount(deviceId1), is(1));
+        assertThat(groupStore.getGroup(deviceId1, groupKey1), notNullValue());
+        assertThat(groupStore.getGroup(deviceId1, groupId1), is(groupStore.getGroup(deviceId1, groupKey1)));
+
+        writeBuffer.flushAll();
+        assertThat(writeBuffer.pendingWrites(), is(0));
+        assertThat(groupStoreEntriesByKey.size(), is(1));
+        assertThat(groupStore.getGroup(deviceId1, groupId1), notNullValue());
+
+        groupStore.removeGroupEntry(groupStore.getGroup(deviceId1, groupId1));
+        assertThat(groupStore.getGroupCount(deviceId1), is(0));
+        assertThat(groupStore.getGroup(deviceId1, groupId1), nullValue());
+        assertThat(groupStore.getGroup(deviceId1, groupKey1), nullValue());
+
+        writeBuffer.flushAll();
+        assertThat(groupStoreEntriesByKey.size(), is(0));
+        assertThat(groupStore.getGroup(deviceId1, groupId1), nullValue());
+    }
+
     /**
      * Tests removing all groups on the given device.
      */
@@ -310,6 +344,35 @@ public class DistributedGroupStoreTest {
 
     }
 
+    /**
+     * Tests the audit of the groups whose fingerprints differ from the device ones.
+     */
+    @Test
+    public void testPushGroupMetricsWithFingerprints() {
+        TestUtils.setField(groupStoreImpl, "auditFingerprints", true);
+        groupStore.deviceInitialAuditCompleted(deviceId1, true);
+        groupStore.storeGroupDescription(groupDescription1);
+        assertThat(groupStore.getGroup(deviceId1, groupId1).state(), is(GroupState.PENDING_ADD));
+
+        // Pending groups never match, the group gets confirmed
+        DefaultGroup reported = new DefaultGroup(groupId1, groupDescription1);
+        groupStore.pushGroupMetrics(deviceId1, ImmutableList.of(reported));
+        assertThat(groupStore.getGroup(deviceId1, groupId1).state(), is(GroupState.ADDED));
+
+        // Fingerprints match, only the statistics are refreshed
+        reported.setPackets(55L);
+        reported.setBytes(66L);
+        groupStore.pushGroupMetrics(deviceId1, ImmutableList.of(reported));
+        Group requeryGroup1 = groupStore.getGroup(deviceId1, groupId1);
+        assertThat(requeryGroup1.state(), is(GroupState.ADDED));
+        assertThat(requeryGroup1.packets(), is(55L));
+        assertThat(requeryGroup1.bytes(), is(66L));
+
+        // The group disappeared from the device
+        groupStore.pushGroupMetrics(deviceId1, ImmutableList.of());
+        assertThat(groupStore.getGroup(deviceId1, groupId1).state(), is(GroupState.PENDING_ADD_RETRY));
+    }
+
     class TestDelegate implements GroupStoreDelegate {
         private List<GroupEvent> eventsSeen = new LinkedList<>();
         @Override
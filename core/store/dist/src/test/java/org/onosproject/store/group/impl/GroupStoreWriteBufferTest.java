@@ -0,0 +1,185 @@
+/*
+ * Copyright 2020-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.store.group.impl;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+import com.google.common.util.concurrent.MoreExecutors;
+import org.junit.Before;
+import org.junit.Test;
+import org.onosproject.net.DeviceId;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+
+/**
+ * Tests of the group store write-behind buffer.
+ */
+public class GroupStoreWriteBufferTest {
+
+    private static final DeviceId DID1 = DeviceId.deviceId("of:1");
+    private static final DeviceId DID2 = DeviceId.deviceId("of:2");
+
+    private final Map<String, String> backing = Maps.newHashMap();
+    private final List<Map<String, Optional<String>>> commits = Lists.newArrayList();
+    private final List<String> writes = Lists.newArrayList();
+    private boolean commitFailure;
+    private GroupStoreWriteBuffer<String, String> buffer;
+
+    @Before
+    public void setUp() {
+        buffer = new GroupStoreWriteBuffer<>(backing,
+                                             key -> DeviceId.deviceId(key.split("/")[0]),
+                                             (deviceId, batch) -> {
+                                                 if (commitFailure) {
+                                                     return false;
+                                                 }
+                                                 commits.add(batch);
+                                                 batch.forEach((key, value) -> {
+                                                     if (value.isPresent()) {
+                                                         backing.put(key, value.get());
+                                                     } else {
+                                                         backing.remove(key);
+                                                     }
+                                                 });
+                                                 return true;
+                                             },
+                                             (previous, value) -> writes.add(previous + "->" + value),
+                                             3,
+                                             MoreExecutors.directExecutor());
+    }
+
+    /**
+     * Tests that pending writes are visible before being committed.
+     */
+    @Test
+    public void testReadYourWrites() {
+        backing.put("of:1/a", "a0");
+        buffer.put("of:1/a", "a1");
+        buffer.put("of:1/b", "b1");
+
+        assertThat(buffer.get("of:1/a"), is("a1"));
+        assertThat(buffer.get("of:1/b"), is("b1"));
+        assertThat(backing.get("of:1/a"), is("a0"));
+        assertThat(buffer.size(), is(2));
+
+        buffer.remove("of:1/a");
+        assertThat(buffer.get("of:1/a"), nullValue());
+        assertThat(buffer.size(), is(1));
+        assertThat(buffer.pendingWrites(), is(2));
+
+        buffer.flushAll();
+        assertThat(buffer.pendingWrites(), is(0));
+        assertThat(backing.containsKey("of:1/a"), is(false));
+        assertThat(backing.get("of:1/b"), is("b1"));
+    }
+
+    /**
+     * Tests that writes of the same key are coalesced and batched per device.
+     */
+    @Test
+    public void testCoalescing() {
+        buffer.put("of:1/a", "a1");
+        buffer.put("of:1/a", "a2");
+        buffer.put("of:2/a", "a1");
+        assertThat(buffer.pendingWrites(), is(2));
+
+        buffer.flush(DID1);
+        assertThat(commits.size(), is(1));
+        assertThat(commits.get(0).size(), is(1));
+        assertThat(backing.get("of:1/a"), is("a2"));
+        assertThat(backing.containsKey("of:2/a"), is(false));
+
+        buffer.flush(DID2);
+        assertThat(commits.size(), is(2));
+        assertThat(backing.get("of:2/a"), is("a1"));
+    }
+
+    /**
+     * Tests that reaching the batch size triggers a commit.
+     */
+    @Test
+    public void testFlushOnBatchSize() {
+        buffer.put("of:1/a", "a");
+        buffer.put("of:1/b", "b");
+        assertThat(commits.size(), is(0));
+
+        buffer.put("of:1/c", "c");
+        assertThat(commits.size(), is(1));
+        assertThat(commits.get(0).size(), is(3));
+        assertThat(backing.size(), is(3));
+    }
+
+    /**
+     * Tests that mutators return the previous value and notify the writes.
+     */
+    @Test
+    public void testPreviousValue() {
+        backing.put("of:1/a", "a0");
+        assertThat(buffer.put("of:1/a", "a1"), is("a0"));
+        assertThat(buffer.put("of:1/a", "a2"), is("a1"));
+        assertThat(buffer.put("of:1/b", "b1"), nullValue());
+        assertThat(buffer.remove("of:1/b"), is("b1"));
+        assertThat(buffer.remove("of:1/c"), nullValue());
+        assertThat(writes, is(Lists.newArrayList("a0->a1", "a1->a2", "null->b1", "b1->null", "null->null")));
+    }
+
+    /**
+     * Tests that the collection views reflect the pending writes without
+     * being copies of the map.
+     */
+    @Test
+    public void testViews() {
+        Collection<String> values = buffer.values();
+        backing.put("of:1/a", "a0");
+        backing.put("of:2/a", "a0");
+        buffer.put("of:1/a", "a1");
+        buffer.put("of:1/b", "b1");
+        buffer.remove("of:2/a");
+        assertThat(Sets.newHashSet(values), is(Sets.newHashSet("a1", "b1")));
+        assertThat(values.stream().count(), is(2L));
+        assertThat(buffer.keySet(), is(Sets.newHashSet("of:1/a", "of:1/b")));
+    }
+
+    /**
+     * Tests that a batch failing to commit is retried with the next flush,
+     * unless overwritten in the meantime.
+     */
+    @Test
+    public void testFailedCommit() {
+        buffer.put("of:1/a", "a1");
+        buffer.put("of:1/b", "b1");
+        commitFailure = true;
+        buffer.flush(DID1);
+        assertThat(backing.isEmpty(), is(true));
+        assertThat(buffer.pendingWrites(), is(2));
+        assertThat(buffer.get("of:1/a"), is("a1"));
+
+        buffer.put("of:1/b", "b2");
+        commitFailure = false;
+        buffer.flush(DID1);
+        assertThat(buffer.pendingWrites(), is(0));
+        assertThat(backing.get("of:1/a"), is("a1"));
+        assertThat(backing.get("of:1/b"), is("b2"));
+    }
+}
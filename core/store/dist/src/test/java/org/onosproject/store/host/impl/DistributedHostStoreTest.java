@@ -18,19 +18,27 @@ package org.onosproject.store.host.impl;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
+import org.onlab.junit.TestUtils;
+import org.onlab.metrics.MetricsManager;
 import org.onlab.packet.IpAddress;
 import org.onlab.packet.MacAddress;
+import org.onlab.packet.VlanId;
+import org.onosproject.net.ConnectPoint;
+import org.onosproject.net.DeviceId;
 import org.onosproject.net.Host;
 import org.onosproject.net.HostId;
 import org.onosproject.net.HostLocation;
+import org.onosproject.net.PortNumber;
 import org.onosproject.net.host.DefaultHostDescription;
 import org.onosproject.net.host.HostDescription;
 import org.onosproject.net.provider.ProviderId;
 import org.onosproject.store.service.TestStorageService;
 
+import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Sets;
 
 import java.util.HashSet;
+import java.util.Map;
 import java.util.Set;
 
 import static junit.framework.TestCase.assertTrue;
@@ -50,6 +58,11 @@ public class DistributedHostStoreTest {
     private static final IpAddress IP1 = IpAddress.valueOf("10.2.0.2");
     private static final IpAddress IP2 = IpAddress.valueOf("10.2.0.3");
 
+    private static final DeviceId DID1 = DeviceId.deviceId("of:0000000000000001");
+    private static final DeviceId DID2 = DeviceId.deviceId("of:0000000000000002");
+    private static final HostLocation LOC1 = new HostLocation(DID1, PortNumber.portNumber(1), 0);
+    private static final HostLocation LOC2 = new HostLocation(DID2, PortNumber.portNumber(2), 0);
+
     private static final ProviderId PID = new ProviderId("of", "foo");
     private static final ProviderId PID2 = new ProviderId("of", "foo2");
 
@@ -63,6 +76,7 @@ public class DistributedHostStoreTest {
         ecXHostStore = new DistributedHostStore();
 
         ecXHostStore.storageService = new TestStorageService();
+        ecXHostStore.metricsService = new MetricsManager();
         ecXHostStore.activate();
     }
 
@@ -146,6 +160,88 @@ public class DistributedHostStoreTest {
         assertEquals(PID2, hostInStore.providerId());
     }
 
+    @Test
+    public void testGetHostsByMacAndVlan() {
+        ecXHostStore.createOrUpdateHost(PID, HOSTID, createHostDesc(HOSTID, Sets.newHashSet(IP1)), false);
+        ecXHostStore.createOrUpdateHost(PID, HOSTID1, createHostDesc(HOSTID1, Sets.newHashSet(IP2)), false);
+
+        assertEquals(1, ecXHostStore.getHosts(HOSTID.mac()).size());
+        assertEquals(HOSTID, ecXHostStore.getHosts(HOSTID.mac()).iterator().next().id());
+        assertEquals(2, ecXHostStore.getHosts(VlanId.NONE).size());
+        assertTrue(ecXHostStore.getHosts(VlanId.vlanId((short) 10)).isEmpty());
+
+        ecXHostStore.removeHost(HOSTID);
+        assertTrue(ecXHostStore.getHosts(HOSTID.mac()).isEmpty());
+        assertEquals(1, ecXHostStore.getHosts(VlanId.NONE).size());
+    }
+
+    @Test
+    public void testGetConnectedHosts() {
+        HostDescription description = new DefaultHostDescription(HOSTID.mac(), HOSTID.vlanId(),
+                                                                  LOC1, Sets.newHashSet(IP1), false);
+        ecXHostStore.createOrUpdateHost(PID, HOSTID, description, false);
+
+        assertEquals(1, ecXHostStore.getConnectedHosts(new ConnectPoint(DID1, LOC1.port())).size());
+        assertEquals(1, ecXHostStore.getConnectedHosts(DID1).size());
+        assertTrue(ecXHostStore.getConnectedHosts(DID2).isEmpty());
+
+        // Dual-homed host
+        ecXHostStore.appendLocation(HOSTID, LOC2);
+        assertEquals(1, ecXHostStore.getConnectedHosts(LOC1).size());
+        assertEquals(1, ecXHostStore.getConnectedHosts(LOC2).size());
+        assertEquals(2, ecXHostStore.getConnectedHosts(DID2).iterator().next().locations().size());
+
+        ecXHostStore.removeLocation(HOSTID, LOC1);
+        assertTrue(ecXHostStore.getConnectedHosts(LOC1).isEmpty());
+        assertTrue(ecXHostStore.getConnectedHosts(DID1).isEmpty());
+        assertEquals(1, ecXHostStore.getConnectedHosts(DID2).size());
+    }
+
+    @Test
+    public void testCreateOrUpdateHosts() {
+        ecXHostStore.createOrUpdateHost(PID2, HOSTID, HOST_CONFIGURED, true);
+
+        // Expect: new host is added, learnt host does not override configured host
+        ecXHostStore.createOrUpdateHosts(PID, ImmutableMap.of(
+                HOSTID, HOST_LEARNT,
+                HOSTID1, createHostDesc(HOSTID1, Sets.newHashSet(IP2))), false);
+        assertEquals(PID2, ecXHostStore.getHost(HOSTID).providerId());
+        assertEquals(PID, ecXHostStore.getHost(HOSTID1).providerId());
+        assertEquals(1, ecXHostStore.getHosts(IP2).size());
+
+        // Expect: both hosts are updated
+        ecXHostStore.createOrUpdateHosts(PID2, ImmutableMap.of(
+                HOSTID, createHostDesc(HOSTID, Sets.newHashSet(IP2), true),
+                HOSTID1, createHostDesc(HOSTID1, Sets.newHashSet(IP1), true)), true);
+        assertEquals(Sets.newHashSet(IP2), ecXHostStore.getHost(HOSTID).ipAddresses());
+        assertEquals(Sets.newHashSet(IP1), ecXHostStore.getHost(HOSTID1).ipAddresses());
+        assertEquals(PID2, ecXHostStore.getHost(HOSTID1).providerId());
+        assertEquals(HOSTID1, ecXHostStore.getHosts(IP1).iterator().next().id());
+        assertEquals(HOSTID, ecXHostStore.getHosts(IP2).iterator().next().id());
+    }
+
+    @Test
+    public void testIndexesCleanedOnRemoval() {
+        HostDescription description = new DefaultHostDescription(HOSTID.mac(), HOSTID.vlanId(),
+                                                                  LOC1, Sets.newHashSet(IP1), false);
+        ecXHostStore.createOrUpdateHost(PID, HOSTID, description, false);
+        ecXHostStore.appendLocation(HOSTID, LOC2);
+        ecXHostStore.removeLocation(HOSTID, LOC1);
+        assertIndexSize(1, "hostsByLocation");
+        assertIndexSize(1, "hostsByDevice");
+
+        ecXHostStore.removeHost(HOSTID);
+        assertIndexSize(0, "hostsByMac");
+        assertIndexSize(0, "hostsByVlan");
+        assertIndexSize(0, "hostsByLocation");
+        assertIndexSize(0, "hostsByDevice");
+    }
+
+    private void assertIndexSize(int expected, String index) {
+        Map<?, ?> keys = TestUtils.getField(ecXHostStore, index);
+        assertEquals(index, expected, keys.size());
+    }
+
     private static HostDescription createHostDesc(HostId hostId, Set<IpAddress> ips) {
         return createHostDesc(hostId, ips, false);
     }
@@ -0,0 +1,189 @@
+/*
+ * Copyright 2020-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.store.mastership.impl;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Maps;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.onlab.packet.IpAddress;
+import org.onosproject.cluster.ClusterServiceAdapter;
+import org.onosproject.cluster.ControllerNode;
+import org.onosproject.cluster.DefaultControllerNode;
+import org.onosproject.cluster.Leader;
+import org.onosproject.cluster.Leadership;
+import org.onosproject.cluster.LeadershipAdminService;
+import org.onosproject.cluster.LeadershipServiceAdapter;
+import org.onosproject.cluster.NodeId;
+import org.onosproject.net.DeviceId;
+import org.onosproject.store.cluster.messaging.ClusterCommunicationServiceAdapter;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.onosproject.net.DeviceId.deviceId;
+
+/**
+ * Tests of the consistent device mastership store.
+ */
+public class ConsistentDeviceMastershipStoreTest {
+
+    private static final NodeId N1 = new NodeId("n1");
+    private static final NodeId N2 = new NodeId("n2");
+    private static final NodeId N3 = new NodeId("n3");
+
+    private static final DeviceId DID1 = deviceId("of:1");
+    private static final DeviceId DID2 = deviceId("of:2");
+    private static final DeviceId DID3 = deviceId("of:3");
+
+    private static final String OTHER_TOPIC = "work-partition-1";
+
+    private TestLeadershipService leadershipService;
+    private ConsistentDeviceMastershipStore store;
+
+    @Before
+    public void setUp() {
+        leadershipService = new TestLeadershipService();
+        store = new ConsistentDeviceMastershipStore();
+        store.leadershipService = leadershipService;
+        store.leadershipAdminService = leadershipService;
+        store.clusterService = new TestClusterService();
+        store.clusterCommunicator = new ClusterCommunicationServiceAdapter();
+    }
+
+    @After
+    public void tearDown() {
+        store.deactivate();
+    }
+
+    @Test
+    public void testRelinquishAllRole() {
+        leadershipService.elect(topic(DID1), N2, N3, N1);
+        leadershipService.elect(topic(DID2), N2, N1);
+        leadershipService.elect(topic(DID3), N1, N2);
+        leadershipService.elect(OTHER_TOPIC, N2, N1);
+        store.activate();
+
+        store.relinquishAllRole(N2);
+        assertEquals("incorrect hand-offs",
+                     ImmutableMap.of(topic(DID1), N3, topic(DID2), N1),
+                     leadershipService.transfers);
+        assertFalse("node should keep its other elections", leadershipService.unregistered);
+    }
+
+    @Test
+    public void testRelinquishAllRoleSkipsStaleStandby() {
+        leadershipService.elect(topic(DID1), N2, N3, N1);
+        leadershipService.elect(topic(DID2), N2);
+        store.activate();
+
+        // N3 withdrew since the standbys were recorded
+        leadershipService.elect(topic(DID1), N2, N1);
+        store.relinquishAllRole(N2);
+        assertEquals("incorrect hand-offs", ImmutableMap.of(topic(DID1), N1), leadershipService.transfers);
+    }
+
+    @Test
+    public void testRelinquishAllRoleInParallel() {
+        leadershipService.elect(topic(DID1), N2, N3);
+        leadershipService.elect(topic(DID2), N2, N1);
+        leadershipService.elect(topic(DID3), N2, N3);
+        store.activate();
+
+        leadershipService.transferLatch = new CountDownLatch(3);
+        store.relinquishAllRole(N2);
+        assertEquals("transfers should run in parallel",
+                     ImmutableMap.of(topic(DID1), N3, topic(DID2), N1, topic(DID3), N3),
+                     leadershipService.transfers);
+    }
+
+    private static String topic(DeviceId deviceId) {
+        return "device-mastership:" + deviceId;
+    }
+
+    private static class TestLeadershipService extends LeadershipServiceAdapter
+            implements LeadershipAdminService {
+        private final Map<String, Leadership> leaderBoard = Maps.newHashMap();
+        private final Map<String, NodeId> transfers = Maps.newConcurrentMap();
+        private volatile CountDownLatch transferLatch;
+        private boolean unregistered;
+
+        void elect(String topic, NodeId leader, NodeId... standbys) {
+            List<NodeId> candidates = ImmutableList.<NodeId>builder()
+                    .add(leader).addAll(Arrays.asList(standbys)).build();
+            leaderBoard.put(topic, new Leadership(topic, new Leader(leader, 1, 0), candidates));
+        }
+
+        @Override
+        public Leadership getLeadership(String topic) {
+            return leaderBoard.get(topic);
+        }
+
+        @Override
+        public List<NodeId> getCandidates(String topic) {
+            Leadership leadership = leaderBoard.get(topic);
+            return leadership == null ? ImmutableList.of() : leadership.candidates();
+        }
+
+        @Override
+        public boolean transferLeadership(String topic, NodeId nodeId) {
+            CountDownLatch latch = transferLatch;
+            if (latch != null) {
+                // Succeeds only if all the transfers are in flight together
+                latch.countDown();
+                try {
+                    if (!latch.await(5, TimeUnit.SECONDS)) {
+                        return false;
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return false;
+                }
+            }
+            transfers.put(topic, nodeId);
+            return true;
+        }
+
+        @Override
+        public boolean promoteToTopOfCandidateList(String topic, NodeId nodeId) {
+            return false;
+        }
+
+        @Override
+        public void unregister(NodeId nodeId) {
+            unregistered = true;
+        }
+
+        @Override
+        public Map<String, Leadership> getLeaderBoard() {
+            return ImmutableMap.copyOf(leaderBoard);
+        }
+    }
+
+    private static class TestClusterService extends ClusterServiceAdapter {
+        @Override
+        public ControllerNode getLocalNode() {
+            return new DefaultControllerNode(N1, IpAddress.valueOf("127.0.0.1"));
+        }
+    }
+}
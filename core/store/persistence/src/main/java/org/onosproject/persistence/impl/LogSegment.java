@@ -0,0 +1,312 @@
+/*
+ * Copyright 2020-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.persistence.impl;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.CRC32;
+
+import static com.google.common.base.MoreObjects.toStringHelper;
+
+/**
+ * Fixed-size, memory-mapped file holding a sequence of log records.
+ * <p>
+ * Each record is laid out as {@code [int length][int crc][byte type]
+ * [int keyLength][key][value]}, where the length covers the whole record and
+ * the checksum covers everything after it. A zero length marks the end of
+ * the written part of the segment. Records are only appended; a segment is
+ * never rewritten, it is deleted once compacted.
+ * <p>
+ * Appends must be serialized by the caller; reads may run concurrently with
+ * them and with each other.
+ */
+final class LogSegment {
+
+    static final byte PUT = 1;
+    static final byte REMOVE = 2;
+
+    static final int HEADER_SIZE = 13;
+
+    private static final int LENGTH_OFFSET = 0;
+    private static final int CRC_OFFSET = 4;
+    private static final int TYPE_OFFSET = 8;
+    private static final int KEY_LENGTH_OFFSET = 9;
+
+    private final long id;
+    private final Path path;
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    private final AtomicLong liveBytes = new AtomicLong();
+
+    private int position;
+    private volatile boolean dirty;
+
+    private LogSegment(long id, Path path, FileChannel channel, MappedByteBuffer buffer) {
+        this.id = id;
+        this.path = path;
+        this.channel = channel;
+        this.buffer = buffer;
+    }
+
+    /**
+     * Opens the segment stored in the given file, creating it with the given
+     * size if it does not exist.
+     *
+     * @param id   segment identifier
+     * @param path segment file
+     * @param size size of the segment if it has to be created
+     * @return segment
+     * @throws IOException if the file cannot be opened or mapped
+     */
+    static LogSegment open(long id, Path path, int size) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                                               StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            long length = Math.max(channel.size(), size);
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, length);
+            return new LogSegment(id, path, channel, buffer);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Returns the segment identifier; identifiers grow with the age of the
+     * segments.
+     *
+     * @return segment identifier
+     */
+    long id() {
+        return id;
+    }
+
+    /**
+     * Returns the number of bytes written in the segment.
+     *
+     * @return write position
+     */
+    int position() {
+        return position;
+    }
+
+    /**
+     * Returns the number of written bytes belonging to live records.
+     *
+     * @return live bytes
+     */
+    long liveBytes() {
+        return liveBytes.get();
+    }
+
+    /**
+     * Accounts for a record of the given size becoming live or dead.
+     *
+     * @param delta size of the record; negative when the record dies
+     */
+    void addLiveBytes(long delta) {
+        liveBytes.addAndGet(delta);
+    }
+
+    /**
+     * Returns whether the segment can hold a record of the given sizes.
+     *
+     * @param keyLength   key length
+     * @param valueLength value length
+     * @return true if the record fits
+     */
+    boolean hasRoom(int keyLength, int valueLength) {
+        return (long) position + HEADER_SIZE + keyLength + valueLength <= buffer.capacity();
+    }
+
+    /**
+     * Appends a record to the segment.
+     *
+     * @param type  record type
+     * @param key   encoded key
+     * @param value encoded value; empty for removals
+     * @return offset of the record
+     */
+    int append(byte type, byte[] key, byte[] value) {
+        int length = HEADER_SIZE + key.length + value.length;
+        ByteBuffer record = ByteBuffer.allocate(length);
+        record.putInt(length)
+                .putInt(0)
+                .put(type)
+                .putInt(key.length)
+                .put(key)
+                .put(value);
+        CRC32 crc = new CRC32();
+        crc.update(record.array(), TYPE_OFFSET, length - TYPE_OFFSET);
+        record.putInt(CRC_OFFSET, (int) crc.getValue());
+
+        int offset = position;
+        ByteBuffer view = buffer.duplicate();
+        view.position(offset);
+        view.put(record.array());
+        position += length;
+        dirty = true;
+        return offset;
+    }
+
+    /**
+     * Returns the length of the record at the given offset.
+     *
+     * @param offset record offset
+     * @return record length
+     */
+    int length(int offset) {
+        return buffer.getInt(offset + LENGTH_OFFSET);
+    }
+
+    /**
+     * Returns the type of the record at the given offset.
+     *
+     * @param offset record offset
+     * @return record type
+     */
+    byte type(int offset) {
+        return buffer.get(offset + TYPE_OFFSET);
+    }
+
+    /**
+     * Reads the key of the record at the given offset.
+     *
+     * @param offset record offset
+     * @return encoded key
+     */
+    byte[] key(int offset) {
+        byte[] key = new byte[buffer.getInt(offset + KEY_LENGTH_OFFSET)];
+        ByteBuffer view = buffer.duplicate();
+        view.position(offset + HEADER_SIZE);
+        view.get(key);
+        return key;
+    }
+
+    /**
+     * Reads the value of the record at the given offset.
+     *
+     * @param offset record offset
+     * @return encoded value
+     */
+    byte[] value(int offset) {
+        int keyLength = buffer.getInt(offset + KEY_LENGTH_OFFSET);
+        byte[] value = new byte[length(offset) - HEADER_SIZE - keyLength];
+        ByteBuffer view = buffer.duplicate();
+        view.position(offset + HEADER_SIZE + keyLength);
+        view.get(value);
+        return value;
+    }
+
+    /**
+     * Returns whether a well-formed record starts at the given offset.
+     *
+     * @param offset record offset
+     * @return true if the record is complete and its checksum matches
+     */
+    boolean isValid(int offset) {
+        if (offset + HEADER_SIZE > buffer.capacity()) {
+            return false;
+        }
+        int length = length(offset);
+        if (length < HEADER_SIZE || offset + length > buffer.capacity()) {
+            return false;
+        }
+        int keyLength = buffer.getInt(offset + KEY_LENGTH_OFFSET);
+        if (keyLength < 0 || keyLength > length - HEADER_SIZE) {
+            return false;
+        }
+        byte[] bytes = new byte[length - TYPE_OFFSET];
+        ByteBuffer view = buffer.duplicate();
+        view.position(offset + TYPE_OFFSET);
+        view.get(bytes);
+        CRC32 crc = new CRC32();
+        crc.update(bytes);
+        return (int) crc.getValue() == buffer.getInt(offset + CRC_OFFSET);
+    }
+
+    /**
+     * Moves the write position after the last record found by the recovery.
+     * Whatever follows it is wiped, so that a torn record cannot be mistaken
+     * for a valid one once new records are appended.
+     *
+     * @param end end of the last valid record
+     * @return true if a corrupted tail has been wiped
+     */
+    boolean truncate(int end) {
+        position = end;
+        if (end + Integer.BYTES > buffer.capacity() || length(end) == 0) {
+            return false;
+        }
+        ByteBuffer view = buffer.duplicate();
+        view.position(end);
+        while (view.remaining() >= Long.BYTES) {
+            view.putLong(0L);
+        }
+        while (view.hasRemaining()) {
+            view.put((byte) 0);
+        }
+        dirty = true;
+        return true;
+    }
+
+    /**
+     * Flushes the appended records to disk if needed.
+     */
+    void force() {
+        if (dirty) {
+            dirty = false;
+            buffer.force();
+        }
+    }
+
+    /**
+     * Closes the segment file.
+     *
+     * @throws IOException if the file cannot be closed
+     */
+    void close() throws IOException {
+        force();
+        channel.close();
+    }
+
+    /**
+     * Closes and deletes the segment file. The mapping itself is released
+     * once the segment is garbage collected, so concurrent readers holding
+     * the segment remain safe.
+     *
+     * @throws IOException if the file cannot be deleted
+     */
+    void delete() throws IOException {
+        channel.close();
+        Files.deleteIfExists(path);
+    }
+
+    @Override
+    public String toString() {
+        return toStringHelper(this)
+                .add("id", id)
+                .add("position", position)
+                .add("liveBytes", liveBytes)
+                .toString();
+    }
+}
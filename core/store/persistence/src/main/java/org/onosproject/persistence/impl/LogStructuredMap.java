@@ -0,0 +1,551 @@
+/*
+ * Copyright 2020-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.persistence.impl;
+
+import com.google.common.collect.Iterators;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+import org.onosproject.store.service.Serializer;
+import org.slf4j.Logger;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.AbstractCollection;
+import java.util.AbstractSet;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.BiFunction;
+
+import static com.google.common.base.MoreObjects.toStringHelper;
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.base.Preconditions.checkState;
+import static org.slf4j.LoggerFactory.getLogger;
+
+/**
+ * A map implementation that stores its values in an append-only log of
+ * memory-mapped segment files.
+ * <p>
+ * Only the keys and the location of their last record are kept on heap; the
+ * values live in the mapped segments and are decoded on access. Updates are
+ * appended to the active segment without waiting for the disk, and
+ * {@link #commit()} forces the segments written since the previous call,
+ * so that a single flush covers all the updates of a commit period. On
+ * opening, the segments are replayed in order and the replay stops at the
+ * first torn or corrupted record.
+ * <p>
+ * Overwritten and removed entries leave dead records behind. Once they make
+ * up most of the log, {@link #compact()} copies the live records of the
+ * oldest segment to the active one and deletes it. Because the oldest segment
+ * has no predecessor, its removal records can be dropped as well.
+ * <p>
+ * Reads are lock-free; updates are serialized.
+ */
+public class LogStructuredMap<K, V> implements Map<K, V> {
+
+    /**
+     * Default size of the segment files.
+     */
+    public static final int DEFAULT_SEGMENT_SIZE = 64 * 1024 * 1024;
+
+    // Fraction of dead bytes in the sealed segments triggering the compaction
+    private static final double COMPACTION_THRESHOLD = 0.5;
+
+    private static final String SEGMENT_SUFFIX = ".log";
+    private static final byte[] EMPTY = new byte[0];
+
+    private final Logger log = getLogger(getClass());
+
+    private final Serializer serializer;
+    private final Path directory;
+    private final int segmentSize;
+
+    private final ConcurrentMap<K, Location> index = Maps.newConcurrentMap();
+    private final NavigableMap<Long, LogSegment> segments = new ConcurrentSkipListMap<>();
+    private final Object writeLock = new Object();
+
+    private LogSegment active;
+
+    /**
+     * Opens the map stored in the given directory, recovering its content.
+     *
+     * @param serializer  key and value serializer
+     * @param directory   directory holding the segment files
+     * @param segmentSize size of the segment files
+     */
+    public LogStructuredMap(Serializer serializer, Path directory, int segmentSize) {
+        checkArgument(segmentSize > LogSegment.HEADER_SIZE, "Segment size is too small");
+        this.serializer = checkNotNull(serializer);
+        this.directory = checkNotNull(directory);
+        this.segmentSize = segmentSize;
+        try {
+            Files.createDirectories(directory);
+            recover();
+            if (active == null) {
+                active = newSegment(0, 0, 0);
+            }
+        } catch (IOException e) {
+            close();
+            throw new PersistenceException("Unable to open " + directory + ": " + e.getMessage());
+        }
+    }
+
+    private void recover() throws IOException {
+        List<Path> files = Lists.newArrayList();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, "*" + SEGMENT_SUFFIX)) {
+            stream.forEach(files::add);
+        }
+        NavigableMap<Long, Path> ordered = Maps.newTreeMap();
+        for (Path file : files) {
+            String name = file.getFileName().toString();
+            try {
+                ordered.put(Long.parseLong(name.substring(0, name.length() - SEGMENT_SUFFIX.length())), file);
+            } catch (NumberFormatException e) {
+                log.warn("Ignoring unexpected file {}", file);
+            }
+        }
+        for (Map.Entry<Long, Path> entry : ordered.entrySet()) {
+            LogSegment segment = LogSegment.open(entry.getKey(), entry.getValue(), segmentSize);
+            segments.put(segment.id(), segment);
+            active = segment;
+            replay(segment);
+        }
+        log.debug("Recovered {} entries from {} segments in {}", index.size(), segments.size(), directory);
+    }
+
+    private void replay(LogSegment segment) {
+        int offset = 0;
+        while (segment.isValid(offset)) {
+            int length = segment.length(offset);
+            K key = serializer.decode(segment.key(offset));
+            Location previous;
+            if (segment.type(offset) == LogSegment.PUT) {
+                previous = index.put(key, new Location(segment, offset, length));
+                segment.addLiveBytes(length);
+            } else {
+                previous = index.remove(key);
+            }
+            if (previous != null) {
+                previous.segment.addLiveBytes(-previous.length);
+            }
+            offset += length;
+        }
+        if (segment.truncate(offset)) {
+            log.warn("Discarded the corrupted tail of segment {} in {}", segment.id(), directory);
+        }
+    }
+
+    private LogSegment newSegment(long id, int keyLength, int valueLength) throws IOException {
+        int size = Math.max(segmentSize, LogSegment.HEADER_SIZE + keyLength + valueLength);
+        LogSegment segment = LogSegment.open(id, directory.resolve(String.format("%020d%s", id, SEGMENT_SUFFIX)),
+                                             size);
+        segments.put(id, segment);
+        return segment;
+    }
+
+    // Must be called with the write lock held
+    private Location append(byte type, byte[] key, byte[] value) {
+        try {
+            if (!active.hasRoom(key.length, value.length)) {
+                LogSegment sealed = active;
+                active = newSegment(sealed.id() + 1, key.length, value.length);
+            }
+        } catch (IOException e) {
+            throw new PersistenceException("Unable to create a segment in " + directory + ": " + e.getMessage());
+        }
+        int offset = active.append(type, key, value);
+        return new Location(active, offset, active.length(offset));
+    }
+
+    // Must be called with the write lock held
+    private void write(K key, byte[] keyBytes, byte[] valueBytes) {
+        Location location = append(LogSegment.PUT, keyBytes, valueBytes);
+        location.segment.addLiveBytes(location.length);
+        Location previous = index.put(key, location);
+        if (previous != null) {
+            previous.segment.addLiveBytes(-previous.length);
+        }
+    }
+
+    // Must be called with the write lock held
+    private Location delete(Object key) {
+        Location previous = index.remove(key);
+        if (previous != null) {
+            append(LogSegment.REMOVE, serializer.encode(key), EMPTY);
+            previous.segment.addLiveBytes(-previous.length);
+        }
+        return previous;
+    }
+
+    private V read(Location location) {
+        return location == null ? null : serializer.decode(location.segment.value(location.offset));
+    }
+
+    @Override
+    public int size() {
+        return index.size();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return index.isEmpty();
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        checkNotNull(key, "Key cannot be null.");
+        return index.containsKey(key);
+    }
+
+    @Override
+    public boolean containsValue(Object value) {
+        checkNotNull(value, "Value cannot be null.");
+        for (Location location : index.values()) {
+            if (value.equals(read(location))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public V get(Object key) {
+        checkNotNull(key, "Key cannot be null.");
+        return read(index.get(key));
+    }
+
+    @Override
+    public V put(K key, V value) {
+        checkNotNull(key, "Key cannot be null.");
+        checkNotNull(value, "Value cannot be null.");
+        byte[] keyBytes = serializer.encode(key);
+        byte[] valueBytes = serializer.encode(value);
+        synchronized (writeLock) {
+            V previous = read(index.get(key));
+            write(key, keyBytes, valueBytes);
+            return previous;
+        }
+    }
+
+    @Override
+    public V remove(Object key) {
+        checkNotNull(key, "Key cannot be null.");
+        synchronized (writeLock) {
+            Location location = index.get(key);
+            V previous = read(location);
+            delete(key);
+            return previous;
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The computation runs atomically with respect to the other updates. When
+     * the function returns the very instance it was given, nothing is written.
+     */
+    @Override
+    public V compute(K key, BiFunction<? super K, ? super V, ? extends V> remappingFunction) {
+        checkNotNull(key, "Key cannot be null.");
+        checkNotNull(remappingFunction);
+        synchronized (writeLock) {
+            V existing = read(index.get(key));
+            V computed = remappingFunction.apply(key, existing);
+            if (computed == null) {
+                delete(key);
+            } else if (computed != existing) {
+                write(key, serializer.encode(key), serializer.encode(computed));
+            }
+            return computed;
+        }
+    }
+
+    @Override
+    public void putAll(Map<? extends K, ? extends V> m) {
+        checkNotNull(m, "The passed in map cannot be null.");
+        m.forEach(this::put);
+    }
+
+    @Override
+    public void clear() {
+        synchronized (writeLock) {
+            index.clear();
+            long nextId = active.id() + 1;
+            for (Iterator<LogSegment> it = segments.values().iterator(); it.hasNext();) {
+                deleteSegment(it.next());
+                it.remove();
+            }
+            try {
+                active = newSegment(nextId, 0, 0);
+            } catch (IOException e) {
+                throw new PersistenceException("Unable to create a segment in " + directory + ": " + e.getMessage());
+            }
+        }
+    }
+
+    @Override
+    public Set<K> keySet() {
+        return Sets.newHashSet(index.keySet());
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The values are decoded as the view is iterated.
+     */
+    @Override
+    public Collection<V> values() {
+        return new AbstractCollection<V>() {
+            @Override
+            public Iterator<V> iterator() {
+                return Iterators.transform(new EntryIterator(), Entry::getValue);
+            }
+
+            @Override
+            public int size() {
+                return index.size();
+            }
+        };
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The values are decoded as the view is iterated; the entries are
+     * snapshots of the mappings at that time.
+     */
+    @Override
+    public Set<Entry<K, V>> entrySet() {
+        return new AbstractSet<Entry<K, V>>() {
+            @Override
+            public Iterator<Entry<K, V>> iterator() {
+                return new EntryIterator();
+            }
+
+            @Override
+            public int size() {
+                return index.size();
+            }
+        };
+    }
+
+    /**
+     * Forces the records appended since the previous commit to disk.
+     */
+    public void commit() {
+        segments.values().forEach(LogSegment::force);
+    }
+
+    /**
+     * Returns the fraction of the written bytes held by dead records in the
+     * sealed segments.
+     *
+     * @return garbage ratio, between 0 and 1
+     */
+    public double garbageRatio() {
+        long written = 0;
+        long live = 0;
+        synchronized (writeLock) {
+            for (LogSegment segment : segments.headMap(active.id()).values()) {
+                written += segment.position();
+                live += segment.liveBytes();
+            }
+        }
+        return written == 0 ? 0 : (double) (written - live) / written;
+    }
+
+    /**
+     * Compacts the oldest segments as long as dead records make up most of
+     * the sealed segments.
+     *
+     * @return number of segments reclaimed
+     */
+    public int compact() {
+        int reclaimed = 0;
+        while (garbageRatio() >= COMPACTION_THRESHOLD) {
+            LogSegment oldest = segments.firstEntry().getValue();
+            relocate(oldest);
+            synchronized (writeLock) {
+                // Relocated records must be durable before their source disappears;
+                // they may span several segments if the active one rolled over
+                commit();
+                segments.remove(oldest.id());
+                deleteSegment(oldest);
+            }
+            reclaimed++;
+        }
+        if (reclaimed > 0) {
+            log.debug("Reclaimed {} segments in {}", reclaimed, directory);
+        }
+        return reclaimed;
+    }
+
+    // Copies the live records of a sealed segment to the active one
+    private void relocate(LogSegment segment) {
+        int offset = 0;
+        int end = segment.position();
+        while (offset < end) {
+            int length = segment.length(offset);
+            if (segment.type(offset) == LogSegment.PUT) {
+                byte[] keyBytes = segment.key(offset);
+                K key = serializer.decode(keyBytes);
+                Location location = new Location(segment, offset, length);
+                if (location.equals(index.get(key))) {
+                    synchronized (writeLock) {
+                        // The entry may have been updated in the meantime
+                        if (location.equals(index.get(key))) {
+                            write(key, keyBytes, segment.value(offset));
+                        }
+                    }
+                }
+            }
+            offset += length;
+        }
+    }
+
+    private void deleteSegment(LogSegment segment) {
+        try {
+            segment.delete();
+        } catch (IOException e) {
+            log.warn("Unable to delete segment {} in {}", segment.id(), directory, e);
+        }
+    }
+
+    /**
+     * Commits the pending records and closes the segment files. The map must
+     * not be used afterwards.
+     */
+    public void close() {
+        synchronized (writeLock) {
+            for (LogSegment segment : segments.values()) {
+                try {
+                    segment.close();
+                } catch (IOException e) {
+                    log.warn("Unable to close segment {} in {}", segment.id(), directory, e);
+                }
+            }
+        }
+    }
+
+    /**
+     * Closes the map and deletes its files.
+     */
+    public void destroy() {
+        synchronized (writeLock) {
+            segments.values().forEach(this::deleteSegment);
+            segments.clear();
+            index.clear();
+            try {
+                Files.deleteIfExists(directory);
+            } catch (IOException e) {
+                log.warn("Unable to delete {}", directory, e);
+            }
+        }
+    }
+
+    @Override
+    public boolean equals(Object map) {
+        if (!(map instanceof Map)) {
+            return false;
+        }
+        Map<?, ?> asMap = (Map<?, ?>) map;
+        if (size() != asMap.size()) {
+            return false;
+        }
+        for (Entry<K, V> entry : entrySet()) {
+            if (!Objects.equals(entry.getValue(), asMap.get(entry.getKey()))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        return entrySet().hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return toStringHelper(this)
+                .add("directory", directory)
+                .add("size", size())
+                .add("segments", segments.size())
+                .toString();
+    }
+
+    // Iterates the index and decodes the value of each entry on the fly
+    private final class EntryIterator implements Iterator<Entry<K, V>> {
+        private final Iterator<Entry<K, Location>> locations = index.entrySet().iterator();
+        private K last;
+
+        @Override
+        public boolean hasNext() {
+            return locations.hasNext();
+        }
+
+        @Override
+        public Entry<K, V> next() {
+            Entry<K, Location> next = locations.next();
+            last = next.getKey();
+            return Maps.immutableEntry(last, read(next.getValue()));
+        }
+
+        @Override
+        public void remove() {
+            checkState(last != null, "No entry to remove");
+            LogStructuredMap.this.remove(last);
+            last = null;
+        }
+    }
+
+    // Position of the last record of a key
+    private static final class Location {
+        private final LogSegment segment;
+        private final int offset;
+        private final int length;
+
+        private Location(LogSegment segment, int offset, int length) {
+            this.segment = segment;
+            this.offset = offset;
+            this.length = length;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (!(other instanceof Location)) {
+                return false;
+            }
+            Location that = (Location) other;
+            return segment == that.segment && offset == that.offset;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(segment.id(), offset);
+        }
+    }
+}
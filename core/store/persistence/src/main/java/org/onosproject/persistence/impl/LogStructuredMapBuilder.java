@@ -0,0 +1,82 @@
+/*
+ * Copyright 2020-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.persistence.impl;
+
+import org.onosproject.persistence.PersistentMapBuilder;
+import org.onosproject.store.service.Serializer;
+
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.ConcurrentMap;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Builder for persistent maps stored in log-structured segment files via the
+ * persistence service.
+ */
+public class LogStructuredMapBuilder<K, V> implements PersistentMapBuilder<K, V> {
+
+    private final Path root;
+
+    private final ConcurrentMap<String, LogStructuredMap<?, ?>> openMaps;
+
+    private String name = null;
+
+    private Serializer serializer = null;
+
+    /**
+     * Creates a new builder.
+     *
+     * @param root     directory holding the directories of the maps
+     * @param openMaps maps opened so far, indexed by name; maps opened twice
+     *                 are shared
+     */
+    public LogStructuredMapBuilder(Path root, ConcurrentMap<String, LogStructuredMap<?, ?>> openMaps) {
+        this.root = checkNotNull(root, "The root directory cannot be null.");
+        this.openMaps = checkNotNull(openMaps);
+    }
+
+    @Override
+    public PersistentMapBuilder<K, V> withName(String name) {
+        this.name = checkNotNull(name);
+        return this;
+    }
+
+    @Override
+    public PersistentMapBuilder<K, V> withSerializer(Serializer serializer) {
+        checkArgument(this.serializer == null);
+        checkNotNull(serializer);
+        this.serializer = serializer;
+        return this;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Map<K, V> build() {
+        checkNotNull(name, "The name must be assigned.");
+        checkNotNull(serializer, "The key serializer must be assigned.");
+
+        return (Map<K, V>) openMaps.computeIfAbsent(name, n -> new LogStructuredMap<K, V>(
+                serializer, root.resolve(directoryName(n)), LogStructuredMap.DEFAULT_SEGMENT_SIZE));
+    }
+
+    // Map names are free-form; keep them readable but safe as file names
+    private static String directoryName(String name) {
+        return name.replaceAll("[^A-Za-z0-9._-]", "_");
+    }
+}
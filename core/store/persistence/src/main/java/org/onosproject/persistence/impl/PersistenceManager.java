@@ -16,25 +16,40 @@
 
 package org.onosproject.persistence.impl;
 
+import com.google.common.collect.Maps;
 import org.mapdb.DB;
 import org.mapdb.DBMaker;
+import org.onosproject.cfg.ComponentConfigService;
 import org.onosproject.persistence.PersistenceService;
 import org.onosproject.persistence.PersistentMapBuilder;
 import org.onosproject.persistence.PersistentSetBuilder;
+import org.osgi.service.component.ComponentContext;
 import org.osgi.service.component.annotations.Activate;
 import org.osgi.service.component.annotations.Component;
 import org.osgi.service.component.annotations.Deactivate;
+import org.osgi.service.component.annotations.Modified;
+import org.osgi.service.component.annotations.Reference;
+import org.osgi.service.component.annotations.ReferenceCardinality;
+import org.osgi.service.component.annotations.ReferencePolicy;
 import org.slf4j.Logger;
 
 import java.io.File;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Dictionary;
 import java.util.Map;
+import java.util.Properties;
 import java.util.Set;
 import java.util.Timer;
 import java.util.TimerTask;
+import java.util.concurrent.ConcurrentMap;
 
+import static com.google.common.base.Strings.isNullOrEmpty;
+import static org.onlab.util.Tools.get;
+import static org.onosproject.persistence.impl.OsgiPropertyConstants.LOG_STRUCTURED_MAPS;
+import static org.onosproject.persistence.impl.OsgiPropertyConstants.LOG_STRUCTURED_MAPS_DEFAULT;
 import static org.onosproject.security.AppGuard.checkPermission;
 import static org.onosproject.security.AppPermission.Type.PERSISTENCE_WRITE;
 import static org.slf4j.LoggerFactory.getLogger;
@@ -42,8 +57,16 @@ import static org.slf4j.LoggerFactory.getLogger;
 /**
  * Service that maintains local disk backed maps and sets.
  * This implementation automatically deletes empty structures on shutdown.
+ * Maps are stored in log-structured segment files unless configured to use
+ * the local database, like sets.
  */
-@Component(immediate = true, service = PersistenceService.class)
+@Component(
+        immediate = true,
+        service = PersistenceService.class,
+        property = {
+                LOG_STRUCTURED_MAPS + ":Boolean=" + LOG_STRUCTURED_MAPS_DEFAULT
+        }
+)
 public class PersistenceManager implements PersistenceService {
 
     private static final String DATABASE_ROOT =
@@ -51,21 +74,64 @@ public class PersistenceManager implements PersistenceService {
 
     private static final String DATABASE_PATH = "cache";
 
+    private static final String MAPS_PATH = "maps";
+
     static final String MAP_PREFIX = "map:";
     static final String SET_PREFIX = "set:";
 
     private final Logger log = getLogger(getClass());
 
+    // Optional: the configuration service depends on the storage service,
+    // which depends on this service
+    @Reference(cardinality = ReferenceCardinality.OPTIONAL,
+            bind = "bindComponentConfigService",
+            unbind = "unbindComponentConfigService",
+            policy = ReferencePolicy.DYNAMIC)
+    protected volatile ComponentConfigService cfgService;
+
+    /**
+     * Store the persistent maps in log-structured segment files instead of the
+     * local database; the contents of the local database are not migrated.
+     */
+    private volatile boolean logStructuredMaps = LOG_STRUCTURED_MAPS_DEFAULT;
+
     private DB localDB = null;
 
+    private final ConcurrentMap<String, LogStructuredMap<?, ?>> logStructuredMapsByName = Maps.newConcurrentMap();
+
     private static final int FLUSH_FREQUENCY_MILLIS = 3000;
 
     private Timer timer;
 
     private final CommitTask commitTask = new CommitTask();
 
+    /**
+     * Hook for wiring optional reference to the configuration service.
+     *
+     * @param service service being bound
+     */
+    protected void bindComponentConfigService(ComponentConfigService service) {
+        if (cfgService == null) {
+            cfgService = service;
+            service.registerProperties(getClass());
+        }
+    }
+
+    /**
+     * Hook for unwiring optional reference to the configuration service.
+     *
+     * @param service service being withdrawn
+     */
+    protected void unbindComponentConfigService(ComponentConfigService service) {
+        if (cfgService == service) {
+            service.unregisterProperties(getClass(), false);
+            cfgService = null;
+        }
+    }
+
     @Activate
-    public void activate() {
+    public void activate(ComponentContext context) {
+        modified(context);
         timer = new Timer();
 
         File dbFolderPath = new File(DATABASE_ROOT);
@@ -101,6 +167,14 @@ public class PersistenceManager implements PersistenceService {
     @Deactivate
     public void deactivate() {
         timer.cancel();
+        logStructuredMapsByName.values().forEach(map -> {
+            if (map.isEmpty()) {
+                map.destroy();
+            } else {
+                map.close();
+            }
+        });
+        logStructuredMapsByName.clear();
         for (Map.Entry<String, Object> entry : localDB.getAll().entrySet()) {
             String key = entry.getKey();
             Object value = entry.getValue();
@@ -125,9 +199,24 @@ public class PersistenceManager implements PersistenceService {
         log.info("Stopped");
     }
 
+    @Modified
+    public void modified(ComponentContext context) {
+        Dictionary<?, ?> properties = context != null ? context.getProperties() : new Properties();
+        String s = get(properties, LOG_STRUCTURED_MAPS);
+        logStructuredMaps = isNullOrEmpty(s) ? LOG_STRUCTURED_MAPS_DEFAULT : Boolean.parseBoolean(s.trim());
+        log.info("Settings: logStructuredMaps={}", logStructuredMaps);
+        if (logStructuredMaps) {
+            log.warn("Persistent maps are stored in log-structured files; "
+                             + "the maps held in the local database are not migrated");
+        }
+    }
+
     @Override
     public <K, V> PersistentMapBuilder<K, V> persistentMapBuilder() {
         checkPermission(PERSISTENCE_WRITE);
+        if (logStructuredMaps) {
+            return new LogStructuredMapBuilder<>(Paths.get(DATABASE_ROOT, MAPS_PATH), logStructuredMapsByName);
+        }
         return new DefaultPersistentMapBuilder<>(localDB);
     }
 
@@ -142,6 +231,15 @@ public class PersistenceManager implements PersistenceService {
         @Override
         public void run() {
             localDB.commit();
+            // A failure must not kill the timer, which also commits the local database
+            logStructuredMapsByName.forEach((name, map) -> {
+                try {
+                    map.commit();
+                    map.compact();
+                } catch (PersistenceException e) {
+                    log.warn("Unable to commit persistent map {}", name, e);
+                }
+            });
         }
     }
 }
\ No newline at end of file
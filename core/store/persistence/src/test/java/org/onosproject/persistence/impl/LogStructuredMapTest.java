@@ -0,0 +1,235 @@
+/*
+ * Copyright 2020-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.persistence.impl;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.primitives.Ints;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.onosproject.store.service.Serializer;
+
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Test suite for the log-structured map.
+ */
+public class LogStructuredMapTest {
+
+    private static final int SEGMENT_SIZE = 1024;
+
+    // Records of the integer serializer: 13 bytes of header, 4 of key, 4 of value
+    private static final int RECORD_SIZE = 21;
+
+    private static final Serializer SERIALIZER = new Serializer() {
+        @Override
+        public <T> byte[] encode(T object) {
+            return Ints.toByteArray((Integer) object);
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <T> T decode(byte[] bytes) {
+            return (T) Integer.valueOf(Ints.fromByteArray(bytes));
+        }
+
+        @Override
+        public <T> T copy(T object) {
+            return object;
+        }
+    };
+
+    @Rule
+    public TemporaryFolder tmpFolder = new TemporaryFolder();
+
+    private Path directory;
+    private LogStructuredMap<Integer, Integer> map;
+
+    @Before
+    public void setUp() throws Exception {
+        directory = tmpFolder.newFolder().toPath().resolve("map");
+        map = open();
+    }
+
+    @After
+    public void tearDown() {
+        map.close();
+    }
+
+    private LogStructuredMap<Integer, Integer> open() {
+        return new LogStructuredMap<>(SERIALIZER, directory, SEGMENT_SIZE);
+    }
+
+    private LogStructuredMap<Integer, Integer> reopen() {
+        map.close();
+        map = open();
+        return map;
+    }
+
+    private long segmentCount() throws Exception {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.count();
+        }
+    }
+
+    @Test
+    public void testBasics() {
+        assertTrue(map.isEmpty());
+        assertNull(map.put(1, 10));
+        assertEquals(Integer.valueOf(10), map.put(1, 11));
+        assertNull(map.put(2, 20));
+        assertEquals(2, map.size());
+        assertEquals(Integer.valueOf(11), map.get(1));
+        assertTrue(map.containsKey(2));
+        assertTrue(map.containsValue(20));
+        assertFalse(map.containsValue(10));
+
+        assertEquals(Integer.valueOf(11), map.remove(1));
+        assertNull(map.remove(1));
+        assertNull(map.get(1));
+        assertEquals(1, map.size());
+
+        map.clear();
+        assertTrue(map.isEmpty());
+        assertNull(map.get(2));
+    }
+
+    @Test
+    public void testViews() {
+        map.put(1, 10);
+        map.put(2, 20);
+        Set<Map.Entry<Integer, Integer>> entries = map.entrySet();
+        Collection<Integer> values = map.values();
+
+        // The views follow the map
+        map.put(3, 30);
+        assertEquals(ImmutableMap.of(1, 10, 2, 20, 3, 30),
+                     entries.stream().collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue)));
+        assertEquals(ImmutableSet.of(10, 20, 30), ImmutableSet.copyOf(values));
+        assertEquals(3, entries.size());
+        assertEquals(3, values.size());
+
+        for (Iterator<Map.Entry<Integer, Integer>> it = entries.iterator(); it.hasNext();) {
+            if (it.next().getKey() == 2) {
+                it.remove();
+            }
+        }
+        assertFalse(map.containsKey(2));
+        assertEquals(ImmutableSet.of(10, 30), ImmutableSet.copyOf(values));
+    }
+
+    @Test
+    public void testCompute() {
+        map.put(1, 10);
+        assertEquals(Integer.valueOf(11), map.compute(1, (k, v) -> v + 1));
+        assertEquals(Integer.valueOf(5), map.compute(2, (k, v) -> v == null ? 5 : v));
+        assertNull(map.compute(1, (k, v) -> null));
+        assertFalse(map.containsKey(1));
+
+        // Returning the given instance leaves the log untouched
+        Integer current = map.get(2);
+        assertSame(current, map.compute(2, (k, v) -> {
+            assertEquals(current, v);
+            return v;
+        }));
+    }
+
+    @Test
+    public void testRecovery() {
+        for (int i = 0; i < 200; i++) {
+            map.put(i, i);
+        }
+        for (int i = 0; i < 200; i += 2) {
+            map.remove(i);
+        }
+        map.put(1, -1);
+        map.commit();
+
+        reopen();
+        assertEquals(100, map.size());
+        assertEquals(Integer.valueOf(-1), map.get(1));
+        assertNull(map.get(0));
+        assertEquals(Integer.valueOf(199), map.get(199));
+    }
+
+    @Test
+    public void testTornTail() throws Exception {
+        map.put(1, 1);
+        map.put(2, 2);
+        map.close();
+
+        // Corrupt the value of the second record as if its write had been torn
+        Path segment;
+        try (Stream<Path> files = Files.list(directory)) {
+            segment = files.findFirst().get();
+        }
+        try (RandomAccessFile file = new RandomAccessFile(segment.toFile(), "rw")) {
+            file.seek(2 * RECORD_SIZE - 1);
+            file.write(0x55);
+        }
+
+        map = open();
+        assertEquals(1, map.size());
+        assertEquals(Integer.valueOf(1), map.get(1));
+
+        // New records replace the discarded tail
+        map.put(3, 3);
+        reopen();
+        assertEquals(2, map.size());
+        assertEquals(Integer.valueOf(3), map.get(3));
+    }
+
+    @Test
+    public void testCompaction() throws Exception {
+        // Overwrite a few keys until many segments are filled with dead records
+        for (int i = 0; i < 20 * SEGMENT_SIZE / RECORD_SIZE; i++) {
+            map.put(i % 10, i);
+        }
+        map.remove(0);
+        long segments = segmentCount();
+        assertTrue(segments > 10);
+        assertTrue(map.garbageRatio() > 0.9);
+
+        assertTrue(map.compact() > 0);
+        assertTrue(segmentCount() < segments);
+        assertTrue(map.garbageRatio() < 0.5);
+
+        int last = 20 * SEGMENT_SIZE / RECORD_SIZE - 1;
+        reopen();
+        assertEquals(9, map.size());
+        assertNull(map.get(0));
+        for (int i = 1; i < 10; i++) {
+            assertEquals(Integer.valueOf(last - (last - i) % 10), map.get(i));
+        }
+    }
+}
@@ -23,6 +23,8 @@ import java.util.concurrent.TimeUnit;
 import java.util.function.BiFunction;
 import java.util.function.Supplier;
 
+import com.google.common.collect.ConcurrentHashMultiset;
+import com.google.common.collect.Multiset;
 import org.onlab.util.KryoNamespace;
 import org.onosproject.cluster.NodeId;
 import org.onosproject.persistence.PersistenceService;
@@ -59,6 +61,7 @@ public class EventuallyConsistentMapBuilderImpl<K, V>
     private final PersistenceService persistenceService;
     private Supplier<List<NodeId>> peersSupplier;
     private Supplier<List<NodeId>> bootstrapPeersSupplier;
+    private final Multiset<String> pendingBootstraps;
 
     /**
      * Creates a new eventually consistent map builder.
@@ -74,12 +77,34 @@ public class EventuallyConsistentMapBuilderImpl<K, V>
             PersistenceService persistenceService,
             Supplier<List<NodeId>> peersSupplier,
             Supplier<List<NodeId>> bootstrapPeersSupplier
+    ) {
+        this(localNodeId, clusterCommunicator, persistenceService, peersSupplier, bootstrapPeersSupplier,
+             ConcurrentHashMultiset.create());
+    }
+
+    /**
+     * Creates a new eventually consistent map builder.
+     * @param localNodeId               local node id
+     * @param clusterCommunicator       cluster communication service
+     * @param persistenceService        persistence service
+     * @param peersSupplier             supplier for peers
+     * @param bootstrapPeersSupplier    supplier for peers for bootstrap
+     * @param pendingBootstraps         names of the maps whose bootstrap is in progress
+     */
+    public EventuallyConsistentMapBuilderImpl(
+            NodeId localNodeId,
+            ClusterCommunicationService clusterCommunicator,
+            PersistenceService persistenceService,
+            Supplier<List<NodeId>> peersSupplier,
+            Supplier<List<NodeId>> bootstrapPeersSupplier,
+            Multiset<String> pendingBootstraps
     ) {
         this.localNodeId = localNodeId;
         this.persistenceService = persistenceService;
         this.clusterCommunicator = checkNotNull(clusterCommunicator);
         this.peersSupplier = peersSupplier;
         this.bootstrapPeersSupplier = bootstrapPeersSupplier;
+        this.pendingBootstraps = checkNotNull(pendingBootstraps);
     }
 
     @Override
@@ -188,7 +213,8 @@ public class EventuallyConsistentMapBuilderImpl<K, V>
                 persistent,
                 persistenceService,
                 peersSupplier,
-                bootstrapPeersSupplier
+                bootstrapPeersSupplier,
+                pendingBootstraps
         );
     }
 }
@@ -19,6 +19,7 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
@@ -29,6 +30,7 @@ import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
@@ -45,6 +47,7 @@ import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
+import com.google.common.collect.Multiset;
 import com.google.common.collect.Sets;
 import org.apache.commons.lang3.exception.ExceptionUtils;
 import org.apache.commons.lang3.tuple.Pair;
@@ -56,6 +59,7 @@ import org.onosproject.persistence.PersistenceService;
 import org.onosproject.store.LogicalTimestamp;
 import org.onosproject.store.Timestamp;
 import org.onosproject.store.cluster.messaging.ClusterCommunicationService;
+import org.onosproject.store.cluster.messaging.MessagePriority;
 import org.onosproject.store.cluster.messaging.MessageSubject;
 import org.onosproject.store.serializers.KryoNamespaces;
 import org.onosproject.store.service.DistributedPrimitive;
@@ -89,6 +93,8 @@ public class EventuallyConsistentMapImpl<K, V>
     private static final int WINDOW_SIZE = 5;
     private static final int HIGH_LOAD_THRESHOLD = 2;
     private static final int LOAD_WINDOW = 2;
+    // Maximum number of snapshot chunks sent to a bootstrapping peer and not yet applied
+    private static final int BOOTSTRAP_WINDOW = 4;
 
     private final Map<K, MapValue<V>> items;
     private final ClusterCommunicationService clusterCommunicator;
@@ -116,6 +122,7 @@ public class EventuallyConsistentMapImpl<K, V>
     private final boolean persistent;
     private final Supplier<List<NodeId>> peersSupplier;
     private final Supplier<List<NodeId>> bootstrapPeersSupplier;
+    private final Multiset<String> pendingBootstraps;
     private final NodeId localNodeId;
     private long previousTombstonePurgeTime;
     private volatile boolean destroyed = false;
@@ -146,6 +153,7 @@ public class EventuallyConsistentMapImpl<K, V>
      * @param persistenceService     persistence service
      * @param peersSupplier          supplier for peers
      * @param bootstrapPeersSupplier supplier for bootstrap peers
+     * @param pendingBootstraps      names of the maps whose bootstrap is in progress
      */
     //CHECKSTYLE:OFF
     EventuallyConsistentMapImpl(
@@ -165,7 +173,8 @@ public class EventuallyConsistentMapImpl<K, V>
             boolean persistent,
             PersistenceService persistenceService,
             Supplier<List<NodeId>> peersSupplier,
-            Supplier<List<NodeId>> bootstrapPeersSupplier
+            Supplier<List<NodeId>> bootstrapPeersSupplier,
+            Multiset<String> pendingBootstraps
     ) {
         //CHECKSTYLE:ON
         this.localNodeId = localNodeId;
@@ -191,6 +200,7 @@ public class EventuallyConsistentMapImpl<K, V>
 
         this.peersSupplier = peersSupplier;
         this.bootstrapPeersSupplier = bootstrapPeersSupplier;
+        this.pendingBootstraps = pendingBootstraps;
 
         if (peerUpdateFunction != null) {
             this.peerUpdateFunction = peerUpdateFunction.andThen(peers -> peersSupplier.get()
@@ -244,7 +254,7 @@ public class EventuallyConsistentMapImpl<K, V>
                 serializer::encode
         );
 
-        initializeMessageSubject = new MessageSubject("ecm-" + mapName + "-initialize");
+        initializeMessageSubject = new MessageSubject("ecm-" + mapName + "-initialize", MessagePriority.BULK, true);
         clusterCommunicator.addSubscriber(
                 initializeMessageSubject,
                 serializer::decode,
@@ -264,7 +274,8 @@ public class EventuallyConsistentMapImpl<K, V>
                 this.executor
         );
 
-        antiEntropyAdvertisementSubject = new MessageSubject("ecm-" + mapName + "-anti-entropy");
+        antiEntropyAdvertisementSubject = new MessageSubject("ecm-" + mapName + "-anti-entropy",
+                                                             MessagePriority.BULK, true);
         clusterCommunicator.addSubscriber(
                 antiEntropyAdvertisementSubject,
                 serializer::decode,
@@ -769,9 +780,16 @@ public class EventuallyConsistentMapImpl<K, V>
         if (activePeers.isEmpty()) {
             return;
         }
+        pendingBootstraps.add(mapName);
+        long startTime = System.currentTimeMillis();
+        CompletableFuture<Void> future = requestBootstrapFromPeers(activePeers)
+                .whenComplete((result, error) -> {
+                    pendingBootstraps.remove(mapName);
+                    log.debug("Bootstrap of ec map {} {} after {} ms", mapName,
+                              error == null ? "completed" : "failed", System.currentTimeMillis() - startTime);
+                });
         try {
-            requestBootstrapFromPeers(activePeers)
-                    .get(DistributedPrimitive.DEFAULT_OPERATION_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+            future.get(DistributedPrimitive.DEFAULT_OPERATION_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
         } catch (ExecutionException | InterruptedException | TimeoutException e) {
             log.debug("Failed to bootstrap ec map {}: {}", mapName, ExceptionUtils.getStackTrace(e));
         }
@@ -846,19 +864,89 @@ public class EventuallyConsistentMapImpl<K, V>
     /**
      * Handles a bootstrap request from a peer.
      * <p>
-     * When handling a bootstrap request from a peer, the node sends batches of entries back to the peer and
-     * completes the bootstrap request once all batches have been received and processed.
+     * When handling a bootstrap request from a peer, the node streams the live entries to the peer in chunks and
+     * completes the bootstrap request once all chunks have been received and processed. The entries are read
+     * lazily and only a few chunks are in flight at any time, so that neither side has to hold the
+     * whole snapshot and the peer applies the chunks at its own pace.
      *
      * @param peer the peer that sent the bootstrap request
      * @return a future to be completed once updates have been sent to the peer
      */
     private CompletableFuture<Void> handleBootstrap(NodeId peer) {
         log.trace("Received bootstrap request from {} for {}", peer, bootstrapMessageSubject);
+        SnapshotStream stream = new SnapshotStream(peer);
+        // Do not iterate the map on the messaging thread
+        backgroundExecutor.execute(stream::fill);
+        return stream.future;
+    }
+
+    /**
+     * Snapshot of the map being streamed to a bootstrapping peer.
+     */
+    private final class SnapshotStream {
+        private final NodeId peer;
+        private final Iterator<Map.Entry<K, MapValue<V>>> entries = items.entrySet().iterator();
+        private final CompletableFuture<Void> future = new CompletableFuture<>();
+        private int inflight;
+        private boolean exhausted;
+
+        private SnapshotStream(NodeId peer) {
+            this.peer = peer;
+        }
+
+        private synchronized void fill() {
+            if (future.isDone()) {
+                return;
+            }
+            if (destroyed) {
+                future.completeExceptionally(new IllegalStateException(destroyedMessage));
+                return;
+            }
+            while (!exhausted && inflight < BOOTSTRAP_WINDOW) {
+                List<UpdateEntry<K, V>> chunk = nextChunk();
+                if (chunk.isEmpty()) {
+                    exhausted = true;
+                } else {
+                    inflight++;
+                    send(chunk).whenComplete((result, error) -> {
+                        try {
+                            backgroundExecutor.execute(() -> sent(error));
+                        } catch (RejectedExecutionException e) {
+                            // The map was destroyed in the meantime
+                            sent(new IllegalStateException(destroyedMessage));
+                        }
+                    });
+                }
+            }
+            if (exhausted && inflight == 0) {
+                future.complete(null);
+            }
+        }
+
+        private synchronized void sent(Throwable error) {
+            inflight--;
+            if (error != null) {
+                future.completeExceptionally(error);
+            } else {
+                fill();
+            }
+        }
 
-        Function<List<UpdateEntry<K, V>>, CompletableFuture<Void>> sendUpdates = updates -> {
-            log.trace("Initializing {} with {} entries", peer, updates.size());
+        private List<UpdateEntry<K, V>> nextChunk() {
+            List<UpdateEntry<K, V>> chunk = new ArrayList<>();
+            while (chunk.size() < DEFAULT_MAX_EVENTS && entries.hasNext()) {
+                Map.Entry<K, MapValue<V>> entry = entries.next();
+                if (entry.getValue().isAlive()) {
+                    chunk.add(new UpdateEntry<>(entry.getKey(), entry.getValue()));
+                }
+            }
+            return chunk;
+        }
+
+        private CompletableFuture<Void> send(List<UpdateEntry<K, V>> chunk) {
+            log.trace("Initializing {} with {} entries", peer, chunk.size());
             return clusterCommunicator.<List<UpdateEntry<K, V>>, Void>sendAndReceive(
-                    ImmutableList.copyOf(updates),
+                    ImmutableList.copyOf(chunk),
                     initializeMessageSubject,
                     serializer::encode,
                     serializer::decode,
@@ -868,26 +956,7 @@ public class EventuallyConsistentMapImpl<K, V>
                             log.debug("Failed to initialize {}", peer, error);
                         }
                     });
-        };
-
-        List<CompletableFuture<Void>> futures = Lists.newArrayList();
-        List<UpdateEntry<K, V>> updates = Lists.newArrayList();
-        for (Map.Entry<K, MapValue<V>> entry : items.entrySet()) {
-            K key = entry.getKey();
-            MapValue<V> value = entry.getValue();
-            if (value.isAlive()) {
-                updates.add(new UpdateEntry<>(key, value));
-                if (updates.size() == DEFAULT_MAX_EVENTS) {
-                    futures.add(sendUpdates.apply(updates));
-                    updates = new ArrayList<>();
-                }
-            }
-        }
-
-        if (!updates.isEmpty()) {
-            futures.add(sendUpdates.apply(updates));
         }
-        return CompletableFuture.allOf(futures.toArray(new CompletableFuture[futures.size()]));
     }
 
     // TODO pull this into the class if this gets pulled out...
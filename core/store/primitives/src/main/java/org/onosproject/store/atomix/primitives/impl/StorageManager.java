@@ -15,7 +15,10 @@
  */
 package org.onosproject.store.atomix.primitives.impl;
 
+import com.google.common.collect.ConcurrentHashMultiset;
+import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Maps;
+import com.google.common.collect.Multiset;
 import io.atomix.core.Atomix;
 import io.atomix.core.counter.AtomicCounter;
 import io.atomix.core.counter.AtomicCounterType;
@@ -69,6 +72,7 @@ import org.slf4j.Logger;
 import java.util.Collection;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
@@ -102,6 +106,7 @@ public class StorageManager implements StorageService, StorageAdminService {
     @Reference(cardinality = ReferenceCardinality.MANDATORY)
     protected AtomixManager atomixManager;
 
+    private final Multiset<String> pendingBootstraps = ConcurrentHashMultiset.create();
     private Atomix atomix;
     private PartitionGroup group;
 
@@ -160,7 +165,8 @@ public class StorageManager implements StorageService, StorageAdminService {
             clusterCommunicator,
             persistenceService,
             peersSupplier,
-            bootstrapPeersSupplier
+            bootstrapPeersSupplier,
+            pendingBootstraps
         );
     }
 
@@ -345,4 +351,9 @@ public class StorageManager implements StorageService, StorageAdminService {
             .map(transactionId -> TransactionId.from(transactionId.id()))
             .collect(Collectors.toList());
     }
+
+    @Override
+    public Set<String> getPendingBootstraps() {
+        return ImmutableSet.copyOf(pendingBootstraps.elementSet());
+    }
 }
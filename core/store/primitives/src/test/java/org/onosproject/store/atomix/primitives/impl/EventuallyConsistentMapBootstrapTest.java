@@ -0,0 +1,245 @@
+/*
+ * Copyright 2020-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.store.atomix.primitives.impl;
+
+import com.google.common.collect.ConcurrentHashMultiset;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Multiset;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.onosproject.cluster.NodeId;
+import org.onosproject.store.LogicalTimestamp;
+import org.onosproject.store.cluster.messaging.ClusterCommunicationServiceAdapter;
+import org.onosproject.store.cluster.messaging.MessageSubject;
+import org.onosproject.store.serializers.KryoNamespaces;
+import org.onosproject.store.service.EventuallyConsistentMap;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Unit tests for the streaming of the bootstrap snapshot of an eventually consistent map.
+ */
+public class EventuallyConsistentMapBootstrapTest {
+
+    private static final String MAP_NAME = "test";
+    private static final MessageSubject BOOTSTRAP_MESSAGE_SUBJECT =
+            new MessageSubject("ecm-" + MAP_NAME + "-bootstrap");
+    private static final MessageSubject INITIALIZE_MESSAGE_SUBJECT =
+            new MessageSubject("ecm-" + MAP_NAME + "-initialize");
+    private static final NodeId LOCAL = new NodeId("local");
+    private static final NodeId PEER = new NodeId("peer");
+    private static final long TIMEOUT_MILLIS = 5000;
+
+    private final Multiset<String> pendingBootstraps = ConcurrentHashMultiset.create();
+    private final AtomicLong clock = new AtomicLong();
+    private TestClusterCommunicationService clusterCommunicator;
+    private List<NodeId> bootstrapPeers;
+    private EventuallyConsistentMap<String, String> ecMap;
+
+    @Before
+    public void setUp() {
+        clusterCommunicator = new TestClusterCommunicationService();
+        bootstrapPeers = ImmutableList.of();
+    }
+
+    @After
+    public void tearDown() {
+        if (ecMap != null) {
+            ecMap.destroy();
+        }
+    }
+
+    private void createMap(int size) {
+        ecMap = new EventuallyConsistentMapBuilderImpl<String, String>(
+                LOCAL, clusterCommunicator, null, ImmutableList::of, () -> bootstrapPeers, pendingBootstraps)
+                .withName(MAP_NAME)
+                .withSerializer(KryoNamespaces.API)
+                .withTimestampProvider((k, v) -> new LogicalTimestamp(clock.incrementAndGet()))
+                .withBackgroundExecutor(Executors.newSingleThreadScheduledExecutor())
+                .build();
+        for (int i = 0; i < size; i++) {
+            ecMap.put("key" + i, "value" + i);
+        }
+    }
+
+    private CompletableFuture<Void> requestBootstrap() {
+        assertNotNull(clusterCommunicator.bootstrapHandler);
+        return clusterCommunicator.bootstrapHandler.apply(PEER);
+    }
+
+    /**
+     * Waits until the given number of chunks has been sent and checks that no more follows.
+     */
+    private void awaitChunks(int count) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+        while (clusterCommunicator.chunks.size() < count && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        Thread.sleep(50);
+        assertEquals(count, clusterCommunicator.chunks.size());
+    }
+
+    private void reply(int index, Throwable error) {
+        CompletableFuture<Void> reply = clusterCommunicator.replies.get(index);
+        if (error == null) {
+            reply.complete(null);
+        } else {
+            reply.completeExceptionally(error);
+        }
+    }
+
+    private static void assertFailed(CompletableFuture<Void> future) throws InterruptedException {
+        try {
+            future.get(TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+            fail("Bootstrap should have failed");
+        } catch (ExecutionException e) {
+            // expected
+        } catch (TimeoutException e) {
+            fail("Bootstrap did not complete");
+        }
+    }
+
+    @Test
+    public void testChunking() throws Exception {
+        createMap(2500);
+        CompletableFuture<Void> future = requestBootstrap();
+        awaitChunks(3);
+        assertEquals(1000, clusterCommunicator.chunks.get(0).size());
+        assertEquals(1000, clusterCommunicator.chunks.get(1).size());
+        assertEquals(500, clusterCommunicator.chunks.get(2).size());
+        assertFalse(future.isDone());
+
+        for (int i = 0; i < 3; i++) {
+            reply(i, null);
+        }
+        future.get(TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    @Test
+    public void testEmptyMap() throws Exception {
+        createMap(0);
+        requestBootstrap().get(TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+        assertTrue(clusterCommunicator.chunks.isEmpty());
+    }
+
+    @Test
+    public void testWindow() throws Exception {
+        createMap(5500);
+        CompletableFuture<Void> future = requestBootstrap();
+        awaitChunks(4);
+
+        reply(0, null);
+        awaitChunks(5);
+        reply(1, null);
+        awaitChunks(6);
+        assertEquals(500, clusterCommunicator.chunks.get(5).size());
+        assertFalse(future.isDone());
+
+        for (int i = 2; i < 6; i++) {
+            reply(i, null);
+        }
+        future.get(TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    @Test
+    public void testPeerFailure() throws Exception {
+        createMap(5500);
+        CompletableFuture<Void> future = requestBootstrap();
+        awaitChunks(4);
+
+        reply(0, new IllegalStateException("peer failed"));
+        assertFailed(future);
+
+        // No more chunks once the stream has failed
+        reply(1, null);
+        awaitChunks(4);
+    }
+
+    @Test
+    public void testDestroyedMap() throws Exception {
+        createMap(2500);
+        CompletableFuture<Void> future = requestBootstrap();
+        awaitChunks(3);
+
+        ecMap.destroy();
+        ecMap = null;
+        reply(0, null);
+        assertFailed(future);
+    }
+
+    @Test
+    public void testPendingBootstrap() throws Exception {
+        bootstrapPeers = ImmutableList.of(PEER);
+        createMap(0);
+        assertEquals(1, clusterCommunicator.pendingDuringBootstrap.size());
+        assertTrue(clusterCommunicator.pendingDuringBootstrap.get(0).contains(MAP_NAME));
+        assertTrue(pendingBootstraps.isEmpty());
+    }
+
+    /**
+     * Captures the bootstrap handler of the map and the snapshot chunks it sends.
+     */
+    private class TestClusterCommunicationService extends ClusterCommunicationServiceAdapter {
+        private Function<NodeId, CompletableFuture<Void>> bootstrapHandler;
+        private final List<Collection<?>> chunks = new CopyOnWriteArrayList<>();
+        private final List<CompletableFuture<Void>> replies = new CopyOnWriteArrayList<>();
+        private final List<Multiset<String>> pendingDuringBootstrap = new CopyOnWriteArrayList<>();
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <M, R> void addSubscriber(MessageSubject subject,
+                                         Function<byte[], M> decoder, Function<M, CompletableFuture<R>> handler,
+                                         Function<R, byte[]> encoder) {
+            if (subject.equals(BOOTSTRAP_MESSAGE_SUBJECT)) {
+                bootstrapHandler = (Function<NodeId, CompletableFuture<Void>>) (Function) handler;
+            }
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <M, R> CompletableFuture<R> sendAndReceive(M message,
+                                                          MessageSubject subject, Function<M, byte[]> encoder,
+                                                          Function<byte[], R> decoder, NodeId toNodeId) {
+            if (subject.equals(BOOTSTRAP_MESSAGE_SUBJECT)) {
+                pendingDuringBootstrap.add(ConcurrentHashMultiset.create(pendingBootstraps));
+                return CompletableFuture.completedFuture(null);
+            }
+            if (subject.equals(INITIALIZE_MESSAGE_SUBJECT)) {
+                CompletableFuture<Void> reply = new CompletableFuture<>();
+                replies.add(reply);
+                chunks.add((Collection<?>) message);
+                return (CompletableFuture<R>) reply;
+            }
+            return new CompletableFuture<>();
+        }
+    }
+}
@@ -0,0 +1,96 @@
+/*
+ * Copyright 2020-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.store.serializers;
+
+import com.esotericsoftware.kryo.Kryo;
+import com.esotericsoftware.kryo.Serializer;
+import com.esotericsoftware.kryo.io.Input;
+import com.esotericsoftware.kryo.io.Output;
+import org.onosproject.net.flow.DefaultTrafficTreatment;
+import org.onosproject.net.flow.TrafficTreatment;
+import org.onosproject.net.flow.instructions.Instruction;
+
+import java.util.Collection;
+
+/**
+ * Kryo serializer for {@link DefaultTrafficTreatment}.
+ * <p>
+ * Writes the immediate and deferred instructions once each, followed by the
+ * special instructions, instead of the fields of the treatment; the list of
+ * all the instructions is rebuilt on read.
+ */
+public final class DefaultTrafficTreatmentSerializer extends Serializer<DefaultTrafficTreatment> {
+
+    /**
+     * Creates {@link DefaultTrafficTreatment} serializer instance.
+     */
+    public DefaultTrafficTreatmentSerializer() {
+        // non-null, immutable
+        super(false, true);
+    }
+
+    @Override
+    public void write(Kryo kryo, Output output, DefaultTrafficTreatment object) {
+        writeInstructions(kryo, output, object.immediate());
+        writeInstructions(kryo, output, object.deferred());
+        writeInstructions(kryo, output, object.meters());
+        kryo.writeClassAndObject(output, object.tableTransition());
+        kryo.writeClassAndObject(output, object.writeMetadata());
+        kryo.writeClassAndObject(output, object.statTrigger());
+        output.writeBoolean(object.clearedDeferred());
+    }
+
+    private void writeInstructions(Kryo kryo, Output output, Collection<? extends Instruction> instructions) {
+        output.writeInt(instructions.size(), true);
+        for (Instruction instruction : instructions) {
+            kryo.writeClassAndObject(output, instruction);
+        }
+    }
+
+    @Override
+    public DefaultTrafficTreatment read(Kryo kryo, Input input, Class<DefaultTrafficTreatment> type) {
+        TrafficTreatment.Builder builder = DefaultTrafficTreatment.builder();
+        builder.immediate();
+        readInstructions(kryo, input, builder);
+        builder.deferred();
+        readInstructions(kryo, input, builder);
+        builder.immediate();
+        // Meters, table transition, metadata and stat trigger are dispatched
+        // to their own field by the builder
+        readInstructions(kryo, input, builder);
+        readOptionalInstruction(kryo, input, builder);
+        readOptionalInstruction(kryo, input, builder);
+        readOptionalInstruction(kryo, input, builder);
+        if (input.readBoolean()) {
+            builder.wipeDeferred();
+        }
+        return (DefaultTrafficTreatment) builder.build();
+    }
+
+    private void readInstructions(Kryo kryo, Input input, TrafficTreatment.Builder builder) {
+        int size = input.readInt(true);
+        for (int i = 0; i < size; i++) {
+            builder.add((Instruction) kryo.readClassAndObject(input));
+        }
+    }
+
+    private void readOptionalInstruction(Kryo kryo, Input input, TrafficTreatment.Builder builder) {
+        Instruction instruction = (Instruction) kryo.readClassAndObject(input);
+        if (instruction != null) {
+            builder.add(instruction);
+        }
+    }
+}
@@ -0,0 +1,66 @@
+/*
+ * Copyright 2020-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.store.serializers;
+
+import com.esotericsoftware.kryo.Kryo;
+import com.esotericsoftware.kryo.Serializer;
+import com.esotericsoftware.kryo.io.Input;
+import com.esotericsoftware.kryo.io.Output;
+import org.onlab.packet.MacAddress;
+import org.onosproject.net.flow.criteria.Criteria;
+import org.onosproject.net.flow.criteria.Criterion;
+import org.onosproject.net.flow.criteria.EthCriterion;
+
+/**
+ * Kryo serializer for {@link EthCriterion}.
+ */
+public final class EthCriterionSerializer extends Serializer<EthCriterion> {
+
+    /**
+     * Creates {@link EthCriterion} serializer instance.
+     */
+    public EthCriterionSerializer() {
+        // non-null, immutable
+        super(false, true);
+    }
+
+    @Override
+    public void write(Kryo kryo, Output output, EthCriterion object) {
+        kryo.writeObject(output, object.type());
+        kryo.writeObject(output, object.mac());
+        if (object.mask() != null) {
+            kryo.writeObject(output, object.mask());
+        }
+    }
+
+    @Override
+    public EthCriterion read(Kryo kryo, Input input, Class<EthCriterion> type) {
+        Criterion.Type criterionType = kryo.readObject(input, Criterion.Type.class);
+        MacAddress mac = kryo.readObject(input, MacAddress.class);
+        switch (criterionType) {
+            case ETH_DST:
+                return (EthCriterion) Criteria.matchEthDst(mac);
+            case ETH_SRC:
+                return (EthCriterion) Criteria.matchEthSrc(mac);
+            case ETH_DST_MASKED:
+                return (EthCriterion) Criteria.matchEthDstMasked(mac, kryo.readObject(input, MacAddress.class));
+            case ETH_SRC_MASKED:
+                return (EthCriterion) Criteria.matchEthSrcMasked(mac, kryo.readObject(input, MacAddress.class));
+            default:
+                throw new IllegalArgumentException("Unexpected Ethernet criterion type: " + criterionType);
+        }
+    }
+}
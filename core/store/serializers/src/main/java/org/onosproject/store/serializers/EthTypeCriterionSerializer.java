@@ -0,0 +1,48 @@
+/*
+ * Copyright 2020-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.store.serializers;
+
+import com.esotericsoftware.kryo.Kryo;
+import com.esotericsoftware.kryo.Serializer;
+import com.esotericsoftware.kryo.io.Input;
+import com.esotericsoftware.kryo.io.Output;
+import org.onlab.packet.EthType;
+import org.onosproject.net.flow.criteria.Criteria;
+import org.onosproject.net.flow.criteria.EthTypeCriterion;
+
+/**
+ * Kryo serializer for {@link EthTypeCriterion}.
+ */
+public final class EthTypeCriterionSerializer extends Serializer<EthTypeCriterion> {
+
+    /**
+     * Creates {@link EthTypeCriterion} serializer instance.
+     */
+    public EthTypeCriterionSerializer() {
+        // non-null, immutable
+        super(false, true);
+    }
+
+    @Override
+    public void write(Kryo kryo, Output output, EthTypeCriterion object) {
+        output.writeShort(object.ethType().toShort());
+    }
+
+    @Override
+    public EthTypeCriterion read(Kryo kryo, Input input, Class<EthTypeCriterion> type) {
+        return (EthTypeCriterion) Criteria.matchEthType(new EthType(input.readShort()));
+    }
+}
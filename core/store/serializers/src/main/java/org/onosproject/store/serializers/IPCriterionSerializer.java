@@ -0,0 +1,66 @@
+/*
+ * Copyright 2020-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.store.serializers;
+
+import com.esotericsoftware.kryo.Kryo;
+import com.esotericsoftware.kryo.Serializer;
+import com.esotericsoftware.kryo.io.Input;
+import com.esotericsoftware.kryo.io.Output;
+import org.onlab.packet.IpPrefix;
+import org.onosproject.net.flow.criteria.Criteria;
+import org.onosproject.net.flow.criteria.Criterion;
+import org.onosproject.net.flow.criteria.IPCriterion;
+
+/**
+ * Kryo serializer for {@link IPCriterion}.
+ */
+public final class IPCriterionSerializer extends Serializer<IPCriterion> {
+
+    private final IpPrefixSerializer prefixSerializer = new IpPrefixSerializer();
+
+    /**
+     * Creates {@link IPCriterion} serializer instance.
+     */
+    public IPCriterionSerializer() {
+        // non-null, immutable
+        super(false, true);
+    }
+
+    @Override
+    public void write(Kryo kryo, Output output, IPCriterion object) {
+        kryo.writeObject(output, object.type());
+        // The prefix may be an Ip4Prefix or an Ip6Prefix, all read back as IpPrefix
+        kryo.writeObject(output, object.ip(), prefixSerializer);
+    }
+
+    @Override
+    public IPCriterion read(Kryo kryo, Input input, Class<IPCriterion> type) {
+        Criterion.Type criterionType = kryo.readObject(input, Criterion.Type.class);
+        IpPrefix ip = kryo.readObject(input, IpPrefix.class, prefixSerializer);
+        switch (criterionType) {
+            case IPV4_SRC:
+                return (IPCriterion) Criteria.matchIPSrc(ip);
+            case IPV4_DST:
+                return (IPCriterion) Criteria.matchIPDst(ip);
+            case IPV6_SRC:
+                return (IPCriterion) Criteria.matchIPv6Src(ip);
+            case IPV6_DST:
+                return (IPCriterion) Criteria.matchIPv6Dst(ip);
+            default:
+                throw new IllegalArgumentException("Unexpected IP criterion type: " + criterionType);
+        }
+    }
+}
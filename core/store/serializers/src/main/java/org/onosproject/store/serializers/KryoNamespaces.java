@@ -15,6 +15,7 @@
  */
 package org.onosproject.store.serializers;
 
+import com.esotericsoftware.kryo.Serializer;
 import com.esotericsoftware.kryo.serializers.ClosureSerializer;
 import com.google.common.collect.HashMultiset;
 import com.google.common.collect.ImmutableList;
@@ -311,6 +312,16 @@ import java.util.concurrent.atomic.AtomicLong;
 
 public final class KryoNamespaces {
 
+    /**
+     * System property enabling the compact serializers of the traffic
+     * selectors, treatments and common criteria. They change the wire format
+     * of these types under the same type IDs, so all the nodes of the cluster
+     * must be started with the same setting.
+     */
+    public static final String COMPACT_FLOW_SERIALIZERS_PROPERTY = "onos.kryo.compactFlowSerializers";
+
+    private static final boolean COMPACT_FLOW_SERIALIZERS = Boolean.getBoolean(COMPACT_FLOW_SERIALIZERS_PROPERTY);
+
     public static final int BASIC_MAX_SIZE = 50;
 
     /**
@@ -479,19 +490,25 @@ public final class KryoNamespaces {
                     PacketPriority.class,
                     FlowEntry.FlowEntryState.class,
                     FlowEntry.FlowLiveType.class,
-                    FlowId.class,
-                    DefaultTrafficSelector.class,
-                    PortCriterion.class,
-                    MetadataCriterion.class,
-                    EthCriterion.class,
-                    EthType.class,
-                    EthTypeCriterion.class,
-                    VlanIdCriterion.class,
+                    FlowId.class
+            )
+            // The flow rule building blocks keep their type IDs whichever
+            // serializer is selected for them
+            .register(flowType(new DefaultTrafficSelectorSerializer(), DefaultTrafficSelector.class))
+            .register(flowType(new PortCriterionSerializer(), PortCriterion.class))
+            .register(MetadataCriterion.class)
+            .register(flowType(new EthCriterionSerializer(), EthCriterion.class))
+            .register(EthType.class)
+            .register(flowType(new EthTypeCriterionSerializer(), EthTypeCriterion.class))
+            .register(flowType(new VlanIdCriterionSerializer(), VlanIdCriterion.class))
+            .register(
                     VlanPcpCriterion.class,
                     IPDscpCriterion.class,
                     IPEcnCriterion.class,
-                    IPProtocolCriterion.class,
-                    IPCriterion.class,
+                    IPProtocolCriterion.class
+            )
+            .register(flowType(new IPCriterionSerializer(), IPCriterion.class))
+            .register(
                     TpPort.class,
                     TcpPortCriterion.class,
                     UdpPortCriterion.class,
@@ -516,8 +533,10 @@ public final class KryoNamespaces {
                     ArpHaCriterion.class,
                     ArpPaCriterion.class,
                     Criterion.class,
-                    Criterion.Type.class,
-                    DefaultTrafficTreatment.class,
+                    Criterion.Type.class
+            )
+            .register(flowType(new DefaultTrafficTreatmentSerializer(), DefaultTrafficTreatment.class))
+            .register(
                     Instructions.NoActionInstruction.class,
                     Instructions.OutputInstruction.class,
                     Instructions.GroupInstruction.class,
@@ -761,6 +780,13 @@ public final class KryoNamespaces {
      */
     public static final int BEGIN_USER_CUSTOM_ID = API_MAX_SIZE + 1;
 
+    // Floating registration of a flow rule building block, with its compact
+    // serializer when enabled and with the default serializer otherwise
+    private static KryoNamespace flowType(Serializer<?> serializer, Class<?> type) {
+        KryoNamespace.Builder builder = KryoNamespace.newBuilder().nextId(KryoNamespace.FLOATING_ID);
+        return (COMPACT_FLOW_SERIALIZERS ? builder.register(serializer, type) : builder.register(type)).build();
+    }
+
     // not to be instantiated
     private KryoNamespaces() {
     }
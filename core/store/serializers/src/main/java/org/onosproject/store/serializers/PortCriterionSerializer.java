@@ -0,0 +1,52 @@
+/*
+ * Copyright 2020-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.store.serializers;
+
+import com.esotericsoftware.kryo.Kryo;
+import com.esotericsoftware.kryo.Serializer;
+import com.esotericsoftware.kryo.io.Input;
+import com.esotericsoftware.kryo.io.Output;
+import org.onosproject.net.PortNumber;
+import org.onosproject.net.flow.criteria.Criteria;
+import org.onosproject.net.flow.criteria.Criterion;
+import org.onosproject.net.flow.criteria.PortCriterion;
+
+/**
+ * Kryo serializer for {@link PortCriterion}.
+ */
+public final class PortCriterionSerializer extends Serializer<PortCriterion> {
+
+    /**
+     * Creates {@link PortCriterion} serializer instance.
+     */
+    public PortCriterionSerializer() {
+        // non-null, immutable
+        super(false, true);
+    }
+
+    @Override
+    public void write(Kryo kryo, Output output, PortCriterion object) {
+        output.writeBoolean(object.type() == Criterion.Type.IN_PHY_PORT);
+        kryo.writeObject(output, object.port());
+    }
+
+    @Override
+    public PortCriterion read(Kryo kryo, Input input, Class<PortCriterion> type) {
+        boolean physical = input.readBoolean();
+        PortNumber port = kryo.readObject(input, PortNumber.class);
+        return (PortCriterion) (physical ? Criteria.matchInPhyPort(port) : Criteria.matchInPort(port));
+    }
+}
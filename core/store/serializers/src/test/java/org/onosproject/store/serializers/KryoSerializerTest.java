@@ -54,8 +54,14 @@ import org.onosproject.net.flow.DefaultTrafficSelector;
 import org.onosproject.net.flow.DefaultTrafficTreatment;
 import org.onosproject.net.flow.FlowId;
 import org.onosproject.net.flow.FlowRule;
+import org.onosproject.net.flow.criteria.EthCriterion;
+import org.onosproject.net.flow.criteria.EthTypeCriterion;
+import org.onosproject.net.flow.criteria.IPCriterion;
+import org.onosproject.net.flow.criteria.PortCriterion;
+import org.onosproject.net.flow.criteria.VlanIdCriterion;
 import org.onosproject.net.flow.oldbatch.FlowRuleBatchEntry;
 import org.onosproject.net.intent.IntentId;
+import org.onosproject.net.meter.MeterId;
 import org.onosproject.net.resource.ResourceAllocation;
 import org.onosproject.net.resource.ResourceConsumerId;
 import org.onosproject.net.resource.Resources;
@@ -307,6 +313,77 @@ public class KryoSerializerTest {
         testSerializedEquals(entry2);
     }
 
+    // Serializer of the API namespace with the compact flow serializers,
+    // registered again past the API types
+    private static StoreSerializer compactFlowSerializer() {
+        return StoreSerializer.using(KryoNamespace.newBuilder()
+                .register(KryoNamespaces.API)
+                .nextId(KryoNamespaces.BEGIN_USER_CUSTOM_ID)
+                .register(new DefaultTrafficSelectorSerializer(), DefaultTrafficSelector.class)
+                .register(new PortCriterionSerializer(), PortCriterion.class)
+                .register(new EthCriterionSerializer(), EthCriterion.class)
+                .register(new EthTypeCriterionSerializer(), EthTypeCriterion.class)
+                .register(new VlanIdCriterionSerializer(), VlanIdCriterion.class)
+                .register(new IPCriterionSerializer(), IPCriterion.class)
+                .register(new DefaultTrafficTreatmentSerializer(), DefaultTrafficTreatment.class)
+                .build());
+    }
+
+    @Test
+    public void testTrafficSelector() {
+        testTrafficSelectors();
+        serializer = compactFlowSerializer();
+        testTrafficSelectors();
+    }
+
+    private void testTrafficSelectors() {
+        testSerializedEquals(DefaultTrafficSelector.emptySelector());
+        testSerializedEquals(DefaultTrafficSelector.builder()
+                                     .matchInPort(P1)
+                                     .matchEthType((short) 0x0800)
+                                     .matchEthSrc(MacAddress.valueOf("00:00:00:00:00:01"))
+                                     .matchEthDstMasked(MacAddress.valueOf("01:00:5e:00:00:00"),
+                                                        MacAddress.valueOf("ff:ff:ff:80:00:00"))
+                                     .matchVlanId(VLAN1)
+                                     .matchInnerVlanId(VlanId.vlanId((short) 200))
+                                     .matchIPSrc(IpPrefix.valueOf("10.0.0.0/8"))
+                                     .matchIPDst(IpPrefix.valueOf("192.168.0.1/32"))
+                                     .matchIPProtocol((byte) 6)
+                                     .build());
+        testSerializedEquals(DefaultTrafficSelector.builder()
+                                     .matchInPhyPort(P2)
+                                     .matchIPv6Src(IpPrefix.valueOf("1111:2222::/64"))
+                                     .matchIPv6Dst(IpPrefix.valueOf("1111:3333::/120"))
+                                     .build());
+    }
+
+    @Test
+    public void testTrafficTreatment() {
+        testTrafficTreatments();
+        serializer = compactFlowSerializer();
+        testTrafficTreatments();
+    }
+
+    private void testTrafficTreatments() {
+        testSerializedEquals(DefaultTrafficTreatment.emptyTreatment());
+        testSerializedEquals(DefaultTrafficTreatment.builder()
+                                     .setVlanId(VLAN1)
+                                     .setEthDst(MacAddress.valueOf("00:00:00:00:00:02"))
+                                     .group(GroupId.valueOf(1))
+                                     .setOutput(P1)
+                                     .build());
+        testSerializedEquals(DefaultTrafficTreatment.builder()
+                                     .popVlan()
+                                     .deferred()
+                                     .setOutput(P2)
+                                     .immediate()
+                                     .meter(MeterId.meterId(1))
+                                     .writeMetadata(1L, 0xffL)
+                                     .transition(2)
+                                     .wipeDeferred()
+                                     .build());
+    }
+
     @Test
     public void testIpPrefix() {
         testSerializedEquals(IpPrefix.valueOf("192.168.0.1/24"));
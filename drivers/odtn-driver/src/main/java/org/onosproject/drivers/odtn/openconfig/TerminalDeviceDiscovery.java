@@ -33,9 +33,7 @@ import java.util.concurrent.CompletableFuture;
 import org.onlab.packet.ChassisId;
 
 
-import org.apache.commons.configuration.HierarchicalConfiguration;
 import org.apache.commons.configuration.XMLConfiguration;
-import org.apache.commons.configuration.tree.xpath.XPathExpressionEngine;
 
 import org.onosproject.drivers.utilities.XmlConfigParser;
 
@@ -64,6 +62,8 @@ import org.onosproject.netconf.NetconfController;
 import org.onosproject.netconf.NetconfDevice;
 import org.onosproject.netconf.NetconfException;
 import org.onosproject.netconf.NetconfSession;
+import org.onosproject.netconf.NetconfXmlExtractor;
+import org.onosproject.netconf.NetconfXmlExtractor.Record;
 
 import com.google.common.collect.ImmutableList;
 
@@ -95,6 +95,18 @@ public class TerminalDeviceDiscovery
 
     private static final Logger log = getLogger(TerminalDeviceDiscovery.class);
 
+    // Only the values used to build the ports are kept from the reply.
+    private static final NetconfXmlExtractor COMPONENTS = NetconfXmlExtractor
+        .builder("/rpc-reply/data/components/component")
+        .field("name", "name")
+        .field("type", "state/type")
+        .field("subcomponent", "subcomponents/subcomponent/name")
+        .records("property", NetconfXmlExtractor.builder("properties/property")
+                 .field("name", "name")
+                 .field("value", "state/value")
+                 .build())
+        .build();
+
 
     /**
      * Returns the NetconfSession with the device for which the method was called.
@@ -322,7 +334,6 @@ public class TerminalDeviceDiscovery
     @Override
     public List<PortDescription> discoverPortDetails() {
         try {
-            XPathExpressionEngine xpe = new XPathExpressionEngine();
             NetconfSession session = getNetconfSession(did());
             if (session == null) {
                 log.error("discoverPortDetails called with null session for {}", did());
@@ -332,11 +343,7 @@ public class TerminalDeviceDiscovery
             CompletableFuture<String> fut = session.rpc(getDeviceComponentsBuilder());
             String rpcReply = fut.get();
 
-            XMLConfiguration xconf = (XMLConfiguration) XmlConfigParser.loadXmlString(rpcReply);
-            xconf.setExpressionEngine(xpe);
-
-            HierarchicalConfiguration components = xconf.configurationAt("data/components");
-            return parsePorts(components);
+            return parsePorts(COMPONENTS.extract(rpcReply));
         } catch (Exception e) {
             log.error("Exception discoverPortDetails() {}", did(), e);
             return ImmutableList.of();
@@ -347,9 +354,9 @@ public class TerminalDeviceDiscovery
 
 
     /**
-     * Parses port information from OpenConfig XML configuration.
+     * Parses port information from OpenConfig components.
      *
-     * @param components the XML document with components root.
+     * @param components the components extracted from the reply.
      * @return List of ports
      *
      * //CHECKSTYLE:OFF
@@ -363,17 +370,25 @@ public class TerminalDeviceDiscovery
      * }</pre>
      * //CHECKSTYLE:ON
      */
-    protected List<PortDescription> parsePorts(HierarchicalConfiguration components) {
-        return components.configurationsAt("component")
+    protected List<PortDescription> parsePorts(List<Record> components) {
+        // Types of all the components, to cross-reference subcomponents
+        Map<String, String> componentTypes = new HashMap<>();
+        components.forEach(component -> {
+            String name = component.value("name");
+            if (name != null) {
+                componentTypes.putIfAbsent(name, component.value("type", "unknown"));
+            }
+        });
+        return components
             .stream()
             .filter(component -> {
-                    return !component.getString("name", "unknown").equals("unknown") &&
-                    component.getString("state/type", "unknown").equals(OC_PLATFORM_TYPES_PORT);
+                    return !component.value("name", "unknown").equals("unknown") &&
+                    component.value("type", "unknown").equals(OC_PLATFORM_TYPES_PORT);
                     })
             .map(component -> {
                 try {
-                    // Pass the root document for cross-reference
-                    return parsePortComponent(component, components);
+                    // Pass the component types for cross-reference
+                    return parsePortComponent(component, componentTypes);
                 } catch (Exception e) {
                     return null;
                 }
@@ -387,44 +402,35 @@ public class TerminalDeviceDiscovery
     /**
      * Checks if a given component has a subcomponent of a given type.
      *
-     * @param component subtree to parse looking for subcomponents.
-     * @param components the full components tree, to cross-ref in
-     *  case we need to check (sub)components' types.
+     * @param component component to check for subcomponents.
+     * @param componentTypes the types of all the components, to cross-ref
+     *  in case we need to check (sub)components' types.
      *
      * @return true or false
      */
     private boolean hasSubComponentOfType(
-            HierarchicalConfiguration component,
-            HierarchicalConfiguration components,
+            Record component,
+            Map<String, String> componentTypes,
             String type) {
-        long count = component.configurationsAt("subcomponents/subcomponent")
+        return component.values("subcomponent")
             .stream()
-            .filter(subcomponent -> {
-                        String scName = subcomponent.getString("name");
-                        StringBuilder sb = new StringBuilder("component[name='");
-                        sb.append(scName);
-                        sb.append("']/state/type");
-                        String scType = components.getString(sb.toString(), "unknown");
-                        return scType.equals(type);
-                    })
-            .count();
-        return (count > 0);
+            .anyMatch(scName -> componentTypes.getOrDefault(scName, "unknown").equals(type));
     }
 
 
     /**
      * Checks if a given component has a subcomponent of type OPTICAL_CHANNEL.
      *
-     * @param component subtree to parse
-     * @param components the full components tree, to cross-ref in
+     * @param component component to check
+     * @param componentTypes the types of all the components, to cross-ref in
      *  case we need to check transceivers or optical channels.
      *
      * @return true or false
      */
     private boolean hasOpticalChannelSubComponent(
-            HierarchicalConfiguration component,
-            HierarchicalConfiguration components) {
-        return hasSubComponentOfType(component, components,
+            Record component,
+            Map<String, String> componentTypes) {
+        return hasSubComponentOfType(component, componentTypes,
                 OC_TRANSPORT_TYPES_OPTICAL_CHANNEL);
     }
 
@@ -432,43 +438,43 @@ public class TerminalDeviceDiscovery
     /**
      *  Checks if a given component has a subcomponent of type TRANSCEIVER.
      *
-     * @param component subtree to parse
-     * @param components the full components tree, to cross-ref in
+     * @param component component to check
+     * @param componentTypes the types of all the components, to cross-ref in
      *  case we need to check transceivers or optical channels.
      *
      * @return true or false
      */
     private boolean hasTransceiverSubComponent(
-            HierarchicalConfiguration component,
-            HierarchicalConfiguration components) {
-        return hasSubComponentOfType(component, components,
+            Record component,
+            Map<String, String> componentTypes) {
+        return hasSubComponentOfType(component, componentTypes,
                 OC_PLATFORM_TYPES_TRANSCEIVER);
     }
 
 
     /**
-     * Parses a component XML doc into a PortDescription.
+     * Parses a component into a PortDescription.
      *
-     * @param component subtree to parse. It must be a component ot type PORT.
-     * @param components the full components tree, to cross-ref in
+     * @param component component to parse. It must be a component ot type PORT.
+     * @param componentTypes the types of all the components, to cross-ref in
      *  case we need to check transceivers or optical channels.
      *
      * @return PortDescription or null if component does not have onos-index
      */
     private PortDescription parsePortComponent(
-            HierarchicalConfiguration component,
-            HierarchicalConfiguration components) {
+            Record component,
+            Map<String, String> componentTypes) {
         Map<String, String> annotations = new HashMap<>();
-        String name = component.getString("name");
-        String type = component.getString("state/type");
+        String name = component.value("name");
+        String type = component.value("type");
         log.info("Parsing Component {} type {}", name, type);
         annotations.put(OdtnDeviceDescriptionDiscovery.OC_NAME, name);
         annotations.put(OdtnDeviceDescriptionDiscovery.OC_TYPE, type);
         // Store all properties as port properties
-        component.configurationsAt("properties/property")
+        component.records("property")
             .forEach(property -> {
-                    String pn = property.getString("name");
-                    String pv = property.getString("state/value");
+                    String pn = property.value("name");
+                    String pv = property.value("value");
                     annotations.put(pn, pv);
                     });
 
@@ -484,9 +490,9 @@ public class TerminalDeviceDiscovery
 
         // The heuristic to know if it is client or line side
         if (!annotations.containsKey(PORT_TYPE)) {
-            if (hasTransceiverSubComponent(component, components)) {
+            if (hasTransceiverSubComponent(component, componentTypes)) {
                 annotations.put(PORT_TYPE, OdtnPortType.CLIENT.value());
-            } else if (hasOpticalChannelSubComponent(component, components)) {
+            } else if (hasOpticalChannelSubComponent(component, componentTypes)) {
                 annotations.put(PORT_TYPE, OdtnPortType.LINE.value());
             }
         }
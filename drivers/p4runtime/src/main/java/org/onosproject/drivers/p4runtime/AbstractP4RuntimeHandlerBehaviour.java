@@ -91,4 +91,27 @@ public abstract class AbstractP4RuntimeHandlerBehaviour
             return Boolean.parseBoolean(handler().driver().getProperty(propName));
         }
     }
+
+    /**
+     * Returns the value of the given driver property, if present, otherwise
+     * returns the given default value.
+     *
+     * @param propName   property name
+     * @param defaultVal default value
+     * @return integer
+     */
+    int driverIntProperty(String propName, int defaultVal) {
+        checkNotNull(propName);
+        final String value = handler().driver().getProperty(propName);
+        if (value == null) {
+            return defaultVal;
+        }
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            log.warn("Invalid value '{}' for driver property {}, using default {}",
+                     value, propName, defaultVal);
+            return defaultVal;
+        }
+    }
 }
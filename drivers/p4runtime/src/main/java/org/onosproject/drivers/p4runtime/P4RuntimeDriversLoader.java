@@ -16,8 +16,15 @@
 
 package org.onosproject.drivers.p4runtime;
 
-import org.osgi.service.component.annotations.Component;
+import org.onosproject.net.device.DeviceEvent;
+import org.onosproject.net.device.DeviceListener;
+import org.onosproject.net.device.DeviceService;
 import org.onosproject.net.driver.AbstractDriverLoader;
+import org.osgi.service.component.annotations.Activate;
+import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Deactivate;
+import org.osgi.service.component.annotations.Reference;
+import org.osgi.service.component.annotations.ReferenceCardinality;
 
 /**
  * Loader for P4Runtime device drivers.
@@ -25,12 +32,39 @@ import org.onosproject.net.driver.AbstractDriverLoader;
 @Component(immediate = true)
 public class P4RuntimeDriversLoader extends AbstractDriverLoader {
 
+    @Reference(cardinality = ReferenceCardinality.MANDATORY)
+    protected DeviceService deviceService;
+
+    private final DeviceListener deviceListener = new InternalDeviceListener();
+
     public P4RuntimeDriversLoader() {
         super("/p4runtime-drivers.xml");
     }
 
+    @Activate
     @Override
     public void activate() {
+        deviceService.addListener(deviceListener);
         super.activate();
     }
+
+    @Deactivate
+    @Override
+    protected void deactivate() {
+        deviceService.removeListener(deviceListener);
+        super.deactivate();
+    }
+
+    // Drops the driver state kept per device once the device is gone.
+    private class InternalDeviceListener implements DeviceListener {
+        @Override
+        public boolean isRelevant(DeviceEvent event) {
+            return event.type() == DeviceEvent.Type.DEVICE_REMOVED;
+        }
+
+        @Override
+        public void event(DeviceEvent event) {
+            P4RuntimeReconcileState.remove(event.subject().id());
+        }
+    }
 }
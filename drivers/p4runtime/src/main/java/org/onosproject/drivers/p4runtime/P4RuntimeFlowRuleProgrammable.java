@@ -17,12 +17,14 @@
 package org.onosproject.drivers.p4runtime;
 
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Iterables;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 import com.google.common.util.concurrent.Futures;
 import com.google.common.util.concurrent.Striped;
 import org.onosproject.drivers.p4runtime.mirror.P4RuntimeTableMirror;
 import org.onosproject.drivers.p4runtime.mirror.TimedEntry;
+import org.onosproject.net.DeviceId;
 import org.onosproject.net.flow.DefaultFlowEntry;
 import org.onosproject.net.flow.FlowEntry;
 import org.onosproject.net.flow.FlowRule;
@@ -43,6 +45,7 @@ import org.onosproject.net.pi.service.PiFlowRuleTranslator;
 import org.onosproject.net.pi.service.PiTranslatedEntity;
 import org.onosproject.net.pi.service.PiTranslationException;
 import org.onosproject.p4runtime.api.P4RuntimeReadClient;
+import org.onosproject.p4runtime.api.P4RuntimeWriteClient.EntityUpdateResponse;
 import org.onosproject.p4runtime.api.P4RuntimeWriteClient.UpdateType;
 import org.onosproject.p4runtime.api.P4RuntimeWriteClient.WriteRequest;
 import org.onosproject.p4runtime.api.P4RuntimeWriteClient.WriteResponse;
@@ -100,6 +103,38 @@ public class P4RuntimeFlowRuleProgrammable
     private static final String SUPPORT_DEFAULT_TABLE_ENTRY = "supportDefaultTableEntry";
     private static final boolean DEFAULT_SUPPORT_DEFAULT_TABLE_ENTRY = true;
 
+    // If true, most calls to getFlowEntries() build the flow entries from the
+    // mirror instead of reading all table entries from the device, and only
+    // read the counters of a subset of the entries. The table entries are read
+    // from the device at the cadence given by TABLE_FULL_READ_INTERVAL, or as
+    // soon as the mirror is found out of sync. If supportTableCounters is
+    // false, no counter is read, so entries missing from the device go
+    // unnoticed until the next full read.
+    private static final String INCREMENTAL_RECONCILE = "tableIncrementalReconcile";
+    private static final boolean DEFAULT_INCREMENTAL_RECONCILE = false;
+
+    // Number of calls to getFlowEntries() between full reads of the table
+    // entries, when incremental reconciliation is enabled.
+    private static final String FULL_READ_INTERVAL = "tableFullReadInterval";
+    private static final int DEFAULT_FULL_READ_INTERVAL = 10;
+
+    // Maximum number of counter cells per read request.
+    private static final String COUNTER_READ_BATCH_SIZE = "tableCounterReadBatchSize";
+    private static final int DEFAULT_COUNTER_READ_BATCH_SIZE = 1000;
+
+    // Number of entries whose counters are read by each call to
+    // getFlowEntries() when incremental reconciliation is enabled. Entries are
+    // sampled in rotation, the others report the last counter values read.
+    // Non-positive values select all entries.
+    private static final String COUNTER_SAMPLE_SIZE = "tableCounterSampleSize";
+    private static final int DEFAULT_COUNTER_SAMPLE_SIZE = 1000;
+
+    // Maximum number of updates per write request. Larger batches are split in
+    // multiple requests, which the client keeps in flight at the same time.
+    // Non-positive values disable the split.
+    private static final String WRITE_BATCH_SIZE = "tableWriteBatchSize";
+    private static final int DEFAULT_WRITE_BATCH_SIZE = 500;
+
     // Used to make sure concurrent calls to write flow rules are serialized so
     // that each request gets consistent access to mirror state.
     private static final Striped<Lock> WRITE_LOCKS = Striped.lock(30);
@@ -132,6 +167,18 @@ public class P4RuntimeFlowRuleProgrammable
             return getFlowEntriesFromMirror();
         }
 
+        final boolean incremental = driverBoolProperty(
+                INCREMENTAL_RECONCILE, DEFAULT_INCREMENTAL_RECONCILE);
+        if (incremental) {
+            final Collection<FlowEntry> flowEntries = getFlowEntriesIncrementally();
+            if (flowEntries != null) {
+                return flowEntries;
+            }
+            // Mirror out of sync or time for a full read.
+        } else {
+            P4RuntimeReconcileState.remove(deviceId);
+        }
+
         final ImmutableList.Builder<FlowEntry> result = ImmutableList.builder();
         final List<PiTableEntry> inconsistentEntries = Lists.newArrayList();
 
@@ -147,11 +194,17 @@ public class P4RuntimeFlowRuleProgrammable
 
         if (deviceEntries.isEmpty()) {
             // Nothing to do.
+            if (incremental) {
+                reconcileState().fullReadDone(Collections.emptyMap());
+            }
             return Collections.emptyList();
         }
 
         final Map<PiTableEntryHandle, PiCounterCellData> counterCellMap =
                 readEntryCounters(deviceEntries);
+        if (incremental) {
+            reconcileState().fullReadDone(counterCellMap);
+        }
         // Forge flow entries with counter values.
         for (PiTableEntry entry : deviceEntries) {
             final PiTableEntryHandle handle = entry.handle(deviceId);
@@ -193,6 +246,70 @@ public class P4RuntimeFlowRuleProgrammable
         return result.build();
     }
 
+    private Collection<FlowEntry> getFlowEntriesIncrementally() {
+        // Returns null if the table entries should be read from the device.
+        final P4RuntimeReconcileState state = reconcileState();
+        if (!state.skipFullRead(driverIntProperty(
+                FULL_READ_INTERVAL, DEFAULT_FULL_READ_INTERVAL))) {
+            return null;
+        }
+        final Map<PiTableEntryHandle, PiTableEntry> mirrorEntries = Maps.newHashMap();
+        tableMirror.getAll(deviceId).forEach(
+                timedEntry -> mirrorEntries.put(
+                        timedEntry.entry().handle(deviceId), timedEntry.entry()));
+        if (!readSampledEntryCounters(state, mirrorEntries)) {
+            log.debug("Unable to read sampled counters from {}, " +
+                              "reading all table entries", deviceId);
+            state.requestFullRead();
+            return null;
+        }
+        final ImmutableList.Builder<FlowEntry> result = ImmutableList.builder();
+        for (Map.Entry<PiTableEntryHandle, PiTableEntry> e : mirrorEntries.entrySet()) {
+            if (isOriginalDefaultEntry(e.getValue())) {
+                continue;
+            }
+            final FlowEntry flowEntry = forgeFlowEntry(
+                    e.getValue(), e.getKey(), state.counter(e.getKey()));
+            if (flowEntry == null) {
+                // Mirror and translation store disagree, let the full read
+                // find out what is on the device.
+                state.requestFullRead();
+                return null;
+            }
+            result.add(flowEntry);
+        }
+        return result.build();
+    }
+
+    private boolean readSampledEntryCounters(
+            P4RuntimeReconcileState state, Map<PiTableEntryHandle, PiTableEntry> entries) {
+        // Returns false if the device does not know some of the entries.
+        if (!driverBoolProperty(SUPPORT_TABLE_COUNTERS,
+                                DEFAULT_SUPPORT_TABLE_COUNTERS)) {
+            // Nothing to read, hence nothing to check the mirror against: the
+            // mirror is trusted until the periodic full read.
+            return true;
+        }
+        final Set<PiTableEntryHandle> counterHandles = entries.entrySet().stream()
+                .filter(e -> !e.getValue().isDefaultAction())
+                .filter(e -> tableHasCounter(e.getValue().table()))
+                .map(Map.Entry::getKey)
+                .collect(Collectors.toSet());
+        final Collection<PiTableEntryHandle> sample = state.sample(
+                counterHandles, driverIntProperty(COUNTER_SAMPLE_SIZE, DEFAULT_COUNTER_SAMPLE_SIZE));
+        if (sample.isEmpty()) {
+            return true;
+        }
+        final Map<PiTableEntryHandle, PiCounterCellData> counters = readDirectCounters(
+                sample.stream().map(entries::get).collect(Collectors.toList()));
+        state.updateCounters(counters);
+        return counters.keySet().containsAll(sample);
+    }
+
+    private P4RuntimeReconcileState reconcileState() {
+        return P4RuntimeReconcileState.of(deviceId);
+    }
+
     private Collection<PiTableEntry> getAllTableEntriesFromDevice() {
         final P4RuntimeReadClient.ReadRequest request = client.read(
                 p4DeviceId, pipeconf);
@@ -275,12 +392,14 @@ public class P4RuntimeFlowRuleProgrammable
         if (!setupBehaviour("processFlowRules()") || rules.isEmpty()) {
             return Collections.emptyList();
         }
+        final int batchSize = driverIntProperty(
+                WRITE_BATCH_SIZE, DEFAULT_WRITE_BATCH_SIZE);
         // Created batched write request.
-        final WriteRequest request = client.write(p4DeviceId, pipeconf);
+        WriteRequest request = client.write(p4DeviceId, pipeconf);
         // For each rule, translate to PI and append to write request.
         final Map<PiHandle, FlowRule> handleToRuleMap = Maps.newHashMap();
         final List<FlowRule> skippedRules = Lists.newArrayList();
-        final CompletableFuture<WriteResponse> futureResponse;
+        final List<CompletableFuture<WriteResponse>> futureResponses = Lists.newArrayList();
         WRITE_LOCKS.get(deviceId).lock();
         try {
             for (FlowRule rule : rules) {
@@ -308,26 +427,93 @@ public class P4RuntimeFlowRuleProgrammable
                         request, handle, entry, driverOperation)) {
                     skippedRules.add(rule);
                 }
+                if (batchSize > 0 && request.pendingUpdates().size() >= batchSize) {
+                    // Submit full request, without waiting for the response.
+                    futureResponses.add(submitWriteRequest(request));
+                    request = client.write(p4DeviceId, pipeconf);
+                }
+            }
+            if (!request.pendingUpdates().isEmpty()) {
+                futureResponses.add(submitWriteRequest(request));
             }
-            if (request.pendingUpdates().isEmpty()) {
+            if (futureResponses.isEmpty()) {
                 // All good. No need to write on device.
                 return rules;
             }
-            // Update mirror.
-            tableMirror.applyWriteRequest(request);
-            // Async submit request to server.
-            futureResponse = request.submit();
         } finally {
             WRITE_LOCKS.get(deviceId).unlock();
         }
-        // Wait for response.
-        final WriteResponse response = Futures.getUnchecked(futureResponse);
-        // Derive successfully applied flow rule from response.
-        final List<FlowRule> appliedRules = getAppliedFlowRules(
-                response, handleToRuleMap, driverOperation);
-        // Return skipped and applied rules.
-        return ImmutableList.<FlowRule>builder()
-                .addAll(skippedRules).addAll(appliedRules).build();
+        // Wait for responses and derive successfully applied flow rules.
+        final ImmutableList.Builder<FlowRule> resultRules = ImmutableList.builder();
+        resultRules.addAll(skippedRules);
+        futureResponses.forEach(f -> resultRules.addAll(getAppliedFlowRules(
+                Futures.getUnchecked(f), handleToRuleMap, driverOperation)));
+        return resultRules.build();
+    }
+
+    private CompletableFuture<WriteResponse> submitWriteRequest(WriteRequest request) {
+        // Must be called while holding the write lock of the device.
+        final DeviceId deviceId = this.deviceId;
+        final P4RuntimeTableMirror tableMirror = this.tableMirror;
+        // Remember what the mirror holds before applying the request, and what
+        // it will hold after, to undo the updates refused by the server.
+        final Map<PiTableEntryHandle, Optional<TimedEntry<PiTableEntry>>> before = Maps.newHashMap();
+        final Map<PiTableEntryHandle, Optional<PiTableEntry>> after = Maps.newHashMap();
+        request.pendingUpdates().stream()
+                .filter(u -> u.entityType().equals(PiEntityType.TABLE_ENTRY))
+                .forEach(u -> {
+                    final PiTableEntryHandle handle = (PiTableEntryHandle) u.handle();
+                    before.computeIfAbsent(handle, h -> Optional.ofNullable(tableMirror.get(h)));
+                    after.put(handle, u.updateType() == DELETE
+                            ? Optional.empty() : Optional.of((PiTableEntry) u.entity()));
+                });
+        // Update mirror.
+        tableMirror.applyWriteRequest(request);
+        // Async submit request to server. Requests of the same device might
+        // complete out of order, the mirror is fixed as each response arrives.
+        return request.submit().thenApply(response -> {
+            if (!response.isSuccess()) {
+                revertFailedUpdates(deviceId, tableMirror, response, before, after);
+            }
+            return response;
+        });
+    }
+
+    private void revertFailedUpdates(
+            DeviceId deviceId,
+            P4RuntimeTableMirror tableMirror,
+            WriteResponse response,
+            Map<PiTableEntryHandle, Optional<TimedEntry<PiTableEntry>>> before,
+            Map<PiTableEntryHandle, Optional<PiTableEntry>> after) {
+        final Set<PiHandle> succeeded = response.success().stream()
+                .map(EntityUpdateResponse::handle)
+                .collect(Collectors.toSet());
+        WRITE_LOCKS.get(deviceId).lock();
+        try {
+            response.failed().stream()
+                    .map(EntityUpdateResponse::handle)
+                    .filter(handle -> !succeeded.contains(handle))
+                    .filter(before::containsKey)
+                    .distinct()
+                    .map(PiTableEntryHandle.class::cast)
+                    .forEach(handle -> {
+                        // Leave the entry alone if a later request changed it.
+                        final TimedEntry<PiTableEntry> current = tableMirror.get(handle);
+                        final Optional<PiTableEntry> currentEntry = Optional.ofNullable(
+                                current == null ? null : current.entry());
+                        if (!currentEntry.equals(after.get(handle))) {
+                            return;
+                        }
+                        final Optional<TimedEntry<PiTableEntry>> previous = before.get(handle);
+                        if (previous.isPresent()) {
+                            tableMirror.put(handle, previous.get().entry());
+                        } else {
+                            tableMirror.remove(handle);
+                        }
+                    });
+        } finally {
+            WRITE_LOCKS.get(deviceId).unlock();
+        }
     }
 
     private List<FlowRule> getAppliedFlowRules(
@@ -478,22 +664,33 @@ public class P4RuntimeFlowRuleProgrammable
                     .collect(Collectors.toMap(
                             t -> t.handle(deviceId), PiTableEntry::counter));
         } else {
-            final Set<PiHandle> cellHandles = tableEntries.stream()
+            return readDirectCounters(tableEntries.stream()
                     .filter(e -> !e.isDefaultAction())
                     .filter(e -> tableHasCounter(e.table()))
+                    .collect(Collectors.toList()));
+        }
+    }
+
+    private Map<PiTableEntryHandle, PiCounterCellData> readDirectCounters(
+            Collection<PiTableEntry> tableEntries) {
+        // Read in chunks, to avoid sending a very large read request.
+        final int batchSize = Math.max(1, driverIntProperty(
+                COUNTER_READ_BATCH_SIZE, DEFAULT_COUNTER_READ_BATCH_SIZE));
+        final Map<PiTableEntryHandle, PiCounterCellData> counters = Maps.newHashMap();
+        for (List<PiTableEntry> chunk : Iterables.partition(tableEntries, batchSize)) {
+            final Set<PiHandle> cellHandles = chunk.stream()
                     .map(PiCounterCellId::ofDirect)
                     .map(id -> PiCounterCellHandle.of(deviceId, id))
                     .collect(Collectors.toSet());
-            // FIXME: We might be sending a very large read request...
-            return client.read(p4DeviceId, pipeconf)
+            client.read(p4DeviceId, pipeconf)
                     .handles(cellHandles)
                     .submitSync()
                     .all(PiCounterCell.class).stream()
                     .filter(c -> c.cellId().counterType().equals(PiCounterType.DIRECT))
-                    .collect(Collectors.toMap(
-                            c -> c.cellId().tableEntry().handle(deviceId),
-                            PiCounterCell::data));
+                    .forEach(c -> counters.put(
+                            c.cellId().tableEntry().handle(deviceId), c.data()));
         }
+        return counters;
     }
 
     private boolean tableHasCounter(PiTableId tableId) {
@@ -0,0 +1,139 @@
+/*
+ * Copyright 2020-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.drivers.p4runtime;
+
+import com.google.common.collect.Maps;
+import org.onlab.util.PartitionedFingerprint;
+import org.onosproject.net.DeviceId;
+import org.onosproject.net.pi.runtime.PiCounterCellData;
+import org.onosproject.net.pi.runtime.PiTableEntryHandle;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * State of the incremental reconciliation of the table entries of a device.
+ * <p>
+ * Tracks when the table entries must be read again from the device and the
+ * last counter values read for each entry, which are refreshed by sampling
+ * the entries in rotation.
+ */
+final class P4RuntimeReconcileState {
+
+    // State of the incremental reconciliation, per device.
+    private static final Map<DeviceId, P4RuntimeReconcileState> STATES = Maps.newConcurrentMap();
+
+    private final Map<PiTableEntryHandle, PiCounterCellData> counters = Maps.newHashMap();
+    private boolean fullReadRequested = true;
+    private int readsSinceFullRead;
+    private long round;
+
+    /**
+     * Returns the reconciliation state of the given device, creating it if
+     * needed.
+     *
+     * @param deviceId device ID
+     * @return reconciliation state
+     */
+    static P4RuntimeReconcileState of(DeviceId deviceId) {
+        return STATES.computeIfAbsent(deviceId, k -> new P4RuntimeReconcileState());
+    }
+
+    /**
+     * Forgets the reconciliation state of the given device.
+     *
+     * @param deviceId device ID
+     */
+    static void remove(DeviceId deviceId) {
+        STATES.remove(deviceId);
+    }
+
+    /**
+     * Returns true if the table entries can be built from the mirror instead
+     * of being read from the device. Counts the calls since the last full read.
+     *
+     * @param fullReadInterval number of calls between full reads
+     * @return true if the full read can be skipped
+     */
+    synchronized boolean skipFullRead(int fullReadInterval) {
+        return !fullReadRequested && ++readsSinceFullRead < fullReadInterval;
+    }
+
+    /**
+     * Requests the table entries to be read from the device at the next call.
+     */
+    synchronized void requestFullRead() {
+        fullReadRequested = true;
+    }
+
+    /**
+     * Records a full read of the table entries and of their counters.
+     *
+     * @param newCounters counters of all the entries read
+     */
+    synchronized void fullReadDone(Map<PiTableEntryHandle, PiCounterCellData> newCounters) {
+        fullReadRequested = false;
+        readsSinceFullRead = 0;
+        counters.clear();
+        counters.putAll(newCounters);
+    }
+
+    /**
+     * Returns the entries whose counters should be read in this round.
+     *
+     * @param handles    entries with a counter
+     * @param sampleSize approximate number of entries per round, non-positive
+     *                   values select all entries
+     * @return entries to read the counters of
+     */
+    synchronized Collection<PiTableEntryHandle> sample(
+            Set<PiTableEntryHandle> handles, int sampleSize) {
+        // Forget the counters of the entries that are gone.
+        counters.keySet().retainAll(handles);
+        if (sampleSize <= 0 || handles.size() <= sampleSize) {
+            return handles;
+        }
+        // Rotate over partitions of the entries, so that each counter is
+        // read every few rounds. Entries never read are always sampled.
+        final int partitions = (handles.size() + sampleSize - 1) / sampleSize;
+        final int partition = (int) (round++ % partitions);
+        return handles.stream()
+                .filter(h -> !counters.containsKey(h)
+                        || PartitionedFingerprint.partitionOf(h, partitions) == partition)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Records the counter values read for some entries.
+     *
+     * @param newCounters counters read
+     */
+    synchronized void updateCounters(Map<PiTableEntryHandle, PiCounterCellData> newCounters) {
+        counters.putAll(newCounters);
+    }
+
+    /**
+     * Returns the last counter value read for the given entry.
+     *
+     * @param handle entry handle
+     * @return counter value, or null if never read
+     */
+    synchronized PiCounterCellData counter(PiTableEntryHandle handle) {
+        return counters.get(handle);
+    }
+}
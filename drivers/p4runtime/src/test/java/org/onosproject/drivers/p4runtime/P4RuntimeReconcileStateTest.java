@@ -0,0 +1,197 @@
+/*
+ * Copyright 2020-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.drivers.p4runtime;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+import org.junit.Before;
+import org.junit.Test;
+import org.onosproject.net.DeviceId;
+import org.onosproject.net.pi.model.PiActionId;
+import org.onosproject.net.pi.model.PiTableId;
+import org.onosproject.net.pi.runtime.PiAction;
+import org.onosproject.net.pi.runtime.PiCounterCellData;
+import org.onosproject.net.pi.runtime.PiTableEntry;
+import org.onosproject.net.pi.runtime.PiTableEntryHandle;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Unit tests for the incremental reconciliation state of P4Runtime devices.
+ */
+public class P4RuntimeReconcileStateTest {
+
+    private static final DeviceId DEVICE_ID = DeviceId.deviceId("p4runtime:1");
+    private static final int FULL_READ_INTERVAL = 5;
+    private static final PiCounterCellData COUNTER = new PiCounterCellData(1, 100);
+
+    private P4RuntimeReconcileState state;
+
+    @Before
+    public void setUp() {
+        state = new P4RuntimeReconcileState();
+    }
+
+    private static Set<PiTableEntryHandle> handles(int count) {
+        Set<PiTableEntryHandle> handles = Sets.newHashSet();
+        for (int i = 0; i < count; i++) {
+            PiTableEntry entry = PiTableEntry.builder()
+                    .forTable(PiTableId.of("table"))
+                    .withPriority(i + 1)
+                    .withAction(PiAction.builder().withId(PiActionId.of("drop")).build())
+                    .build();
+            handles.add(PiTableEntryHandle.of(DEVICE_ID, entry));
+        }
+        return handles;
+    }
+
+    private static Map<PiTableEntryHandle, PiCounterCellData> counters(Collection<PiTableEntryHandle> handles) {
+        Map<PiTableEntryHandle, PiCounterCellData> counters = Maps.newHashMap();
+        handles.forEach(h -> counters.put(h, COUNTER));
+        return counters;
+    }
+
+    /**
+     * Tests that the first call reads the table entries from the device.
+     */
+    @Test
+    public void testInitialFullRead() {
+        assertFalse(state.skipFullRead(FULL_READ_INTERVAL));
+        assertFalse(state.skipFullRead(FULL_READ_INTERVAL));
+    }
+
+    /**
+     * Tests that the table entries are read again every interval.
+     */
+    @Test
+    public void testFullReadInterval() {
+        for (int cycle = 0; cycle < 3; cycle++) {
+            state.fullReadDone(ImmutableMap.of());
+            for (int i = 1; i < FULL_READ_INTERVAL; i++) {
+                assertTrue(state.skipFullRead(FULL_READ_INTERVAL));
+            }
+            assertFalse(state.skipFullRead(FULL_READ_INTERVAL));
+        }
+    }
+
+    /**
+     * Tests that a requested full read happens at the next call.
+     */
+    @Test
+    public void testRequestedFullRead() {
+        state.fullReadDone(ImmutableMap.of());
+        assertTrue(state.skipFullRead(FULL_READ_INTERVAL));
+        state.requestFullRead();
+        assertFalse(state.skipFullRead(FULL_READ_INTERVAL));
+        assertFalse(state.skipFullRead(FULL_READ_INTERVAL));
+
+        state.fullReadDone(ImmutableMap.of());
+        assertTrue(state.skipFullRead(FULL_READ_INTERVAL));
+    }
+
+    /**
+     * Tests that all entries are sampled when they fit in a sample.
+     */
+    @Test
+    public void testSampleAll() {
+        Set<PiTableEntryHandle> handles = handles(10);
+        state.fullReadDone(counters(handles));
+        assertEquals(handles, ImmutableSet.copyOf(state.sample(handles, 10)));
+        assertEquals(handles, ImmutableSet.copyOf(state.sample(handles, 0)));
+        assertEquals(handles, ImmutableSet.copyOf(state.sample(handles, -1)));
+    }
+
+    /**
+     * Tests that the samples rotate over all the entries, each entry being
+     * sampled once per rotation.
+     */
+    @Test
+    public void testSampleRotation() {
+        Set<PiTableEntryHandle> handles = handles(100);
+        state.fullReadDone(counters(handles));
+        int partitions = 4;
+
+        for (int rotation = 0; rotation < 2; rotation++) {
+            Set<PiTableEntryHandle> sampled = Sets.newHashSet();
+            for (int round = 0; round < partitions; round++) {
+                Collection<PiTableEntryHandle> sample = state.sample(handles, 25);
+                assertTrue(sample.size() < handles.size());
+                for (PiTableEntryHandle handle : sample) {
+                    assertTrue("Entry sampled twice in a rotation", sampled.add(handle));
+                }
+            }
+            assertEquals(handles, sampled);
+        }
+    }
+
+    /**
+     * Tests that entries never read are sampled until their counter is known.
+     */
+    @Test
+    public void testSampleNewEntries() {
+        Set<PiTableEntryHandle> handles = handles(100);
+        Set<PiTableEntryHandle> newHandles = ImmutableSet.copyOf(handles(110));
+        state.fullReadDone(counters(handles));
+        Set<PiTableEntryHandle> added = Sets.difference(newHandles, handles).immutableCopy();
+
+        assertTrue(state.sample(newHandles, 25).containsAll(added));
+        assertTrue(state.sample(newHandles, 25).containsAll(added));
+
+        state.updateCounters(counters(added));
+        Set<PiTableEntryHandle> sampled = Sets.newHashSet();
+        for (int round = 0; round < 5; round++) {
+            sampled.addAll(state.sample(newHandles, 25));
+        }
+        assertEquals(newHandles, sampled);
+    }
+
+    /**
+     * Tests that the counters of the entries that are gone are forgotten.
+     */
+    @Test
+    public void testForgetRemovedEntries() {
+        Set<PiTableEntryHandle> handles = handles(10);
+        state.fullReadDone(counters(handles));
+        PiTableEntryHandle removed = handles.iterator().next();
+        assertSame(COUNTER, state.counter(removed));
+
+        state.sample(Sets.difference(handles, ImmutableSet.of(removed)), 0);
+        assertNull(state.counter(removed));
+    }
+
+    /**
+     * Tests that the state of a device is kept until the device is removed.
+     */
+    @Test
+    public void testRemove() {
+        P4RuntimeReconcileState deviceState = P4RuntimeReconcileState.of(DEVICE_ID);
+        assertSame(deviceState, P4RuntimeReconcileState.of(DEVICE_ID));
+        P4RuntimeReconcileState.remove(DEVICE_ID);
+        assertNotSame(deviceState, P4RuntimeReconcileState.of(DEVICE_ID));
+        P4RuntimeReconcileState.remove(DEVICE_ID);
+    }
+}
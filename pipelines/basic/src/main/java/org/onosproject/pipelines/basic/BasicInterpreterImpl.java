@@ -183,10 +183,11 @@ public class BasicInterpreterImpl extends AbstractHandlerBehaviour
             throws PiInterpreterException {
         // Assuming that the packet is ethernet, which is fine since basic.p4
         // can deparse only ethernet packets.
+        // Copy the payload once, for both the parsed and unparsed packet.
+        final byte[] data = packetIn.data().asArray();
         Ethernet ethPkt;
         try {
-            ethPkt = Ethernet.deserializer().deserialize(packetIn.data().asArray(), 0,
-                                                         packetIn.data().size());
+            ethPkt = Ethernet.deserializer().deserialize(data, 0, data.length);
         } catch (DeserializationException dex) {
             throw new PiInterpreterException(dex.getMessage());
         }
@@ -200,7 +201,7 @@ public class BasicInterpreterImpl extends AbstractHandlerBehaviour
             ImmutableByteSequence portByteSequence = packetMetadata.get().value();
             short s = portByteSequence.asReadOnlyBuffer().getShort();
             ConnectPoint receivedFrom = new ConnectPoint(deviceId, PortNumber.portNumber(s));
-            ByteBuffer rawData = ByteBuffer.wrap(packetIn.data().asArray());
+            ByteBuffer rawData = ByteBuffer.wrap(data);
             return new DefaultInboundPacket(receivedFrom, ethPkt, rawData);
         } else {
             throw new PiInterpreterException(format(
@@ -53,13 +53,14 @@ final class GnmiSubscriptionManager {
     private final GnmiClientImpl client;
     private final DeviceId deviceId;
     private final GnmiControllerImpl controller;
-    private final StreamObserver<Gnmi.SubscribeResponse> responseObserver;
 
     private final ScheduledExecutorService streamCheckerExecutor =
             newSingleThreadScheduledExecutor(groupedThreads("onos/gnmi-subscribe-check", "%d", log));
     private Future<?> checkTask;
 
     private ClientCallStreamObserver<Gnmi.SubscribeRequest> requestObserver;
+    // Observer of the current RPC; events of cancelled RPCs are ignored.
+    private StreamObserver<Gnmi.SubscribeResponse> responseObserver;
     private Gnmi.SubscribeRequest existingSubscription;
     private AtomicBoolean active = new AtomicBoolean(false);
 
@@ -68,7 +69,6 @@ final class GnmiSubscriptionManager {
         this.client = client;
         this.deviceId = deviceId;
         this.controller = controller;
-        this.responseObserver = new InternalStreamResponseObserver();
     }
 
     void subscribe(Gnmi.SubscribeRequest request) {
@@ -87,7 +87,7 @@ final class GnmiSubscriptionManager {
             }
             existingSubscription = request;
             sendSubscribeRequest();
-            if (checkTask != null) {
+            if (checkTask == null) {
                 checkTask = streamCheckerExecutor.scheduleAtFixedRate(
                         this::checkSubscription, 0,
                         DEFAULT_RECONNECT_DELAY,
@@ -130,6 +130,7 @@ final class GnmiSubscriptionManager {
     private void sendSubscribeRequest() {
         if (requestObserver == null) {
             log.debug("Starting new Subscribe RPC for {}...", deviceId);
+            responseObserver = new InternalStreamResponseObserver();
             client.execRpcNoTimeout(
                     s -> requestObserver =
                             (ClientCallStreamObserver<Gnmi.SubscribeRequest>)
@@ -144,9 +145,11 @@ final class GnmiSubscriptionManager {
         synchronized (this) {
             active.set(false);
             if (requestObserver != null) {
-                requestObserver.onCompleted();
-                requestObserver.cancel("Terminated", null);
+                final ClientCallStreamObserver<Gnmi.SubscribeRequest> observer = requestObserver;
                 requestObserver = null;
+                responseObserver = null;
+                observer.onCompleted();
+                observer.cancel("Terminated", null);
             }
         }
     }
@@ -174,7 +177,9 @@ final class GnmiSubscriptionManager {
 
         @Override
         public void onError(Throwable throwable) {
-            complete();
+            if (!completeIfCurrent()) {
+                return;
+            }
             if (throwable instanceof StatusRuntimeException) {
                 StatusRuntimeException sre = (StatusRuntimeException) throwable;
                 if (sre.getStatus().getCause() instanceof ConnectException) {
@@ -192,9 +197,22 @@ final class GnmiSubscriptionManager {
 
         @Override
         public void onCompleted() {
-            complete();
+            if (!completeIfCurrent()) {
+                return;
+            }
             log.warn("Subscribe RPC for {} has completed", deviceId);
         }
+
+        private boolean completeIfCurrent() {
+            synchronized (GnmiSubscriptionManager.this) {
+                if (responseObserver != this) {
+                    // RPC replaced by a new subscription.
+                    return false;
+                }
+                complete();
+                return true;
+            }
+        }
     }
 
     @Override
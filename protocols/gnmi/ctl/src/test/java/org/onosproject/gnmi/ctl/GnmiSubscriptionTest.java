@@ -0,0 +1,171 @@
+/*
+ * Copyright 2020-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.gnmi.ctl;
+
+import gnmi.Gnmi.Path;
+import gnmi.Gnmi.PathElem;
+import gnmi.Gnmi.SubscribeRequest;
+import gnmi.Gnmi.Subscription;
+import gnmi.Gnmi.SubscriptionList;
+import gnmi.Gnmi.SubscriptionMode;
+import gnmi.Gnmi.Update;
+import io.grpc.ManagedChannel;
+import io.grpc.Server;
+import io.grpc.inprocess.InProcessChannelBuilder;
+import io.grpc.inprocess.InProcessServerBuilder;
+import org.junit.After;
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.onosproject.gnmi.api.GnmiEvent;
+import org.onosproject.gnmi.api.GnmiUpdate;
+import org.onosproject.net.DeviceId;
+import org.onosproject.net.device.DeviceAgentEvent;
+
+import java.io.IOException;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests of the gNMI Subscribe RPC with SAMPLE subscriptions, against a local
+ * gNMI server stub.
+ */
+public class GnmiSubscriptionTest {
+
+    private static final String GRPC_SERVER_NAME = "GnmiSubscriptionTest";
+    private static final DeviceId DEVICE_ID = DeviceId.deviceId("device:gnmi:1");
+    private static final long TIMEOUT_SECONDS = 5;
+
+    private static final MockGnmiServer GNMI_SERVER = new MockGnmiServer();
+    private static Server grpcServer;
+    private static ManagedChannel grpcChannel;
+
+    private final BlockingQueue<GnmiEvent> events = new LinkedBlockingQueue<>();
+    private GnmiClientImpl client;
+
+    @BeforeClass
+    public static void globalSetup() throws IOException {
+        grpcServer = InProcessServerBuilder.forName(GRPC_SERVER_NAME)
+                .directExecutor()
+                .addService(GNMI_SERVER)
+                .build()
+                .start();
+        grpcChannel = InProcessChannelBuilder.forName(GRPC_SERVER_NAME)
+                .directExecutor()
+                .build();
+    }
+
+    @AfterClass
+    public static void globalTearDown() {
+        grpcServer.shutdown();
+        grpcChannel.shutdown();
+    }
+
+    @Before
+    public void setup() {
+        GNMI_SERVER.requests().clear();
+        client = new GnmiClientImpl(DEVICE_ID, grpcChannel, new GnmiControllerImpl() {
+            @Override
+            public void postEvent(GnmiEvent event) {
+                events.add(event);
+            }
+
+            @Override
+            public void postEvent(DeviceAgentEvent event) {
+                // Channel state is not relevant here.
+            }
+        });
+    }
+
+    @After
+    public void teardown() {
+        client.shutdown();
+    }
+
+    /**
+     * Tests that samples of the subscribed counters are posted as gNMI
+     * update events.
+     */
+    @Test
+    public void testSampleSubscription() throws Exception {
+        GNMI_SERVER.setCounterValue(42);
+        client.subscribe(sampleRequest("1", 1000));
+
+        final GnmiEvent event = events.poll(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        assertNotNull("no sample received", event);
+        assertEquals(GnmiEvent.Type.UPDATE, event.type());
+        final GnmiUpdate gnmiUpdate = (GnmiUpdate) event.subject();
+        assertEquals(DEVICE_ID, gnmiUpdate.deviceId());
+        assertEquals(2, gnmiUpdate.update().getUpdateCount());
+        for (Update update : gnmiUpdate.update().getUpdateList()) {
+            assertEquals(5, update.getPath().getElemCount());
+            assertEquals("1", update.getPath().getElem(1).getKeyOrThrow("name"));
+            assertEquals(42, update.getVal().getUintVal());
+        }
+
+        final Subscription subscription = GNMI_SERVER.requests().get(0)
+                .getSubscribe().getSubscription(0);
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(1000), subscription.getSampleInterval());
+        assertTrue(subscription.getSuppressRedundant());
+    }
+
+    /**
+     * Tests that the same request is sent only once, while a different one
+     * replaces the existing subscription.
+     */
+    @Test
+    public void testResubscribe() throws Exception {
+        client.subscribe(sampleRequest("1", 1000));
+        client.subscribe(sampleRequest("1", 1000));
+        assertNotNull(events.poll(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+        assertEquals(1, GNMI_SERVER.requests().size());
+
+        GNMI_SERVER.setCounterValue(7);
+        client.subscribe(sampleRequest("1", 500));
+        final GnmiEvent event = events.poll(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        assertNotNull("no sample received", event);
+        assertEquals(7, ((GnmiUpdate) event.subject()).update().getUpdate(0).getVal().getUintVal());
+        assertEquals(2, GNMI_SERVER.requests().size());
+    }
+
+    private static SubscribeRequest sampleRequest(String ifName, long sampleIntervalMillis) {
+        final Path path = Path.newBuilder()
+                .addElem(PathElem.newBuilder().setName("interfaces").build())
+                .addElem(PathElem.newBuilder().setName("interface").putKey("name", ifName).build())
+                .addElem(PathElem.newBuilder().setName("state").build())
+                .addElem(PathElem.newBuilder().setName("counters").build())
+                .build();
+        return SubscribeRequest.newBuilder()
+                .setSubscribe(SubscriptionList.newBuilder()
+                                      .setMode(SubscriptionList.Mode.STREAM)
+                                      .setUpdatesOnly(true)
+                                      .addSubscription(Subscription.newBuilder()
+                                              .setPath(path)
+                                              .setMode(SubscriptionMode.SAMPLE)
+                                              .setSampleInterval(TimeUnit.MILLISECONDS.toNanos(
+                                                      sampleIntervalMillis))
+                                              .setSuppressRedundant(true)
+                                              .setHeartbeatInterval(TimeUnit.SECONDS.toNanos(10))
+                                              .build()))
+                .build();
+    }
+}
@@ -0,0 +1,101 @@
+/*
+ * Copyright 2020-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.gnmi.ctl;
+
+import com.google.common.collect.Lists;
+import gnmi.Gnmi.Notification;
+import gnmi.Gnmi.Path;
+import gnmi.Gnmi.PathElem;
+import gnmi.Gnmi.SubscribeRequest;
+import gnmi.Gnmi.SubscribeResponse;
+import gnmi.Gnmi.Subscription;
+import gnmi.Gnmi.SubscriptionMode;
+import gnmi.Gnmi.TypedValue;
+import gnmi.Gnmi.Update;
+import gnmi.gNMIGrpc;
+import io.grpc.stub.StreamObserver;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * gNMI server stub answering SAMPLE subscriptions with one sample of the
+ * subscribed counters.
+ */
+public class MockGnmiServer extends gNMIGrpc.gNMIImplBase {
+
+    private final List<SubscribeRequest> requests =
+            Collections.synchronizedList(Lists.newArrayList());
+    private volatile long counterValue;
+
+    /**
+     * Sets the value of all the counters sent in the next samples.
+     *
+     * @param counterValue counter value
+     */
+    public void setCounterValue(long counterValue) {
+        this.counterValue = counterValue;
+    }
+
+    /**
+     * Returns the subscribe requests received so far.
+     *
+     * @return subscribe requests
+     */
+    public List<SubscribeRequest> requests() {
+        return requests;
+    }
+
+    @Override
+    public StreamObserver<SubscribeRequest> subscribe(
+            StreamObserver<SubscribeResponse> responseObserver) {
+        return new StreamObserver<SubscribeRequest>() {
+            @Override
+            public void onNext(SubscribeRequest request) {
+                requests.add(request);
+                for (Subscription subscription : request.getSubscribe().getSubscriptionList()) {
+                    if (subscription.getMode() == SubscriptionMode.SAMPLE) {
+                        responseObserver.onNext(sample(subscription.getPath()));
+                    }
+                }
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+                // Nothing to do.
+            }
+
+            @Override
+            public void onCompleted() {
+                responseObserver.onCompleted();
+            }
+        };
+    }
+
+    private SubscribeResponse sample(Path countersPath) {
+        final Notification.Builder notification = Notification.newBuilder()
+                .setTimestamp(System.nanoTime());
+        for (String counter : new String[]{"in-octets", "out-octets"}) {
+            notification.addUpdate(Update.newBuilder()
+                    .setPath(countersPath.toBuilder()
+                                     .addElem(PathElem.newBuilder().setName(counter).build())
+                                     .build())
+                    .setVal(TypedValue.newBuilder().setUintVal(counterValue).build())
+                    .build());
+        }
+        return SubscribeResponse.newBuilder().setUpdate(notification).build();
+    }
+}
@@ -0,0 +1,516 @@
+/*
+ * Copyright 2020-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.netconf;
+
+import com.google.common.annotations.Beta;
+import com.google.common.base.MoreObjects;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.io.CharSource;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Streaming extraction of records from NETCONF replies.
+ * <p>
+ * Replies are parsed with StAX, without building a document tree: only the
+ * values selected by the extractor are kept in memory. An extractor selects
+ * the elements forming records and, for each record, the values of its
+ * fields; records can contain nested records. For instance, the name and
+ * type of the OpenConfig components, with their properties, are extracted
+ * as follows:
+ * <pre>{@code
+ * NetconfXmlExtractor extractor = NetconfXmlExtractor
+ *         .builder("/rpc-reply/data/components/component")
+ *         .field("name", "name")
+ *         .field("type", "state/type")
+ *         .records("property", NetconfXmlExtractor.builder("properties/property")
+ *                 .field("name", "name")
+ *                 .field("value", "state/value")
+ *                 .build())
+ *         .build();
+ * }</pre>
+ * Paths are a subset of XPath location paths made of steps separated by
+ * {@code /}: element local names (namespace prefixes are ignored),
+ * {@code *} for any element, {@code //} for any number of intermediate
+ * elements, {@code .} for the current element, and a last {@code @name}
+ * step to select an attribute. Record paths are relative to the document
+ * for the top-level extractor, and to the parent record for nested ones;
+ * field paths are relative to their record. Field values are the trimmed
+ * text content of the selected elements, in document order.
+ * <p>
+ * Extractors are immutable and thread-safe.
+ */
+@Beta
+public final class NetconfXmlExtractor {
+
+    private static final XMLInputFactory XML_INPUT_FACTORY = xmlInputFactory();
+
+    private final Step[] steps;
+    private final List<Field> fields;
+    private final Map<String, NetconfXmlExtractor> nested;
+
+    private NetconfXmlExtractor(Builder builder) {
+        this.steps = builder.steps;
+        this.fields = ImmutableList.copyOf(builder.fields);
+        this.nested = ImmutableMap.copyOf(builder.nested);
+    }
+
+    /**
+     * Returns a new builder of extractors of the records selected by the
+     * given path.
+     *
+     * @param recordPath path of the record elements
+     * @return extractor builder
+     */
+    public static Builder builder(String recordPath) {
+        return new Builder(recordPath);
+    }
+
+    /**
+     * Extracts the records from the given XML document.
+     *
+     * @param xml XML document, e.g. an rpc-reply
+     * @return records in document order
+     * @throws NetconfException if the document is not well-formed
+     */
+    public List<Record> extract(CharSequence xml) throws NetconfException {
+        List<Record> records = Lists.newArrayList();
+        extract(xml, records::add);
+        return records;
+    }
+
+    /**
+     * Extracts the records from the given XML document, passing each of them
+     * to the given consumer as soon as it is complete.
+     *
+     * @param xml      XML document, e.g. an rpc-reply
+     * @param consumer record consumer
+     * @throws NetconfException if the document is not well-formed
+     */
+    public void extract(CharSequence xml, Consumer<Record> consumer) throws NetconfException {
+        try (Reader reader = CharSource.wrap(xml).openStream()) {
+            XMLStreamReader xsr = XML_INPUT_FACTORY.createXMLStreamReader(reader);
+            try {
+                extract(xsr, consumer);
+            } finally {
+                xsr.close();
+            }
+        } catch (XMLStreamException | IOException e) {
+            throw new NetconfException("Failed to parse XML", e);
+        }
+    }
+
+    /**
+     * Extracts the records from the given XML stream, passing each of them
+     * to the given consumer as soon as it is complete. The stream is not
+     * closed.
+     *
+     * @param in       XML stream, e.g. an rpc-reply
+     * @param consumer record consumer
+     * @throws NetconfException if the document is not well-formed
+     */
+    public void extract(InputStream in, Consumer<Record> consumer) throws NetconfException {
+        try {
+            XMLStreamReader xsr = XML_INPUT_FACTORY.createXMLStreamReader(in);
+            try {
+                extract(xsr, consumer);
+            } finally {
+                xsr.close();
+            }
+        } catch (XMLStreamException e) {
+            throw new NetconfException("Failed to parse XML", e);
+        }
+    }
+
+    private void extract(XMLStreamReader xsr, Consumer<Record> consumer) throws XMLStreamException {
+        // Local names of the current element and of its ancestors
+        List<String> names = Lists.newArrayList();
+        // Records being extracted, innermost first
+        Deque<OpenRecord> records = new ArrayDeque<>();
+        // Fields whose text is being read, innermost last
+        List<Capture> captures = Lists.newArrayList();
+
+        while (xsr.hasNext()) {
+            switch (xsr.next()) {
+                case XMLStreamConstants.START_ELEMENT:
+                    names.add(xsr.getLocalName());
+                    int depth = names.size();
+                    OpenRecord inner = records.peek();
+                    if (inner == null) {
+                        if (matches(steps, names, 0, depth)) {
+                            records.push(new OpenRecord(this, null, depth));
+                        }
+                    } else {
+                        for (Map.Entry<String, NetconfXmlExtractor> e : inner.extractor.nested.entrySet()) {
+                            if (matches(e.getValue().steps, names, inner.depth, depth)) {
+                                records.push(new OpenRecord(e.getValue(), e.getKey(), depth));
+                                break;
+                            }
+                        }
+                    }
+                    for (OpenRecord record : records) {
+                        record.startElement(xsr, names, depth, captures);
+                    }
+                    break;
+
+                case XMLStreamConstants.CHARACTERS:
+                case XMLStreamConstants.CDATA:
+                case XMLStreamConstants.SPACE:
+                    for (Capture capture : captures) {
+                        capture.text.append(xsr.getTextCharacters(), xsr.getTextStart(),
+                                            xsr.getTextLength());
+                    }
+                    break;
+
+                case XMLStreamConstants.END_ELEMENT:
+                    depth = names.size();
+                    while (!captures.isEmpty() && captures.get(captures.size() - 1).depth == depth) {
+                        Capture capture = captures.remove(captures.size() - 1);
+                        capture.record.add(capture.field, capture.text.toString().trim());
+                    }
+                    inner = records.peek();
+                    if (inner != null && inner.depth == depth) {
+                        records.pop();
+                        OpenRecord parent = records.peek();
+                        if (parent == null) {
+                            consumer.accept(inner.record);
+                        } else {
+                            parent.record.addRecord(inner.name, inner.record);
+                        }
+                    }
+                    names.remove(depth - 1);
+                    break;
+
+                default:
+                    break;
+            }
+        }
+    }
+
+    // Returns true if names[from, to) match the given steps
+    private static boolean matches(Step[] steps, List<String> names, int from, int to) {
+        if (steps.length == 0) {
+            return from == to;
+        }
+        // Most elements are ruled out by the last step.
+        Step last = steps[steps.length - 1];
+        if (to == from || !last.matches(names.get(to - 1))) {
+            return false;
+        }
+        return matches(steps, 0, names, from, to);
+    }
+
+    private static boolean matches(Step[] steps, int step, List<String> names, int from, int to) {
+        if (step == steps.length) {
+            return from == to;
+        }
+        if (from == to) {
+            return false;
+        }
+        Step current = steps[step];
+        if (current.descendant) {
+            for (int i = from; i < to; i++) {
+                if (current.matches(names.get(i)) && matches(steps, step + 1, names, i + 1, to)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+        return current.matches(names.get(from)) && matches(steps, step + 1, names, from + 1, to);
+    }
+
+    private static XMLInputFactory xmlInputFactory() {
+        XMLInputFactory factory = XMLInputFactory.newFactory();
+        // Replies are not trusted: no DTD nor external entities
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        return factory;
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this)
+                .add("fields", fields)
+                .add("nested", nested)
+                .toString();
+    }
+
+    /**
+     * Builder of extractors.
+     */
+    public static final class Builder {
+
+        private final Step[] steps;
+        private final List<Field> fields = Lists.newArrayList();
+        private final Map<String, NetconfXmlExtractor> nested = Maps.newLinkedHashMap();
+
+        private Builder(String recordPath) {
+            Path path = Path.parse(recordPath);
+            checkArgument(path.attribute == null, "Record path cannot select an attribute");
+            checkArgument(path.steps.length > 0, "Record path cannot be empty");
+            this.steps = path.steps;
+        }
+
+        /**
+         * Adds a field to the records.
+         *
+         * @param name field name
+         * @param path path of the field values, relative to the record
+         * @return this builder
+         */
+        public Builder field(String name, String path) {
+            fields.add(new Field(checkNotNull(name), Path.parse(path)));
+            return this;
+        }
+
+        /**
+         * Adds nested records to the records. Nested records are extracted
+         * by the first matching extractor.
+         *
+         * @param name      name of the nested records
+         * @param extractor extractor of the nested records, with a record
+         *                  path relative to the record
+         * @return this builder
+         */
+        public Builder records(String name, NetconfXmlExtractor extractor) {
+            nested.put(checkNotNull(name), checkNotNull(extractor));
+            return this;
+        }
+
+        /**
+         * Builds the extractor.
+         *
+         * @return extractor
+         */
+        public NetconfXmlExtractor build() {
+            return new NetconfXmlExtractor(this);
+        }
+    }
+
+    /**
+     * Record extracted from an XML document.
+     */
+    public static final class Record {
+
+        private final Map<String, List<String>> values = Maps.newLinkedHashMap();
+        private final Map<String, List<Record>> records = Maps.newLinkedHashMap();
+
+        private Record() {
+        }
+
+        /**
+         * Returns the first value of the given field.
+         *
+         * @param field field name
+         * @return first value, or null if the field has no value
+         */
+        public String value(String field) {
+            List<String> fieldValues = values.get(field);
+            return fieldValues == null ? null : fieldValues.get(0);
+        }
+
+        /**
+         * Returns the first value of the given field, or the given default
+         * if the field has no value.
+         *
+         * @param field        field name
+         * @param defaultValue default value
+         * @return first value or default
+         */
+        public String value(String field, String defaultValue) {
+            String value = value(field);
+            return value == null ? defaultValue : value;
+        }
+
+        /**
+         * Returns all the values of the given field, in document order.
+         *
+         * @param field field name
+         * @return values; empty if none
+         */
+        public List<String> values(String field) {
+            List<String> fieldValues = values.get(field);
+            return fieldValues == null ? Collections.emptyList()
+                    : Collections.unmodifiableList(fieldValues);
+        }
+
+        /**
+         * Returns the nested records of the given name, in document order.
+         *
+         * @param name name of the nested records
+         * @return nested records; empty if none
+         */
+        public List<Record> records(String name) {
+            List<Record> nestedRecords = records.get(name);
+            return nestedRecords == null ? Collections.emptyList()
+                    : Collections.unmodifiableList(nestedRecords);
+        }
+
+        private void add(String field, String value) {
+            values.computeIfAbsent(field, k -> Lists.newArrayListWithCapacity(1)).add(value);
+        }
+
+        private void addRecord(String name, Record record) {
+            records.computeIfAbsent(name, k -> Lists.newArrayList()).add(record);
+        }
+
+        @Override
+        public String toString() {
+            return MoreObjects.toStringHelper(this)
+                    .add("values", values)
+                    .add("records", records)
+                    .toString();
+        }
+    }
+
+    // Record whose end element has not been read yet
+    private static final class OpenRecord {
+        private final NetconfXmlExtractor extractor;
+        private final String name;
+        private final int depth;
+        private final Record record = new Record();
+
+        private OpenRecord(NetconfXmlExtractor extractor, String name, int depth) {
+            this.extractor = extractor;
+            this.name = name;
+            this.depth = depth;
+        }
+
+        private void startElement(XMLStreamReader xsr, List<String> names, int elementDepth,
+                                  List<Capture> captures) {
+            for (Field field : extractor.fields) {
+                if (!matches(field.path.steps, names, depth, elementDepth)) {
+                    continue;
+                }
+                if (field.path.attribute != null) {
+                    String value = xsr.getAttributeValue(null, field.path.attribute);
+                    if (value != null) {
+                        record.add(field.name, value.trim());
+                    }
+                } else {
+                    captures.add(new Capture(this.record, field.name, elementDepth));
+                }
+            }
+        }
+    }
+
+    // Text content of an element being read
+    private static final class Capture {
+        private final Record record;
+        private final String field;
+        private final int depth;
+        private final StringBuilder text = new StringBuilder();
+
+        private Capture(Record record, String field, int depth) {
+            this.record = record;
+            this.field = field;
+            this.depth = depth;
+        }
+    }
+
+    private static final class Field {
+        private final String name;
+        private final Path path;
+
+        private Field(String name, Path path) {
+            this.name = name;
+            this.path = path;
+        }
+
+        @Override
+        public String toString() {
+            return name;
+        }
+    }
+
+    // Parsed path: element steps and optional attribute
+    private static final class Path {
+        private final Step[] steps;
+        private final String attribute;
+
+        private Path(Step[] steps, String attribute) {
+            this.steps = steps;
+            this.attribute = attribute;
+        }
+
+        private static Path parse(String path) {
+            checkNotNull(path, "Path cannot be null");
+            List<Step> steps = Lists.newArrayList();
+            String attribute = null;
+            boolean descendant = false;
+            String[] tokens = path.trim().split("/", -1);
+            for (int i = 0; i < tokens.length; i++) {
+                String token = tokens[i].trim();
+                checkArgument(attribute == null, "Attribute must be the last step of %s", path);
+                if (token.isEmpty()) {
+                    // Leading slash, or double slash
+                    descendant = i > 0 && i < tokens.length - 1;
+                    checkArgument(i == 0 || i < tokens.length - 1, "Trailing slash in %s", path);
+                    continue;
+                }
+                if (token.equals(".") || token.equals("text()")) {
+                    continue;
+                }
+                if (token.startsWith("@")) {
+                    attribute = localName(token.substring(1));
+                    checkArgument(!attribute.isEmpty(), "Empty attribute name in %s", path);
+                    continue;
+                }
+                checkArgument(token.indexOf('[') < 0, "Predicates are not supported in %s", path);
+                steps.add(new Step(token.equals("*") ? null : localName(token), descendant));
+                descendant = false;
+            }
+            return new Path(steps.toArray(new Step[0]), attribute);
+        }
+
+        private static String localName(String name) {
+            return name.substring(name.indexOf(':') + 1);
+        }
+    }
+
+    // Element step: local name, or any element if null
+    private static final class Step {
+        private final String name;
+        private final boolean descendant;
+
+        private Step(String name, boolean descendant) {
+            this.name = name;
+            this.descendant = descendant;
+        }
+
+        private boolean matches(String localName) {
+            return name == null || name.equals(localName);
+        }
+    }
+}
@@ -0,0 +1,141 @@
+/*
+ * Copyright 2020-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.netconf;
+
+import com.google.common.collect.ImmutableList;
+import org.junit.Test;
+import org.onosproject.netconf.NetconfXmlExtractor.Record;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests of the streaming extraction of records from NETCONF replies.
+ */
+public class NetconfXmlExtractorTest {
+
+    private static final String REPLY =
+            "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n" +
+            "<rpc-reply xmlns=\"urn:ietf:params:xml:ns:netconf:base:1.0\" message-id=\"7\">\n" +
+            "  <data>\n" +
+            "    <components xmlns=\"http://openconfig.net/yang/platform\"\n" +
+            "                xmlns:oc-platform-types=\"http://openconfig.net/yang/platform-types\">\n" +
+            "      <component>\n" +
+            "        <name>port-1</name>\n" +
+            "        <state><type>oc-platform-types:PORT</type></state>\n" +
+            "        <properties>\n" +
+            "          <property><name>onos-index</name><state><value>11</value></state></property>\n" +
+            "          <property><name>odtn-port-type</name><state><value>client</value></state></property>\n" +
+            "        </properties>\n" +
+            "        <subcomponents>\n" +
+            "          <subcomponent><name>transceiver-1</name></subcomponent>\n" +
+            "        </subcomponents>\n" +
+            "      </component>\n" +
+            "      <component>\n" +
+            "        <name>transceiver-1</name>\n" +
+            "        <state><type>oc-platform-types:TRANSCEIVER</type></state>\n" +
+            "      </component>\n" +
+            "    </components>\n" +
+            "  </data>\n" +
+            "</rpc-reply>";
+
+    private static final NetconfXmlExtractor COMPONENTS = NetconfXmlExtractor
+            .builder("/rpc-reply/data/components/component")
+            .field("name", "name")
+            .field("type", "state/type")
+            .field("subcomponent", "subcomponents/subcomponent/name")
+            .records("property", NetconfXmlExtractor.builder("properties/property")
+                    .field("name", "name")
+                    .field("value", "state/value")
+                    .build())
+            .build();
+
+    /**
+     * Tests extraction of fields and nested records.
+     */
+    @Test
+    public void testRecords() throws NetconfException {
+        List<Record> components = COMPONENTS.extract(REPLY);
+        assertEquals(2, components.size());
+
+        Record port = components.get(0);
+        assertEquals("port-1", port.value("name"));
+        assertEquals("oc-platform-types:PORT", port.value("type"));
+        assertEquals(ImmutableList.of("transceiver-1"), port.values("subcomponent"));
+        List<Record> properties = port.records("property");
+        assertEquals(2, properties.size());
+        assertEquals("onos-index", properties.get(0).value("name"));
+        assertEquals("11", properties.get(0).value("value"));
+        assertEquals("client", properties.get(1).value("value"));
+
+        Record transceiver = components.get(1);
+        assertEquals("transceiver-1", transceiver.value("name"));
+        assertTrue(transceiver.values("subcomponent").isEmpty());
+        assertTrue(transceiver.records("property").isEmpty());
+        assertNull(transceiver.value("missing"));
+        assertEquals("none", transceiver.value("missing", "none"));
+    }
+
+    /**
+     * Tests descendant and wildcard steps, attributes and prefixed names.
+     */
+    @Test
+    public void testPaths() throws NetconfException {
+        NetconfXmlExtractor extractor = NetconfXmlExtractor.builder("//nc:rpc-reply")
+                .field("id", "@message-id")
+                .field("names", "//component/name")
+                .field("types", "data/*/component/state/type")
+                .build();
+        List<Record> replies = extractor.extract(REPLY);
+        assertEquals(1, replies.size());
+        Record reply = replies.get(0);
+        assertEquals("7", reply.value("id"));
+        assertEquals(ImmutableList.of("port-1", "transceiver-1"), reply.values("names"));
+        assertEquals(2, reply.values("types").size());
+    }
+
+    /**
+     * Tests that records are passed to the consumer while streaming.
+     */
+    @Test
+    public void testStream() throws NetconfException {
+        StringBuilder seen = new StringBuilder();
+        COMPONENTS.extract(new ByteArrayInputStream(REPLY.getBytes(StandardCharsets.UTF_8)),
+                           record -> seen.append(record.value("name")).append(';'));
+        assertEquals("port-1;transceiver-1;", seen.toString());
+    }
+
+    /**
+     * Tests that malformed documents are reported.
+     */
+    @Test(expected = NetconfException.class)
+    public void testMalformed() throws NetconfException {
+        COMPONENTS.extract("<rpc-reply><data></rpc-reply>");
+    }
+
+    /**
+     * Tests that unsupported paths are rejected.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testPredicate() {
+        NetconfXmlExtractor.builder("component[name='port-1']");
+    }
+}
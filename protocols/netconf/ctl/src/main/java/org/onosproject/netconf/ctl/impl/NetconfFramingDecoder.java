@@ -0,0 +1,380 @@
+/*
+ * Copyright 2020-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.netconf.ctl.impl;
+
+import org.onosproject.netconf.NetconfException;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * Decoder of the NETCONF message framing, working on raw bytes.
+ * <p>
+ * Both the end-of-message framing of NETCONF 1.0 (messages terminated by
+ * {@code ]]>]]>}) and the chunked framing of RFC 6242 are supported; the
+ * framing of each message is detected from its first bytes. Chunk headers
+ * are parsed directly and the chunk data is skipped without being scanned,
+ * hence the cost of decoding a chunked message is dominated by a single copy
+ * of its content.
+ * <p>
+ * Received bytes are appended with {@link #feed(byte[], int, int)}, complete
+ * messages are then polled with {@link #next()}. Decoders are not
+ * thread-safe.
+ */
+final class NetconfFramingDecoder {
+
+    private static final int DEFAULT_CAPACITY = 8192;
+    private static final byte[] END_OF_MESSAGE =
+            "]]>]]>".getBytes(StandardCharsets.UTF_8);
+    private static final byte LF = '\n';
+    private static final byte HASH = '#';
+
+    // Header of the message is looked up in this many bytes at most.
+    private static final int MAX_HEADER_LENGTH = 1024;
+    private static final byte[] MESSAGE_ID =
+            "message-id=".getBytes(StandardCharsets.UTF_8);
+
+    private byte[] buffer;
+    // Start of the message being decoded
+    private int start;
+    // End of the received bytes
+    private int limit;
+    // End-of-message framing: position from which to look for the delimiter
+    private int scanPosition;
+    // Chunked framing: position of the next chunk header, or -1 if the
+    // framing of the current message is not chunked (or not known yet)
+    private int chunkPosition = -1;
+    // Chunked framing: end of the de-chunked content, written in place
+    private int contentEnd;
+
+    /**
+     * Creates a new decoder.
+     */
+    NetconfFramingDecoder() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Creates a new decoder with the given initial buffer capacity.
+     *
+     * @param capacity initial capacity in bytes
+     */
+    NetconfFramingDecoder(int capacity) {
+        checkArgument(capacity > 0, "Capacity must be positive");
+        this.buffer = new byte[capacity];
+    }
+
+    /**
+     * Appends the given received bytes.
+     *
+     * @param data   received bytes
+     * @param offset offset of the first byte in data
+     * @param length number of bytes
+     */
+    void feed(byte[] data, int offset, int length) {
+        ensureCapacity(length);
+        System.arraycopy(data, offset, buffer, limit, length);
+        limit += length;
+    }
+
+    /**
+     * Returns the next complete message, without framing.
+     * <p>
+     * The returned buffer is a view of the internal buffer of the decoder; it
+     * is valid only until the next invocation of a method of the decoder.
+     *
+     * @return next message, or null if more bytes are needed
+     * @throws NetconfException if the message is badly framed
+     */
+    ByteBuffer next() throws NetconfException {
+        if (chunkPosition < 0 && !detectChunked()) {
+            return nextEndOfMessage();
+        }
+        return nextChunked();
+    }
+
+    /**
+     * Returns the number of buffered bytes not yet returned as messages.
+     *
+     * @return number of bytes
+     */
+    int pending() {
+        return limit - start;
+    }
+
+    // Returns true if the current message uses the chunked framing, false if
+    // it uses the end-of-message one or if more bytes are needed to know.
+    private boolean detectChunked() {
+        // Whitespaces are allowed before a message; in chunked framing the
+        // first chunk header starts with a line feed.
+        int position = start;
+        while (position < limit && isWhitespace(buffer[position])) {
+            position++;
+        }
+        if (position < limit && buffer[position] == HASH
+                && position > start && buffer[position - 1] == LF) {
+            chunkPosition = position - 1;
+            contentEnd = start;
+            return true;
+        }
+        return false;
+    }
+
+    private ByteBuffer nextEndOfMessage() {
+        final int from = Math.max(scanPosition, start);
+        final int last = limit - END_OF_MESSAGE.length;
+        for (int i = from; i <= last; i++) {
+            if (buffer[i] == END_OF_MESSAGE[0] && isEndOfMessage(i)) {
+                final ByteBuffer message = ByteBuffer.wrap(buffer, start, i - start).slice();
+                start = i + END_OF_MESSAGE.length;
+                scanPosition = start;
+                return message;
+            }
+        }
+        // Resume after the bytes that cannot start a delimiter.
+        scanPosition = Math.max(from, last + 1);
+        return null;
+    }
+
+    private boolean isEndOfMessage(int position) {
+        for (int j = 1; j < END_OF_MESSAGE.length; j++) {
+            if (buffer[position + j] != END_OF_MESSAGE[j]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private ByteBuffer nextChunked() throws NetconfException {
+        while (true) {
+            // chunk = LF HASH chunk-size LF chunk-data
+            // end-of-chunks = LF HASH HASH LF
+            int position = chunkPosition;
+            if (limit - position < 4) {
+                return null;
+            }
+            if (buffer[position] != LF || buffer[position + 1] != HASH) {
+                throw framingError("missing chunk header");
+            }
+            position += 2;
+            if (buffer[position] == HASH) {
+                if (buffer[position + 1] != LF) {
+                    throw framingError("bad end-of-chunks marker");
+                }
+                final ByteBuffer message = ByteBuffer.wrap(buffer, start, contentEnd - start).slice();
+                start = position + 2;
+                scanPosition = start;
+                chunkPosition = -1;
+                return message;
+            }
+            long chunkSize = 0;
+            final int digitsStart = position;
+            while (position < limit && buffer[position] != LF) {
+                final byte b = buffer[position];
+                if (b < '0' || b > '9' || (position == digitsStart && b == '0')) {
+                    throw framingError("bad chunk size");
+                }
+                chunkSize = chunkSize * 10 + (b - '0');
+                if (chunkSize > Integer.MAX_VALUE) {
+                    throw framingError("chunk size too large");
+                }
+                position++;
+            }
+            if (position == limit) {
+                // Chunk size not complete yet.
+                return null;
+            }
+            if (position == digitsStart) {
+                throw framingError("missing chunk size");
+            }
+            final int dataStart = position + 1;
+            if (limit - dataStart < chunkSize) {
+                // Make room for the whole chunk at once.
+                ensureCapacity((int) chunkSize - (limit - dataStart));
+                return null;
+            }
+            // Chunk data is moved right after the previous one.
+            System.arraycopy(buffer, dataStart, buffer, contentEnd, (int) chunkSize);
+            contentEnd += (int) chunkSize;
+            chunkPosition = dataStart + (int) chunkSize;
+        }
+    }
+
+    private NetconfException framingError(String reason) {
+        return new NetconfException("Malformed chunked framing: " + reason);
+    }
+
+    // Makes room for the given number of bytes after the limit, dropping the
+    // bytes of the messages already returned.
+    private void ensureCapacity(int length) {
+        if (buffer.length - limit >= length) {
+            return;
+        }
+        final int shift = start;
+        final int pending = limit - start;
+        if (buffer.length - pending >= length && pending <= buffer.length / 2) {
+            System.arraycopy(buffer, start, buffer, 0, pending);
+        } else {
+            final long required = (long) pending + length;
+            if (required > Integer.MAX_VALUE) {
+                throw new IllegalStateException("NETCONF message too large");
+            }
+            final byte[] grown = new byte[(int) Math.min(
+                    Integer.MAX_VALUE, Math.max(required, 2L * buffer.length))];
+            System.arraycopy(buffer, start, grown, 0, pending);
+            buffer = grown;
+        }
+        start -= shift;
+        limit -= shift;
+        scanPosition = Math.max(0, scanPosition - shift);
+        if (chunkPosition >= 0) {
+            chunkPosition -= shift;
+            contentEnd -= shift;
+        }
+    }
+
+    private static boolean isWhitespace(byte b) {
+        return b == ' ' || b == '\t' || b == '\r' || b == LF;
+    }
+
+    /**
+     * Returns the local name of the root element of the given message,
+     * looking only at the beginning of the message.
+     *
+     * @param message message without framing
+     * @return root element name, if found
+     */
+    static Optional<String> rootElement(ByteBuffer message) {
+        final int tag = rootTagStart(message);
+        if (tag < 0) {
+            return Optional.empty();
+        }
+        final int end = Math.min(message.limit(), tag + MAX_HEADER_LENGTH);
+        int nameStart = tag + 1;
+        int position = nameStart;
+        while (position < end) {
+            final byte b = message.get(position);
+            if (isWhitespace(b) || b == '>' || b == '/') {
+                break;
+            } else if (b == ':') {
+                // Drop the namespace prefix.
+                nameStart = position + 1;
+            }
+            position++;
+        }
+        if (position == end || position == nameStart) {
+            return Optional.empty();
+        }
+        return Optional.of(new String(bytes(message, nameStart, position), StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Returns the message-id attribute of the root element of the given
+     * message, looking only at the start tag of the root element.
+     *
+     * @param message message without framing
+     * @return message-id, if found
+     */
+    static Optional<Integer> messageId(ByteBuffer message) {
+        final int tag = rootTagStart(message);
+        if (tag < 0) {
+            return Optional.empty();
+        }
+        final int end = Math.min(message.limit(), tag + MAX_HEADER_LENGTH);
+        for (int i = tag; i < end && message.get(i) != '>'; i++) {
+            if (!startsWith(message, i, MESSAGE_ID)) {
+                continue;
+            }
+            int position = i + MESSAGE_ID.length;
+            if (position >= end || message.get(position) != '"') {
+                return Optional.empty();
+            }
+            long id = 0;
+            final int digitsStart = ++position;
+            while (position < end && message.get(position) >= '0'
+                    && message.get(position) <= '9') {
+                id = id * 10 + (message.get(position) - '0');
+                if (id > Integer.MAX_VALUE) {
+                    return Optional.empty();
+                }
+                position++;
+            }
+            if (position == digitsStart || position == end || message.get(position) != '"') {
+                return Optional.empty();
+            }
+            return Optional.of((int) id);
+        }
+        return Optional.empty();
+    }
+
+    // Returns the position of the '<' of the root element, skipping the XML
+    // declaration, processing instructions and comments, or -1 if not found.
+    private static int rootTagStart(ByteBuffer message) {
+        final int end = Math.min(message.limit(), MAX_HEADER_LENGTH);
+        int position = 0;
+        while (position < end) {
+            final byte b = message.get(position);
+            if (isWhitespace(b)) {
+                position++;
+            } else if (b != '<' || position + 1 >= end) {
+                return -1;
+            } else if (message.get(position + 1) == '?') {
+                position = skipPast(message, position, end, "?>");
+            } else if (message.get(position + 1) == '!') {
+                position = skipPast(message, position, end, "-->");
+            } else {
+                return position;
+            }
+            if (position < 0) {
+                return -1;
+            }
+        }
+        return -1;
+    }
+
+    private static int skipPast(ByteBuffer message, int from, int end, String delimiter) {
+        final byte[] delimiterBytes = delimiter.getBytes(StandardCharsets.UTF_8);
+        for (int i = from; i <= end - delimiterBytes.length; i++) {
+            if (startsWith(message, i, delimiterBytes)) {
+                return i + delimiterBytes.length;
+            }
+        }
+        return -1;
+    }
+
+    private static boolean startsWith(ByteBuffer message, int position, byte[] prefix) {
+        if (message.limit() - position < prefix.length) {
+            return false;
+        }
+        for (int j = 0; j < prefix.length; j++) {
+            if (message.get(position + j) != prefix[j]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static byte[] bytes(ByteBuffer message, int from, int to) {
+        final byte[] bytes = new byte[to - from];
+        for (int i = from; i < to; i++) {
+            bytes[i - from] = message.get(i);
+        }
+        return bytes;
+    }
+}
@@ -25,21 +25,17 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 
-import java.io.BufferedReader;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.io.OutputStreamWriter;
+import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
 import java.nio.channels.ClosedByInterruptException;
-import java.io.InputStreamReader;
 import java.io.IOException;
-import java.io.UnsupportedEncodingException;
 import java.util.List;
 import java.util.Map;
-import java.util.ArrayList;
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
-import java.util.regex.MatchResult;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -53,21 +49,15 @@ public class NetconfStreamThread extends Thread implements NetconfStreamHandler
     private static final Logger log = LoggerFactory
             .getLogger(NetconfStreamThread.class);
     private static final String HELLO = "<hello";
+    private static final String HELLO_ELEMENT = "hello";
+    private static final String NOTIFICATION_ELEMENT = "notification";
+    private static final int READ_BUFFER_SIZE = 65536;
     private static final String END_PATTERN = "]]>]]>";
     private static final String RPC_REPLY = "rpc-reply";
     private static final String RPC_ERROR = "rpc-error";
     private static final String NOTIFICATION_LABEL = "<notification";
     private static final String MESSAGE_ID = "message-id=";
     private static final Pattern MSGID_PATTERN = Pattern.compile(MESSAGE_ID + "\"(\\d+)\"");
-    private static final String MSGLEN_REGEX_PATTERN = "\n#\\d+\n";
-    // pattern to verify whole Chunked-Message format
-    private static final Pattern CHUNKED_FRAMING_PATTERN =
-            Pattern.compile("(\\n#([1-9][0-9]*)\\n(.+))+\\n##\\n", Pattern.DOTALL);
-    private static final String CHUNKED_END_REGEX_PATTERN = "\n##\n";
-    // pattern to parse each chunk-size in ChunkedMessage chunk
-    private static final Pattern CHUNKED_SIZE_PATTERN = Pattern.compile("\\n#([1-9][0-9]*)\\n");
-    private static final char HASH_CHAR = '#';
-    private static final char LF_CHAR = '\n';
     protected static final String ON_REQUEST = "on request";
 
     private OutputStreamWriter outputStream;
@@ -75,7 +65,6 @@ public class NetconfStreamThread extends Thread implements NetconfStreamHandler
     private final InputStream in;
     private NetconfDeviceInfo netconfDeviceInfo;
     private NetconfSessionDelegate sessionDelegate;
-    private NetconfMessageState state;
     private List<NetconfDeviceOutputEventListener> netconfDeviceEventListeners
             = Lists.newCopyOnWriteArrayList();
     private boolean enableNotifications = true;
@@ -89,7 +78,6 @@ public class NetconfStreamThread extends Thread implements NetconfStreamHandler
         this.err = err;
         outputStream = new OutputStreamWriter(out, StandardCharsets.UTF_8);
         netconfDeviceInfo = deviceInfo;
-        state = NetconfMessageState.NO_MATCHING_PATTERN;
         sessionDelegate = delegate;
         this.replies = replies;
         log.debug("Stream thread for device {} session started", deviceInfo);
@@ -237,21 +225,13 @@ public class NetconfStreamThread extends Thread implements NetconfStreamHandler
 
     @Override
     public void run() {
-        BufferedReader bufferReader = null;
-        while (bufferReader == null) {
-            try {
-                bufferReader = new BufferedReader(new InputStreamReader(in, "UTF-8"));
-            } catch (UnsupportedEncodingException e) {
-                throw new IllegalStateException(e);
-            }
-        }
-
+        final NetconfFramingDecoder decoder = new NetconfFramingDecoder();
+        final byte[] readBuffer = new byte[READ_BUFFER_SIZE];
         try {
             boolean socketClosed = false;
-            StringBuilder deviceReplyBuilder = new StringBuilder();
             while (!socketClosed && !this.isInterrupted()) {
-                int cInt = bufferReader.read();
-                if (cInt == -1) {
+                int read = in.read(readBuffer);
+                if (read == -1) {
                     log.debug("Netconf device {}  sent error char in session," +
                             " will need to be reopened", netconfDeviceInfo);
                     NetconfDeviceOutputEvent event = new NetconfDeviceOutputEvent(
@@ -260,34 +240,25 @@ public class NetconfStreamThread extends Thread implements NetconfStreamHandler
                     netconfDeviceEventListeners.forEach(
                             listener -> listener.event(event));
                     socketClosed = true;
-                    log.debug("Netconf device {} ERROR cInt == -1 socketClosed = true", netconfDeviceInfo);
+                    log.debug("Netconf device {} ERROR read == -1 socketClosed = true", netconfDeviceInfo);
+                    break;
                 }
-                char c = (char) cInt;
-                state = state.evaluateChar(c);
-                deviceReplyBuilder.append(c);
-                if (state == NetconfMessageState.END_PATTERN) {
-                    String deviceReply = deviceReplyBuilder.toString();
-                    if (deviceReply.equals(END_PATTERN)) {
-                        socketClosed = true;
-                        close(deviceReply);
-                    } else {
-                        deviceReply = deviceReply.replace(END_PATTERN, "");
-                        dealWithReply(deviceReply);
-                        deviceReplyBuilder.setLength(0);
-                    }
-                } else if (state == NetconfMessageState.END_CHUNKED_PATTERN) {
-                    String deviceReply = deviceReplyBuilder.toString();
-                    if (!validateChunkedFraming(deviceReply)) {
-                        log.debug("Netconf device {} send badly framed message {}",
-                                netconfDeviceInfo, deviceReply);
-                        socketClosed = true;
-                        close(deviceReply);
-                    } else {
-                        deviceReply = deviceReply.replaceAll(MSGLEN_REGEX_PATTERN, "");
-                        deviceReply = deviceReply.replaceAll(CHUNKED_END_REGEX_PATTERN, "");
-                        dealWithReply(deviceReply);
-                        deviceReplyBuilder.setLength(0);
+                decoder.feed(readBuffer, 0, read);
+                try {
+                    ByteBuffer message;
+                    while (!socketClosed && (message = decoder.next()) != null) {
+                        if (!message.hasRemaining()) {
+                            socketClosed = true;
+                            close(END_PATTERN);
+                        } else {
+                            dealWithReply(message);
+                        }
                     }
+                } catch (NetconfException e) {
+                    log.debug("Netconf device {} send badly framed message: {}",
+                            netconfDeviceInfo, e.getMessage());
+                    socketClosed = true;
+                    close(e.getMessage());
                 }
             }
         } catch (ClosedByInterruptException i) {
@@ -317,69 +288,64 @@ public class NetconfStreamThread extends Thread implements NetconfStreamHandler
         this.interrupt();
     }
 
+    private void dealWithReply(ByteBuffer message) {
+        // Message type and id are taken from the root element, without
+        // scanning the whole message.
+        final Optional<String> rootElement = NetconfFramingDecoder.rootElement(message);
+        final String deviceReply = new String(message.array(), message.arrayOffset(),
+                                              message.remaining(), StandardCharsets.UTF_8);
+        if (!rootElement.isPresent()) {
+            dealWithReply(deviceReply);
+            return;
+        }
+        final String root = rootElement.get();
+        if (RPC_REPLY.equals(root) || HELLO_ELEMENT.equals(root)) {
+            Optional<Integer> messageId = HELLO_ELEMENT.equals(root)
+                    ? Optional.of(-1) : NetconfFramingDecoder.messageId(message);
+            if (!messageId.isPresent()) {
+                messageId = getMsgId(deviceReply);
+            }
+            notifyReply(deviceReply, messageId);
+        } else if (NOTIFICATION_ELEMENT.equals(root)) {
+            notifyNotification(deviceReply, NetconfFramingDecoder.messageId(message));
+        } else {
+            dealWithReply(deviceReply);
+        }
+    }
+
     private void dealWithReply(String deviceReply) {
         if (deviceReply.contains(RPC_REPLY) ||
                 deviceReply.contains(RPC_ERROR) ||
                 deviceReply.contains(HELLO)) {
-            log.debug("Netconf device {} sessionDelegate.notify() DEVICE_REPLY {} {}",
-                    netconfDeviceInfo, getMsgId(deviceReply), deviceReply);
-            NetconfDeviceOutputEvent event = new NetconfDeviceOutputEvent(
-                    NetconfDeviceOutputEvent.Type.DEVICE_REPLY,
-                    null, deviceReply, getMsgId(deviceReply), netconfDeviceInfo);
-            sessionDelegate.notify(event);
-            netconfDeviceEventListeners.forEach(
-                    listener -> listener.event(event));
+            notifyReply(deviceReply, getMsgId(deviceReply));
         } else if (deviceReply.contains(NOTIFICATION_LABEL)) {
-            log.debug("Netconf device {} DEVICE_NOTIFICATION {} {} {}",
-                    netconfDeviceInfo, enableNotifications,
-                    getMsgId(deviceReply), deviceReply);
-            if (enableNotifications) {
-                log.debug("dispatching to {} listeners", netconfDeviceEventListeners.size());
-                final String finalDeviceReply = deviceReply;
-                netconfDeviceEventListeners.forEach(
-                        listener -> listener.event(new NetconfDeviceOutputEvent(
-                                NetconfDeviceOutputEvent.Type.DEVICE_NOTIFICATION,
-                                null, finalDeviceReply, getMsgId(finalDeviceReply),
-                                netconfDeviceInfo)));
-            }
+            notifyNotification(deviceReply, getMsgId(deviceReply));
         } else {
             log.debug("Error on reply from device {} {}", netconfDeviceInfo, deviceReply);
         }
     }
 
-    static boolean validateChunkedFraming(String reply) {
-        Matcher matcher = CHUNKED_FRAMING_PATTERN.matcher(reply);
-        if (!matcher.matches()) {
-            log.debug("Error on reply {}", reply);
-            return false;
-        }
-        Matcher chunkM = CHUNKED_SIZE_PATTERN.matcher(reply);
-        List<MatchResult> chunks = new ArrayList<>();
-        String chunkdataStr = "";
-        while (chunkM.find()) {
-            chunks.add(chunkM.toMatchResult());
-            // extract chunk-data (and later) in bytes
-            int bytes = Integer.parseInt(chunkM.group(1));
-            byte[] chunkdata = reply.substring(chunkM.end()).getBytes(StandardCharsets.UTF_8);
-            if (bytes > chunkdata.length) {
-                log.debug("Error on reply - wrong chunk size {}", reply);
-                return false;
-            }
-            //check if after chunk-size bytes there is next chunk or message ending
-            if (chunkdata[bytes] != LF_CHAR || chunkdata[bytes + 1] != HASH_CHAR) {
-                log.debug("Error on reply - wrong chunk size {}", reply);
-                return false;
-            }
-            // convert (only) chunk-data part into String
-            chunkdataStr = new String(chunkdata, 0, bytes, StandardCharsets.UTF_8);
-            // skip chunk-data part from next match
-            chunkM.region(chunkM.end() + chunkdataStr.length(), reply.length());
-        }
-        if (!"\n##\n".equals(reply.substring(chunks.get(chunks.size() - 1).end() + chunkdataStr.length()))) {
-            log.debug("Error on reply {}", reply);
-            return false;
+    private void notifyReply(String deviceReply, Optional<Integer> messageId) {
+        log.debug("Netconf device {} sessionDelegate.notify() DEVICE_REPLY {} {}",
+                netconfDeviceInfo, messageId, deviceReply);
+        NetconfDeviceOutputEvent event = new NetconfDeviceOutputEvent(
+                NetconfDeviceOutputEvent.Type.DEVICE_REPLY,
+                null, deviceReply, messageId, netconfDeviceInfo);
+        sessionDelegate.notify(event);
+        netconfDeviceEventListeners.forEach(
+                listener -> listener.event(event));
+    }
+
+    private void notifyNotification(String deviceReply, Optional<Integer> messageId) {
+        log.debug("Netconf device {} DEVICE_NOTIFICATION {} {} {}",
+                netconfDeviceInfo, enableNotifications, messageId, deviceReply);
+        if (enableNotifications) {
+            log.debug("dispatching to {} listeners", netconfDeviceEventListeners.size());
+            netconfDeviceEventListeners.forEach(
+                    listener -> listener.event(new NetconfDeviceOutputEvent(
+                            NetconfDeviceOutputEvent.Type.DEVICE_NOTIFICATION,
+                            null, deviceReply, messageId, netconfDeviceInfo)));
         }
-        return true;
     }
 
     protected static Optional<Integer> getMsgId(String reply) {
@@ -0,0 +1,153 @@
+/*
+ * Copyright 2020-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.netconf.ctl.impl;
+
+import org.junit.Test;
+import org.onosproject.netconf.NetconfException;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+
+/**
+ * Tests of the NETCONF framing decoder.
+ */
+public class NetconfFramingDecoderTest {
+
+    private static final String REPLY =
+            "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n" +
+            "<rpc-reply xmlns=\"urn:ietf:params:xml:ns:netconf:base:1.0\" message-id=\"101\">" +
+            "<data><name>caf\u00e9</name></data></rpc-reply>";
+
+    private final NetconfFramingDecoder decoder = new NetconfFramingDecoder(16);
+
+    /**
+     * Tests decoding of end-of-message framed messages fed byte by byte.
+     */
+    @Test
+    public void testEndOfMessage() throws NetconfException {
+        final byte[] data = (REPLY + "]]>]]>" + "<hello/>]]>]]>").getBytes(StandardCharsets.UTF_8);
+        for (int i = 0; i < data.length - 1; i++) {
+            decoder.feed(data, i, 1);
+            if (i == REPLY.getBytes(StandardCharsets.UTF_8).length + 5) {
+                assertEquals(REPLY, string(decoder.next()));
+            } else {
+                assertNull(decoder.next());
+            }
+        }
+        decoder.feed(data, data.length - 1, 1);
+        assertEquals("<hello/>", string(decoder.next()));
+        assertNull(decoder.next());
+        assertEquals(0, decoder.pending());
+    }
+
+    /**
+     * Tests decoding of chunked messages split in arbitrary parts.
+     */
+    @Test
+    public void testChunked() throws NetconfException {
+        final byte[] reply = REPLY.getBytes(StandardCharsets.UTF_8);
+        final String framed = "\n#10\n" + new String(reply, 0, 10, StandardCharsets.UTF_8) +
+                "\n#" + (reply.length - 10) + "\n" +
+                new String(reply, 10, reply.length - 10, StandardCharsets.UTF_8) + "\n##\n";
+        final byte[] data = (framed + framed).getBytes(StandardCharsets.UTF_8);
+        int messages = 0;
+        for (int i = 0; i < data.length; i += 7) {
+            decoder.feed(data, i, Math.min(7, data.length - i));
+            ByteBuffer message;
+            while ((message = decoder.next()) != null) {
+                assertEquals(REPLY, string(message));
+                messages++;
+            }
+        }
+        assertEquals(2, messages);
+        assertEquals(0, decoder.pending());
+    }
+
+    /**
+     * Tests that chunk data containing framing characters is not interpreted.
+     */
+    @Test
+    public void testChunkDataNotScanned() throws NetconfException {
+        final String content = "<a>]]>]]>\n##\n</a>";
+        feed("\n#" + content.length() + "\n" + content + "\n##\n");
+        assertEquals(content, string(decoder.next()));
+    }
+
+    /**
+     * Tests the switch from end-of-message to chunked framing after hello.
+     */
+    @Test
+    public void testFramingSwitch() throws NetconfException {
+        feed("<hello/>]]>]]>\n\n#4\n<a/>\n##\n");
+        assertEquals("<hello/>", string(decoder.next()));
+        assertEquals("<a/>", string(decoder.next()));
+        assertNull(decoder.next());
+    }
+
+    /**
+     * Tests that badly framed chunked messages are rejected.
+     */
+    @Test(expected = NetconfException.class)
+    public void testBadChunkSize() throws NetconfException {
+        feed("\n#4\n<a/>\n#0\n\n##\n");
+        decoder.next();
+    }
+
+    /**
+     * Tests that chunks not followed by a chunk header are rejected.
+     */
+    @Test(expected = NetconfException.class)
+    public void testWrongChunkLength() throws NetconfException {
+        feed("\n#3\n<a/>\n##\n");
+        decoder.next();
+    }
+
+    /**
+     * Tests the extraction of the root element and message-id.
+     */
+    @Test
+    public void testHeader() {
+        final ByteBuffer reply = ByteBuffer.wrap(REPLY.getBytes(StandardCharsets.UTF_8));
+        assertEquals(Optional.of("rpc-reply"), NetconfFramingDecoder.rootElement(reply));
+        assertEquals(Optional.of(101), NetconfFramingDecoder.messageId(reply));
+
+        final ByteBuffer notification = ByteBuffer.wrap(
+                ("<!-- event -->\n<nc:notification xmlns:nc=\"urn:x\"><eventTime/>" +
+                        "<rpc-reply message-id=\"7\"/></nc:notification>")
+                        .getBytes(StandardCharsets.UTF_8));
+        assertEquals(Optional.of("notification"), NetconfFramingDecoder.rootElement(notification));
+        assertFalse(NetconfFramingDecoder.messageId(notification).isPresent());
+
+        final ByteBuffer text = ByteBuffer.wrap("not xml".getBytes(StandardCharsets.UTF_8));
+        assertFalse(NetconfFramingDecoder.rootElement(text).isPresent());
+    }
+
+    private void feed(String data) {
+        final byte[] bytes = data.getBytes(StandardCharsets.UTF_8);
+        decoder.feed(bytes, 0, bytes.length);
+    }
+
+    private static String string(ByteBuffer message) {
+        final byte[] bytes = new byte[message.remaining()];
+        message.duplicate().get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
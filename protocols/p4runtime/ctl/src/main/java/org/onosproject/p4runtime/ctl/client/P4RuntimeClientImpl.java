@@ -71,6 +71,7 @@ public final class P4RuntimeClientImpl
     private final PiPipeconfService pipeconfService;
     private final MasterElectionIdStore masterElectionIdStore;
     private final ConcurrentMap<Long, StreamClientImpl> streamClients = Maps.newConcurrentMap();
+    private final WritePipeline writePipeline;
 
     /**
      * Instantiates a new client with the given arguments.
@@ -96,6 +97,8 @@ public final class P4RuntimeClientImpl
         this.pipeconfService = pipeconfService;
         this.masterElectionIdStore = masterElectionIdStore;
         this.pipelineConfigClient = new PipelineConfigClientImpl(this);
+        this.writePipeline = new WritePipeline(controller::writeWindow,
+                                               controller.writeMetrics());
     }
 
     @Override
@@ -165,6 +168,15 @@ public final class P4RuntimeClientImpl
         return new WriteRequestImpl(this, p4DeviceId, pipeconf);
     }
 
+    /**
+     * Returns the pipeline of the Write RPCs of this client.
+     *
+     * @return write pipeline
+     */
+    WritePipeline writePipeline() {
+        return writePipeline;
+    }
+
     @Override
     public CompletableFuture<Boolean> probeService() {
         final CompletableFuture<Boolean> future = new CompletableFuture<>();
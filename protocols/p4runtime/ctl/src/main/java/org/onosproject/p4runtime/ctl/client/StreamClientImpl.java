@@ -42,6 +42,7 @@ import p4.v1.P4RuntimeOuterClass.StreamMessageResponse;
 import java.math.BigInteger;
 import java.net.ConnectException;
 import java.nio.ByteBuffer;
+import java.util.Optional;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
@@ -274,19 +275,18 @@ public final class StreamClientImpl implements P4RuntimeStreamClient {
         if (log.isTraceEnabled()) {
             log.trace("Received packet-in from {}: {}", deviceId, packetInMsg);
         }
-        if (!pipeconfService.getPipeconf(deviceId).isPresent()) {
+        final Optional<PiPipeconf> pipeconf = pipeconfService.getPipeconf(deviceId);
+        if (!pipeconf.isPresent()) {
             log.warn("Unable to handle packet-in from {}, missing pipeconf: {}",
                      deviceId, TextFormat.shortDebugString(packetInMsg));
             return;
         }
-        // Decode packet message and post event.
-        // TODO: consider implementing a cache to speed up
-        //  encoding/deconding of packet-in/out (e.g. LLDP, ARP)
-        final PiPipeconf pipeconf = pipeconfService.getPipeconf(deviceId).get();
+        // Decode packet message and post event. The payload is not copied,
+        // the packet operation wraps the buffer of the protobuf message.
         final PiPacketOperation pktOperation;
         try {
             pktOperation = CODECS.packetIn().decode(
-                    packetInMsg, null, pipeconf);
+                    packetInMsg, null, pipeconf.get());
         } catch (CodecException e) {
             log.warn("Unable to process packet-int: {}", e.getMessage());
             return;
@@ -0,0 +1,190 @@
+/*
+ * Copyright 2020-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.p4runtime.ctl.client;
+
+import com.google.common.collect.HashMultiset;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Multiset;
+import org.onosproject.net.pi.runtime.PiHandle;
+
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntSupplier;
+import java.util.function.Supplier;
+
+import static com.google.common.base.MoreObjects.toStringHelper;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Pipeline of the Write RPCs of a client.
+ * <p>
+ * Up to a window of write requests are in flight at the same time, instead
+ * of waiting for the response of a request before sending the next one.
+ * Requests are sent in submission order; a request updating an entity
+ * targeted by a request in flight waits for its completion, so that the
+ * updates of an entity reach the server in order and are acknowledged in
+ * order. The future of a request is completed before the requests waiting
+ * for it are sent.
+ */
+final class WritePipeline {
+
+    private static final int DEFAULT_WINDOW = 8;
+
+    private final IntSupplier window;
+    private final WritePipelineMetrics metrics;
+
+    private final Queue<PendingWrite<?>> queue = new ArrayDeque<>();
+    private final Multiset<PiHandle> inflightHandles = HashMultiset.create();
+    private int inflight;
+
+    /**
+     * Creates a new pipeline.
+     *
+     * @param window  supplier of the maximum number of requests in flight;
+     *                non-positive values select the default window
+     * @param metrics metrics to update, or null
+     */
+    WritePipeline(IntSupplier window, WritePipelineMetrics metrics) {
+        this.window = checkNotNull(window);
+        this.metrics = metrics;
+    }
+
+    /**
+     * Submits a write request.
+     *
+     * @param handles handles of the entities updated by the request
+     * @param sender  sends the request and returns the future of its response
+     * @param <T>     response type
+     * @return future of the response
+     */
+    <T> CompletableFuture<T> submit(Collection<? extends PiHandle> handles,
+                                    Supplier<CompletableFuture<T>> sender) {
+        final PendingWrite<T> write = new PendingWrite<>(handles, sender);
+        final List<PendingWrite<?>> ready;
+        synchronized (this) {
+            queue.add(write);
+            if (metrics != null) {
+                metrics.queued().inc();
+            }
+            ready = dequeueReady();
+        }
+        ready.forEach(PendingWrite::send);
+        return write.future;
+    }
+
+    /**
+     * Returns the number of requests in flight.
+     *
+     * @return requests in flight
+     */
+    synchronized int inflight() {
+        return inflight;
+    }
+
+    /**
+     * Returns the number of requests waiting to be sent.
+     *
+     * @return queued requests
+     */
+    synchronized int queued() {
+        return queue.size();
+    }
+
+    // Must be called with the lock held
+    private List<PendingWrite<?>> dequeueReady() {
+        final int maxInflight = window.getAsInt() > 0 ? window.getAsInt() : DEFAULT_WINDOW;
+        final List<PendingWrite<?>> ready = Lists.newArrayList();
+        while (!queue.isEmpty() && inflight < maxInflight) {
+            final PendingWrite<?> head = queue.peek();
+            // Head-of-line blocking keeps later requests on the same entities
+            // behind the head as well
+            if (head.handles.stream().anyMatch(inflightHandles::contains)) {
+                break;
+            }
+            queue.remove();
+            inflight++;
+            inflightHandles.addAll(head.handles);
+            ready.add(head);
+        }
+        return ready;
+    }
+
+    private void completed(PendingWrite<?> write) {
+        final List<PendingWrite<?>> ready;
+        synchronized (this) {
+            inflight--;
+            write.handles.forEach(inflightHandles::remove);
+            ready = dequeueReady();
+        }
+        ready.forEach(PendingWrite::send);
+    }
+
+    @Override
+    public synchronized String toString() {
+        return toStringHelper(this)
+                .add("inflight", inflight)
+                .add("queued", queue.size())
+                .toString();
+    }
+
+    private final class PendingWrite<T> {
+        private final Collection<? extends PiHandle> handles;
+        private final Supplier<CompletableFuture<T>> sender;
+        private final CompletableFuture<T> future = new CompletableFuture<>();
+        private final long submitTime = System.nanoTime();
+
+        private PendingWrite(Collection<? extends PiHandle> handles,
+                             Supplier<CompletableFuture<T>> sender) {
+            this.handles = handles;
+            this.sender = sender;
+        }
+
+        private void send() {
+            final long sendTime = System.nanoTime();
+            if (metrics != null) {
+                metrics.queued().dec();
+                metrics.inflight().inc();
+                metrics.queueTime().update(sendTime - submitTime, TimeUnit.NANOSECONDS);
+            }
+            CompletableFuture<T> response;
+            try {
+                response = sender.get();
+            } catch (RuntimeException e) {
+                response = new CompletableFuture<>();
+                response.completeExceptionally(e);
+            }
+            response.whenComplete((result, error) -> {
+                if (metrics != null) {
+                    metrics.inflight().dec();
+                    metrics.rtt().update(System.nanoTime() - sendTime, TimeUnit.NANOSECONDS);
+                }
+                try {
+                    if (error != null) {
+                        future.completeExceptionally(error);
+                    } else {
+                        future.complete(result);
+                    }
+                } finally {
+                    completed(this);
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,90 @@
+/*
+ * Copyright 2020-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.p4runtime.ctl.client;
+
+import com.codahale.metrics.Counter;
+import com.codahale.metrics.Timer;
+import org.onlab.metrics.MetricsComponent;
+import org.onlab.metrics.MetricsFeature;
+import org.onlab.metrics.MetricsService;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Metrics of the Write RPC pipelines, aggregated over all the clients.
+ */
+public final class WritePipelineMetrics {
+
+    private static final String COMPONENT = "P4Runtime";
+    private static final String FEATURE = "write";
+
+    private final Counter inflight;
+    private final Counter queued;
+    private final Timer rtt;
+    private final Timer queueTime;
+
+    /**
+     * Creates and registers the pipeline metrics.
+     *
+     * @param metricsService metrics service
+     */
+    public WritePipelineMetrics(MetricsService metricsService) {
+        checkNotNull(metricsService);
+        final MetricsComponent component = metricsService.registerComponent(COMPONENT);
+        final MetricsFeature feature = component.registerFeature(FEATURE);
+        this.inflight = metricsService.createCounter(component, feature, "inflight");
+        this.queued = metricsService.createCounter(component, feature, "queued");
+        this.rtt = metricsService.createTimer(component, feature, "rtt");
+        this.queueTime = metricsService.createTimer(component, feature, "queueTime");
+    }
+
+    /**
+     * Returns the number of write requests in flight.
+     *
+     * @return in-flight counter
+     */
+    Counter inflight() {
+        return inflight;
+    }
+
+    /**
+     * Returns the number of write requests waiting for a slot in the window.
+     *
+     * @return queued counter
+     */
+    Counter queued() {
+        return queued;
+    }
+
+    /**
+     * Returns the time between sending a write request and receiving its
+     * response.
+     *
+     * @return round-trip timer
+     */
+    Timer rtt() {
+        return rtt;
+    }
+
+    /**
+     * Returns the time spent by write requests waiting to be sent.
+     *
+     * @return queue timer
+     */
+    Timer queueTime() {
+        return queueTime;
+    }
+}
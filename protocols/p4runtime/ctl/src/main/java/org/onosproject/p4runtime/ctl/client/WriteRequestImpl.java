@@ -16,6 +16,7 @@
 
 package org.onosproject.p4runtime.ctl.client;
 
+import com.google.common.collect.Collections2;
 import com.google.common.util.concurrent.Futures;
 import com.google.protobuf.TextFormat;
 import io.grpc.stub.StreamObserver;
@@ -159,16 +160,26 @@ final class WriteRequestImpl implements P4RuntimeWriteClient.WriteRequest {
     public CompletableFuture<P4RuntimeWriteClient.WriteResponse> submit() {
         checkState(!submitted.getAndSet(true),
                    "Request has already been submitted, cannot submit again");
+        if (requestMsg.getUpdatesCount() == 0) {
+            // No need to ask the server.
+            return completedFuture(WriteResponseImpl.EMPTY);
+        }
+        // Requests are sent through the write pipeline of the client, which
+        // might hold them until a slot of the in-flight window is free.
+        return client.writePipeline().submit(
+                Collections2.transform(responseBuilder.pendingUpdates(),
+                                       P4RuntimeWriteClient.EntityUpdateRequest::handle),
+                this::send);
+    }
+
+    private CompletableFuture<P4RuntimeWriteClient.WriteResponse> send() {
+        // Set the election ID when sending, the request might have been queued.
         final P4RuntimeOuterClass.WriteRequest writeRequest = requestMsg
                 .setElectionId(client.lastUsedElectionId(
                         requestMsg.getDeviceId()))
                 .build();
         log.debug("Sending write request to {} with {} updates...",
                   client.deviceId(), writeRequest.getUpdatesCount());
-        if (writeRequest.getUpdatesCount() == 0) {
-            // No need to ask the server.
-            return completedFuture(WriteResponseImpl.EMPTY);
-        }
         final CompletableFuture<P4RuntimeWriteClient.WriteResponse> future =
                 new CompletableFuture<>();
         final StreamObserver<P4RuntimeOuterClass.WriteResponse> observer =
@@ -199,7 +210,12 @@ final class WriteRequestImpl implements P4RuntimeWriteClient.WriteRequest {
                         // Nothing to do, unary call.
                     }
                 };
-        client.execRpc(s -> s.write(writeRequest, observer), SHORT_TIMEOUT_SECONDS);
+        try {
+            client.execRpc(s -> s.write(writeRequest, observer), SHORT_TIMEOUT_SECONDS);
+        } catch (IllegalStateException e) {
+            // Client has been shut down while the request was queued.
+            future.complete(responseBuilder.setErrorsAndBuild(e));
+        }
         return future;
     }
 
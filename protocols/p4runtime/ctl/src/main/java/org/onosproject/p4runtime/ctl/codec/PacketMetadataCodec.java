@@ -16,7 +16,7 @@
 
 package org.onosproject.p4runtime.ctl.codec;
 
-import com.google.protobuf.ByteString;
+import com.google.protobuf.UnsafeByteOperations;
 import org.onosproject.net.pi.model.PiPacketMetadataId;
 import org.onosproject.net.pi.model.PiPipeconf;
 import org.onosproject.net.pi.runtime.PiPacketMetadata;
@@ -24,7 +24,7 @@ import org.onosproject.p4runtime.ctl.utils.P4InfoBrowser;
 import p4.config.v1.P4InfoOuterClass;
 import p4.v1.P4RuntimeOuterClass;
 
-import static org.onlab.util.ImmutableByteSequence.copyFrom;
+import static org.onlab.util.ImmutableByteSequence.wrap;
 
 /**
  * Coded for P4Runtime PacketMetadata. The metadata is expected to be a Preamble
@@ -44,7 +44,8 @@ public final class PacketMetadataCodec
                 .getByName(piEntity.id().id()).getId();
         return P4RuntimeOuterClass.PacketMetadata.newBuilder()
                 .setMetadataId(metadataId)
-                .setValue(ByteString.copyFrom(piEntity.value().asReadOnlyBuffer()))
+                .setValue(UnsafeByteOperations.unsafeWrap(
+                        piEntity.value().asReadOnlyBuffer()))
                 .build();
     }
 
@@ -61,7 +62,7 @@ public final class PacketMetadataCodec
                 .of(packetMetadataName);
         return PiPacketMetadata.builder()
                 .withId(metadataId)
-                .withValue(copyFrom(message.getValue().asReadOnlyByteBuffer()))
+                .withValue(wrap(message.getValue().asReadOnlyByteBuffer()))
                 .build();
     }
 }
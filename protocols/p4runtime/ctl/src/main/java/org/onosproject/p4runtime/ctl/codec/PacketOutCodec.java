@@ -16,7 +16,7 @@
 
 package org.onosproject.p4runtime.ctl.codec;
 
-import com.google.protobuf.ByteString;
+import com.google.protobuf.UnsafeByteOperations;
 import org.onosproject.net.pi.model.PiPipeconf;
 import org.onosproject.net.pi.runtime.PiPacketOperation;
 import org.onosproject.p4runtime.ctl.utils.P4InfoBrowser;
@@ -47,7 +47,10 @@ public final class PacketOutCodec
         return P4RuntimeOuterClass.PacketOut.newBuilder()
                 .addAllMetadata(CODECS.packetMetadata().encodeAll(
                         piPacket.metadatas(), ctrlPktMetaPreamble, pipeconf))
-                .setPayload(ByteString.copyFrom(piPacket.data().asReadOnlyBuffer()))
+                // ImmutableByteSequence is immutable, no need to copy the
+                // payload.
+                .setPayload(UnsafeByteOperations.unsafeWrap(
+                        piPacket.data().asReadOnlyBuffer()))
                 .build();
 
     }
@@ -17,6 +17,9 @@
 package org.onosproject.p4runtime.ctl.controller;
 
 import io.grpc.ManagedChannel;
+import org.onlab.metrics.MetricsService;
+import org.onlab.util.Tools;
+import org.onosproject.cfg.ComponentConfigService;
 import org.onosproject.grpc.ctl.AbstractGrpcClientController;
 import org.onosproject.net.DeviceId;
 import org.onosproject.net.pi.service.PiPipeconfService;
@@ -25,29 +28,107 @@ import org.onosproject.p4runtime.api.P4RuntimeController;
 import org.onosproject.p4runtime.api.P4RuntimeEvent;
 import org.onosproject.p4runtime.api.P4RuntimeEventListener;
 import org.onosproject.p4runtime.ctl.client.P4RuntimeClientImpl;
+import org.onosproject.p4runtime.ctl.client.WritePipelineMetrics;
+import org.osgi.service.component.ComponentContext;
+import org.osgi.service.component.annotations.Activate;
 import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Deactivate;
+import org.osgi.service.component.annotations.Modified;
 import org.osgi.service.component.annotations.Reference;
 import org.osgi.service.component.annotations.ReferenceCardinality;
+import org.slf4j.Logger;
+
+import static org.onosproject.p4runtime.ctl.controller.OsgiPropertyConstants.WRITE_WINDOW;
+import static org.onosproject.p4runtime.ctl.controller.OsgiPropertyConstants.WRITE_WINDOW_DEFAULT;
+import static org.slf4j.LoggerFactory.getLogger;
 
 /**
  * P4Runtime controller implementation.
  */
-@Component(immediate = true, service = P4RuntimeController.class)
+@Component(
+        immediate = true,
+        service = P4RuntimeController.class,
+        property = {
+                WRITE_WINDOW + ":Integer=" + WRITE_WINDOW_DEFAULT,
+        })
 public class P4RuntimeControllerImpl
         extends AbstractGrpcClientController
         <P4RuntimeClient, P4RuntimeEvent, P4RuntimeEventListener>
         implements P4RuntimeController {
 
+    private final Logger log = getLogger(getClass());
+
     @Reference(cardinality = ReferenceCardinality.MANDATORY)
     private PiPipeconfService pipeconfService;
 
     @Reference(cardinality = ReferenceCardinality.MANDATORY)
     private MasterElectionIdStore masterElectionIdStore;
 
+    @Reference(cardinality = ReferenceCardinality.MANDATORY)
+    private ComponentConfigService cfgService;
+
+    @Reference(cardinality = ReferenceCardinality.MANDATORY)
+    private MetricsService metricsService;
+
+    /** Maximum number of Write RPCs in flight per device. */
+    private int writeWindow = WRITE_WINDOW_DEFAULT;
+
+    private WritePipelineMetrics writeMetrics;
+
     public P4RuntimeControllerImpl() {
         super(P4RuntimeEvent.class, "P4Runtime");
     }
 
+    @Activate
+    public void activate(ComponentContext context) {
+        cfgService.registerProperties(getClass());
+        writeMetrics = new WritePipelineMetrics(metricsService);
+        modified(context);
+        super.activate();
+    }
+
+    @Modified
+    public void modified(ComponentContext context) {
+        if (context == null) {
+            return;
+        }
+        int newWriteWindow = Tools.getIntegerProperty(
+                context.getProperties(), WRITE_WINDOW, WRITE_WINDOW_DEFAULT);
+        if (newWriteWindow <= 0) {
+            log.warn("Invalid {} value {}, must be positive", WRITE_WINDOW, newWriteWindow);
+            return;
+        }
+        writeWindow = newWriteWindow;
+        log.info("Configured. {} is {}", WRITE_WINDOW, writeWindow);
+    }
+
+    @Deactivate
+    @Override
+    public void deactivate() {
+        super.deactivate();
+        cfgService.unregisterProperties(getClass(), false);
+    }
+
+    /**
+     * Returns the maximum number of Write RPCs that clients should keep in
+     * flight per device.
+     *
+     * @return write window
+     */
+    public int writeWindow() {
+        return writeWindow;
+    }
+
+    /**
+     * Returns the metrics of the Write RPC pipelines of the clients, or null
+     * if the controller is not active.
+     *
+     * @return write pipeline metrics
+     */
+    public WritePipelineMetrics writeMetrics() {
+        return writeMetrics;
+    }
+
     @Override
     public void remove(DeviceId deviceId) {
         super.remove(deviceId);
@@ -0,0 +1,118 @@
+/*
+ * Copyright 2020-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.p4runtime.ctl.client;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
+import org.junit.Before;
+import org.junit.Test;
+import org.onosproject.net.DeviceId;
+import org.onosproject.net.pi.model.PiCounterId;
+import org.onosproject.net.pi.runtime.PiCounterCellHandle;
+import org.onosproject.net.pi.runtime.PiCounterCellId;
+import org.onosproject.net.pi.runtime.PiHandle;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests of the write pipeline of the P4Runtime client.
+ */
+public class WritePipelineTest {
+
+    private static final DeviceId DEVICE_ID = DeviceId.deviceId("device:1");
+    private static final PiCounterId COUNTER_ID = PiCounterId.of("counter");
+
+    private final List<CompletableFuture<String>> sent = Lists.newArrayList();
+    private WritePipeline pipeline;
+
+    @Before
+    public void setUp() {
+        pipeline = new WritePipeline(() -> 2, null);
+    }
+
+    private static PiHandle handle(long index) {
+        return PiCounterCellHandle.of(DEVICE_ID, PiCounterCellId.ofIndirect(COUNTER_ID, index));
+    }
+
+    private CompletableFuture<String> submit(PiHandle... handles) {
+        return pipeline.submit(ImmutableList.copyOf(handles), () -> {
+            final CompletableFuture<String> response = new CompletableFuture<>();
+            sent.add(response);
+            return response;
+        });
+    }
+
+    /**
+     * Tests that no more than the window of requests are in flight.
+     */
+    @Test
+    public void testWindow() {
+        final CompletableFuture<String> f1 = submit(handle(1));
+        final CompletableFuture<String> f2 = submit(handle(2));
+        final CompletableFuture<String> f3 = submit(handle(3));
+        assertEquals(2, sent.size());
+        assertEquals(2, pipeline.inflight());
+        assertEquals(1, pipeline.queued());
+
+        // Completion out of order frees a slot as well.
+        sent.get(1).complete("r2");
+        assertTrue(f2.isDone());
+        assertFalse(f1.isDone());
+        assertEquals(3, sent.size());
+
+        sent.get(0).complete("r1");
+        sent.get(2).complete("r3");
+        assertEquals("r1", f1.join());
+        assertEquals("r3", f3.join());
+        assertEquals(0, pipeline.inflight());
+        assertEquals(0, pipeline.queued());
+    }
+
+    /**
+     * Tests that requests on the same entity are not in flight together.
+     */
+    @Test
+    public void testEntityOrdering() {
+        submit(handle(1), handle(2));
+        submit(handle(2));
+        assertEquals(1, sent.size());
+        assertEquals(1, pipeline.queued());
+
+        sent.get(0).complete("r1");
+        assertEquals(2, sent.size());
+    }
+
+    /**
+     * Tests that a failure of the sender completes the request exceptionally
+     * and releases its slot.
+     */
+    @Test
+    public void testSenderFailure() {
+        final CompletableFuture<String> failed = pipeline.submit(
+                ImmutableList.of(handle(1)), () -> {
+                    throw new IllegalStateException("shut down");
+                });
+        assertTrue(failed.isCompletedExceptionally());
+        assertEquals(0, pipeline.inflight());
+        submit(handle(1));
+        assertEquals(1, sent.size());
+    }
+}
@@ -0,0 +1,151 @@
+/*
+ * Copyright 2020-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.p4runtime.ctl.codec;
+
+import com.google.protobuf.ByteString;
+import org.easymock.EasyMock;
+import org.junit.Assume;
+import org.junit.Test;
+import org.onosproject.net.pi.model.DefaultPiPipeconf;
+import org.onosproject.net.pi.model.PiPacketMetadataId;
+import org.onosproject.net.pi.model.PiPipeconf;
+import org.onosproject.net.pi.model.PiPipeconfId;
+import org.onosproject.net.pi.model.PiPipelineModel;
+import org.onosproject.net.pi.runtime.PiPacketMetadata;
+import org.onosproject.net.pi.runtime.PiPacketOperation;
+import p4.v1.P4RuntimeOuterClass.PacketIn;
+import p4.v1.P4RuntimeOuterClass.PacketMetadata;
+import p4.v1.P4RuntimeOuterClass.PacketOut;
+
+import java.lang.management.ManagementFactory;
+import java.net.URL;
+import java.util.Random;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThan;
+import static org.onlab.util.ImmutableByteSequence.copyFrom;
+import static org.onosproject.net.pi.model.PiPacketOperationType.PACKET_IN;
+import static org.onosproject.net.pi.model.PiPacketOperationType.PACKET_OUT;
+import static org.onosproject.net.pi.model.PiPipeconf.ExtensionType.P4_INFO_TEXT;
+import static org.onosproject.p4runtime.ctl.codec.Codecs.CODECS;
+
+/**
+ * Tests of the packet-in and packet-out codecs.
+ */
+public class PacketCodecTest {
+
+    private static final String INGRESS_PORT = "ingress_port";
+    private static final String EGRESS_PORT = "egress_port";
+    private static final int INGRESS_PORT_METADATA_ID = 1;
+
+    // Size of typical punted frames: ARP, NDP, LLDP, DHCP and a full one
+    private static final int[] PAYLOAD_SIZES = {60, 86, 110, 342, 1500};
+    private static final int WARMUP_ROUNDS = 20_000;
+    private static final int MEASURE_ROUNDS = 20_000;
+
+    private final Random rand = new Random();
+    private final URL p4InfoUrl = this.getClass().getResource("/test.p4info");
+
+    private final PiPipeconf pipeconf = DefaultPiPipeconf.builder()
+            .withId(new PiPipeconfId("mock"))
+            .withPipelineModel(EasyMock.niceMock(PiPipelineModel.class))
+            .addExtension(P4_INFO_TEXT, p4InfoUrl)
+            .build();
+
+    private byte[] randomBytes(int size) {
+        final byte[] bytes = new byte[size];
+        rand.nextBytes(bytes);
+        return bytes;
+    }
+
+    private PacketIn packetIn(byte[] payload) {
+        return PacketIn.newBuilder()
+                .setPayload(ByteString.copyFrom(payload))
+                .addMetadata(PacketMetadata.newBuilder()
+                                     .setMetadataId(INGRESS_PORT_METADATA_ID)
+                                     .setValue(ByteString.copyFrom(new byte[]{0, 10})))
+                .build();
+    }
+
+    @Test
+    public void testDecodePacketIn() throws Exception {
+        final byte[] payload = randomBytes(1500);
+        final PiPacketOperation packet = CODECS.packetIn().decode(
+                packetIn(payload), null, pipeconf);
+
+        assertThat(packet.type(), is(PACKET_IN));
+        assertThat(packet.data(), is(copyFrom(payload)));
+        assertThat(packet.metadatas().size(), is(1));
+        final PiPacketMetadata metadata = packet.metadatas().iterator().next();
+        assertThat(metadata.id(), is(PiPacketMetadataId.of(INGRESS_PORT)));
+        assertThat(metadata.value().asReadOnlyBuffer().getShort(), is((short) 10));
+    }
+
+    @Test
+    public void testEncodePacketOut() throws Exception {
+        final byte[] payload = randomBytes(342);
+        final PiPacketOperation packet = PiPacketOperation.builder()
+                .withType(PACKET_OUT)
+                .withData(copyFrom(payload))
+                .withMetadata(PiPacketMetadata.builder()
+                                      .withId(PiPacketMetadataId.of(EGRESS_PORT))
+                                      .withValue(copyFrom((short) 10))
+                                      .build())
+                .build();
+        final PacketOut message = CODECS.packetOut().encode(packet, null, pipeconf);
+
+        assertThat(message.getPayload(), is(ByteString.copyFrom(payload)));
+        assertThat(message.getMetadataCount(), is(1));
+        assertThat(message.getMetadata(0).getValue(),
+                   is(ByteString.copyFrom(new byte[]{0, 10})));
+        // Serialization must see the wrapped payload.
+        assertThat(PacketOut.parseFrom(message.toByteArray()), is(message));
+    }
+
+    /**
+     * Checks that the memory allocated to decode a packet-in does not depend
+     * on the size of the payload, i.e. that the payload is not copied.
+     */
+    @Test
+    public void testPacketInAllocation() throws Exception {
+        Assume.assumeTrue(ManagementFactory.getThreadMXBean()
+                                  instanceof com.sun.management.ThreadMXBean);
+        final com.sun.management.ThreadMXBean threadBean =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        Assume.assumeTrue(threadBean.isThreadAllocatedMemorySupported()
+                                  && threadBean.isThreadAllocatedMemoryEnabled());
+
+        final long[] bytesPerPacket = new long[PAYLOAD_SIZES.length];
+        for (int i = 0; i < PAYLOAD_SIZES.length; i++) {
+            final PacketIn message = packetIn(randomBytes(PAYLOAD_SIZES[i]));
+            for (int j = 0; j < WARMUP_ROUNDS; j++) {
+                CODECS.packetIn().decode(message, null, pipeconf);
+            }
+            final long threadId = Thread.currentThread().getId();
+            final long before = threadBean.getThreadAllocatedBytes(threadId);
+            for (int j = 0; j < MEASURE_ROUNDS; j++) {
+                CODECS.packetIn().decode(message, null, pipeconf);
+            }
+            bytesPerPacket[i] = (threadBean.getThreadAllocatedBytes(threadId) - before) / MEASURE_ROUNDS;
+        }
+
+        final int sizeDelta = PAYLOAD_SIZES[PAYLOAD_SIZES.length - 1] - PAYLOAD_SIZES[0];
+        final long allocationDelta = bytesPerPacket[PAYLOAD_SIZES.length - 1] - bytesPerPacket[0];
+        assertThat("allocation per packet grows with the payload size: " + allocationDelta,
+                   allocationDelta, lessThan((long) sizeDelta / 2));
+    }
+}
@@ -95,6 +95,12 @@ import static java.util.concurrent.Executors.newFixedThreadPool;
 import static org.onlab.util.Tools.groupedThreads;
 import static org.onosproject.provider.general.device.impl.OsgiPropertyConstants.CHECKUP_INTERVAL;
 import static org.onosproject.provider.general.device.impl.OsgiPropertyConstants.CHECKUP_INTERVAL_DEFAULT;
+import static org.onosproject.provider.general.device.impl.OsgiPropertyConstants.GNMI_STATS_HEARTBEAT_INTERVAL;
+import static org.onosproject.provider.general.device.impl.OsgiPropertyConstants.GNMI_STATS_HEARTBEAT_INTERVAL_DEFAULT;
+import static org.onosproject.provider.general.device.impl.OsgiPropertyConstants.GNMI_STATS_SAMPLE_INTERVAL;
+import static org.onosproject.provider.general.device.impl.OsgiPropertyConstants.GNMI_STATS_SAMPLE_INTERVAL_DEFAULT;
+import static org.onosproject.provider.general.device.impl.OsgiPropertyConstants.GNMI_STATS_SUPPRESS_REDUNDANT;
+import static org.onosproject.provider.general.device.impl.OsgiPropertyConstants.GNMI_STATS_SUPPRESS_REDUNDANT_DEFAULT;
 import static org.onosproject.provider.general.device.impl.OsgiPropertyConstants.STATS_POLL_INTERVAL;
 import static org.onosproject.provider.general.device.impl.OsgiPropertyConstants.STATS_POLL_INTERVAL_DEFAULT;
 import static org.slf4j.LoggerFactory.getLogger;
@@ -109,6 +115,9 @@ import static org.slf4j.LoggerFactory.getLogger;
         property = {
                 CHECKUP_INTERVAL + ":Integer=" + CHECKUP_INTERVAL_DEFAULT,
                 STATS_POLL_INTERVAL + ":Integer=" + STATS_POLL_INTERVAL_DEFAULT,
+                GNMI_STATS_SAMPLE_INTERVAL + ":Integer=" + GNMI_STATS_SAMPLE_INTERVAL_DEFAULT,
+                GNMI_STATS_SUPPRESS_REDUNDANT + ":Boolean=" + GNMI_STATS_SUPPRESS_REDUNDANT_DEFAULT,
+                GNMI_STATS_HEARTBEAT_INTERVAL + ":Integer=" + GNMI_STATS_HEARTBEAT_INTERVAL_DEFAULT,
         })
 public class GeneralDeviceProvider extends AbstractProvider
         implements DeviceProvider {
@@ -172,6 +181,24 @@ public class GeneralDeviceProvider extends AbstractProvider
      */
     private int statsPollInterval = STATS_POLL_INTERVAL_DEFAULT;
 
+    /**
+     * Configure the sample interval in milliseconds of the gNMI subscription
+     * to port counters; default is 0, port statistics are polled.
+     */
+    private int gnmiStatsSampleInterval = GNMI_STATS_SAMPLE_INTERVAL_DEFAULT;
+
+    /**
+     * Configure whether devices send port counters only when they change;
+     * default is true.
+     */
+    private boolean gnmiStatsSuppressRedundant = GNMI_STATS_SUPPRESS_REDUNDANT_DEFAULT;
+
+    /**
+     * Configure the heartbeat interval in milliseconds of port counters when
+     * redundant samples are suppressed; default is 10 sec.
+     */
+    private int gnmiStatsHeartbeatInterval = GNMI_STATS_HEARTBEAT_INTERVAL_DEFAULT;
+
     private final Map<DeviceId, DeviceHandshaker> handshakersWithListeners = Maps.newConcurrentMap();
     private final Map<DeviceId, Long> lastCheckups = Maps.newConcurrentMap();
     private final InternalPipeconfWatchdogListener pipeconfWatchdogListener = new InternalPipeconfWatchdogListener();
@@ -206,7 +233,8 @@ public class GeneralDeviceProvider extends AbstractProvider
                 gnmiController, deviceService, mastershipService, providerService);
         gnmiDeviceStateSubscriber.activate();
         startOrReschedulePeriodicCheckupTasks();
-        statsPoller = new StatsPoller(deviceService, mastershipService, providerService);
+        statsPoller = new StatsPoller(deviceService, mastershipService, providerService,
+                                      gnmiDeviceStateSubscriber::isStreamingPortStatistics);
         statsPoller.activate(statsPollInterval);
         modified(context);
         log.info("Started");
@@ -237,6 +265,21 @@ public class GeneralDeviceProvider extends AbstractProvider
         if (oldStatsPollFrequency != statsPollInterval) {
             statsPoller.reschedule(statsPollInterval);
         }
+
+        gnmiStatsSampleInterval = Tools.getIntegerProperty(
+                properties, GNMI_STATS_SAMPLE_INTERVAL, GNMI_STATS_SAMPLE_INTERVAL_DEFAULT);
+        final Boolean suppressRedundant = Tools.isPropertyEnabled(
+                properties, GNMI_STATS_SUPPRESS_REDUNDANT);
+        gnmiStatsSuppressRedundant = suppressRedundant == null
+                ? GNMI_STATS_SUPPRESS_REDUNDANT_DEFAULT : suppressRedundant;
+        gnmiStatsHeartbeatInterval = Tools.getIntegerProperty(
+                properties, GNMI_STATS_HEARTBEAT_INTERVAL, GNMI_STATS_HEARTBEAT_INTERVAL_DEFAULT);
+        log.info("Configured. {} is configured to {} ms, {} to {}, {} to {} ms",
+                 GNMI_STATS_SAMPLE_INTERVAL, gnmiStatsSampleInterval,
+                 GNMI_STATS_SUPPRESS_REDUNDANT, gnmiStatsSuppressRedundant,
+                 GNMI_STATS_HEARTBEAT_INTERVAL, gnmiStatsHeartbeatInterval);
+        gnmiDeviceStateSubscriber.configureStatsSampling(
+                gnmiStatsSampleInterval, gnmiStatsSuppressRedundant, gnmiStatsHeartbeatInterval);
     }
 
     @Deactivate
@@ -52,12 +52,22 @@ import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.locks.Lock;
 import java.util.stream.Collectors;
 
+import static java.util.concurrent.Executors.newSingleThreadScheduledExecutor;
+import static org.onlab.util.Tools.groupedThreads;
+
 /**
  * Entity that manages gNMI subscription for devices using OpenConfig models and
  * that reports relevant events to the core.
+ * <p>
+ * Port status is subscribed in ON_CHANGE mode. When a sample interval is
+ * configured, interface counters are subscribed in SAMPLE mode as well, and
+ * reported as port statistics at most once per sample interval.
  */
 @Beta
 class GnmiDeviceStateSubscriber {
@@ -74,10 +84,20 @@ class GnmiDeviceStateSubscriber {
     private final InternalGnmiEventListener gnmiEventListener = new InternalGnmiEventListener();
     private final InternalDeviceListener deviceEventListener = new InternalDeviceListener();
     private final InternalMastershipListener mastershipListener = new InternalMastershipListener();
-    private final Map<DeviceId, Set<PortNumber>> deviceSubscribed = Maps.newHashMap();
+    private final Map<DeviceId, SubscribeRequest> deviceSubscribed = Maps.newConcurrentMap();
+    private final Map<DeviceId, GnmiPortStatsCollector> statsCollectors = Maps.newConcurrentMap();
 
     private final Striped<Lock> deviceLocks = Striped.lock(30);
 
+    private final ScheduledExecutorService statsExecutor = newSingleThreadScheduledExecutor(
+            groupedThreads("onos/gdp-gnmi-stats", "%d", log));
+    private ScheduledFuture<?> statsTask;
+
+    // Sample interval of the interface counters, 0 if not subscribed
+    private volatile long sampleIntervalMillis;
+    private volatile boolean suppressRedundant;
+    private volatile long heartbeatIntervalMillis;
+
     GnmiDeviceStateSubscriber(GnmiController gnmiController, DeviceService deviceService,
                               MastershipService mastershipService,
                               DeviceProviderService providerService) {
@@ -100,6 +120,60 @@ class GnmiDeviceStateSubscriber {
         deviceService.removeListener(deviceEventListener);
         mastershipService.removeListener(mastershipListener);
         gnmiController.removeListener(gnmiEventListener);
+        statsExecutor.shutdownNow();
+    }
+
+    /**
+     * Configures the SAMPLE subscription of the interface counters, and
+     * updates the subscriptions of the devices.
+     *
+     * @param sampleIntervalMillis    sample interval in milliseconds; 0
+     *                                disables the subscription
+     * @param suppressRedundant       if true, the device sends counters only
+     *                                when they change
+     * @param heartbeatIntervalMillis maximum interval between two samples of
+     *                                an unchanged counter when redundant
+     *                                samples are suppressed, in milliseconds
+     */
+    void configureStatsSampling(long sampleIntervalMillis, boolean suppressRedundant,
+                                long heartbeatIntervalMillis) {
+        synchronized (statsExecutor) {
+            this.sampleIntervalMillis = Math.max(0, sampleIntervalMillis);
+            this.suppressRedundant = suppressRedundant;
+            this.heartbeatIntervalMillis = Math.max(0, heartbeatIntervalMillis);
+            if (statsTask != null) {
+                statsTask.cancel(false);
+                statsTask = null;
+            }
+            if (this.sampleIntervalMillis > 0) {
+                statsTask = statsExecutor.scheduleAtFixedRate(
+                        this::reportPortStatistics, this.sampleIntervalMillis,
+                        this.sampleIntervalMillis, TimeUnit.MILLISECONDS);
+            } else {
+                statsCollectors.clear();
+            }
+        }
+        deviceSubscribed.keySet().forEach(this::checkSubscription);
+    }
+
+    /**
+     * Returns true if port statistics of the given device are currently
+     * streamed by the device, hence do not need to be polled.
+     *
+     * @param deviceId device identifier
+     * @return true if port statistics are streamed
+     */
+    boolean isStreamingPortStatistics(DeviceId deviceId) {
+        final GnmiPortStatsCollector collector = statsCollectors.get(deviceId);
+        if (sampleIntervalMillis == 0 || collector == null
+                || !deviceSubscribed.containsKey(deviceId)) {
+            return false;
+        }
+        // With suppressed redundant samples, idle counters are only sent at
+        // every heartbeat.
+        final long maxInterval = suppressRedundant && heartbeatIntervalMillis > 0
+                ? Math.max(sampleIntervalMillis, heartbeatIntervalMillis) : sampleIntervalMillis;
+        return System.currentTimeMillis() - collector.lastUpdateMillis() <= 2 * maxInterval;
     }
 
     private void checkSubscription(DeviceId deviceId) {
@@ -136,8 +210,19 @@ class GnmiDeviceStateSubscriber {
                 .build();
     }
 
+    private Path interfaceCountersPath(String interfaceName) {
+        return Path.newBuilder()
+                .addElem(PathElem.newBuilder().setName("interfaces").build())
+                .addElem(PathElem.newBuilder()
+                                 .setName("interface").putKey("name", interfaceName).build())
+                .addElem(PathElem.newBuilder().setName("state").build())
+                .addElem(PathElem.newBuilder().setName("counters").build())
+                .build();
+    }
+
     private void unsubscribeIfNeeded(DeviceId deviceId) {
         gnmiController.get(deviceId).unsubscribe();
+        statsCollectors.remove(deviceId);
         if (deviceSubscribed.remove(deviceId) != null) {
             log.info("Cancelled gNMI subscription for {}", deviceId);
         }
@@ -149,30 +234,60 @@ class GnmiDeviceStateSubscriber {
                 .map(Port::number)
                 .collect(Collectors.toSet());
 
-        if (Objects.equals(ports, deviceSubscribed.get(deviceId))) {
-            // Already subscribed for the same ports.
+        final SubscribeRequest request = subscribeRequest(ports);
+        if (Objects.equals(request, deviceSubscribed.get(deviceId))) {
+            // Already subscribed for the same ports and counters sampling.
             return;
         }
 
         // Subscribe for the new set of ports.
-        deviceSubscribed.put(deviceId, ports);
+        deviceSubscribed.put(deviceId, request);
 
         // Send subscription request.
-        final SubscriptionList subscriptionList = SubscriptionList.newBuilder()
+        gnmiController.get(deviceId).subscribe(request);
+
+        log.info("Started gNMI subscription for {} ports on {}", ports.size(), deviceId);
+    }
+
+    private SubscribeRequest subscribeRequest(Set<PortNumber> ports) {
+        final SubscriptionList.Builder subscriptionList = SubscriptionList.newBuilder()
                 .setMode(SubscriptionList.Mode.STREAM)
                 .setUpdatesOnly(true)
                 .addAllSubscription(ports.stream().map(
                         port -> Subscription.newBuilder()
                                 .setPath(interfaceOperStatusPath(port.name()))
                                 .setMode(SubscriptionMode.ON_CHANGE)
-                                .build()).collect(Collectors.toList()))
+                                .build()).collect(Collectors.toList()));
+        final long sampleInterval = sampleIntervalMillis;
+        if (sampleInterval > 0) {
+            final boolean suppress = suppressRedundant;
+            final long heartbeatInterval = suppress ? heartbeatIntervalMillis : 0;
+            ports.forEach(port -> subscriptionList.addSubscription(
+                    Subscription.newBuilder()
+                            .setPath(interfaceCountersPath(port.name()))
+                            .setMode(SubscriptionMode.SAMPLE)
+                            .setSampleInterval(TimeUnit.MILLISECONDS.toNanos(sampleInterval))
+                            .setSuppressRedundant(suppress)
+                            .setHeartbeatInterval(TimeUnit.MILLISECONDS.toNanos(heartbeatInterval))
+                            .build()));
+        }
+        return SubscribeRequest.newBuilder()
+                .setSubscribe(subscriptionList)
                 .build();
-        gnmiController.get(deviceId).subscribe(
-                SubscribeRequest.newBuilder()
-                        .setSubscribe(subscriptionList)
-                        .build());
+    }
 
-        log.info("Started gNMI subscription for {} ports on {}", ports.size(), deviceId);
+    private void reportPortStatistics() {
+        try {
+            statsCollectors.forEach((deviceId, collector) -> {
+                if (collector.takeChanged()) {
+                    // Statistics of all ports are replaced at each update.
+                    providerService.updatePortStatistics(deviceId, collector.portStatistics(
+                            deviceId, deviceService.getPorts(deviceId)));
+                }
+            });
+        } catch (Exception e) {
+            log.error("Exception while reporting streamed port statistics", e);
+        }
     }
 
     private void handleGnmiUpdate(GnmiUpdate eventSubject) {
@@ -192,6 +307,9 @@ class GnmiDeviceStateSubscriber {
             if ("oper-status".equals(lastElem.getName())) {
                 handleOperStatusUpdate(eventSubject.deviceId(), update,
                                        notification.getTimestamp());
+            } else if (GnmiPortStatsCollector.isCounterPath(path)) {
+                handleCounterUpdate(eventSubject.deviceId(), update,
+                                    notification.getTimestamp());
             } else {
                 log.debug("Unrecognized update {}", GnmiUtils.pathToString(path));
             }
@@ -232,6 +350,15 @@ class GnmiDeviceStateSubscriber {
         });
     }
 
+    private void handleCounterUpdate(DeviceId deviceId, Update update, long timestamp) {
+        if (sampleIntervalMillis == 0) {
+            // Stale update from a previous subscription.
+            return;
+        }
+        statsCollectors.computeIfAbsent(deviceId, k -> new GnmiPortStatsCollector())
+                .update(update.getPath(), update.getVal().getUintVal(), timestamp);
+    }
+
     class InternalGnmiEventListener implements GnmiEventListener {
 
         @Override
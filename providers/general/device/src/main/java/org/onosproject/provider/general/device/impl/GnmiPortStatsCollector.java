@@ -0,0 +1,171 @@
+/*
+ * Copyright 2020-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.provider.general.device.impl;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Maps;
+import gnmi.Gnmi.Path;
+import org.onosproject.net.DeviceId;
+import org.onosproject.net.Port;
+import org.onosproject.net.device.DefaultPortStatistics;
+import org.onosproject.net.device.PortStatistics;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Interface counters of a device, as streamed by gNMI SAMPLE subscriptions
+ * on the OpenConfig path /interfaces/interface[name]/state/counters.
+ */
+final class GnmiPortStatsCollector {
+
+    private static final String LAST_CHANGE = "last-changed";
+
+    private final Map<String, InterfaceCounters> interfaces = Maps.newConcurrentMap();
+    private final AtomicBoolean changed = new AtomicBoolean(false);
+    private volatile long lastUpdateMillis;
+
+    /**
+     * Returns true if the given path is the one of an interface counter.
+     *
+     * @param path gNMI path
+     * @return true if interface counter
+     */
+    static boolean isCounterPath(Path path) {
+        // /interfaces/interface[name=iface-name]/state/counters/counter-name
+        return path.getElemCount() == 5
+                && "interfaces".equals(path.getElem(0).getName())
+                && "interface".equals(path.getElem(1).getName())
+                && "state".equals(path.getElem(2).getName())
+                && "counters".equals(path.getElem(3).getName());
+    }
+
+    /**
+     * Records the value of an interface counter.
+     *
+     * @param path      counter path
+     * @param value     counter value
+     * @param timestamp timestamp of the notification, in nanoseconds since
+     *                  the epoch
+     */
+    void update(Path path, long value, long timestamp) {
+        final String ifName = path.getElem(1).getKeyOrDefault("name", null);
+        if (ifName == null) {
+            return;
+        }
+        interfaces.computeIfAbsent(ifName, k -> new InterfaceCounters(timestamp))
+                .update(path.getElem(4).getName(), value, timestamp);
+        lastUpdateMillis = System.currentTimeMillis();
+        changed.set(true);
+    }
+
+    /**
+     * Returns true if counters have been updated since the last call.
+     *
+     * @return true if changed
+     */
+    boolean takeChanged() {
+        return changed.getAndSet(false);
+    }
+
+    /**
+     * Returns the time of the last counter update.
+     *
+     * @return milliseconds since the epoch, 0 if never updated
+     */
+    long lastUpdateMillis() {
+        return lastUpdateMillis;
+    }
+
+    /**
+     * Returns the statistics of the given ports, for those that have counters.
+     *
+     * @param deviceId device identifier
+     * @param ports    ports of the device
+     * @return port statistics
+     */
+    Collection<PortStatistics> portStatistics(DeviceId deviceId, Collection<Port> ports) {
+        final ImmutableList.Builder<PortStatistics> builder = ImmutableList.builder();
+        ports.forEach(port -> {
+            final InterfaceCounters counters = interfaces.get(port.number().name());
+            if (counters != null) {
+                builder.add(counters.toPortStatistics(deviceId, port));
+            }
+        });
+        return builder.build();
+    }
+
+    // Counters of an interface; values are summed when building the
+    // statistics, as each sample carries the absolute value of a leaf.
+    private static final class InterfaceCounters {
+        private final Map<String, Long> values = Maps.newHashMap();
+        private final long firstTimestamp;
+        private long timestamp;
+
+        private InterfaceCounters(long firstTimestamp) {
+            this.firstTimestamp = firstTimestamp;
+            this.timestamp = firstTimestamp;
+        }
+
+        synchronized void update(String counterName, long value, long newTimestamp) {
+            values.put(counterName, value);
+            timestamp = Math.max(timestamp, newTimestamp);
+        }
+
+        synchronized PortStatistics toPortStatistics(DeviceId deviceId, Port port) {
+            final long durationNanos = Math.max(0, timestamp - startTimestamp(port));
+            return DefaultPortStatistics.builder()
+                    .setDeviceId(deviceId)
+                    .setPort(port.number())
+                    .setDurationSec(TimeUnit.NANOSECONDS.toSeconds(durationNanos))
+                    .setDurationNano(durationNanos % TimeUnit.SECONDS.toNanos(1))
+                    .setPacketsSent(sum("out-unicast-pkts", "out-broadcast-pkts",
+                                        "out-multicast-pkts"))
+                    .setPacketsReceived(sum("in-unicast-pkts", "in-broadcast-pkts",
+                                            "in-multicast-pkts", "in-unknown-protos"))
+                    .setPacketsTxDropped(sum("out-discards"))
+                    .setPacketsRxDropped(sum("in-discards", "in-fcs-errors"))
+                    .setBytesSent(sum("out-octets"))
+                    .setBytesReceived(sum("in-octets"))
+                    .setPacketsTxErrors(sum("out-errors"))
+                    .setPacketsRxErrors(sum("in-errors"))
+                    .build();
+        }
+
+        private long startTimestamp(Port port) {
+            // Set by the oper-status subscription.
+            final String lastChanged = port.annotations().value(LAST_CHANGE);
+            if (lastChanged != null) {
+                try {
+                    return Long.parseLong(lastChanged);
+                } catch (NumberFormatException e) {
+                    // Fall back to the first sample.
+                }
+            }
+            return firstTimestamp;
+        }
+
+        private long sum(String... counterNames) {
+            long sum = 0;
+            for (String counterName : counterNames) {
+                sum += values.getOrDefault(counterName, 0L);
+            }
+            return sum;
+        }
+    }
+}
@@ -29,4 +29,13 @@ public final class OsgiPropertyConstants {
     public static final String CHECKUP_INTERVAL = "checkupInterval";
     public static final int CHECKUP_INTERVAL_DEFAULT = 10;
 
+    public static final String GNMI_STATS_SAMPLE_INTERVAL = "gnmiStatsSampleInterval";
+    public static final int GNMI_STATS_SAMPLE_INTERVAL_DEFAULT = 0;
+
+    public static final String GNMI_STATS_SUPPRESS_REDUNDANT = "gnmiStatsSuppressRedundant";
+    public static final boolean GNMI_STATS_SUPPRESS_REDUNDANT_DEFAULT = true;
+
+    public static final String GNMI_STATS_HEARTBEAT_INTERVAL = "gnmiStatsHeartbeatInterval";
+    public static final int GNMI_STATS_HEARTBEAT_INTERVAL_DEFAULT = 10000;
+
 }
@@ -40,6 +40,7 @@ import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.locks.Lock;
+import java.util.function.Predicate;
 import java.util.stream.StreamSupport;
 
 import static com.google.common.base.Preconditions.checkArgument;
@@ -61,6 +62,7 @@ public class StatsPoller {
     private final DeviceService deviceService;
     private final MastershipService mastershipService;
     private final DeviceProviderService providerService;
+    private final Predicate<DeviceId> isStreaming;
 
     private final InternalDeviceListener deviceListener = new InternalDeviceListener();
     private final MastershipListener mastershipListener = new InternalMastershipListener();
@@ -73,9 +75,15 @@ public class StatsPoller {
 
     StatsPoller(DeviceService deviceService, MastershipService mastershipService,
                 DeviceProviderService providerService) {
+        this(deviceService, mastershipService, providerService, deviceId -> false);
+    }
+
+    StatsPoller(DeviceService deviceService, MastershipService mastershipService,
+                DeviceProviderService providerService, Predicate<DeviceId> isStreaming) {
         this.deviceService = deviceService;
         this.mastershipService = mastershipService;
         this.providerService = providerService;
+        this.isStreaming = isStreaming;
     }
 
 
@@ -165,6 +173,12 @@ public class StatsPoller {
     }
 
     private void updatePortStatistics(DeviceId deviceId) {
+        if (isStreaming.test(deviceId)) {
+            // Statistics are pushed by the device, no need to poll.
+            log.trace("Skipping port statistics polling for {}, streamed by the device",
+                      deviceId);
+            return;
+        }
         final Device device = deviceService.getDevice(deviceId);
         if (!device.is(PortStatisticsDiscovery.class)) {
             log.error("Missing PortStatisticsDiscovery behaviour for {}", deviceId);
@@ -0,0 +1,118 @@
+/*
+ * Copyright 2020-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.provider.general.device.impl;
+
+import com.google.common.collect.ImmutableList;
+import gnmi.Gnmi.Path;
+import gnmi.Gnmi.PathElem;
+import org.junit.Test;
+import org.onosproject.net.DefaultAnnotations;
+import org.onosproject.net.DefaultPort;
+import org.onosproject.net.DeviceId;
+import org.onosproject.net.Port;
+import org.onosproject.net.PortNumber;
+import org.onosproject.net.device.PortStatistics;
+
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests of the collector of port statistics streamed by gNMI.
+ */
+public class GnmiPortStatsCollectorTest {
+
+    private static final DeviceId DEVICE_ID = DeviceId.deviceId("device:gnmi:1");
+    private static final long T0 = TimeUnit.SECONDS.toNanos(1000);
+
+    private final GnmiPortStatsCollector collector = new GnmiPortStatsCollector();
+
+    /**
+     * Tests the recognition of interface counter paths.
+     */
+    @Test
+    public void testCounterPath() {
+        assertTrue(GnmiPortStatsCollector.isCounterPath(counterPath("1", "in-octets")));
+        assertFalse(GnmiPortStatsCollector.isCounterPath(Path.newBuilder()
+                .addElem(PathElem.newBuilder().setName("interfaces").build())
+                .addElem(PathElem.newBuilder().setName("interface").putKey("name", "1").build())
+                .addElem(PathElem.newBuilder().setName("state").build())
+                .addElem(PathElem.newBuilder().setName("oper-status").build())
+                .build()));
+    }
+
+    /**
+     * Tests that streamed counters are summed into port statistics.
+     */
+    @Test
+    public void testPortStatistics() {
+        assertFalse(collector.takeChanged());
+        collector.update(counterPath("1", "in-unicast-pkts"), 10, T0);
+        collector.update(counterPath("1", "in-multicast-pkts"), 5, T0);
+        collector.update(counterPath("1", "out-octets"), 1500, T0);
+        collector.update(counterPath("2", "in-octets"), 64, T0);
+        collector.update(counterPath("1", "in-unicast-pkts"), 12,
+                         T0 + TimeUnit.MILLISECONDS.toNanos(2500));
+        assertTrue(collector.takeChanged());
+        assertFalse(collector.takeChanged());
+
+        final Port port1 = port(1);
+        final Port port3 = port(3);
+        final Collection<PortStatistics> stats = collector.portStatistics(
+                DEVICE_ID, ImmutableList.of(port1, port3));
+        assertEquals(1, stats.size());
+        final PortStatistics stat = stats.iterator().next();
+        assertEquals(port1.number(), stat.portNumber());
+        assertEquals(17, stat.packetsReceived());
+        assertEquals(1500, stat.bytesSent());
+        assertEquals(0, stat.bytesReceived());
+        assertEquals(2, stat.durationSec());
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(500), stat.durationNano());
+    }
+
+    /**
+     * Tests that the duration is computed from the last change of the port.
+     */
+    @Test
+    public void testDurationFromLastChange() {
+        collector.update(counterPath("1", "in-octets"), 1, T0);
+        final Port port = new DefaultPort(null, PortNumber.portNumber(1, "1"), true,
+                                          DefaultAnnotations.builder()
+                                                  .set("last-changed", String.valueOf(
+                                                          T0 - TimeUnit.SECONDS.toNanos(30)))
+                                                  .build());
+        final PortStatistics stat = collector.portStatistics(
+                DEVICE_ID, ImmutableList.of(port)).iterator().next();
+        assertEquals(30, stat.durationSec());
+    }
+
+    private static Port port(long number) {
+        return new DefaultPort(null, PortNumber.portNumber(number, String.valueOf(number)), true);
+    }
+
+    private static Path counterPath(String ifName, String counter) {
+        return Path.newBuilder()
+                .addElem(PathElem.newBuilder().setName("interfaces").build())
+                .addElem(PathElem.newBuilder().setName("interface").putKey("name", ifName).build())
+                .addElem(PathElem.newBuilder().setName("state").build())
+                .addElem(PathElem.newBuilder().setName("counters").build())
+                .addElem(PathElem.newBuilder().setName(counter).build())
+                .build();
+    }
+}
@@ -179,6 +179,7 @@ ONOS_APPS = [
     "//apps/test/distributed-primitives:onos-apps-test-distributed-primitives-oar",
     "//apps/test/election:onos-apps-test-election-oar",
     "//apps/test/flow-perf:onos-apps-test-flow-perf-oar",
+    "//apps/test/group-perf:onos-apps-test-group-perf-oar",
     "//apps/test/intent-perf:onos-apps-test-intent-perf-oar",
     "//apps/test/route-scale:onos-apps-test-route-scale-oar",
     "//apps/test/loadtest:onos-apps-test-loadtest-oar",
@@ -125,6 +125,23 @@ public final class ImmutableByteSequence {
         return new ImmutableByteSequence(ByteBuffer.wrap(bytes));
     }
 
+    /**
+     * Creates a new immutable byte sequence backed by the remaining bytes of
+     * the given buffer, without copying them. Bytes are taken as they are,
+     * regardless of the buffer order.
+     * <p>
+     * The content of the buffer must never change afterwards, e.g. because
+     * the buffer is a read-only view of immutable data such as a protobuf
+     * ByteString. Use {@link #copyFrom(ByteBuffer)} otherwise.
+     *
+     * @param buffer a byte buffer
+     * @return a new immutable byte sequence
+     */
+    public static ImmutableByteSequence wrap(ByteBuffer buffer) {
+        checkArgument(buffer != null, "Cannot wrap a null byte buffer");
+        return new ImmutableByteSequence(buffer.slice());
+    }
+
     /**
      * Creates a new byte sequence of 8 bytes containing the given long value.
      *
@@ -403,7 +420,7 @@ public final class ImmutableByteSequence {
     @Override
     public String toString() {
         final String hexValue = HexString
-                .toHexString(value.array(), "")
+                .toHexString(asArray(), "")
                 // Remove leading zeros, but leave one if string is all zeros.
                 .replaceFirst("^0+(?!$)", "");
         return "0x" + hexValue;
@@ -305,13 +305,19 @@ public final class KryoNamespace implements KryoFactory, KryoPool {
      * @return serialized bytes
      */
     public byte[] serialize(final Object obj, final int bufferSize) {
+        boolean profiling = KryoProfiler.isEnabled();
+        long start = profiling ? System.nanoTime() : 0;
         ByteArrayOutputStream outputStream = new ByteArrayOutputStream(bufferSize);
         Output out = new Output(outputStream);
-        return pool.run(kryo -> {
+        byte[] bytes = pool.run(kryo -> {
             kryo.writeClassAndObject(out, obj);
             out.flush();
             return outputStream.toByteArray();
         });
+        if (profiling) {
+            KryoProfiler.serialized(obj, bytes.length, System.nanoTime() - start);
+        }
+        return bytes;
     }
 
     /**
@@ -321,6 +327,8 @@ public final class KryoNamespace implements KryoFactory, KryoPool {
      * @param buffer to write to
      */
     public void serialize(final Object obj, final ByteBuffer buffer) {
+        boolean profiling = KryoProfiler.isEnabled();
+        long start = profiling ? System.nanoTime() : 0;
         ByteBufferOutput out = new ByteBufferOutput(buffer);
         Kryo kryo = borrow();
         try {
@@ -329,6 +337,9 @@ public final class KryoNamespace implements KryoFactory, KryoPool {
         } finally {
             release(kryo);
         }
+        if (profiling) {
+            KryoProfiler.serialized(obj, out.total(), System.nanoTime() - start);
+        }
     }
 
     /**
@@ -349,6 +360,8 @@ public final class KryoNamespace implements KryoFactory, KryoPool {
      * @param bufferSize size of the buffer in front of the stream
      */
     public void serialize(final Object obj, final OutputStream stream, final int bufferSize) {
+        boolean profiling = KryoProfiler.isEnabled();
+        long start = profiling ? System.nanoTime() : 0;
         ByteBufferOutput out = new ByteBufferOutput(stream, bufferSize);
         Kryo kryo = borrow();
         try {
@@ -357,6 +370,9 @@ public final class KryoNamespace implements KryoFactory, KryoPool {
         } finally {
             release(kryo);
         }
+        if (profiling) {
+            KryoProfiler.serialized(obj, out.total(), System.nanoTime() - start);
+        }
     }
 
     /**
@@ -367,11 +383,16 @@ public final class KryoNamespace implements KryoFactory, KryoPool {
      * @return deserialized Object
      */
     public <T> T deserialize(final byte[] bytes) {
+        boolean profiling = KryoProfiler.isEnabled();
+        long start = profiling ? System.nanoTime() : 0;
         Input in = new Input(new ByteArrayInputStream(bytes));
         Kryo kryo = borrow();
         try {
             @SuppressWarnings("unchecked")
             T obj = (T) kryo.readClassAndObject(in);
+            if (profiling) {
+                KryoProfiler.deserialized(obj, bytes.length, System.nanoTime() - start);
+            }
             return obj;
         } finally {
             release(kryo);
@@ -386,11 +407,16 @@ public final class KryoNamespace implements KryoFactory, KryoPool {
      * @return deserialized Object
      */
     public <T> T deserialize(final ByteBuffer buffer) {
+        boolean profiling = KryoProfiler.isEnabled();
+        long start = profiling ? System.nanoTime() : 0;
         ByteBufferInput in = new ByteBufferInput(buffer);
         Kryo kryo = borrow();
         try {
             @SuppressWarnings("unchecked")
             T obj = (T) kryo.readClassAndObject(in);
+            if (profiling) {
+                KryoProfiler.deserialized(obj, in.total(), System.nanoTime() - start);
+            }
             return obj;
         } finally {
             release(kryo);
@@ -417,17 +443,56 @@ public final class KryoNamespace implements KryoFactory, KryoPool {
      * @param bufferSize size of the buffer in front of the stream
      */
     public <T> T deserialize(final InputStream stream, final int bufferSize) {
+        boolean profiling = KryoProfiler.isEnabled();
+        long start = profiling ? System.nanoTime() : 0;
         ByteBufferInput in = new ByteBufferInput(stream, bufferSize);
         Kryo kryo = borrow();
         try {
             @SuppressWarnings("unchecked")
             T obj = (T) kryo.readClassAndObject(in);
+            if (profiling) {
+                KryoProfiler.deserialized(obj, in.total(), System.nanoTime() - start);
+            }
             return obj;
         } finally {
             release(kryo);
         }
     }
 
+    /**
+     * Warms up the given number of pooled Kryo instances by round-tripping
+     * the given sample objects through each of them. This initializes the
+     * serializers of the sample types, and of the types they reference,
+     * ahead of the first real use and leaves the instances in the pool.
+     * Samples that cannot be serialized are skipped.
+     *
+     * @param samples   sample objects of the hot types
+     * @param instances number of instances to warm up
+     * @return this
+     */
+    public KryoNamespace warmUp(Iterable<?> samples, int instances) {
+        List<Kryo> kryos = new ArrayList<>(instances);
+        try {
+            for (int i = 0; i < instances; ++i) {
+                kryos.add(borrow());
+            }
+            for (Kryo kryo : kryos) {
+                for (Object sample : samples) {
+                    try {
+                        Output out = new Output(DEFAULT_BUFFER_SIZE, MAX_BUFFER_SIZE);
+                        kryo.writeClassAndObject(out, sample);
+                        kryo.readClassAndObject(new Input(out.toBytes()));
+                    } catch (RuntimeException e) {
+                        log.debug("{}: Failed to warm up {}", friendlyName(), sample.getClass(), e);
+                    }
+                }
+            }
+        } finally {
+            kryos.forEach(this::release);
+        }
+        return this;
+    }
+
     private String friendlyName() {
         return friendlyName;
     }
@@ -0,0 +1,213 @@
+/*
+ * Copyright 2020-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onlab.util;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Maps;
+
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+import static com.google.common.base.MoreObjects.toStringHelper;
+
+/**
+ * Process-wide profiler of the serializations performed through
+ * {@link KryoNamespace}.
+ * <p>
+ * When enabled, every top-level serialization and deserialization is
+ * accounted to the class of the object, with the number of invocations, the
+ * number of bytes and the time spent. Objects nested in the top-level ones
+ * are not accounted separately. Profiling is disabled by default; it can be
+ * enabled at startup through the {@value #PROFILING_PROPERTY} system property
+ * or at runtime through {@link #setEnabled(boolean)}.
+ */
+public final class KryoProfiler {
+
+    /**
+     * System property enabling the profiling at startup.
+     */
+    public static final String PROFILING_PROPERTY = "onos.kryo.profiling";
+
+    private static volatile boolean enabled = Boolean.getBoolean(PROFILING_PROPERTY);
+
+    private static final Map<Class<?>, ClassProfile> PROFILES = Maps.newConcurrentMap();
+
+    private KryoProfiler() {
+    }
+
+    /**
+     * Returns whether the profiling is enabled.
+     *
+     * @return true if enabled
+     */
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Enables or disables the profiling. The statistics collected so far are
+     * kept.
+     *
+     * @param enabled true to enable the profiling
+     */
+    public static void setEnabled(boolean enabled) {
+        KryoProfiler.enabled = enabled;
+    }
+
+    /**
+     * Discards the statistics collected so far.
+     */
+    public static void reset() {
+        PROFILES.clear();
+    }
+
+    /**
+     * Returns a snapshot of the statistics collected so far.
+     *
+     * @return statistics by class of the top-level objects
+     */
+    public static Map<Class<?>, Stats> stats() {
+        ImmutableMap.Builder<Class<?>, Stats> stats = ImmutableMap.builder();
+        PROFILES.forEach((type, profile) -> stats.put(type, profile.snapshot()));
+        return stats.build();
+    }
+
+    static void serialized(Object object, long bytes, long nanos) {
+        profile(object).serializations.record(bytes, nanos);
+    }
+
+    static void deserialized(Object object, long bytes, long nanos) {
+        profile(object).deserializations.record(bytes, nanos);
+    }
+
+    private static ClassProfile profile(Object object) {
+        Class<?> type = object != null ? object.getClass() : Void.class;
+        ClassProfile profile = PROFILES.get(type);
+        return profile != null ? profile : PROFILES.computeIfAbsent(type, t -> new ClassProfile());
+    }
+
+    // Counters of a class; updated concurrently by all the pooled instances
+    private static final class ClassProfile {
+        private final Counters serializations = new Counters();
+        private final Counters deserializations = new Counters();
+
+        Stats snapshot() {
+            return new Stats(serializations.count.sum(), serializations.bytes.sum(), serializations.nanos.sum(),
+                             deserializations.count.sum(), deserializations.bytes.sum(),
+                             deserializations.nanos.sum());
+        }
+    }
+
+    private static final class Counters {
+        private final LongAdder count = new LongAdder();
+        private final LongAdder bytes = new LongAdder();
+        private final LongAdder nanos = new LongAdder();
+
+        void record(long size, long time) {
+            count.increment();
+            bytes.add(size);
+            nanos.add(time);
+        }
+    }
+
+    /**
+     * Serialization statistics of a class.
+     */
+    public static final class Stats {
+        private final long serializations;
+        private final long serializedBytes;
+        private final long serializeNanos;
+        private final long deserializations;
+        private final long deserializedBytes;
+        private final long deserializeNanos;
+
+        private Stats(long serializations, long serializedBytes, long serializeNanos,
+                      long deserializations, long deserializedBytes, long deserializeNanos) {
+            this.serializations = serializations;
+            this.serializedBytes = serializedBytes;
+            this.serializeNanos = serializeNanos;
+            this.deserializations = deserializations;
+            this.deserializedBytes = deserializedBytes;
+            this.deserializeNanos = deserializeNanos;
+        }
+
+        /**
+         * Returns the number of serializations.
+         *
+         * @return number of serializations
+         */
+        public long serializations() {
+            return serializations;
+        }
+
+        /**
+         * Returns the number of bytes produced by the serializations.
+         *
+         * @return serialized bytes
+         */
+        public long serializedBytes() {
+            return serializedBytes;
+        }
+
+        /**
+         * Returns the time spent in the serializations.
+         *
+         * @return serialization time in nanoseconds
+         */
+        public long serializeNanos() {
+            return serializeNanos;
+        }
+
+        /**
+         * Returns the number of deserializations.
+         *
+         * @return number of deserializations
+         */
+        public long deserializations() {
+            return deserializations;
+        }
+
+        /**
+         * Returns the number of bytes consumed by the deserializations.
+         *
+         * @return deserialized bytes
+         */
+        public long deserializedBytes() {
+            return deserializedBytes;
+        }
+
+        /**
+         * Returns the time spent in the deserializations.
+         *
+         * @return deserialization time in nanoseconds
+         */
+        public long deserializeNanos() {
+            return deserializeNanos;
+        }
+
+        @Override
+        public String toString() {
+            return toStringHelper(this)
+                    .add("serializations", serializations)
+                    .add("serializedBytes", serializedBytes)
+                    .add("serializeNanos", serializeNanos)
+                    .add("deserializations", deserializations)
+                    .add("deserializedBytes", deserializedBytes)
+                    .add("deserializeNanos", deserializeNanos)
+                    .toString();
+        }
+    }
+}
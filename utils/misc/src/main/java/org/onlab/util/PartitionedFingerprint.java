@@ -0,0 +1,132 @@
+/*
+ * Copyright 2020-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onlab.util;
+
+import java.util.BitSet;
+
+import static com.google.common.base.MoreObjects.toStringHelper;
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * Order-independent fingerprint of the content of a table, split in a fixed
+ * number of partitions.
+ * <p>
+ * Each entry is assigned to a partition by its key and contributes a mix of
+ * its key and content hashes to the digest of the partition. Two tables whose
+ * fingerprints match in a partition hold, with high probability, the same
+ * entries in that partition; only the partitions whose fingerprints differ
+ * need to be compared entry by entry.
+ * <p>
+ * Fingerprints are not thread-safe; they are meant to be built and compared
+ * by a single thread.
+ */
+public final class PartitionedFingerprint {
+
+    private final long[] digests;
+    private final int[] counts;
+
+    /**
+     * Creates a new empty fingerprint.
+     *
+     * @param partitions number of partitions
+     */
+    public PartitionedFingerprint(int partitions) {
+        checkArgument(partitions > 0, "Number of partitions must be positive");
+        this.digests = new long[partitions];
+        this.counts = new int[partitions];
+    }
+
+    /**
+     * Returns the number of partitions.
+     *
+     * @return number of partitions
+     */
+    public int partitions() {
+        return digests.length;
+    }
+
+    /**
+     * Returns the partition of the given key.
+     *
+     * @param key entry key
+     * @return partition index
+     */
+    public int partitionOf(Object key) {
+        return partitionOf(key, digests.length);
+    }
+
+    /**
+     * Returns the partition of the given key in a fingerprint with the given
+     * number of partitions.
+     *
+     * @param key        entry key
+     * @param partitions number of partitions
+     * @return partition index
+     */
+    public static int partitionOf(Object key, int partitions) {
+        return Math.floorMod(key.hashCode(), partitions);
+    }
+
+    /**
+     * Adds an entry to the fingerprint.
+     *
+     * @param key         entry key; entries are expected to have distinct keys
+     * @param contentHash hash of the entry content
+     */
+    public void add(Object key, int contentHash) {
+        int partition = partitionOf(key);
+        digests[partition] += mix(((long) key.hashCode() << 32) | (contentHash & 0xffffffffL));
+        counts[partition]++;
+    }
+
+    /**
+     * Returns the partitions in which this fingerprint differs from the given one.
+     *
+     * @param other fingerprint to compare to
+     * @return set of differing partitions; empty if the fingerprints match
+     */
+    public BitSet mismatches(PartitionedFingerprint other) {
+        checkArgument(other.partitions() == partitions(), "Number of partitions must be the same");
+        BitSet mismatches = new BitSet(digests.length);
+        for (int i = 0; i < digests.length; i++) {
+            if (digests[i] != other.digests[i] || counts[i] != other.counts[i]) {
+                mismatches.set(i);
+            }
+        }
+        return mismatches;
+    }
+
+    // Finalizer of the SplitMix64 generator; spreads the bits so that the sum
+    // of the contributions is unlikely to collide
+    private static long mix(long value) {
+        long z = value + 0x9e3779b97f4a7c15L;
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+
+    @Override
+    public String toString() {
+        int size = 0;
+        for (int count : counts) {
+            size += count;
+        }
+        return toStringHelper(this)
+                .add("partitions", digests.length)
+                .add("size", size)
+                .toString();
+    }
+}
@@ -80,6 +80,30 @@ public class ImmutableByteSequenceTest {
         assertThat(errStr, bsBuffer.asArray()[63], is(equalTo(byteValue)));
     }
 
+    @Test
+    public void testWrap() {
+        byte[] arrayValue = new byte[64];
+        for (int i = 0; i < arrayValue.length; i++) {
+            arrayValue[i] = (byte) i;
+        }
+        // View of bytes 16..47 of the array, as a protobuf substring would be.
+        ByteBuffer view = ByteBuffer.wrap(arrayValue, 16, 32).asReadOnlyBuffer();
+
+        ImmutableByteSequence bsWrapped = ImmutableByteSequence.wrap(view);
+        ImmutableByteSequence bsCopied = ImmutableByteSequence.copyFrom(arrayValue, 16, 47);
+
+        assertThat("wrapped byte sequence must have the size of the buffer remaining bytes",
+                   bsWrapped.size(), is(equalTo(32)));
+        assertThat("wrapped byte sequence must be equal to the copied one",
+                   bsWrapped, is(equalTo(bsCopied)));
+        assertThat("incorrect string representation",
+                   bsWrapped.toString(), is(equalTo(bsCopied.toString())));
+        assertThat("incorrect msb index",
+                   bsWrapped.msbIndex(), is(equalTo(bsCopied.msbIndex())));
+        assertThat("wrapping must not change the buffer position",
+                   view.position(), is(equalTo(16)));
+    }
+
     @Test
     public void testEndianness() throws Exception {
 
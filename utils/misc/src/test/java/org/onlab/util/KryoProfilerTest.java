@@ -0,0 +1,72 @@
+/*
+ * Copyright 2020-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onlab.util;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests of the Kryo serialization profiler.
+ */
+public class KryoProfilerTest {
+
+    private final KryoNamespace namespace = KryoNamespace.newBuilder().build("test");
+
+    @Before
+    public void setUp() {
+        KryoProfiler.reset();
+        KryoProfiler.setEnabled(true);
+    }
+
+    @After
+    public void tearDown() {
+        KryoProfiler.setEnabled(false);
+        KryoProfiler.reset();
+    }
+
+    @Test
+    public void accounting() {
+        byte[] bytes = namespace.serialize("hello");
+        assertEquals("hello", namespace.deserialize(bytes));
+        namespace.serialize("world");
+
+        KryoProfiler.Stats stats = KryoProfiler.stats().get(String.class);
+        assertEquals("incorrect serializations", 2, stats.serializations());
+        assertEquals("incorrect deserializations", 1, stats.deserializations());
+        assertEquals("incorrect deserialized bytes", bytes.length, stats.deserializedBytes());
+        assertTrue("incorrect serialized bytes", stats.serializedBytes() >= 2L * bytes.length);
+    }
+
+    @Test
+    public void disabled() {
+        KryoProfiler.setEnabled(false);
+        namespace.deserialize(namespace.serialize("hello"));
+        assertNull("no statistics expected", KryoProfiler.stats().get(String.class));
+    }
+
+    @Test
+    public void warmUp() {
+        namespace.warmUp(Arrays.asList("hello", 42L), 2);
+        assertTrue("warm up should not be accounted", KryoProfiler.stats().isEmpty());
+    }
+}
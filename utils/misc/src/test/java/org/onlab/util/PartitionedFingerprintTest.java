@@ -0,0 +1,73 @@
+/*
+ * Copyright 2020-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onlab.util;
+
+import org.junit.Test;
+
+import java.util.BitSet;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests of the partitioned fingerprint utility.
+ */
+public class PartitionedFingerprintTest {
+
+    @Test
+    public void orderIndependent() {
+        PartitionedFingerprint a = new PartitionedFingerprint(4);
+        PartitionedFingerprint b = new PartitionedFingerprint(4);
+        for (int i = 0; i < 100; i++) {
+            a.add(i, i * 7);
+            b.add(99 - i, (99 - i) * 7);
+        }
+        assertTrue("fingerprints should match", a.mismatches(b).isEmpty());
+    }
+
+    @Test
+    public void contentChange() {
+        PartitionedFingerprint a = new PartitionedFingerprint(4);
+        PartitionedFingerprint b = new PartitionedFingerprint(4);
+        for (int i = 0; i < 100; i++) {
+            a.add(i, i);
+            b.add(i, i == 42 ? -1 : i);
+        }
+        BitSet mismatches = a.mismatches(b);
+        assertEquals("incorrect number of mismatches", 1, mismatches.cardinality());
+        assertTrue("incorrect mismatching partition", mismatches.get(a.partitionOf(42)));
+    }
+
+    @Test
+    public void missingEntry() {
+        PartitionedFingerprint a = new PartitionedFingerprint(8);
+        PartitionedFingerprint b = new PartitionedFingerprint(8);
+        for (int i = 0; i < 100; i++) {
+            a.add(i, i);
+            if (i != 13) {
+                b.add(i, i);
+            }
+        }
+        BitSet mismatches = a.mismatches(b);
+        assertEquals("incorrect number of mismatches", 1, mismatches.cardinality());
+        assertTrue("incorrect mismatching partition", mismatches.get(b.partitionOf(13)));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void differentPartitions() {
+        new PartitionedFingerprint(4).mismatches(new PartitionedFingerprint(8));
+    }
+}